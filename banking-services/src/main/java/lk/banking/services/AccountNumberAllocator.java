@@ -0,0 +1,82 @@
+package lk.banking.services;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.SessionContext;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lk.banking.core.entity.AccountNumberSequence;
+import lk.banking.core.util.AccountNumberGenerator;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Hands out collision-free account numbers. Each server reserves a block of sequence values from
+ * account_number_sequences in its own short transaction and serves the block from memory, so account
+ * creation needs no uniqueness probe and concurrent servers never share a value. Values of a block
+ * that is not used up before shutdown are simply skipped.
+ *
+ * Block size: system property banking.accountNumber.blockSize (default 100).
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AccountNumberAllocator {
+
+    private static final Logger LOGGER = Logger.getLogger(AccountNumberAllocator.class.getName());
+
+    static final String SEQUENCE_NAME = "ACCOUNT";
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    private final int blockSize = Integer.getInteger("banking.accountNumber.blockSize", 100);
+    // Held while a block is refilled, which runs a database transaction of its own
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long limit;
+
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public String nextAccountNumber() {
+        long sequence;
+        lock.lock();
+        try {
+            if (next >= limit) {
+                next = sessionContext.getBusinessObject(AccountNumberAllocator.class).reserveBlock(blockSize);
+                limit = next + blockSize;
+            }
+            sequence = next++;
+        } finally {
+            lock.unlock();
+        }
+        return AccountNumberGenerator.fromSequence(sequence);
+    }
+
+    /**
+     * Reserves {@code size} consecutive sequence values under a row lock and returns the first.
+     * Runs in its own transaction so the lock is held only for this update.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public long reserveBlock(int size) {
+        AccountNumberSequence sequence = em.find(AccountNumberSequence.class, SEQUENCE_NAME, LockModeType.PESSIMISTIC_WRITE);
+        if (sequence == null) {
+            sequence = new AccountNumberSequence(SEQUENCE_NAME, 0L);
+            em.persist(sequence);
+        }
+        long start = sequence.getNextValue();
+        if (start + size > AccountNumberGenerator.SEQUENCE_LIMIT) {
+            throw new IllegalStateException("Account number sequence exhausted at " + start + ".");
+        }
+        sequence.setNextValue(start + size);
+        LOGGER.info("AccountNumberAllocator: Reserved account number block [" + start + ", " + (start + size) + ").");
+        return start;
+    }
+}
@@ -16,7 +16,6 @@ public interface AccountService {
      * @param accountDto DTO containing account details and customer ID.
      * @return The newly created Account entity.
      * @throws lk.banking.core.exception.CustomerNotFoundException if the customer is not found.
-     * @throws lk.banking.core.exception.DuplicateAccountException if the generated account number conflicts.
      * @throws lk.banking.core.exception.ValidationException if initial balance is not positive.
      */
     Account createAccount(AccountDto accountDto);
@@ -37,6 +36,13 @@ public interface AccountService {
      */
     Account getAccountByNumber(String accountNumber);
 
+    /**
+     * Whether {@code accountNumber} is a 12-digit number issued before check digits were introduced and
+     * still belongs to an account. Legacy numbers carry no check digit, so this lookup is what tells them
+     * apart from a 13-digit number with a digit missing.
+     */
+    boolean isLegacyAccountNumber(String accountNumber);
+
     /**
      * Retrieves all accounts belonging to a specific customer.
      * @param customerId The ID of the customer.
@@ -1,24 +1,28 @@
 package lk.banking.services;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.dto.AccountDto;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Customer;
-import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.User;
 import lk.banking.core.entity.enums.AccountType; // For changeAccountType
-import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.LedgerAccount;
 import lk.banking.core.entity.enums.TransactionType;
 import lk.banking.core.exception.AccountNotFoundException;
 import lk.banking.core.exception.CustomerNotFoundException;
-import lk.banking.core.exception.DuplicateAccountException;
 import lk.banking.core.exception.InvalidTransactionException; // For deleteAccount validation
 import lk.banking.core.exception.UserNotFoundException;
 import lk.banking.core.exception.ValidationException; // For create/update/changeType validation
 import lk.banking.core.util.AccountNumberGenerator;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
+import lk.banking.services.shards.BalanceShardService;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -29,6 +33,7 @@ import java.util.List;
 import java.util.logging.Logger;
 
 @Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class AccountServiceImpl implements AccountService {
 
     private static final Logger LOGGER = Logger.getLogger(AccountServiceImpl.class.getName());
@@ -36,6 +41,15 @@ public class AccountServiceImpl implements AccountService {
     @PersistenceContext(unitName = "bankingPU")
     private EntityManager em;
 
+    @EJB
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @EJB
+    private JournalService journalService;
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
     private static final MathContext MATH_CONTEXT = new MathContext(10, RoundingMode.HALF_UP); // Same as timer
     private static final BigDecimal DAILY_INTEREST_RATE = BigDecimal.valueOf(0.00002); // Same as timer
 
@@ -50,7 +64,7 @@ public class AccountServiceImpl implements AccountService {
         if (!account.getIsActive()) {
             throw new InvalidTransactionException("Cannot calculate interest for inactive account " + account.getAccountNumber() + ".");
         }
-        if (account.getBalance().compareTo(BigDecimal.ZERO) <= 0) {
+        if (account.getTotalBalance().compareTo(BigDecimal.ZERO) <= 0) {
             return BigDecimal.ZERO; // No interest on non-positive balance
         }
         if (toDateTime == null) {
@@ -74,7 +88,7 @@ public class AccountServiceImpl implements AccountService {
 
         // Accrued interest calculation (simple or compounded, consistent with timer)
         BigDecimal accruedInterest = BigDecimal.ZERO;
-        BigDecimal tempBalance = account.getBalance(); // Start with current balance for calculation
+        BigDecimal tempBalance = account.getTotalBalance(); // Start with current balance, shards included for calculation
 
         for (int i = 0; i < days; i++) {
             BigDecimal dailyInterest = tempBalance.multiply(DAILY_INTEREST_RATE, MATH_CONTEXT);
@@ -102,20 +116,11 @@ public class AccountServiceImpl implements AccountService {
         }
 
         BigDecimal oldBalance = account.getBalance();
-        account.setBalance(oldBalance.add(interestAmount));
+        journalService.post(JournalPosting.of(TransactionType.DEPOSIT, "Customer applied accrued interest")
+                .account(account, interestAmount, "Customer applied accrued interest")
+                .ledger(LedgerAccount.INTEREST_EXPENSE, interestAmount.negate()));
         account.setLastInterestAppliedDate(LocalDateTime.now()); // Update last applied date after application
 
-        // Create a transaction record for this application
-        Transaction interestTransaction = new Transaction(
-                account,
-                interestAmount,
-                TransactionType.DEPOSIT, // Use DEPOSIT type for interest
-                TransactionStatus.COMPLETED,
-                LocalDateTime.now(),
-                "Customer applied accrued interest"
-        );
-        em.persist(interestTransaction);
-
         LOGGER.info("AccountServiceImpl: Applied interest " + interestAmount + " to account " + account.getAccountNumber() + ". Balance changed from " + oldBalance + " to " + account.getBalance());
         return account; // Return updated account
     }
@@ -136,33 +141,7 @@ public class AccountServiceImpl implements AccountService {
             throw new ValidationException("Account type is required.");
         }
 
-
-        String newAccountNumber;
-        boolean unique = false;
-        int attempts = 0;
-        final int MAX_ATTEMPTS = 5;
-
-        while (!unique && attempts < MAX_ATTEMPTS) {
-            newAccountNumber = AccountNumberGenerator.generateAccountNumber();
-            try {
-                em.createQuery(
-                                "SELECT a FROM Account a WHERE a.accountNumber = :num", Account.class)
-                        .setParameter("num", newAccountNumber)
-                        .getSingleResult();
-                attempts++;
-            } catch (NoResultException e) {
-                unique = true;
-                accountDto.setAccountNumber(newAccountNumber);
-            } catch (jakarta.persistence.NonUniqueResultException e) {
-                LOGGER.severe("Database integrity error: Duplicate account number despite unique constraint: " + newAccountNumber);
-                throw new DuplicateAccountException("Failed to generate unique account number due to existing duplicates.");
-            }
-        }
-
-        if (!unique) {
-            LOGGER.severe("Failed to generate a unique account number after " + MAX_ATTEMPTS + " attempts.");
-            throw new DuplicateAccountException("Failed to generate a unique account number after " + MAX_ATTEMPTS + " attempts.");
-        }
+        accountDto.setAccountNumber(accountNumberAllocator.nextAccountNumber());
 
         Account account = new Account(
                 accountDto.getAccountNumber(),
@@ -180,9 +159,9 @@ public class AccountServiceImpl implements AccountService {
         LOGGER.fine("AccountServiceImpl: Fetching account by ID: " + id);
         try {
             // Eagerly fetch customer to prevent LazyInitializationException in web layer
-            return em.createQuery("SELECT a FROM Account a JOIN FETCH a.customer WHERE a.id = :id", Account.class)
+            return withShards(em.createQuery("SELECT a FROM Account a JOIN FETCH a.customer WHERE a.id = :id", Account.class)
                     .setParameter("id", id)
-                    .getSingleResult();
+                    .getSingleResult());
         } catch (NoResultException e) {
             LOGGER.warning("AccountServiceImpl: Account with ID " + id + " not found.");
             throw new AccountNotFoundException("Account with ID " + id + " not found.");
@@ -194,31 +173,41 @@ public class AccountServiceImpl implements AccountService {
         LOGGER.fine("AccountServiceImpl: Fetching account by number: " + accountNumber);
         try {
             // Eagerly fetch customer if needed by calling context
-            return em.createQuery(
+            return withShards(em.createQuery(
                             "SELECT a FROM Account a WHERE a.accountNumber = :num", Account.class)
                     .setParameter("num", accountNumber)
-                    .getSingleResult();
+                    .getSingleResult());
         } catch (NoResultException e) {
             LOGGER.warning("AccountServiceImpl: Account with number " + accountNumber + " not found.");
             throw new AccountNotFoundException("Account with number " + accountNumber + " not found.");
         }
     }
 
+    @Override
+    public boolean isLegacyAccountNumber(String accountNumber) {
+        if (!AccountNumberGenerator.isLegacyFormat(accountNumber)) {
+            return false;
+        }
+        return em.createQuery("SELECT COUNT(a) FROM Account a WHERE a.accountNumber = :num", Long.class)
+                .setParameter("num", accountNumber)
+                .getSingleResult() > 0;
+    }
+
     @Override
     public List<Account> getAccountsByCustomer(Long customerId) {
         LOGGER.fine("AccountServiceImpl: Fetching accounts for customer ID: " + customerId);
         // Eagerly fetch customer for each account if needed
-        return em.createQuery(
+        return withShards(em.createQuery(
                         "SELECT a FROM Account a JOIN FETCH a.customer WHERE a.customer.id = :cid", Account.class)
                 .setParameter("cid", customerId)
-                .getResultList();
+                .getResultList());
     }
 
     @Override
     public List<Account> getAllAccounts() {
         LOGGER.fine("AccountServiceImpl: Fetching all accounts.");
         // Eagerly fetch customer for each account if needed
-        return em.createQuery("SELECT a FROM Account a JOIN FETCH a.customer", Account.class).getResultList();
+        return withShards(em.createQuery("SELECT a FROM Account a JOIN FETCH a.customer", Account.class).getResultList());
     }
 
     @Override
@@ -313,6 +302,11 @@ public class AccountServiceImpl implements AccountService {
             throw new AccountNotFoundException("Account with ID " + id + " not found for deletion.");
         }
 
+        if (account.getBalanceShards() > 0) {
+            // Folds the shards into the balance checked below and removes their rows
+            balanceShardService.disable(id);
+        }
+
         // IMPORTANT BUSINESS RULE: Prevent deletion if account has non-zero balance
         if (account.getBalance().compareTo(BigDecimal.ZERO) != 0) {
             LOGGER.warning("AccountServiceImpl: Attempt to delete account " + account.getAccountNumber() + " with non-zero balance.");
@@ -342,13 +336,24 @@ public class AccountServiceImpl implements AccountService {
                     .setParameter("email", user.getEmail())
                     .getSingleResult();
             // Eagerly fetch customer for accounts if needed by calling context
-            return em.createQuery(
+            return withShards(em.createQuery(
                             "SELECT a FROM Account a JOIN FETCH a.customer WHERE a.customer.id = :customerId", Account.class)
                     .setParameter("customerId", customer.getId())
-                    .getResultList();
+                    .getResultList());
         } catch (NoResultException e) {
             LOGGER.info("AccountServiceImpl: No customer found for user email: " + user.getEmail() + ". Returning empty account list.");
             return List.of();
         }
     }
-}
\ No newline at end of file
+
+    /** Loads the shard totals of sharded accounts so that getTotalBalance() reports what the customer has. */
+    private Account withShards(Account account) {
+        balanceShardService.loadBalances(List.of(account));
+        return account;
+    }
+
+    private List<Account> withShards(List<Account> accounts) {
+        balanceShardService.loadBalances(accounts);
+        return accounts;
+    }
+}
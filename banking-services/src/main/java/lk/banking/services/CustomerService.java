@@ -3,6 +3,7 @@ package lk.banking.services;
 import jakarta.ejb.Local;
 import lk.banking.core.dto.CustomerDto;
 import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.enums.DigestSchedule;
 
 import java.util.List;
 
@@ -12,6 +13,7 @@ public interface CustomerService {
     Customer getCustomerById(Long id);
     List<Customer> getAllCustomers();
     Customer updateCustomer(CustomerDto customerDto);
+    Customer updateNotificationDigest(Long customerId, DigestSchedule schedule);
     void deleteCustomer(Long id);
     Customer getCustomerByEmail(String email);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.NoResultException; // Import for specific query results
 import lk.banking.core.dto.CustomerDto;
 import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.enums.DigestSchedule;
 import lk.banking.core.exception.CustomerNotFoundException; // Corrected import
 import lk.banking.core.exception.ResourceConflictException; // Assuming you'd use this for duplicates
 import lk.banking.services.interceptor.AuditInterceptor;
@@ -75,6 +76,17 @@ public class CustomerServiceImpl implements CustomerService {
         return customer; // The managed entity 'customer' will automatically update upon transaction commit
     }
 
+    @Override
+    public Customer updateNotificationDigest(Long customerId, DigestSchedule schedule) {
+        Customer customer = em.find(Customer.class, customerId);
+        if (customer == null) {
+            throw new CustomerNotFoundException("Customer with ID " + customerId + " not found for update.");
+        }
+        // Applies to notifications written from now on; the outbox rows already queued keep their schedule
+        customer.setNotificationDigest(schedule != null ? schedule : DigestSchedule.NONE);
+        return customer;
+    }
+
     @Override
     public void deleteCustomer(Long id) {
         Customer customer = em.find(Customer.class, id); // Find to ensure it exists and is managed
@@ -0,0 +1,17 @@
+package lk.banking.services;
+
+import jakarta.ejb.Local;
+import lk.banking.core.dto.DashboardView;
+
+@Local
+public interface DashboardService {
+
+    /**
+     * Accounts, balances, recent transactions and pending scheduled transfers of the customer with this
+     * email, read with at most two queries. The view may be served from a short-lived per-customer cache
+     * that is dropped as soon as one of the customer's accounts changes.
+     *
+     * @throws lk.banking.core.exception.CustomerNotFoundException if no customer has this email.
+     */
+    DashboardView getCustomerDashboard(String email);
+}
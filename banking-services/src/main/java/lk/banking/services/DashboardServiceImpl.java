@@ -0,0 +1,258 @@
+package lk.banking.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.interceptor.Interceptors;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lk.banking.core.dto.AccountDto;
+import lk.banking.core.dto.DashboardView;
+import lk.banking.core.dto.TransactionDto;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.LedgerChangeListener;
+import lk.banking.core.entity.ScheduledTransfer;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.exception.CustomerNotFoundException;
+import lk.banking.core.mapper.AccountMapper;
+import lk.banking.core.mapper.CustomerMapper;
+import lk.banking.core.mapper.TransactionMapper;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+import lk.banking.services.shards.BalanceShardService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the customer dashboard from two queries: the customer with its accounts and their pending
+ * scheduled transfers, then the most recent transactions of those accounts. Views are cached per email
+ * for banking.dashboard.cacheSeconds (default 5). {@link LedgerChangeListener} reports every change to an
+ * account, its transactions or its scheduled transfers; the affected views are dropped right away and
+ * again once the changing transaction has completed, so a view read just before the commit cannot survive.
+ * Cached views are indexed by account and customer id, so a change costs only the views it affects.
+ * Balances of sharded accounts include their shards, loaded with one more query when any are present.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@Interceptors(PerformanceMonitorInterceptor.class)
+public class DashboardServiceImpl implements DashboardService {
+
+    static final int RECENT_TRANSACTIONS = 100;
+    private static final int MAX_CACHED_VIEWS = 10_000;
+    private static final Object CHANGED_ACCOUNTS_KEY = DashboardServiceImpl.class.getName() + ".changedAccounts";
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
+    private final long ttlNanos = TimeUnit.SECONDS.toNanos(Long.getLong("banking.dashboard.cacheSeconds", 5));
+    private final Map<String, CachedView> cache = new ConcurrentHashMap<>();
+    /** Emails of the cached views by account and by customer; changed only together with the cache, under its lock. */
+    private final Map<Long, Set<String>> emailsByAccount = new HashMap<>();
+    private final Map<Long, Set<String>> emailsByCustomer = new HashMap<>();
+    private final Object cacheLock = new Object();
+    /** Bumped on every ledger change; a view loaded while it moved may already be stale and is not cached. */
+    private final AtomicLong ledgerVersion = new AtomicLong();
+    private final LedgerChangeListener.Observer observer = this::ledgerChanged;
+
+    private record CachedView(DashboardView view, long loadedAt) {
+    }
+
+    /** An account or customer changed in the current transaction; either id may be null. */
+    private record Change(Long accountId, Long customerId) {
+    }
+
+    @PostConstruct
+    void register() {
+        LedgerChangeListener.addObserver(observer);
+    }
+
+    @PreDestroy
+    void unregister() {
+        LedgerChangeListener.removeObserver(observer);
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public DashboardView getCustomerDashboard(String email) {
+        long now = System.nanoTime();
+        CachedView cached = cache.get(email);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return cached.view();
+        }
+
+        long version = ledgerVersion.get();
+        DashboardView view = load(email);
+        if (ledgerVersion.get() == version) {
+            cache(email, new CachedView(view, now));
+        }
+        return view;
+    }
+
+    private void cache(String email, CachedView entry) {
+        synchronized (cacheLock) {
+            if (cache.size() >= MAX_CACHED_VIEWS) {
+                List<String> expired = new ArrayList<>();
+                cache.forEach((key, cached) -> {
+                    if (entry.loadedAt() - cached.loadedAt() >= ttlNanos) {
+                        expired.add(key);
+                    }
+                });
+                expired.forEach(this::remove);
+            }
+            remove(email);
+            cache.put(email, entry);
+            for (AccountDto account : entry.view().getAccounts()) {
+                emailsByAccount.computeIfAbsent(account.getId(), id -> new HashSet<>()).add(email);
+            }
+            emailsByCustomer.computeIfAbsent(entry.view().getCustomer().getId(), id -> new HashSet<>()).add(email);
+        }
+    }
+
+    /** Drops the view cached for the email and its index entries; the caller holds the cache lock. */
+    private void remove(String email) {
+        CachedView removed = cache.remove(email);
+        if (removed == null) {
+            return;
+        }
+        for (AccountDto account : removed.view().getAccounts()) {
+            unindex(emailsByAccount, account.getId(), email);
+        }
+        unindex(emailsByCustomer, removed.view().getCustomer().getId(), email);
+    }
+
+    private static void unindex(Map<Long, Set<String>> index, Long id, String email) {
+        Set<String> emails = index.get(id);
+        if (emails != null && emails.remove(email) && emails.isEmpty()) {
+            index.remove(id);
+        }
+    }
+
+    private DashboardView load(String email) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT c, a, st, ta.accountNumber FROM Customer c "
+                                + "LEFT JOIN c.accounts a "
+                                + "LEFT JOIN ScheduledTransfer st ON st.fromAccount = a AND st.processed = false "
+                                + "LEFT JOIN st.toAccount ta "
+                                + "WHERE c.email = :email ORDER BY a.id, st.scheduledTime", Object[].class)
+                .setParameter("email", email)
+                .getResultList();
+        if (rows.isEmpty()) {
+            throw new CustomerNotFoundException("Customer with email " + email + " not found.");
+        }
+
+        Customer customer = (Customer) rows.get(0)[0];
+        Map<Long, Account> accounts = new LinkedHashMap<>();
+        List<DashboardView.PendingTransfer> pendingTransfers = new ArrayList<>();
+        for (Object[] row : rows) {
+            Account account = (Account) row[1];
+            if (account == null) {
+                continue;
+            }
+            accounts.putIfAbsent(account.getId(), account);
+            ScheduledTransfer transfer = (ScheduledTransfer) row[2];
+            if (transfer != null) {
+                pendingTransfers.add(new DashboardView.PendingTransfer(transfer.getId(), account.getAccountNumber(),
+                        (String) row[3], transfer.getAmount(), transfer.getScheduledTime()));
+            }
+        }
+        pendingTransfers.sort((a, b) -> a.getScheduledTime().compareTo(b.getScheduledTime()));
+
+        List<TransactionDto> recentTransactions = List.of();
+        if (!accounts.isEmpty()) {
+            List<Transaction> transactions = em.createQuery(
+                            "SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.account.id IN :accountIds "
+                                    + "ORDER BY t.timestamp DESC", Transaction.class)
+                    .setParameter("accountIds", new ArrayList<>(accounts.keySet()))
+                    .setMaxResults(RECENT_TRANSACTIONS)
+                    .getResultList();
+            recentTransactions = new ArrayList<>(transactions.size());
+            for (Transaction transaction : transactions) {
+                recentTransactions.add(TransactionMapper.toDto(transaction));
+            }
+        }
+
+        balanceShardService.loadBalances(accounts.values());
+        List<AccountDto> accountDtos = new ArrayList<>(accounts.size());
+        for (Account account : accounts.values()) {
+            accountDtos.add(AccountMapper.toDto(account));
+        }
+        return new DashboardView(CustomerMapper.toDto(customer), accountDtos, recentTransactions,
+                pendingTransfers, LocalDateTime.now());
+    }
+
+    /** Called from the entity listener inside the changing transaction; must stay cheap. */
+    void ledgerChanged(Long accountId, Long customerId) {
+        ledgerVersion.incrementAndGet();
+        evict(accountId, customerId);
+
+        if (transactionSynchronizationRegistry == null || transactionSynchronizationRegistry.getTransactionKey() == null
+                || transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return;
+        }
+        // One synchronization per transaction, collecting every account it touched
+        @SuppressWarnings("unchecked")
+        Set<Change> changed = (Set<Change>) transactionSynchronizationRegistry.getResource(CHANGED_ACCOUNTS_KEY);
+        if (changed == null) {
+            Set<Change> pending = new HashSet<>();
+            transactionSynchronizationRegistry.putResource(CHANGED_ACCOUNTS_KEY, pending);
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    ledgerVersion.incrementAndGet();
+                    for (Change change : pending) {
+                        evict(change.accountId(), change.customerId());
+                    }
+                }
+            });
+            changed = pending;
+        }
+        changed.add(new Change(accountId, customerId));
+    }
+
+    private void evict(Long accountId, Long customerId) {
+        synchronized (cacheLock) {
+            List<String> affected = new ArrayList<>();
+            if (accountId != null) {
+                affected.addAll(emailsByAccount.getOrDefault(accountId, Set.of()));
+            }
+            if (customerId != null) {
+                affected.addAll(emailsByCustomer.getOrDefault(customerId, Set.of()));
+            }
+            affected.forEach(this::remove);
+        }
+    }
+
+    /** For diagnostics: number of views currently held. */
+    int cachedViews() {
+        return cache.size();
+    }
+}
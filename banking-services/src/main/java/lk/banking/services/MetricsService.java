@@ -0,0 +1,11 @@
+package lk.banking.services;
+
+import jakarta.ejb.Local;
+
+@Local
+public interface MetricsService {
+    /**
+     * Renders all EJB latency histograms and error counters in Prometheus text format.
+     */
+    String scrape();
+}
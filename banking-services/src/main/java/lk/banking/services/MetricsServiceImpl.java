@@ -0,0 +1,21 @@
+package lk.banking.services;
+
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import lk.banking.core.metrics.MetricsRegistry;
+import lk.banking.core.metrics.PrometheusTextFormat;
+
+/**
+ * Exposes the application-wide {@link MetricsRegistry} to the web tier. Rendering happens here,
+ * inside the EJB modules, so the scrape always reads the registry that the interceptors record into.
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class MetricsServiceImpl implements MetricsService {
+
+    @Override
+    public String scrape() {
+        return PrometheusTextFormat.format(MetricsRegistry.getDefault());
+    }
+}
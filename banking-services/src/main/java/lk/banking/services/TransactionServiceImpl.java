@@ -1,28 +1,37 @@
 package lk.banking.services;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.interceptor.Interceptors;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException; // For specific query results
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import lk.banking.core.dto.TransactionDto;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Customer; // Needed for getTransactionsByUser
+import lk.banking.core.entity.FundsHold;
 import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.User; // Needed for getTransactionsByUser
+import lk.banking.core.entity.enums.HoldStatus;
+import lk.banking.core.entity.enums.LedgerAccount;
 import lk.banking.core.entity.enums.TransactionStatus;
 import lk.banking.core.entity.enums.TransactionType;
 import lk.banking.core.exception.AccountNotFoundException;
 import lk.banking.core.exception.InsufficientFundsException; // Import
 import lk.banking.core.exception.InvalidTransactionException; // Import
 import lk.banking.core.exception.UserNotFoundException; // Import
+import lk.banking.services.holds.HoldService;
 import lk.banking.services.interceptor.AuditInterceptor;
 import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
 import lk.banking.services.interceptor.SecurityInterceptor;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.stream.Collectors; // For getTransactionsByUser
 
@@ -33,6 +42,20 @@ public class TransactionServiceImpl implements TransactionServices {
     @PersistenceContext(unitName = "bankingPU")
     private EntityManager em;
 
+    /** How long a pending debit keeps its funds reserved. */
+    private static final long PENDING_HOLD_HOURS = Long.getLong("banking.holds.pendingHours", 72);
+
+    @EJB
+    private JournalService journalService;
+
+    @EJB
+    private HoldService holdService;
+
+    /**
+     * Records a PENDING transaction. A debit (withdrawal, payment or transfer out) also places a hold for
+     * its amount, so the funds stay available for it until it is completed or cancelled, or the hold
+     * expires after banking.holds.pendingHours (default 72).
+     */
     @Override
     public Transaction createTransaction(TransactionDto transactionDto) {
         Account account = em.find(Account.class, transactionDto.getAccountId());
@@ -41,6 +64,11 @@ public class TransactionServiceImpl implements TransactionServices {
         }
 
         LocalDateTime transactionTimestamp = LocalDateTime.now();
+        FundsHold hold = null;
+        if (transactionDto.getType().isDebit()) {
+            hold = holdService.place(account.getId(), transactionDto.getAmount().abs(), transactionDto.getDescription(),
+                    transactionTimestamp.plusHours(PENDING_HOLD_HOURS));
+        }
 
         Transaction transaction = new Transaction(
                 account,
@@ -51,9 +79,85 @@ public class TransactionServiceImpl implements TransactionServices {
                 transactionDto.getDescription()
         );
         em.persist(transaction);
+        if (hold != null) {
+            em.flush();
+            hold.setTransactionId(transaction.getId());
+        }
         return transaction;
     }
 
+    @Override
+    public Transaction completePendingTransaction(Long transactionId) {
+        Transaction pending = getPendingTransaction(transactionId);
+        Account account = pending.getAccount();
+        BigDecimal amount = pending.getAmount().abs();
+        TransactionType type = pending.getType();
+
+        JournalPosting posting = JournalPosting.of(type, pending.getDescription());
+        if (type.isDebit()) {
+            FundsHold hold = findActiveHold(transactionId);
+            FundsHold captured = hold != null ? holdService.capture(hold.getId(), amount) : null;
+            if (captured != null) {
+                posting.captured(captured, pending.getDescription());
+            } else {
+                // The hold expired: nothing is reserved any more, so this is an ordinary debit
+                posting.account(account, amount.negate(), pending.getDescription());
+            }
+            posting.settles(pending)
+                    .ledger(type == TransactionType.WITHDRAWAL ? LedgerAccount.CASH : LedgerAccount.PAYMENTS_CLEARING, amount);
+        } else {
+            posting.account(account, amount, pending.getDescription()).settles(pending);
+            posting.ledger(LedgerAccount.CASH, amount.negate());
+        }
+        journalService.post(posting);
+        return pending;
+    }
+
+    @Override
+    public Transaction cancelPendingTransaction(Long transactionId) {
+        return closePendingTransaction(transactionId, TransactionStatus.CANCELLED);
+    }
+
+    @Override
+    public Transaction failPendingTransaction(Long transactionId) {
+        return closePendingTransaction(transactionId, TransactionStatus.FAILED);
+    }
+
+    private Transaction closePendingTransaction(Long transactionId, TransactionStatus status) {
+        Transaction pending = getPendingTransaction(transactionId);
+        FundsHold hold = findActiveHold(transactionId);
+        if (hold != null) {
+            holdService.release(hold.getId());
+        }
+        pending.setStatus(status);
+        return pending;
+    }
+
+    /**
+     * Loads the transaction locked, so two callers settling, cancelling or failing it at once are serialized
+     * and the second sees the status the first left. Lock order is transaction, hold, accounts.
+     */
+    private Transaction getPendingTransaction(Long transactionId) {
+        Transaction transaction = em.find(Transaction.class, transactionId, LockModeType.PESSIMISTIC_WRITE);
+        if (transaction == null) {
+            throw new InvalidTransactionException("Transaction with ID " + transactionId + " not found.");
+        }
+        if (transaction.getStatus() != TransactionStatus.PENDING) {
+            throw new InvalidTransactionException("Transaction " + transactionId + " is " + transaction.getStatus() + ", not PENDING.");
+        }
+        return transaction;
+    }
+
+    private FundsHold findActiveHold(Long transactionId) {
+        List<FundsHold> holds = em.createQuery(
+                        "SELECT h FROM FundsHold h WHERE h.transactionId = :transactionId AND h.status = :status", FundsHold.class)
+                .setParameter("transactionId", transactionId)
+                .setParameter("status", HoldStatus.ACTIVE)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        return holds.isEmpty() ? null : holds.get(0);
+    }
+
     @Override
     public Transaction getTransactionById(Long id) {
         Transaction transaction = em.find(Transaction.class, id);
@@ -95,35 +199,17 @@ public class TransactionServiceImpl implements TransactionServices {
             throw new AccountNotFoundException("One of the accounts involved in transfer was not found: " + e.getMessage());
         }
 
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
+        if (fromAccount.getBalanceShards() == 0 && fromAccount.getAvailableBalance().compareTo(amount) < 0) {
             throw new InsufficientFundsException("Account " + fromAccountNumber + " has insufficient funds for transfer.");
         }
 
-        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
-        em.merge(fromAccount);
-
-        Transaction debitTransaction = new Transaction(
-                fromAccount,
-                amount,
-                TransactionType.TRANSFER,
-                TransactionStatus.COMPLETED,
-                LocalDateTime.now(),
-                "Funds transfer out to account " + toAccountNumber + " (initiated by user ID: " + performingUserId + ")"
-        );
-        em.persist(debitTransaction);
-
-        toAccount.setBalance(toAccount.getBalance().add(amount));
-        em.merge(toAccount);
-
-        Transaction creditTransaction = new Transaction(
-                toAccount,
-                amount,
-                TransactionType.TRANSFER,
-                TransactionStatus.COMPLETED,
-                LocalDateTime.now(),
-                "Funds transfer in from account " + fromAccountNumber + " (initiated by user ID: " + performingUserId + ")"
-        );
-        em.persist(creditTransaction);
+        // Debit negative, credit positive: one balanced entry, so the two legs share a journal entry id
+        journalService.post(JournalPosting.of(TransactionType.TRANSFER,
+                        "Funds transfer from " + fromAccountNumber + " to " + toAccountNumber + " (initiated by user ID: " + performingUserId + ")")
+                .account(fromAccount, amount.negate(),
+                        "Funds transfer out to account " + toAccountNumber + " (initiated by user ID: " + performingUserId + ")")
+                .account(toAccount, amount,
+                        "Funds transfer in from account " + fromAccountNumber + " (initiated by user ID: " + performingUserId + ")"));
 
         return true;
     }
@@ -189,4 +275,18 @@ public class TransactionServiceImpl implements TransactionServices {
         transactionQuery.setMaxResults(maxResults);
         return transactionQuery.getResultList();
     }
+
+    @Override
+    public long getLedgerVersionByUser(Long userId) {
+        // updatedAt is set on insert and on every update, so its maximum moves on new and on changed rows
+        LocalDateTime lastChange = em.createQuery(
+                        "SELECT MAX(t.updatedAt) FROM Transaction t WHERE t.account.customer.email = "
+                                + "(SELECT u.email FROM User u WHERE u.id = :userId)", LocalDateTime.class)
+                .setParameter("userId", userId)
+                .getSingleResult();
+        if (lastChange == null) {
+            return 0L;
+        }
+        return lastChange.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + lastChange.getNano() / 1_000;
+    }
 }
@@ -11,6 +11,25 @@ import java.util.List;
 @Local
 public interface TransactionServices {
     Transaction createTransaction(TransactionDto transactionDto);
+
+    /**
+     * Posts a PENDING transaction, drawing on the funds its hold reserved, and marks it COMPLETED.
+     * @throws lk.banking.core.exception.InvalidTransactionException if it is not PENDING.
+     */
+    Transaction completePendingTransaction(Long transactionId);
+
+    /**
+     * Marks a PENDING transaction CANCELLED and releases its hold.
+     * @throws lk.banking.core.exception.InvalidTransactionException if it is not PENDING.
+     */
+    Transaction cancelPendingTransaction(Long transactionId);
+
+    /**
+     * Marks a PENDING transaction FAILED, for one that can no longer be posted, and releases its hold.
+     * @throws lk.banking.core.exception.InvalidTransactionException if it is not PENDING.
+     */
+    Transaction failPendingTransaction(Long transactionId);
+
     Transaction getTransactionById(Long id);
     List<Transaction> getTransactionsByAccount(Long accountId);
     List<Transaction> getAllTransactions();
@@ -23,4 +42,12 @@ public interface TransactionServices {
 
     // ADD THIS NEW METHOD
     List<Transaction> getTransactionsByUser(Long userId, int maxResults);
+
+    /**
+     * Version of the user's transaction history, or 0 if there is none: it changes whenever a transaction
+     * is added to any of the user's accounts or an existing one changes, such as a pending transaction
+     * settling, failing or being cancelled. A single aggregate query, cheap enough to decide whether a
+     * cached statement is still current.
+     */
+    long getLedgerVersionByUser(Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package lk.banking.services.audit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.Temporal;
+
+/**
+ * One immutable audit trail entry: who called which business method, with what (summarised) arguments,
+ * how it ended and how long it took.
+ */
+public final class AuditRecord {
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILURE = "FAILURE";
+    public static final String OVERFLOW = "OVERFLOW";
+
+    static final int MAX_ARGUMENTS_LENGTH = 512;
+    private static final int MAX_STRING_ARGUMENT_LENGTH = 32;
+
+    private final Instant occurredAt;
+    private final String caller;
+    private final String component;
+    private final String method;
+    private final String arguments;
+    private final String outcome;
+    private final String errorType;
+    private final long latencyNanos;
+
+    public AuditRecord(Instant occurredAt, String caller, String component, String method,
+                       String arguments, String outcome, String errorType, long latencyNanos) {
+        this.occurredAt = occurredAt;
+        this.caller = caller;
+        this.component = component;
+        this.method = method;
+        this.arguments = arguments;
+        this.outcome = outcome;
+        this.errorType = errorType;
+        this.latencyNanos = latencyNanos;
+    }
+
+    /**
+     * Marker written in place of records that were discarded because the buffer was full,
+     * so gaps in the trail are visible instead of silent.
+     */
+    public static AuditRecord overflowMarker(long droppedRecords) {
+        return new AuditRecord(Instant.now(), null, "AuditTrail", "overflow",
+                "dropped=" + droppedRecords, OVERFLOW, null, 0L);
+    }
+
+    /**
+     * Builds a short, log-safe summary of method arguments. Only scalar values are printed;
+     * strings are truncated and complex objects are reduced to their type name so that
+     * entities and DTOs never end up serialised into the audit log.
+     */
+    public static String summarizeArguments(Object[] parameters) {
+        if (parameters == null || parameters.length == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            Object value = parameters[i];
+            if (value == null) {
+                sb.append("null");
+            } else if (value instanceof Number || value instanceof Boolean || value instanceof Enum
+                    || value instanceof Temporal || value instanceof BigDecimal) {
+                sb.append(value);
+            } else if (value instanceof CharSequence) {
+                String text = value.toString();
+                sb.append('\'');
+                if (text.length() > MAX_STRING_ARGUMENT_LENGTH) {
+                    sb.append(text, 0, MAX_STRING_ARGUMENT_LENGTH).append("...");
+                } else {
+                    sb.append(text);
+                }
+                sb.append('\'');
+            } else {
+                sb.append(value.getClass().getSimpleName());
+            }
+            if (sb.length() >= MAX_ARGUMENTS_LENGTH) {
+                break;
+            }
+        }
+        return sb.length() > MAX_ARGUMENTS_LENGTH ? sb.substring(0, MAX_ARGUMENTS_LENGTH) : sb.toString();
+    }
+
+    /** Column values in the order of {@link AuditTrail#COLUMNS}. */
+    Object[] toRow() {
+        return new Object[]{
+                LocalDateTime.ofInstant(occurredAt, ZoneId.systemDefault()),
+                caller,
+                component,
+                method,
+                arguments,
+                outcome,
+                errorType,
+                latencyNanos / 1_000L
+        };
+    }
+
+    /** Tab separated line used by the local segment file fallback. */
+    String toLogLine() {
+        return occurredAt + "\t" + caller + "\t" + component + "\t" + method + "\t" + arguments
+                + "\t" + outcome + "\t" + (errorType != null ? errorType : "") + "\t" + (latencyNanos / 1_000L);
+    }
+
+    public Instant getOccurredAt() { return occurredAt; }
+    public String getCaller() { return caller; }
+    public String getComponent() { return component; }
+    public String getMethod() { return method; }
+    public String getArguments() { return arguments; }
+    public String getOutcome() { return outcome; }
+    public String getErrorType() { return errorType; }
+    public long getLatencyNanos() { return latencyNanos; }
+
+    @Override
+    public String toString() {
+        return "AuditRecord{" +
+                "component='" + component + '\'' +
+                ", method='" + method + '\'' +
+                ", caller='" + caller + '\'' +
+                ", outcome=" + outcome +
+                ", latencyNanos=" + latencyNanos +
+                '}';
+    }
+}
@@ -0,0 +1,75 @@
+package lk.banking.services.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only local segment files used when the audit_log table cannot be written.
+ * Segments are named audit-yyyy-MM-dd-N.log and roll over by date or once they reach
+ * the configured size, so an outage never loses records and never produces one huge file.
+ * Only the single audit drainer writes here.
+ */
+class AuditSegmentWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(AuditSegmentWriter.class.getName());
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+
+    private LocalDate segmentDate;
+    private int segmentIndex;
+    private Path currentSegment;
+
+    AuditSegmentWriter(Path directory, long maxSegmentBytes) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /**
+     * Appends the records to the current segment.
+     * @return true if the records were written.
+     */
+    synchronized boolean append(List<AuditRecord> records) {
+        try {
+            Path segment = currentSegment();
+            try (BufferedWriter writer = Files.newBufferedWriter(segment, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditRecord record : records) {
+                    writer.write(record.toLogLine());
+                    writer.newLine();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "AuditSegmentWriter: Failed to append " + records.size() + " audit records to " + directory, e);
+            return false;
+        }
+    }
+
+    private Path currentSegment() throws IOException {
+        LocalDate today = LocalDate.now();
+        if (currentSegment == null || !today.equals(segmentDate)) {
+            Files.createDirectories(directory);
+            segmentDate = today;
+            segmentIndex = 0;
+            currentSegment = segmentPath();
+        }
+        while (Files.exists(currentSegment) && Files.size(currentSegment) >= maxSegmentBytes) {
+            segmentIndex++;
+            currentSegment = segmentPath();
+        }
+        return currentSegment;
+    }
+
+    private Path segmentPath() {
+        return directory.resolve("audit-" + segmentDate + "-" + segmentIndex + ".log");
+    }
+}
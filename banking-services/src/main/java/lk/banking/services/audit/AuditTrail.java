@@ -0,0 +1,158 @@
+package lk.banking.services.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.SessionContext;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lk.banking.core.util.MultiRowInsert;
+import lk.banking.core.util.RingBuffer;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous audit trail. Business calls only publish an {@link AuditRecord} into a lock-free
+ * ring buffer; a background timer drains it and batch-inserts into the append-only audit_log table.
+ * If the database write fails the batch is appended to a rolling local segment file instead.
+ *
+ * Overflow policy: when the buffer is full the newest record is dropped (the request is never blocked),
+ * the drop is counted, and the next flush writes an OVERFLOW marker row carrying the number of
+ * dropped records so the gap is visible in the trail.
+ *
+ * Tunables (system properties): banking.audit.capacity (default 8192 records),
+ * banking.audit.dir (segment directory, default ${java.io.tmpdir}/banking-audit),
+ * banking.audit.segmentBytes (default 64 MB).
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuditTrail {
+
+    private static final Logger LOGGER = Logger.getLogger(AuditTrail.class.getName());
+
+    static final String TABLE = "audit_log";
+    static final List<String> COLUMNS = List.of(
+            "occurredAt", "caller", "component", "method", "arguments", "outcome", "errorType", "latencyMicros");
+
+    /** Upper bound on records written by one insert transaction. */
+    static final int BATCH_SIZE = 2_000;
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    private RingBuffer<AuditRecord> buffer;
+    private AuditSegmentWriter segmentWriter;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong droppedTotal = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        buffer = new RingBuffer<>(Integer.getInteger("banking.audit.capacity", 8192));
+        Path directory = Paths.get(System.getProperty("banking.audit.dir",
+                Paths.get(System.getProperty("java.io.tmpdir"), "banking-audit").toString()));
+        segmentWriter = new AuditSegmentWriter(directory, Long.getLong("banking.audit.segmentBytes", 64L * 1024 * 1024));
+        LOGGER.info("AuditTrail: Started with capacity " + buffer.capacity() + ", fallback segments in " + directory);
+    }
+
+    /**
+     * Publishes a record without blocking. Never throws; a full buffer counts as a drop.
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public void record(AuditRecord record) {
+        if (!buffer.offer(record)) {
+            dropped.incrementAndGet();
+            droppedTotal.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drains the buffer. Runs every second; overlapping runs are skipped so there is a single writer.
+     */
+    @Schedule(second = "*", minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void flush() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<AuditRecord> batch = new ArrayList<>(Math.min(BATCH_SIZE, buffer.size() + 1));
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                LOGGER.warning("AuditTrail: Buffer overflow, " + lost + " audit records dropped since last flush.");
+                batch.add(AuditRecord.overflowMarker(lost));
+            }
+            do {
+                buffer.drainTo(batch::add, BATCH_SIZE - batch.size());
+                if (batch.isEmpty()) {
+                    break;
+                }
+                writeOrSpill(batch);
+                batch.clear();
+            } while (buffer.size() > 0);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Inserts one batch into audit_log in its own transaction so a failure cannot affect other work.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public int writeBatch(List<AuditRecord> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (AuditRecord record : batch) {
+            rows.add(record.toRow());
+        }
+        return MultiRowInsert.execute(em, TABLE, COLUMNS, rows);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (droppedTotal.get() > 0) {
+            LOGGER.warning("AuditTrail: " + droppedTotal.get() + " audit records were dropped due to overflow during this run.");
+        }
+    }
+
+    /** Approximate number of records waiting to be written. */
+    public int pending() {
+        return buffer.size();
+    }
+
+    /** Records dropped by the overflow policy since startup. */
+    public long droppedCount() {
+        return droppedTotal.get();
+    }
+
+    private void writeOrSpill(List<AuditRecord> batch) {
+        try {
+            // Through the business object so REQUIRES_NEW applies.
+            sessionContext.getBusinessObject(AuditTrail.class).writeBatch(batch);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "AuditTrail: Could not write " + batch.size()
+                    + " audit records to " + TABLE + ", appending to local segment instead.", e);
+            if (!segmentWriter.append(batch)) {
+                LOGGER.severe("AuditTrail: " + batch.size() + " audit records lost; database and segment file both failed.");
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package lk.banking.services.events;
+
+import lk.banking.core.dto.TransactionDto;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.mapper.TransactionMapper;
+
+import java.math.BigDecimal;
+
+/**
+ * A completed posting to one account: the transaction and the balance it left behind. Fired as a CDI event
+ * by the services that move money and delivered by {@link LedgerEventBus} once their transaction commits.
+ */
+public final class LedgerEvent {
+
+    private final String customerEmail;
+    private final Long accountId;
+    private final String accountNumber;
+    private final BigDecimal balance;
+    private final TransactionDto transaction;
+
+    public LedgerEvent(String customerEmail, Long accountId, String accountNumber, BigDecimal balance,
+                       TransactionDto transaction) {
+        this.customerEmail = customerEmail;
+        this.accountId = accountId;
+        this.accountNumber = accountNumber;
+        this.balance = balance;
+        this.transaction = transaction;
+    }
+
+    /**
+     * Event for a transaction just posted to its account, carrying the account's new balance. For a sharded
+     * account that includes its shards only if they were loaded after the posting, e.g. with
+     * {@code BalanceShardService.balance}.
+     */
+    public static LedgerEvent posted(Transaction transaction) {
+        Account account = transaction.getAccount();
+        return new LedgerEvent(account.getCustomer() != null ? account.getCustomer().getEmail() : null,
+                account.getId(), account.getAccountNumber(), account.getTotalBalance(), TransactionMapper.toDto(transaction));
+    }
+
+    /** Email of the customer who owns the account; the key the web tier uses to find that customer's streams. */
+    public String getCustomerEmail() { return customerEmail; }
+    public Long getAccountId() { return accountId; }
+    public String getAccountNumber() { return accountNumber; }
+    public BigDecimal getBalance() { return balance; }
+    public TransactionDto getTransaction() { return transaction; }
+
+    @Override
+    public String toString() {
+        return "LedgerEvent{accountId=" + accountId + ", transactionId="
+                + (transaction != null ? transaction.getId() : null) + '}';
+    }
+}
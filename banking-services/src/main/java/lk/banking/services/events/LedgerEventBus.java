@@ -0,0 +1,43 @@
+package lk.banking.services.events;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process fan-out of {@link LedgerEvent}s to subscribers in any module of the application. Events are
+ * observed only after the firing transaction commits, so subscribers never see postings that were rolled
+ * back. Delivery runs on the committing thread: subscribers must hand the event off without blocking.
+ */
+@ApplicationScoped
+public class LedgerEventBus {
+
+    private static final Logger LOGGER = Logger.getLogger(LedgerEventBus.class.getName());
+
+    private final List<Consumer<LedgerEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<LedgerEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<LedgerEvent> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    void onLedgerEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) LedgerEvent event) {
+        for (Consumer<LedgerEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                // The money has already moved; a failing subscriber must not surface to the caller
+                LOGGER.log(Level.WARNING, "LedgerEventBus: Subscriber failed for " + event, e);
+            }
+        }
+    }
+}
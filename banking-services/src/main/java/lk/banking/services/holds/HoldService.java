@@ -0,0 +1,53 @@
+package lk.banking.services.holds;
+
+import jakarta.ejb.Local;
+import lk.banking.core.entity.FundsHold;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reserves funds for payments and transfers that post later. A hold takes its amount out of the account's
+ * available balance straight away and leaves the ledger balance alone until it is captured.
+ */
+@Local
+public interface HoldService {
+
+    /**
+     * Reserves {@code amount} on the account until {@code expiresAt}, with one conditional UPDATE of its
+     * available balance. The hold is flushed, so its id is set on return.
+     *
+     * @throws lk.banking.core.exception.AccountNotFoundException if the account does not exist.
+     * @throws lk.banking.core.exception.InsufficientFundsException if the available balance does not cover the amount.
+     * @throws lk.banking.core.exception.InvalidTransactionException if the amount is not positive or the account is inactive.
+     */
+    FundsHold place(Long accountId, BigDecimal amount, String description, LocalDateTime expiresAt);
+
+    /**
+     * Captures {@code amount} (at most the held amount) and returns any remainder to the available balance.
+     * The caller posts the captured amount in the same transaction with
+     * {@link lk.banking.services.journal.JournalPosting#captured}.
+     *
+     * @return the captured hold, or null if it is no longer active (released or expired), in which case nothing
+     *         is reserved any more and the caller has to debit the account normally.
+     */
+    FundsHold capture(Long holdId, BigDecimal amount);
+
+    /**
+     * Gives an active hold's amount back to the available balance. Releasing a hold that is no longer
+     * active changes nothing.
+     */
+    FundsHold release(Long holdId);
+
+    /** The account's active holds, oldest first. */
+    List<FundsHold> getActiveHolds(Long accountId);
+
+    /**
+     * Expires up to {@code limit} active holds that were due at {@code now}, in a transaction of its own:
+     * one locking read, one UPDATE of the holds and one UPDATE of the affected accounts.
+     *
+     * @return the number of holds expired; less than {@code limit} once nothing more is due.
+     */
+    int expireDue(LocalDateTime now, int limit);
+}
@@ -0,0 +1,239 @@
+package lk.banking.services.holds;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.interceptor.Interceptors;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.FundsHold;
+import lk.banking.core.entity.LedgerChangeListener;
+import lk.banking.core.entity.enums.HoldStatus;
+import lk.banking.core.exception.AccountNotFoundException;
+import lk.banking.core.exception.InsufficientFundsException;
+import lk.banking.core.exception.InvalidTransactionException;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+import lk.banking.services.shards.BalanceShardService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Holds are placed and settled one at a time through the persistence context, with the account's available
+ * balance moved by conditional UPDATEs. Expiry works in bulk with native statements; the accounts it
+ * touches are evicted from the shared cache once the sweep has committed.
+ */
+@Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
+public class HoldServiceImpl implements HoldService {
+
+    private static final Logger LOGGER = Logger.getLogger(HoldServiceImpl.class.getName());
+
+    static final String RESERVE = "UPDATE Account a SET a.availableBalance = a.availableBalance - :amount"
+            + " WHERE a.id = :id AND a.isActive = TRUE AND a.availableBalance >= :amount";
+    static final String UNRESERVE = "UPDATE Account a SET a.availableBalance = a.availableBalance + :amount WHERE a.id = :id";
+    /** SKIP LOCKED leaves holds that are being captured or released right now to their owners. */
+    static final String LOCK_DUE = "SELECT id, account_id, amount FROM funds_holds"
+            + " WHERE status = 'ACTIVE' AND expiresAt <= ? ORDER BY expiresAt LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
+    @Override
+    public FundsHold place(Long accountId, BigDecimal amount, String description, LocalDateTime expiresAt) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new InvalidTransactionException("Hold amount must be positive.");
+        }
+        if (expiresAt == null) {
+            throw new IllegalArgumentException("A funds hold needs an expiry time.");
+        }
+        Account account = em.find(Account.class, accountId);
+        if (account == null) {
+            throw new AccountNotFoundException("Account with ID " + accountId + " not found.");
+        }
+        if (account.getBalanceShards() > 0) {
+            // Holds reserve from the account row only; shards are locked before it, never after
+            balanceShardService.consolidate(accountId);
+        }
+        int reserved = em.createQuery(RESERVE)
+                .setParameter("amount", amount)
+                .setParameter("id", accountId)
+                .executeUpdate();
+        if (reserved == 0) {
+            if (!Boolean.TRUE.equals(account.getIsActive())) {
+                throw new InvalidTransactionException("Account " + account.getAccountNumber() + " is inactive.");
+            }
+            LOGGER.warning("HoldServiceImpl: Cannot hold " + amount + " on account " + account.getAccountNumber()
+                    + ", available " + account.getAvailableBalance() + ".");
+            throw new InsufficientFundsException("Insufficient funds in account " + account.getAccountNumber() + ".");
+        }
+        em.refresh(account);
+
+        FundsHold hold = new FundsHold(account, amount, description, expiresAt);
+        em.persist(hold);
+        em.flush();
+        LOGGER.info("HoldServiceImpl: Placed hold " + hold.getId() + " of " + amount + " on account "
+                + account.getAccountNumber() + " until " + expiresAt + ".");
+        return hold;
+    }
+
+    @Override
+    public FundsHold capture(Long holdId, BigDecimal amount) {
+        FundsHold hold = lock(holdId);
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            LOGGER.info("HoldServiceImpl: Hold " + holdId + " is " + hold.getStatus() + ", nothing to capture.");
+            return null;
+        }
+        if (amount == null || amount.signum() <= 0 || amount.compareTo(hold.getAmount()) > 0) {
+            throw new InvalidTransactionException("Cannot capture " + amount + " from a hold of " + hold.getAmount() + ".");
+        }
+        hold.setStatus(HoldStatus.CAPTURED);
+        hold.setCapturedAmount(amount);
+        hold.setSettledAt(LocalDateTime.now());
+        BigDecimal remainder = hold.getAmount().subtract(amount);
+        if (remainder.signum() > 0) {
+            unreserve(hold.getAccount(), remainder);
+        }
+        return hold;
+    }
+
+    @Override
+    public FundsHold release(Long holdId) {
+        FundsHold hold = lock(holdId);
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            return hold;
+        }
+        hold.setStatus(HoldStatus.RELEASED);
+        hold.setSettledAt(LocalDateTime.now());
+        unreserve(hold.getAccount(), hold.getAmount());
+        LOGGER.info("HoldServiceImpl: Released hold " + holdId + " of " + hold.getAmount() + ".");
+        return hold;
+    }
+
+    @Override
+    public List<FundsHold> getActiveHolds(Long accountId) {
+        return em.createQuery("SELECT h FROM FundsHold h WHERE h.account.id = :accountId AND h.status = :status"
+                        + " ORDER BY h.createdAt", FundsHold.class)
+                .setParameter("accountId", accountId)
+                .setParameter("status", HoldStatus.ACTIVE)
+                .getResultList();
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    @SuppressWarnings("unchecked")
+    public int expireDue(LocalDateTime now, int limit) {
+        List<Object[]> due = em.createNativeQuery(LOCK_DUE)
+                .setParameter(1, now)
+                .setParameter(2, limit)
+                .getResultList();
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        // Sorted by account id so concurrent sweeps lock accounts in the same order
+        List<Object> holdIds = new ArrayList<>(due.size());
+        Map<Long, BigDecimal> released = new TreeMap<>();
+        for (Object[] row : due) {
+            holdIds.add(((Number) row[0]).longValue());
+            released.merge(((Number) row[1]).longValue(), decimal(row[2]), BigDecimal::add);
+        }
+
+        List<Object> holdParameters = new ArrayList<>(holdIds.size() + 1);
+        holdParameters.add(now);
+        holdParameters.addAll(holdIds);
+        execute("UPDATE funds_holds SET status = 'EXPIRED', settledAt = ? WHERE id IN (" + placeholders(holdIds.size()) + ")",
+                holdParameters);
+
+        StringBuilder sql = new StringBuilder("UPDATE accounts SET availableBalance = availableBalance + CASE id");
+        List<Object> accountParameters = new ArrayList<>(released.size() * 3);
+        for (Map.Entry<Long, BigDecimal> entry : released.entrySet()) {
+            sql.append(" WHEN ? THEN ?");
+            accountParameters.add(entry.getKey());
+            accountParameters.add(entry.getValue());
+        }
+        sql.append(" END, updatedAt = CURRENT_TIMESTAMP(6) WHERE id IN (").append(placeholders(released.size())).append(')');
+        accountParameters.addAll(released.keySet());
+        execute(sql.toString(), accountParameters);
+
+        afterCommit(released.keySet());
+        LOGGER.info("HoldServiceImpl: Expired " + holdIds.size() + " holds on " + released.size() + " accounts.");
+        return holdIds.size();
+    }
+
+    private FundsHold lock(Long holdId) {
+        FundsHold hold = em.find(FundsHold.class, holdId, LockModeType.PESSIMISTIC_WRITE);
+        if (hold == null) {
+            throw new InvalidTransactionException("Funds hold with ID " + holdId + " not found.");
+        }
+        return hold;
+    }
+
+    private void unreserve(Account account, BigDecimal amount) {
+        em.createQuery(UNRESERVE)
+                .setParameter("amount", amount)
+                .setParameter("id", account.getId())
+                .executeUpdate();
+        em.refresh(account);
+    }
+
+    /** The native UPDATEs bypass the shared cache and the entity listeners; catch both up after commit. */
+    private void afterCommit(Set<Long> accountIds) {
+        List<Long> ids = Collections.unmodifiableList(new ArrayList<>(accountIds));
+        Cache cache = em.getEntityManagerFactory().getCache();
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    return;
+                }
+                for (Long id : ids) {
+                    cache.evict(Account.class, id);
+                    LedgerChangeListener.accountChanged(id);
+                }
+            }
+        });
+    }
+
+    private void execute(String sql, List<Object> parameters) {
+        Query query = em.createNativeQuery(sql);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        query.executeUpdate();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -1,12 +1,61 @@
 package lk.banking.services.interceptor;
 
+import jakarta.annotation.Resource;
+import jakarta.ejb.EJB;
+import jakarta.ejb.EJBContext;
 import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.InvocationContext;
+import lk.banking.services.audit.AuditRecord;
+import lk.banking.services.audit.AuditTrail;
 
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Captures caller, method, an argument summary, outcome and latency for every intercepted call
+ * and hands it to the {@link AuditTrail}. Publishing is non-blocking; persistence happens in the background.
+ */
 public class AuditInterceptor {
+
+    @EJB
+    private AuditTrail auditTrail;
+
+    @Resource
+    private EJBContext ejbContext;
+
     @AroundInvoke
     public Object audit(InvocationContext ctx) throws Exception {
-        System.out.println("[AUDIT] Calling: " + ctx.getMethod().getName());
-        return ctx.proceed();
+        Instant occurredAt = Instant.now();
+        long start = System.nanoTime();
+        String outcome = AuditRecord.FAILURE;
+        String errorType = null;
+        try {
+            Object result = ctx.proceed();
+            outcome = AuditRecord.SUCCESS;
+            return result;
+        } catch (Exception e) {
+            errorType = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long latencyNanos = System.nanoTime() - start;
+            auditTrail.record(new AuditRecord(
+                    occurredAt,
+                    callerName(),
+                    ctx.getMethod().getDeclaringClass().getSimpleName(),
+                    ctx.getMethod().getName(),
+                    AuditRecord.summarizeArguments(ctx.getParameters()),
+                    outcome,
+                    errorType,
+                    latencyNanos));
+        }
+    }
+
+    private String callerName() {
+        try {
+            Principal principal = ejbContext != null ? ejbContext.getCallerPrincipal() : null;
+            return principal != null ? principal.getName() : null;
+        } catch (IllegalStateException e) {
+            return null; // No security context available for this invocation
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,51 @@
 package lk.banking.services.interceptor;
 
 import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.AroundTimeout;
 import jakarta.interceptor.InvocationContext;
+import lk.banking.core.metrics.MethodMetrics;
+import lk.banking.core.metrics.MetricsRegistry;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records nanosecond latency and error counts for business methods and timer callbacks
+ * into {@link MetricsRegistry}. Exposed in Prometheus format via MetricsService.
+ */
 public class PerformanceMonitorInterceptor {
+
+    private static final ConcurrentHashMap<Method, MethodMetrics> METRICS_BY_METHOD = new ConcurrentHashMap<>();
+
     @AroundInvoke
     public Object monitor(InvocationContext ctx) throws Exception {
-        long start = System.currentTimeMillis();
+        return measure(ctx);
+    }
+
+    @AroundTimeout
+    public Object monitorTimeout(InvocationContext ctx) throws Exception {
+        return measure(ctx);
+    }
+
+    private Object measure(InvocationContext ctx) throws Exception {
+        MethodMetrics metrics = metricsFor(ctx.getMethod());
+        long start = System.nanoTime();
         try {
-            return ctx.proceed();
-        } finally {
-            long elapsed = System.currentTimeMillis() - start;
-            System.out.println("[PERFORMANCE] " + ctx.getMethod().getName() + " took " + elapsed + "ms");
+            Object result = ctx.proceed();
+            metrics.recordSuccess(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            metrics.recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    private static MethodMetrics metricsFor(Method method) {
+        MethodMetrics metrics = METRICS_BY_METHOD.get(method);
+        if (metrics == null) {
+            metrics = METRICS_BY_METHOD.computeIfAbsent(method, m -> MetricsRegistry.getDefault()
+                    .forMethod(m.getDeclaringClass().getSimpleName(), m.getName()));
         }
+        return metrics;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package lk.banking.services.journal;
+
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.FundsHold;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.HoldStatus;
+import lk.banking.core.entity.enums.LedgerAccount;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A journal entry being assembled for {@link JournalService#post}. Amounts are signed from the account's
+ * point of view: a positive amount adds to the balance. The bank's side of a deposit, withdrawal, payment
+ * or interest credit goes on one of its own ledgers with the opposite sign.
+ * <p>
+ * A debit normally needs that much available balance. A debit against a captured {@link FundsHold} does
+ * not: those funds were reserved when the hold was placed.
+ */
+public class JournalPosting {
+
+    /**
+     * One leg; {@code account} is set for customer-account legs only. {@code hold} is the captured hold a
+     * debit draws on, {@code pending} the PENDING history row the leg completes instead of adding a new one.
+     */
+    public static final class Leg {
+        private final LedgerAccount ledger;
+        private final Account account;
+        private final BigDecimal amount;
+        private final String description;
+        private final FundsHold hold;
+        private final Transaction pending;
+
+        Leg(LedgerAccount ledger, Account account, BigDecimal amount, String description, FundsHold hold, Transaction pending) {
+            this.ledger = ledger;
+            this.account = account;
+            this.amount = amount;
+            this.description = description;
+            this.hold = hold;
+            this.pending = pending;
+        }
+
+        public LedgerAccount getLedger() { return ledger; }
+        public Account getAccount() { return account; }
+        public BigDecimal getAmount() { return amount; }
+        public String getDescription() { return description; }
+        public FundsHold getHold() { return hold; }
+        public Transaction getPending() { return pending; }
+    }
+
+    private final TransactionType type;
+    private final String description;
+    private final List<Leg> legs = new ArrayList<>(2);
+
+    private JournalPosting(TransactionType type, String description) {
+        this.type = type;
+        this.description = description;
+    }
+
+    public static JournalPosting of(TransactionType type, String description) {
+        return new JournalPosting(type, description);
+    }
+
+    /**
+     * Adds a leg on a customer account, recorded in its history with {@code description}.
+     */
+    public JournalPosting account(Account account, BigDecimal amount, String description) {
+        if (account == null) {
+            throw new IllegalArgumentException("Customer account legs need an account.");
+        }
+        legs.add(new Leg(LedgerAccount.CUSTOMER_ACCOUNT, account, amount, description, null, null));
+        return this;
+    }
+
+    /**
+     * Adds the debit of a hold's captured amount on the hold's account. The hold must have been captured
+     * in the same transaction and not posted yet.
+     */
+    public JournalPosting captured(FundsHold hold, String description) {
+        if (hold == null || hold.getStatus() != HoldStatus.CAPTURED || hold.getCapturedAmount() == null) {
+            throw new IllegalArgumentException("Only captured holds can be posted, got " + hold + ".");
+        }
+        legs.add(new Leg(LedgerAccount.CUSTOMER_ACCOUNT, hold.getAccount(), hold.getCapturedAmount().negate(),
+                description, hold, null));
+        return this;
+    }
+
+    /**
+     * Makes the last leg complete {@code pending}, a PENDING history row of the same account, rather than
+     * record a new row.
+     */
+    public JournalPosting settles(Transaction pending) {
+        if (legs.isEmpty() || legs.get(legs.size() - 1).account == null) {
+            throw new IllegalArgumentException("Only a customer account leg can settle a pending transaction.");
+        }
+        Leg last = legs.get(legs.size() - 1);
+        if (pending == null || pending.getStatus() != TransactionStatus.PENDING || !last.account.equals(pending.getAccount())) {
+            throw new IllegalArgumentException("Transaction " + (pending != null ? pending.getId() : null)
+                    + " is not a pending transaction of account " + last.account.getAccountNumber() + ".");
+        }
+        legs.set(legs.size() - 1, new Leg(last.ledger, last.account, last.amount, last.description, last.hold, pending));
+        return this;
+    }
+
+    /**
+     * Adds a leg on one of the bank's own ledgers.
+     */
+    public JournalPosting ledger(LedgerAccount ledger, BigDecimal amount) {
+        if (ledger == null || ledger == LedgerAccount.CUSTOMER_ACCOUNT) {
+            throw new IllegalArgumentException("Bank ledger legs need one of the bank's own ledgers, got " + ledger + ".");
+        }
+        legs.add(new Leg(ledger, null, amount, null, null, null));
+        return this;
+    }
+
+    public TransactionType getType() { return type; }
+    public String getDescription() { return description; }
+
+    public List<Leg> getLegs() {
+        return Collections.unmodifiableList(legs);
+    }
+}
@@ -0,0 +1,34 @@
+package lk.banking.services.journal;
+
+import jakarta.ejb.Local;
+import lk.banking.core.entity.JournalLine;
+import lk.banking.core.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * The one way money moves: every transfer, payment and interest credit is posted here as a balanced
+ * double-entry journal entry.
+ */
+@Local
+public interface JournalService {
+
+    /**
+     * Posts the entry in the caller's transaction: writes the header, all legs in one multi-row INSERT,
+     * applies each account leg to its account's balance and records it in the account's history.
+     * Callers check account state first. Debits are checked against the available balance by the UPDATE
+     * that applies them, so a stale check by the caller cannot overdraw the account.
+     *
+     * @return the account-history rows written for the account legs, in the order they were added.
+     * @throws IllegalArgumentException if the posting has fewer than two legs, a zero leg, or does not
+     *         sum to zero.
+     * @throws lk.banking.core.exception.InsufficientFundsException if a debit exceeds the available balance.
+     */
+    List<Transaction> post(JournalPosting posting);
+
+    /** The legs of a journal entry, in the order they were posted. */
+    List<JournalLine> getLines(Long journalEntryId);
+
+    /** The other account-history rows of the entry {@code transactionId} belongs to, e.g. the far side of a transfer. */
+    List<Transaction> getCounterparts(Long transactionId);
+}
@@ -0,0 +1,213 @@
+package lk.banking.services.journal;
+
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import jakarta.interceptor.Interceptors;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.JournalEntry;
+import lk.banking.core.entity.JournalLine;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.exception.AccountNotFoundException;
+import lk.banking.core.exception.InsufficientFundsException;
+import lk.banking.core.metrics.RowLockWaits;
+import lk.banking.core.util.MultiRowInsert;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+import lk.banking.services.shards.BalanceShardService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes journal entries. The header is persisted and flushed first because its IDENTITY key is needed by
+ * the legs, which then go into journal_lines with a single multi-row INSERT. MySQL cannot check that the
+ * legs of an entry sum to zero, so that rule is enforced here, before anything is written.
+ * <p>
+ * Account legs are applied with one UPDATE each rather than by writing back the balance that was read.
+ * A debit only matches while the available balance covers it, so two debits racing on one account cannot
+ * both pass a check made on the same stale value; the loser gets an InsufficientFundsException and its
+ * transaction rolls back. The rows are updated in account id order whatever order the legs were posted
+ * in, so transfers between the same two accounts in opposite directions cannot deadlock; history rows
+ * keep the posting order. The time each of these UPDATEs takes is recorded in {@link RowLockWaits}, which
+ * is how accounts whose row is contended get found and sharded (see {@link BalanceShardService}).
+ */
+@Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
+public class JournalServiceImpl implements JournalService {
+
+    static final String TABLE = "journal_lines";
+    static final List<String> COLUMNS = List.of("entryId", "ledger", "accountId", "amount");
+
+    /** Bulk UPDATEs skip @PreUpdate, so each statement sets updatedAt itself. */
+    static final String CREDIT = "UPDATE Account a SET a.balance = a.balance + :amount,"
+            + " a.availableBalance = a.availableBalance + :amount, a.updatedAt = CURRENT_TIMESTAMP WHERE a.id = :id";
+    static final String DEBIT = CREDIT + " AND a.availableBalance >= :required";
+    /** The funds left the available balance when the hold was placed. */
+    static final String DEBIT_HOLD = "UPDATE Account a SET a.balance = a.balance + :amount,"
+            + " a.updatedAt = CURRENT_TIMESTAMP WHERE a.id = :id";
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
+    @Override
+    public List<Transaction> post(JournalPosting posting) {
+        List<JournalPosting.Leg> legs = posting.getLegs();
+        validate(posting, legs);
+
+        LocalDateTime postedAt = LocalDateTime.now();
+        JournalEntry entry = new JournalEntry(posting.getType(), posting.getDescription(), postedAt);
+        em.persist(entry);
+        em.flush();
+
+        // Balances first, in account id order: refreshing an account must not meet history rows that are not
+        // written yet
+        List<JournalPosting.Leg> accountLegs = new ArrayList<>(legs.size());
+        for (JournalPosting.Leg leg : legs) {
+            if (leg.getAccount() != null) {
+                accountLegs.add(leg);
+            }
+        }
+        accountLegs.sort(Comparator.comparing(leg -> leg.getAccount().getId()));
+        for (JournalPosting.Leg leg : accountLegs) {
+            apply(leg);
+        }
+
+        List<Object[]> rows = new ArrayList<>(legs.size());
+        List<Transaction> history = new ArrayList<>(legs.size());
+        for (JournalPosting.Leg leg : legs) {
+            Account account = leg.getAccount();
+            Long accountId = null;
+            if (account != null) {
+                accountId = account.getId();
+                Transaction transaction = leg.getPending();
+                if (transaction != null) {
+                    transaction.setAmount(leg.getAmount());
+                    transaction.setStatus(TransactionStatus.COMPLETED);
+                    transaction.setTimestamp(postedAt);
+                    if (leg.getDescription() != null) {
+                        transaction.setDescription(leg.getDescription());
+                    }
+                } else {
+                    transaction = new Transaction(account, leg.getAmount(), posting.getType(),
+                            TransactionStatus.COMPLETED, postedAt, leg.getDescription());
+                }
+                transaction.setJournalEntryId(entry.getId());
+                if (leg.getPending() == null) {
+                    em.persist(transaction);
+                }
+                if (leg.getHold() != null) {
+                    leg.getHold().setJournalEntryId(entry.getId());
+                }
+                history.add(transaction);
+            }
+            rows.add(new Object[]{entry.getId(), leg.getLedger().name(), accountId, leg.getAmount()});
+        }
+        MultiRowInsert.execute(em, TABLE, COLUMNS, rows);
+        return history;
+    }
+
+    @Override
+    public List<JournalLine> getLines(Long journalEntryId) {
+        return em.createQuery(
+                        "SELECT l FROM JournalLine l WHERE l.entryId = :entryId ORDER BY l.id", JournalLine.class)
+                .setParameter("entryId", journalEntryId)
+                .getResultList();
+    }
+
+    @Override
+    public List<Transaction> getCounterparts(Long transactionId) {
+        return em.createQuery(
+                        "SELECT c FROM Transaction t, Transaction c WHERE t.id = :id"
+                                + " AND c.journalEntryId = t.journalEntryId AND c.id <> t.id ORDER BY c.id", Transaction.class)
+                .setParameter("id", transactionId)
+                .getResultList();
+    }
+
+    /**
+     * Moves one account's balance with a single UPDATE, then reloads the account so the caller sees the
+     * values the database now holds.
+     */
+    private void apply(JournalPosting.Leg leg) {
+        Account account = leg.getAccount();
+        BigDecimal amount = leg.getAmount();
+        if (account.getBalanceShards() > 0 && leg.getHold() == null) {
+            applySharded(account, amount);
+            return;
+        }
+        String statement = leg.getHold() != null ? DEBIT_HOLD : amount.signum() < 0 ? DEBIT : CREDIT;
+        Query update = em.createQuery(statement)
+                .setParameter("amount", amount)
+                .setParameter("id", account.getId());
+        if (statement == DEBIT) {
+            update.setParameter("required", amount.negate());
+        }
+        long started = System.nanoTime();
+        int updated = update.executeUpdate();
+        RowLockWaits.getDefault().record(account.getId(), System.nanoTime() - started);
+        if (updated == 0) {
+            if (statement == DEBIT) {
+                throw new InsufficientFundsException("Insufficient funds in account " + account.getAccountNumber() + ".");
+            }
+            throw new AccountNotFoundException("Account with ID " + account.getId() + " not found.");
+        }
+        em.refresh(account);
+    }
+
+    /**
+     * A credit goes to one of the account's shards and leaves the account row alone. A debit takes a single
+     * shard that covers it, or else the account row once the shards have been consolidated into it; the
+     * shards are always locked before the row.
+     */
+    private void applySharded(Account account, BigDecimal amount) {
+        if (amount.signum() > 0) {
+            balanceShardService.credit(account, amount);
+            return;
+        }
+        if (balanceShardService.debit(account, amount.negate())) {
+            return;
+        }
+        balanceShardService.consolidate(account.getId());
+        Query update = em.createQuery(DEBIT)
+                .setParameter("amount", amount)
+                .setParameter("id", account.getId())
+                .setParameter("required", amount.negate());
+        long started = System.nanoTime();
+        int updated = update.executeUpdate();
+        RowLockWaits.getDefault().record(account.getId(), System.nanoTime() - started);
+        if (updated == 0) {
+            throw new InsufficientFundsException("Insufficient funds in account " + account.getAccountNumber() + ".");
+        }
+        em.refresh(account);
+    }
+
+    private static void validate(JournalPosting posting, List<JournalPosting.Leg> legs) {
+        if (posting.getType() == null) {
+            throw new IllegalArgumentException("A journal entry needs a type.");
+        }
+        if (legs.size() < 2) {
+            throw new IllegalArgumentException("A journal entry needs at least two legs, got " + legs.size() + ".");
+        }
+        BigDecimal sum = BigDecimal.ZERO;
+        for (JournalPosting.Leg leg : legs) {
+            if (leg.getAmount() == null || leg.getAmount().signum() == 0) {
+                throw new IllegalArgumentException("Journal legs must have a non-zero amount.");
+            }
+            sum = sum.add(leg.getAmount());
+            if (leg.getHold() != null && leg.getHold().getJournalEntryId() != null) {
+                throw new IllegalArgumentException("Funds hold " + leg.getHold().getId() + " has already been posted.");
+            }
+        }
+        if (sum.signum() != 0) {
+            throw new IllegalArgumentException("Journal entry '" + posting.getDescription() + "' does not balance: legs sum to " + sum + ".");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package lk.banking.services.shards;
+
+import jakarta.ejb.Local;
+import lk.banking.core.entity.Account;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits the balance of a hot account across sub-balance rows so that concurrent credits update different
+ * rows instead of queueing on the account row. Only credits are spread out; debits and holds still draw on
+ * the account row, after consolidating the shards into it when it falls short.
+ * <p>
+ * Lock order is always shards before the account row, which is what a credit does anyway (its history
+ * row's foreign key takes a shared lock on the account after the shard UPDATE).
+ */
+@Local
+public interface BalanceShardService {
+
+    /** Adds a credit to a randomly chosen shard of a sharded account. */
+    void credit(Account account, BigDecimal amount);
+
+    /**
+     * Takes {@code amount} from a single shard that covers it.
+     *
+     * @return false if no shard holds enough on its own; the caller then debits the account row, consolidating first.
+     */
+    boolean debit(Account account, BigDecimal amount);
+
+    /**
+     * Moves everything in the account's shards into its balance and available balance, with the shards
+     * locked for the rest of the transaction.
+     *
+     * @return the amount moved.
+     */
+    BigDecimal consolidate(Long accountId);
+
+    /**
+     * The account's balance including its shards. The shard total is also left on the account, so that
+     * {@link Account#getTotalBalance()} reports the same figure.
+     */
+    BigDecimal balance(Account account);
+
+    /**
+     * Loads the shard totals of the sharded accounts among {@code accounts} with one query, for
+     * {@link Account#getTotalBalance()}. Nothing is queried when none of them is sharded.
+     */
+    void loadBalances(Collection<Account> accounts);
+
+    /**
+     * Shards an account into {@code shards} sub-balances, or re-shards it if it already is. Existing
+     * shards are consolidated first.
+     *
+     * @throws IllegalArgumentException if {@code shards} is less than 2.
+     * @throws lk.banking.core.exception.AccountNotFoundException if the account does not exist.
+     */
+    void enable(Long accountId, int shards);
+
+    /** Consolidates the account's shards and turns sharding off for it. */
+    void disable(Long accountId);
+
+    /** Ids of all sharded accounts, in id order. */
+    List<Long> getShardedAccountIds();
+}
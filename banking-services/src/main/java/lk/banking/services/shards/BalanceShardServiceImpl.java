@@ -0,0 +1,213 @@
+package lk.banking.services.shards;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.Stateless;
+import jakarta.interceptor.Interceptors;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.LedgerChangeListener;
+import lk.banking.core.exception.AccountNotFoundException;
+import lk.banking.core.util.MultiRowInsert;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * Shards are plain rows updated with native statements; nothing caches them. The account row is only
+ * written with JPQL bulk updates, which also invalidate its shared-cache entry. Consolidation bypasses the
+ * entity listeners, so once it commits the account's ledger listeners are told it changed.
+ */
+@Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
+public class BalanceShardServiceImpl implements BalanceShardService {
+
+    private static final Logger LOGGER = Logger.getLogger(BalanceShardServiceImpl.class.getName());
+
+    static final String TABLE = "account_balance_shards";
+    static final List<String> COLUMNS = List.of("accountId", "shard", "balance");
+
+    static final String CREDIT_SHARD = "UPDATE account_balance_shards SET balance = balance + ? WHERE accountId = ? AND shard = ?";
+    static final String DEBIT_SHARD = "UPDATE account_balance_shards SET balance = balance - ?"
+            + " WHERE accountId = ? AND balance >= ? LIMIT 1";
+    static final String LOCK_SHARDS = "SELECT COALESCE(SUM(balance), 0) FROM account_balance_shards WHERE accountId = ? FOR UPDATE";
+    static final String EMPTY_SHARDS = "UPDATE account_balance_shards SET balance = 0 WHERE accountId = ? AND balance <> 0";
+    static final String DELETE_SHARDS = "DELETE FROM account_balance_shards WHERE accountId = ?";
+    static final String SHARD_TOTAL = "SELECT COALESCE(SUM(balance), 0) FROM account_balance_shards WHERE accountId = ?";
+    static final String SHARD_TOTALS = "SELECT accountId, COALESCE(SUM(balance), 0) FROM account_balance_shards"
+            + " WHERE accountId IN (%s) GROUP BY accountId";
+    /** Bulk UPDATEs skip @PreUpdate, so the statement sets updatedAt itself. */
+    static final String CREDIT_ACCOUNT = "UPDATE Account a SET a.balance = a.balance + :amount,"
+            + " a.availableBalance = a.availableBalance + :amount, a.updatedAt = CURRENT_TIMESTAMP WHERE a.id = :id";
+    static final String SET_SHARDS = "UPDATE Account a SET a.balanceShards = :shards WHERE a.id = :id";
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Override
+    public void credit(Account account, BigDecimal amount) {
+        int shard = ThreadLocalRandom.current().nextInt(account.getBalanceShards());
+        int updated = em.createNativeQuery(CREDIT_SHARD)
+                .setParameter(1, amount)
+                .setParameter(2, account.getId())
+                .setParameter(3, shard)
+                .executeUpdate();
+        if (updated == 0) {
+            // Sharding was turned off or narrowed since the account was read: credit the row itself
+            creditAccount(account.getId(), amount);
+            em.refresh(account);
+        }
+    }
+
+    @Override
+    public boolean debit(Account account, BigDecimal amount) {
+        return em.createNativeQuery(DEBIT_SHARD)
+                .setParameter(1, amount)
+                .setParameter(2, account.getId())
+                .setParameter(3, amount)
+                .executeUpdate() > 0;
+    }
+
+    @Override
+    public BigDecimal consolidate(Long accountId) {
+        BigDecimal total = decimal(em.createNativeQuery(LOCK_SHARDS).setParameter(1, accountId).getSingleResult());
+        if (total.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        em.createNativeQuery(EMPTY_SHARDS).setParameter(1, accountId).executeUpdate();
+        creditAccount(accountId, total);
+        Account account = em.find(Account.class, accountId);
+        if (account != null) {
+            em.refresh(account);
+            account.setShardBalance(BigDecimal.ZERO);
+        }
+        afterCommit(accountId);
+        return total;
+    }
+
+    @Override
+    public BigDecimal balance(Account account) {
+        if (account.getBalanceShards() == 0) {
+            return account.getBalance();
+        }
+        account.setShardBalance(decimal(em.createNativeQuery(SHARD_TOTAL)
+                .setParameter(1, account.getId())
+                .getSingleResult()));
+        return account.getTotalBalance();
+    }
+
+    @Override
+    public void loadBalances(Collection<Account> accounts) {
+        List<Account> sharded = accounts.stream().filter(a -> a.getBalanceShards() > 0).toList();
+        if (sharded.isEmpty()) {
+            return;
+        }
+        Query query = em.createNativeQuery(String.format(SHARD_TOTALS,
+                sharded.stream().map(a -> "?").collect(Collectors.joining(", "))));
+        for (int i = 0; i < sharded.size(); i++) {
+            query.setParameter(i + 1, sharded.get(i).getId());
+        }
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            totals.put(((Number) columns[0]).longValue(), decimal(columns[1]));
+        }
+        for (Account account : sharded) {
+            account.setShardBalance(totals.getOrDefault(account.getId(), BigDecimal.ZERO));
+        }
+    }
+
+    @Override
+    public void enable(Long accountId, int shards) {
+        if (shards < 2) {
+            throw new IllegalArgumentException("A sharded account needs at least 2 shards, got " + shards + ".");
+        }
+        Account account = find(accountId);
+        consolidate(accountId);
+        em.createNativeQuery(DELETE_SHARDS).setParameter(1, accountId).executeUpdate();
+        List<Object[]> rows = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            rows.add(new Object[]{accountId, shard, BigDecimal.ZERO});
+        }
+        MultiRowInsert.execute(em, TABLE, COLUMNS, rows);
+        setShards(account, shards);
+        LOGGER.info("BalanceShardServiceImpl: Account " + account.getAccountNumber() + " now has " + shards + " balance shards.");
+    }
+
+    @Override
+    public void disable(Long accountId) {
+        Account account = find(accountId);
+        consolidate(accountId);
+        em.createNativeQuery(DELETE_SHARDS).setParameter(1, accountId).executeUpdate();
+        setShards(account, 0);
+        LOGGER.info("BalanceShardServiceImpl: Account " + account.getAccountNumber() + " is no longer sharded.");
+    }
+
+    @Override
+    public List<Long> getShardedAccountIds() {
+        return em.createQuery("SELECT a.id FROM Account a WHERE a.balanceShards > 0 ORDER BY a.id", Long.class)
+                .getResultList();
+    }
+
+    private Account find(Long accountId) {
+        Account account = em.find(Account.class, accountId);
+        if (account == null) {
+            throw new AccountNotFoundException("Account with ID " + accountId + " not found.");
+        }
+        return account;
+    }
+
+    private void creditAccount(Long accountId, BigDecimal amount) {
+        em.createQuery(CREDIT_ACCOUNT)
+                .setParameter("amount", amount)
+                .setParameter("id", accountId)
+                .executeUpdate();
+    }
+
+    /** Evicts the account and notifies the ledger listeners once the consolidation has committed. */
+    private void afterCommit(Long accountId) {
+        Cache cache = em.getEntityManagerFactory().getCache();
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    return;
+                }
+                cache.evict(Account.class, accountId);
+                LedgerChangeListener.accountChanged(accountId);
+            }
+        });
+    }
+
+    private void setShards(Account account, int shards) {
+        em.createQuery(SET_SHARDS)
+                .setParameter("shards", shards)
+                .setParameter("id", account.getId())
+                .executeUpdate();
+        em.refresh(account);
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,140 @@
+package lk.banking.services;
+
+import jakarta.ejb.SessionContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lk.banking.core.entity.AccountNumberSequence;
+import lk.banking.core.util.AccountNumberGenerator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountNumberAllocator Unit Tests")
+public class AccountNumberAllocatorTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private SessionContext sessionContext;
+
+    @InjectMocks
+    private AccountNumberAllocator allocator;
+
+    private AccountNumberSequence sequence;
+
+    @BeforeEach
+    void setUp() {
+        sequence = new AccountNumberSequence(AccountNumberAllocator.SEQUENCE_NAME, 0L);
+        lenient().when(sessionContext.getBusinessObject(AccountNumberAllocator.class)).thenReturn(allocator);
+        lenient().when(entityManager.find(AccountNumberSequence.class, AccountNumberAllocator.SEQUENCE_NAME,
+                LockModeType.PESSIMISTIC_WRITE)).thenReturn(sequence);
+    }
+
+    @Test
+    @DisplayName("should serve a whole block from memory after one locked reservation")
+    void nextAccountNumber_ReservesOneBlockForManyNumbers() {
+        for (int i = 0; i < 100; i++) {
+            allocator.nextAccountNumber();
+        }
+
+        assertThat(sequence.getNextValue()).isEqualTo(100L);
+        verify(entityManager, times(1)).find(AccountNumberSequence.class, AccountNumberAllocator.SEQUENCE_NAME,
+                LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    @Test
+    @DisplayName("should reserve the next block when the current one is used up")
+    void nextAccountNumber_ReservesNextBlockWhenExhausted() {
+        for (int i = 0; i < 101; i++) {
+            allocator.nextAccountNumber();
+        }
+
+        assertThat(sequence.getNextValue()).isEqualTo(200L);
+        verify(entityManager, times(2)).find(AccountNumberSequence.class, AccountNumberAllocator.SEQUENCE_NAME,
+                LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    @Test
+    @DisplayName("should continue after values reserved by other servers")
+    void nextAccountNumber_StartsAtSharedSequenceValue() {
+        sequence.setNextValue(5_000L);
+
+        String number = allocator.nextAccountNumber();
+
+        assertThat(number).isEqualTo(AccountNumberGenerator.fromSequence(5_000L));
+        assertThat(sequence.getNextValue()).isEqualTo(5_100L);
+    }
+
+    @Test
+    @DisplayName("should create the sequence row if it is missing")
+    void reserveBlock_CreatesMissingSequence() {
+        when(entityManager.find(AccountNumberSequence.class, AccountNumberAllocator.SEQUENCE_NAME,
+                LockModeType.PESSIMISTIC_WRITE)).thenReturn(null);
+
+        long start = allocator.reserveBlock(50);
+
+        assertThat(start).isZero();
+        verify(entityManager).persist(any(AccountNumberSequence.class));
+    }
+
+    @Test
+    @DisplayName("should refuse to reserve beyond the 12-digit payload range")
+    void reserveBlock_SequenceExhausted() {
+        sequence.setNextValue(AccountNumberGenerator.SEQUENCE_LIMIT - 10);
+
+        assertThatThrownBy(() -> allocator.reserveBlock(100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exhausted");
+        assertThat(sequence.getNextValue()).isEqualTo(AccountNumberGenerator.SEQUENCE_LIMIT - 10);
+    }
+
+    @Test
+    @DisplayName("should issue distinct 13-digit numbers with a valid check digit")
+    void nextAccountNumber_DistinctAndCheckDigitValid() {
+        Set<String> issued = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String number = allocator.nextAccountNumber();
+            assertThat(number).hasSize(AccountNumberGenerator.LENGTH).containsOnlyDigits();
+            assertThat(AccountNumberGenerator.isValid(number)).isTrue();
+            issued.add(number);
+        }
+        assertThat(issued).hasSize(10_000);
+    }
+
+    @Test
+    @DisplayName("should reject single-digit typos, dropped digits and unchecked 12-digit numbers")
+    void isValid_RejectsTyposAndLegacyShape() {
+        String number = AccountNumberGenerator.fromSequence(42L);
+        for (int i = 0; i < number.length(); i++) {
+            char original = number.charAt(i);
+            for (char c = '0'; c <= '9'; c++) {
+                if (c != original) {
+                    String typo = number.substring(0, i) + c + number.substring(i + 1);
+                    assertThat(AccountNumberGenerator.isValid(typo)).as(typo).isFalse();
+                }
+            }
+        }
+        assertThat(AccountNumberGenerator.isValid(number.substring(1))).isFalse();
+        assertThat(AccountNumberGenerator.isValid("100000000001")).isFalse();
+        assertThat(AccountNumberGenerator.isLegacyFormat("100000000001")).isTrue();
+        assertThat(AccountNumberGenerator.isLegacyFormat(number)).isFalse();
+        assertThat(AccountNumberGenerator.isValid("12345")).isFalse();
+        assertThat(AccountNumberGenerator.isValid("12345678901a3")).isFalse();
+        assertThat(AccountNumberGenerator.isValid(null)).isFalse();
+    }
+}
@@ -3,17 +3,22 @@ package lk.banking.services;
 import lk.banking.core.dto.AccountDto;
 import lk.banking.core.entity.*;
 import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.LedgerAccount;
 import lk.banking.core.entity.enums.UserRole;
 import lk.banking.core.exception.AccountNotFoundException;
 import lk.banking.core.exception.CustomerNotFoundException;
 import lk.banking.core.exception.InvalidTransactionException;
 import lk.banking.core.exception.UserNotFoundException;
 import lk.banking.core.exception.ValidationException;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
+import lk.banking.services.shards.BalanceShardService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -46,6 +51,15 @@ public class AccountServiceImplTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private JournalService journalService;
+
+    @Mock
+    private BalanceShardService balanceShardService;
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
@@ -56,6 +70,8 @@ public class AccountServiceImplTest {
     private TypedQuery<Customer> mockCustomerTypedQuery;
     @Mock
     private TypedQuery<User> mockUserTypedQuery;
+    @Mock
+    private TypedQuery<Long> mockCountTypedQuery;
 
 
     private Customer testCustomer;
@@ -104,12 +120,8 @@ public class AccountServiceImplTest {
         // Mock dependencies specific to this test
         when(entityManager.find(eq(Customer.class), eq(testCustomer.getId()))).thenReturn(testCustomer);
 
-        // Mock Account number generation uniqueness check
-        // when createQuery is called for Account and setParameter, then return a mock query.
-        // For getSingleResult(), throw NoResultException to simulate uniqueness.
-        when(entityManager.createQuery(anyString(), eq(Account.class))).thenReturn(mockAccountTypedQuery);
-        when(mockAccountTypedQuery.setParameter(anyString(), anyString())).thenReturn(mockAccountTypedQuery);
-        when(mockAccountTypedQuery.getSingleResult()).thenThrow(NoResultException.class);
+        // Account numbers come from the allocator; no uniqueness query is needed
+        when(accountNumberAllocator.nextAccountNumber()).thenReturn("4821730596182");
 
         // When
         Account createdAccount = accountService.createAccount(accountDto);
@@ -119,8 +131,9 @@ public class AccountServiceImplTest {
         assertThat(createdAccount.getCustomer()).isEqualTo(testCustomer); // Verify customer object is set
         assertThat(createdAccount.getType()).isEqualTo(AccountType.SAVINGS);
         assertThat(createdAccount.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(100.00));
-        assertThat(createdAccount.getAccountNumber()).isNotNull().hasSize(12);
+        assertThat(createdAccount.getAccountNumber()).isEqualTo("4821730596182");
         verify(entityManager, times(1)).persist(any(Account.class));
+        verify(entityManager, never()).createQuery(anyString(), eq(Account.class));
     }
 
     @Test
@@ -359,6 +372,22 @@ public class AccountServiceImplTest {
                 .hasMessageContaining("Account with number nonexistent not found.");
     }
 
+    @Test
+    @DisplayName("should accept a 12-digit number only when such an account exists")
+    void isLegacyAccountNumber_LooksUpTwelveDigitNumbers() {
+        // Given
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(mockCountTypedQuery);
+        when(mockCountTypedQuery.setParameter(anyString(), anyString())).thenReturn(mockCountTypedQuery);
+        when(mockCountTypedQuery.getSingleResult()).thenReturn(1L, 0L);
+
+        // When / Then
+        assertThat(accountService.isLegacyAccountNumber("100000000001")).isTrue();
+        assertThat(accountService.isLegacyAccountNumber("100000000002")).isFalse();
+        assertThat(accountService.isLegacyAccountNumber("4821730596182")).isFalse();
+        assertThat(accountService.isLegacyAccountNumber("10000000000a")).isFalse();
+        verify(entityManager, times(2)).createQuery(anyString(), eq(Long.class));
+    }
+
     // --- Test getAccountsByCustomer method ---
     @Test
     @DisplayName("should retrieve accounts by customer successfully")
@@ -588,7 +617,6 @@ public class AccountServiceImplTest {
     void applyAccruedInterest_Success() {
         // Given
         BigDecimal interestAmount = new BigDecimal("10.50");
-        BigDecimal initialBalance = testAccountSavings.getBalance();
         LocalDateTime initialLastAppliedDate = testAccountSavings.getLastInterestAppliedDate();
 
         // Correct mock for getAccountById internal call
@@ -601,9 +629,18 @@ public class AccountServiceImplTest {
 
         // Then
         assertThat(updatedAccount).isNotNull();
-        assertThat(updatedAccount.getBalance()).isEqualByComparingTo(initialBalance.add(interestAmount));
         assertThat(updatedAccount.getLastInterestAppliedDate()).isAfter(initialLastAppliedDate); // Date should be updated
-        verify(entityManager, times(1)).persist(any(Transaction.class)); // Verify transaction record was persisted
+
+        // The balance is updated by the journal: the account is credited against interest expense
+        ArgumentCaptor<JournalPosting> postingCaptor = ArgumentCaptor.forClass(JournalPosting.class);
+        verify(journalService, times(1)).post(postingCaptor.capture());
+        List<JournalPosting.Leg> legs = postingCaptor.getValue().getLegs();
+        assertThat(legs).extracting(JournalPosting.Leg::getLedger)
+                .containsExactly(LedgerAccount.CUSTOMER_ACCOUNT, LedgerAccount.INTEREST_EXPENSE);
+        assertThat(legs.get(0).getAccount()).isEqualTo(testAccountSavings);
+        assertThat(legs.get(0).getAmount()).isEqualByComparingTo(interestAmount);
+        assertThat(legs.get(1).getAmount()).isEqualByComparingTo(interestAmount.negate());
+        verify(entityManager, never()).persist(any());
     }
 
     @Test
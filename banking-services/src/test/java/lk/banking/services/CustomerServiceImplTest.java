@@ -2,6 +2,7 @@ package lk.banking.services;
 
 import lk.banking.core.dto.CustomerDto;
 import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.enums.DigestSchedule;
 import lk.banking.core.exception.CustomerNotFoundException;
 import lk.banking.core.exception.ResourceConflictException;
 
@@ -221,6 +222,20 @@ public class CustomerServiceImplTest {
         verify(entityManager, times(1)).find(eq(Customer.class), eq(99L));
     }
 
+    @Test
+    @DisplayName("should change the notification digest of a customer")
+    void updateNotificationDigest_Success() {
+        // Given
+        when(entityManager.find(eq(Customer.class), eq(testCustomer.getId()))).thenReturn(testCustomer);
+        assertThat(testCustomer.getNotificationDigest()).isEqualTo(DigestSchedule.NONE);
+
+        // When
+        Customer updatedCustomer = customerService.updateNotificationDigest(testCustomer.getId(), DigestSchedule.DAILY);
+
+        // Then
+        assertThat(updatedCustomer.getNotificationDigest()).isEqualTo(DigestSchedule.DAILY);
+    }
+
     // --- Test deleteCustomer method ---
     @Test
     @DisplayName("should delete a customer successfully")
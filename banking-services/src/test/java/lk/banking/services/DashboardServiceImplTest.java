@@ -0,0 +1,249 @@
+package lk.banking.services;
+
+import lk.banking.core.dto.DashboardView;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.ScheduledTransfer;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.core.exception.CustomerNotFoundException;
+import lk.banking.services.shards.BalanceShardService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardServiceImpl Unit Tests")
+public class DashboardServiceImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Mock
+    private BalanceShardService balanceShardService;
+
+    @InjectMocks
+    private DashboardServiceImpl dashboardService;
+
+    @Mock
+    private TypedQuery<Object[]> mockDashboardQuery;
+
+    @Mock
+    private TypedQuery<Transaction> mockTransactionQuery;
+
+    private Customer testCustomer;
+    private Account savings;
+    private Account current;
+    private List<Object[]> dashboardRows;
+
+    @BeforeEach
+    void setUp() {
+        testCustomer = new Customer("John Doe", "john.doe@example.com", "123 Main St", "1234567890");
+        testCustomer.setId(1L);
+
+        savings = new Account("000000000001", AccountType.SAVINGS, new BigDecimal("500.00"), testCustomer);
+        savings.setId(10L);
+        savings.setIsActive(true);
+        current = new Account("000000000002", AccountType.CURRENT, new BigDecimal("250.00"), testCustomer);
+        current.setId(11L);
+        current.setIsActive(true);
+
+        Account other = new Account("000000000099", AccountType.SAVINGS, BigDecimal.ZERO, new Customer());
+        ScheduledTransfer later = new ScheduledTransfer(savings, other, new BigDecimal("40.00"), LocalDateTime.now().plusDays(2));
+        later.setId(100L);
+        ScheduledTransfer sooner = new ScheduledTransfer(current, savings, new BigDecimal("15.00"), LocalDateTime.now().plusDays(1));
+        sooner.setId(101L);
+
+        // One row per account and pending transfer, as the LEFT JOINs produce them
+        dashboardRows = new ArrayList<>();
+        dashboardRows.add(new Object[]{testCustomer, savings, later, "000000000099"});
+        dashboardRows.add(new Object[]{testCustomer, current, sooner, "000000000001"});
+
+        lenient().when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(mockDashboardQuery);
+        lenient().when(mockDashboardQuery.setParameter(anyString(), any())).thenReturn(mockDashboardQuery);
+        lenient().when(mockDashboardQuery.getResultList()).thenReturn(dashboardRows);
+
+        Transaction deposit = new Transaction(savings, new BigDecimal("500.00"), TransactionType.DEPOSIT,
+                TransactionStatus.COMPLETED, LocalDateTime.now().minusHours(1), "Initial deposit");
+        deposit.setId(1000L);
+        lenient().when(entityManager.createQuery(anyString(), eq(Transaction.class))).thenReturn(mockTransactionQuery);
+        lenient().when(mockTransactionQuery.setParameter(anyString(), any())).thenReturn(mockTransactionQuery);
+        lenient().when(mockTransactionQuery.setMaxResults(anyInt())).thenReturn(mockTransactionQuery);
+        lenient().when(mockTransactionQuery.getResultList()).thenReturn(List.of(deposit));
+    }
+
+    @Test
+    @DisplayName("should build the dashboard from the customer query and one transaction query")
+    void getCustomerDashboard_BuildsView() {
+        DashboardView view = dashboardService.getCustomerDashboard("john.doe@example.com");
+
+        assertThat(view.getCustomer().getId()).isEqualTo(1L);
+        assertThat(view.getAccounts()).extracting("id").containsExactly(10L, 11L);
+        assertThat(view.getTotalBalance()).isEqualByComparingTo("750.00");
+        assertThat(view.getRecentTransactions()).hasSize(1);
+        assertThat(view.getPendingTransfers()).extracting("id").containsExactly(101L, 100L);
+        assertThat(view.getPendingTransfers().get(0).getFromAccountNumber()).isEqualTo("000000000002");
+        assertThat(view.getPendingTransfers().get(0).getToAccountNumber()).isEqualTo("000000000001");
+
+        verify(entityManager, times(1)).createQuery(anyString(), eq(Object[].class));
+        verify(entityManager, times(1)).createQuery(anyString(), eq(Transaction.class));
+        verify(mockTransactionQuery).setParameter("accountIds", List.of(10L, 11L));
+        verify(mockTransactionQuery).setMaxResults(DashboardServiceImpl.RECENT_TRANSACTIONS);
+    }
+
+    @Test
+    @DisplayName("should include the shards of a sharded account in its balance")
+    void getCustomerDashboard_ShardedAccount() {
+        current.setBalanceShards(8);
+        doAnswer(invocation -> {
+            current.setShardBalance(new BigDecimal("30.00"));
+            return null;
+        }).when(balanceShardService).loadBalances(any());
+
+        DashboardView view = dashboardService.getCustomerDashboard("john.doe@example.com");
+
+        assertThat(view.getAccounts().get(1).getBalance()).isEqualByComparingTo("280.00");
+        assertThat(view.getTotalBalance()).isEqualByComparingTo("780.00");
+    }
+
+    @Test
+    @DisplayName("should skip the transaction query for a customer without accounts")
+    void getCustomerDashboard_NoAccounts() {
+        dashboardRows.clear();
+        dashboardRows.add(new Object[]{testCustomer, null, null, null});
+
+        DashboardView view = dashboardService.getCustomerDashboard("john.doe@example.com");
+
+        assertThat(view.getAccounts()).isEmpty();
+        assertThat(view.getRecentTransactions()).isEmpty();
+        assertThat(view.getTotalBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+        verify(entityManager, never()).createQuery(anyString(), eq(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("should throw CustomerNotFoundException when no customer has the email")
+    void getCustomerDashboard_NotFound() {
+        when(mockDashboardQuery.getResultList()).thenReturn(Collections.emptyList());
+
+        assertThatThrownBy(() -> dashboardService.getCustomerDashboard("nobody@example.com"))
+                .isInstanceOf(CustomerNotFoundException.class)
+                .hasMessageContaining("nobody@example.com");
+        assertThat(dashboardService.cachedViews()).isZero();
+    }
+
+    @Test
+    @DisplayName("should answer repeated requests from the cache")
+    void getCustomerDashboard_CacheHit() {
+        DashboardView first = dashboardService.getCustomerDashboard("john.doe@example.com");
+        DashboardView second = dashboardService.getCustomerDashboard("john.doe@example.com");
+
+        assertThat(second).isSameAs(first);
+        verify(entityManager, times(1)).createQuery(anyString(), eq(Object[].class));
+    }
+
+    @Test
+    @DisplayName("should evict the view when one of its accounts changes")
+    void ledgerChanged_EvictsByAccount() {
+        DashboardView first = dashboardService.getCustomerDashboard("john.doe@example.com");
+
+        dashboardService.ledgerChanged(99L, null);
+        assertThat(dashboardService.getCustomerDashboard("john.doe@example.com")).isSameAs(first);
+
+        dashboardService.ledgerChanged(11L, null);
+        assertThat(dashboardService.getCustomerDashboard("john.doe@example.com")).isNotSameAs(first);
+        verify(entityManager, times(2)).createQuery(anyString(), eq(Object[].class));
+    }
+
+    @Test
+    @DisplayName("should evict the view when the customer opens a new account")
+    void ledgerChanged_EvictsByCustomer() {
+        DashboardView first = dashboardService.getCustomerDashboard("john.doe@example.com");
+
+        dashboardService.ledgerChanged(12L, 1L);
+
+        assertThat(dashboardService.getCustomerDashboard("john.doe@example.com")).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("should evict again once the changing transaction completes")
+    void ledgerChanged_EvictsAfterCompletion() {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+
+        dashboardService.ledgerChanged(10L, null);
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+
+        // A view read before the commit is cached in the meantime
+        DashboardView beforeCommit = dashboardService.getCustomerDashboard("john.doe@example.com");
+        assertThat(dashboardService.cachedViews()).isEqualTo(1);
+
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        assertThat(dashboardService.cachedViews()).isZero();
+        assertThat(dashboardService.getCustomerDashboard("john.doe@example.com")).isNotSameAs(beforeCommit);
+    }
+
+    @Test
+    @DisplayName("should evict every view showing the changed account and no other")
+    void ledgerChanged_EvictsIndexedViews() {
+        dashboardService.getCustomerDashboard("john.doe@example.com");
+        dashboardService.getCustomerDashboard("j.doe@example.com");
+        assertThat(dashboardService.cachedViews()).isEqualTo(2);
+
+        dashboardService.ledgerChanged(99L, 2L);
+        assertThat(dashboardService.cachedViews()).isEqualTo(2);
+
+        dashboardService.ledgerChanged(10L, null);
+        assertThat(dashboardService.cachedViews()).isZero();
+    }
+
+    @Test
+    @DisplayName("should record an account changed several times in one transaction once")
+    void ledgerChanged_DeduplicatesChanges() {
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+        when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        ArgumentCaptor<Object> changes = ArgumentCaptor.forClass(Object.class);
+
+        dashboardService.ledgerChanged(10L, null);
+        verify(transactionSynchronizationRegistry).putResource(any(), changes.capture());
+        when(transactionSynchronizationRegistry.getResource(any())).thenReturn(changes.getValue());
+        dashboardService.ledgerChanged(10L, null);
+        dashboardService.ledgerChanged(10L, null);
+
+        assertThat((Set<?>) changes.getValue()).hasSize(1);
+        verify(transactionSynchronizationRegistry, times(1)).registerInterposedSynchronization(any());
+    }
+}
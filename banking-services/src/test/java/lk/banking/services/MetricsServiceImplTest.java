@@ -0,0 +1,76 @@
+package lk.banking.services;
+
+import lk.banking.core.metrics.LatencyHistogram;
+import lk.banking.core.metrics.MethodMetrics;
+import lk.banking.core.metrics.MetricsRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MetricsServiceImpl Unit Tests")
+public class MetricsServiceImplTest {
+
+    private final MetricsServiceImpl metricsService = new MetricsServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        MetricsRegistry.getDefault().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MetricsRegistry.getDefault().clear();
+    }
+
+    @Test
+    @DisplayName("should report percentiles within histogram precision")
+    void histogram_PercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(10_000);
+        assertThat(snapshot.getMaxNanos()).isEqualTo(10_000_000L);
+        assertThat(snapshot.getValueAtQuantile(0.5)).isCloseTo(5_000_000L, withinPercentage(2));
+        assertThat(snapshot.getValueAtQuantile(0.99)).isCloseTo(9_900_000L, withinPercentage(2));
+        assertThat(snapshot.getValueAtQuantile(1.0)).isEqualTo(10_000_000L);
+    }
+
+    @Test
+    @DisplayName("should render latency histograms and error counts in Prometheus text format")
+    void scrape_RendersPrometheusText() {
+        MethodMetrics transfer = MetricsRegistry.getDefault().forMethod("FundTransferServiceImpl", "transferFunds");
+        transfer.recordSuccess(2_000_000L);   // 2 ms
+        transfer.recordSuccess(40_000_000L);  // 40 ms
+        transfer.recordFailure(300_000L, new IllegalStateException("boom"));
+
+        String text = metricsService.scrape();
+
+        String labels = "component=\"FundTransferServiceImpl\",method=\"transferFunds\"";
+        assertThat(text)
+                .contains("# TYPE banking_ejb_latency_seconds histogram")
+                .contains("banking_ejb_latency_seconds_bucket{" + labels + ",le=\"0.0005\"} 1\n")
+                .contains("banking_ejb_latency_seconds_bucket{" + labels + ",le=\"0.0025\"} 2\n")
+                .contains("banking_ejb_latency_seconds_bucket{" + labels + ",le=\"0.05\"} 3\n")
+                .contains("banking_ejb_latency_seconds_bucket{" + labels + ",le=\"+Inf\"} 3\n")
+                .contains("banking_ejb_latency_seconds_count{" + labels + "} 3\n")
+                .contains("banking_ejb_latency_quantile_seconds{" + labels + ",quantile=\"0.99\"}")
+                .contains("banking_ejb_errors_total{" + labels + ",exception=\"IllegalStateException\"} 1\n");
+    }
+
+    @Test
+    @DisplayName("should share one entry between overloads of the same method")
+    void forMethod_ReturnsSameInstanceForSameLabels() {
+        MethodMetrics first = MetricsRegistry.getDefault().forMethod("TransactionManagerBean", "withdrawFunds");
+        MethodMetrics second = MetricsRegistry.getDefault().forMethod("TransactionManagerBean", "withdrawFunds");
+
+        assertThat(first).isSameAs(second);
+        assertThat(MetricsRegistry.getDefault().getMethods()).hasSize(1);
+    }
+}
@@ -3,26 +3,34 @@ package lk.banking.services;
 import lk.banking.core.dto.TransactionDto;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.FundsHold;
 import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.User;
 import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.HoldStatus;
+import lk.banking.core.entity.enums.LedgerAccount;
 import lk.banking.core.entity.enums.TransactionStatus;
 import lk.banking.core.entity.enums.TransactionType;
 import lk.banking.core.exception.AccountNotFoundException;
 import lk.banking.core.exception.InsufficientFundsException;
 import lk.banking.core.exception.InvalidTransactionException;
 import lk.banking.core.exception.UserNotFoundException;
+import lk.banking.services.holds.HoldService;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.Answers; // For deep stubbing
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
 
@@ -46,6 +54,15 @@ public class TransactionServiceImplTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private JournalService journalService;
+
+    @Mock
+    private HoldService holdService;
+
+    @Mock
+    private TypedQuery<FundsHold> mockHoldTypedQuery;
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -137,6 +154,99 @@ public class TransactionServiceImplTest {
         verify(entityManager, never()).persist(any(Transaction.class));
     }
 
+    @Test
+    @DisplayName("should reserve the funds of a pending withdrawal with a hold linked to it")
+    void createTransaction_WithdrawalPlacesHold() {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setAccountId(testAccountSavings.getId());
+        transactionDto.setAmount(BigDecimal.valueOf(100.00));
+        transactionDto.setType(TransactionType.WITHDRAWAL);
+        transactionDto.setDescription("Branch withdrawal");
+        FundsHold hold = new FundsHold(testAccountSavings, BigDecimal.valueOf(100.00), "Branch withdrawal", LocalDateTime.now().plusDays(3));
+
+        when(entityManager.find(eq(Account.class), eq(testAccountSavings.getId()))).thenReturn(testAccountSavings);
+        when(holdService.place(eq(1L), eq(BigDecimal.valueOf(100.00)), eq("Branch withdrawal"), any(LocalDateTime.class))).thenReturn(hold);
+        doAnswer(invocation -> {
+            ((Transaction) invocation.getArgument(0)).setId(200L);
+            return null;
+        }).when(entityManager).persist(any(Transaction.class));
+
+        Transaction pending = transactionService.createTransaction(transactionDto);
+
+        assertThat(pending.getStatus()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(hold.getTransactionId()).isEqualTo(200L);
+    }
+
+    @Test
+    @DisplayName("should complete a pending withdrawal by capturing its hold and settling the pending row")
+    void completePendingTransaction_CapturesHold() {
+        Transaction pending = new Transaction(testAccountSavings, BigDecimal.valueOf(100.00), TransactionType.WITHDRAWAL,
+                TransactionStatus.PENDING, LocalDateTime.now().minusHours(1), "Branch withdrawal");
+        pending.setId(200L);
+        FundsHold hold = new FundsHold(testAccountSavings, BigDecimal.valueOf(100.00), "Branch withdrawal", LocalDateTime.now().plusDays(3));
+        hold.setId(5L);
+        FundsHold captured = new FundsHold(testAccountSavings, BigDecimal.valueOf(100.00), "Branch withdrawal", LocalDateTime.now().plusDays(3));
+        captured.setId(5L);
+        captured.setStatus(HoldStatus.CAPTURED);
+        captured.setCapturedAmount(BigDecimal.valueOf(100.00));
+
+        when(entityManager.find(Transaction.class, 200L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(pending);
+        when(entityManager.createQuery(anyString(), eq(FundsHold.class))).thenReturn(mockHoldTypedQuery);
+        when(mockHoldTypedQuery.setParameter(anyString(), any())).thenReturn(mockHoldTypedQuery);
+        when(mockHoldTypedQuery.setLockMode(LockModeType.PESSIMISTIC_WRITE)).thenReturn(mockHoldTypedQuery);
+        when(mockHoldTypedQuery.getResultList()).thenReturn(List.of(hold));
+        when(holdService.capture(5L, BigDecimal.valueOf(100.00))).thenReturn(captured);
+
+        transactionService.completePendingTransaction(200L);
+
+        ArgumentCaptor<JournalPosting> posting = ArgumentCaptor.forClass(JournalPosting.class);
+        verify(journalService).post(posting.capture());
+        JournalPosting.Leg debit = posting.getValue().getLegs().get(0);
+        assertThat(debit.getHold()).isSameAs(captured);
+        assertThat(debit.getPending()).isSameAs(pending);
+        assertThat(debit.getAmount()).isEqualByComparingTo("-100.00");
+        assertThat(posting.getValue().getLegs().get(1).getLedger()).isEqualTo(LedgerAccount.CASH);
+    }
+
+    @Test
+    @DisplayName("should release the hold of a cancelled pending transaction and refuse to settle it afterwards")
+    void cancelPendingTransaction_ReleasesHold() {
+        Transaction pending = new Transaction(testAccountSavings, BigDecimal.valueOf(40.00), TransactionType.PAYMENT,
+                TransactionStatus.PENDING, LocalDateTime.now().minusHours(1), "Card payment");
+        pending.setId(201L);
+        FundsHold hold = new FundsHold(testAccountSavings, BigDecimal.valueOf(40.00), "Card payment", LocalDateTime.now().plusDays(3));
+        hold.setId(6L);
+
+        when(entityManager.find(Transaction.class, 201L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(pending);
+        when(entityManager.createQuery(anyString(), eq(FundsHold.class))).thenReturn(mockHoldTypedQuery);
+        when(mockHoldTypedQuery.setParameter(anyString(), any())).thenReturn(mockHoldTypedQuery);
+        when(mockHoldTypedQuery.setLockMode(LockModeType.PESSIMISTIC_WRITE)).thenReturn(mockHoldTypedQuery);
+        when(mockHoldTypedQuery.getResultList()).thenReturn(List.of(hold));
+
+        assertThat(transactionService.cancelPendingTransaction(201L).getStatus()).isEqualTo(TransactionStatus.CANCELLED);
+        verify(holdService).release(6L);
+
+        assertThatThrownBy(() -> transactionService.completePendingTransaction(201L))
+                .isInstanceOf(InvalidTransactionException.class)
+                .hasMessageContaining("CANCELLED");
+        verifyNoInteractions(journalService);
+    }
+
+    @Test
+    @DisplayName("should lock a pending transaction before settling it and refuse one another caller already settled")
+    void completePendingTransaction_AlreadySettledUnderLock() {
+        Transaction settled = new Transaction(testAccountSavings, BigDecimal.valueOf(100.00), TransactionType.WITHDRAWAL,
+                TransactionStatus.COMPLETED, LocalDateTime.now().minusHours(1), "Branch withdrawal");
+        settled.setId(202L);
+        when(entityManager.find(Transaction.class, 202L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(settled);
+
+        assertThatThrownBy(() -> transactionService.completePendingTransaction(202L))
+                .isInstanceOf(InvalidTransactionException.class)
+                .hasMessageContaining("COMPLETED");
+        verify(entityManager, never()).find(Transaction.class, 202L);
+        verifyNoInteractions(holdService, journalService);
+    }
+
     // --- Test getTransactionById method ---
     @Test
     @DisplayName("should retrieve transaction by ID successfully")
@@ -271,19 +381,25 @@ public class TransactionServiceImplTest {
         when(toAccountQuery.setParameter(eq("num"), eq(toAccNum))).thenReturn(toAccountQuery);
         when(toAccountQuery.getSingleResult()).thenReturn(testAccountCurrent);
 
-        BigDecimal initialFromBalance = testAccountSavings.getBalance();
-        BigDecimal initialToBalance = testAccountCurrent.getBalance();
-
         // When
         boolean result = transactionService.transferFunds(performingUserId, fromAccNum, toAccNum, transferAmount);
 
         // Then
         assertThat(result).isTrue();
-        assertThat(testAccountSavings.getBalance()).isEqualByComparingTo(initialFromBalance.subtract(transferAmount));
-        assertThat(testAccountCurrent.getBalance()).isEqualByComparingTo(initialToBalance.add(transferAmount));
 
-        verify(entityManager, times(2)).merge(any(Account.class)); // For fromAccount and toAccount
-        verify(entityManager, times(2)).persist(any(Transaction.class)); // One debit, one credit transaction
+        // Posted as one balanced journal entry: the debit leg is negative, the credit leg positive
+        ArgumentCaptor<JournalPosting> postingCaptor = ArgumentCaptor.forClass(JournalPosting.class);
+        verify(journalService, times(1)).post(postingCaptor.capture());
+        JournalPosting posting = postingCaptor.getValue();
+        assertThat(posting.getType()).isEqualTo(TransactionType.TRANSFER);
+        assertThat(posting.getLegs()).extracting(JournalPosting.Leg::getAccount)
+                .containsExactly(testAccountSavings, testAccountCurrent);
+        assertThat(posting.getLegs().get(0).getAmount()).isEqualByComparingTo(transferAmount.negate());
+        assertThat(posting.getLegs().get(1).getAmount()).isEqualByComparingTo(transferAmount);
+        assertThat(posting.getLegs().get(0).getDescription()).contains(toAccNum);
+
+        verify(entityManager, never()).merge(any(Account.class));
+        verify(entityManager, never()).persist(any(Transaction.class));
     }
 
     @Test
@@ -425,8 +541,7 @@ public class TransactionServiceImplTest {
                 .isInstanceOf(InsufficientFundsException.class)
                 .hasMessageContaining("Account " + fromAccNum + " has insufficient funds for transfer.");
 
-        verify(entityManager, never()).merge(any(Account.class));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     // --- Test getTransactionsByAccountAndDateRange method ---
@@ -597,4 +712,37 @@ public class TransactionServiceImplTest {
         verify(entityManager, times(1)).createQuery(anyString(), eq(Account.class));
         verify(entityManager, times(1)).createQuery(anyString(), eq(Transaction.class)); // Query for transactions is made
     }
-}
\ No newline at end of file
+
+    // --- Test getLedgerVersionByUser method ---
+
+    @Test
+    @DisplayName("should version the user's history by its most recent insert or change")
+    @SuppressWarnings("unchecked")
+    void getLedgerVersionByUser_Success() {
+        TypedQuery<LocalDateTime> mockLastChangeQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(LocalDateTime.class))).thenReturn(mockLastChangeQuery);
+        when(mockLastChangeQuery.setParameter("userId", testUser.getId())).thenReturn(mockLastChangeQuery);
+        when(mockLastChangeQuery.getSingleResult()).thenReturn(
+                LocalDateTime.of(2026, 10, 1, 9, 0, 0, 123_456_000),
+                // Same second: a pending transaction settled 1 microsecond later
+                LocalDateTime.of(2026, 10, 1, 9, 0, 0, 123_457_000));
+
+        long before = transactionService.getLedgerVersionByUser(testUser.getId());
+        long after = transactionService.getLedgerVersionByUser(testUser.getId());
+
+        assertThat(after).isEqualTo(before + 1);
+        verify(entityManager, never()).createQuery(anyString(), eq(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("should return 0 when the user has no transactions")
+    @SuppressWarnings("unchecked")
+    void getLedgerVersionByUser_NoTransactions() {
+        TypedQuery<LocalDateTime> mockLastChangeQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(LocalDateTime.class))).thenReturn(mockLastChangeQuery);
+        when(mockLastChangeQuery.setParameter("userId", testUser.getId())).thenReturn(mockLastChangeQuery);
+        when(mockLastChangeQuery.getSingleResult()).thenReturn(null);
+
+        assertThat(transactionService.getLedgerVersionByUser(testUser.getId())).isZero();
+    }
+}
@@ -0,0 +1,145 @@
+package lk.banking.services.audit;
+
+import jakarta.ejb.SessionContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditTrail Unit Tests")
+public class AuditTrailTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private SessionContext sessionContext;
+
+    @Mock
+    private Query mockQuery;
+
+    @InjectMocks
+    private AuditTrail auditTrail;
+
+    @TempDir
+    Path auditDir;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("banking.audit.capacity", "4");
+        System.setProperty("banking.audit.dir", auditDir.toString());
+        auditTrail.init();
+        lenient().when(sessionContext.getBusinessObject(AuditTrail.class)).thenReturn(auditTrail);
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("banking.audit.capacity");
+        System.clearProperty("banking.audit.dir");
+    }
+
+    private AuditRecord record(String method) {
+        return new AuditRecord(Instant.now(), "alice", "TransactionServiceImpl", method,
+                "", AuditRecord.SUCCESS, null, 1_500L);
+    }
+
+    @Test
+    @DisplayName("should batch buffered records into a single multi-row insert")
+    void flush_WritesBufferedRecordsInOneStatement() {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(mockQuery);
+        when(mockQuery.setParameter(anyInt(), any())).thenReturn(mockQuery);
+        when(mockQuery.executeUpdate()).thenReturn(3);
+
+        auditTrail.record(record("transferFunds"));
+        auditTrail.record(record("createTransaction"));
+        auditTrail.record(record("getTransactionById"));
+        auditTrail.flush();
+
+        verify(entityManager, times(1)).createNativeQuery(
+                startsWith("INSERT INTO audit_log (occurredAt, caller, component, method, arguments, outcome, errorType, latencyMicros) VALUES (?, ?, ?, ?, ?, ?, ?, ?), (?, "));
+        verify(mockQuery, times(3 * AuditTrail.COLUMNS.size())).setParameter(anyInt(), any());
+        assertThat(auditTrail.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("should drop newest records on overflow and write an overflow marker on next flush")
+    void record_WhenFull_DropsAndWritesOverflowMarker() {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(mockQuery);
+        when(mockQuery.setParameter(anyInt(), any())).thenReturn(mockQuery);
+
+        for (int i = 0; i < 6; i++) {
+            auditTrail.record(record("call" + i));
+        }
+        assertThat(auditTrail.pending()).isEqualTo(4);
+        assertThat(auditTrail.droppedCount()).isEqualTo(2);
+
+        auditTrail.flush();
+
+        // 4 buffered records + 1 overflow marker
+        verify(mockQuery, times(5 * AuditTrail.COLUMNS.size())).setParameter(anyInt(), any());
+        verify(mockQuery).setParameter(anyInt(), eq(AuditRecord.OVERFLOW));
+        verify(mockQuery).setParameter(anyInt(), eq("dropped=2"));
+    }
+
+    @Test
+    @DisplayName("should not touch the database when nothing is buffered")
+    void flush_WhenEmpty_DoesNothing() {
+        auditTrail.flush();
+
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    @DisplayName("should append to a local segment file when the database write fails")
+    void flush_WhenDatabaseFails_SpillsToSegmentFile() throws Exception {
+        when(entityManager.createNativeQuery(anyString())).thenThrow(new PersistenceException("db down"));
+
+        auditTrail.record(record("transferFunds"));
+        auditTrail.record(record("processPayment"));
+        auditTrail.flush();
+
+        try (Stream<Path> files = Files.list(auditDir)) {
+            List<Path> segments = files.toList();
+            assertThat(segments).hasSize(1);
+            assertThat(segments.get(0).getFileName().toString()).startsWith("audit-").endsWith("-0.log");
+            List<String> lines = Files.readAllLines(segments.get(0));
+            assertThat(lines).hasSize(2);
+            assertThat(lines.get(0)).contains("\ttransferFunds\t").contains("\tSUCCESS\t");
+        }
+    }
+
+    @Test
+    @DisplayName("should summarize scalar arguments and hide complex objects")
+    void summarizeArguments_MasksComplexObjects() {
+        String summary = AuditRecord.summarizeArguments(new Object[]{
+                1L, new BigDecimal("250.00"), "a-very-long-description-that-exceeds-the-limit", new Object(), null});
+
+        assertThat(summary).isEqualTo("1, 250.00, 'a-very-long-description-that-exc...', Object, null");
+        assertThat(AuditRecord.summarizeArguments(null)).isEmpty();
+    }
+}
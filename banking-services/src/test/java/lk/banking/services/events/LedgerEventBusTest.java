@@ -0,0 +1,81 @@
+package lk.banking.services.events;
+
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.TransactionType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LedgerEventBus Unit Tests")
+public class LedgerEventBusTest {
+
+    private LedgerEventBus bus;
+    private LedgerEvent event;
+
+    @BeforeEach
+    void setUp() {
+        bus = new LedgerEventBus();
+
+        Customer customer = new Customer("John Doe", "john.doe@example.com", "123 Main St", "1234567890");
+        customer.setId(1L);
+        Account account = new Account("000000000001", AccountType.SAVINGS, new BigDecimal("150.00"), customer);
+        account.setId(10L);
+        Transaction transaction = new Transaction(account, new BigDecimal("50.00"), TransactionType.DEPOSIT,
+                TransactionStatus.COMPLETED, LocalDateTime.now(), "Deposit");
+        transaction.setId(7L);
+        event = LedgerEvent.posted(transaction);
+    }
+
+    @Test
+    @DisplayName("should build the event from the posted transaction and its account")
+    void posted_CarriesAccountState() {
+        assertThat(event.getCustomerEmail()).isEqualTo("john.doe@example.com");
+        assertThat(event.getAccountId()).isEqualTo(10L);
+        assertThat(event.getAccountNumber()).isEqualTo("000000000001");
+        assertThat(event.getBalance()).isEqualByComparingTo("150.00");
+        assertThat(event.getTransaction().getId()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("should deliver events to every subscriber until it unsubscribes")
+    void onLedgerEvent_DeliversToSubscribers() {
+        List<LedgerEvent> first = new ArrayList<>();
+        List<LedgerEvent> second = new ArrayList<>();
+        Consumer<LedgerEvent> firstSubscriber = first::add;
+        bus.subscribe(firstSubscriber);
+        bus.subscribe(second::add);
+
+        bus.onLedgerEvent(event);
+        bus.unsubscribe(firstSubscriber);
+        bus.onLedgerEvent(event);
+
+        assertThat(first).containsExactly(event);
+        assertThat(second).containsExactly(event, event);
+    }
+
+    @Test
+    @DisplayName("should keep delivering when a subscriber throws")
+    void onLedgerEvent_IsolatesFailingSubscriber() {
+        List<LedgerEvent> received = new ArrayList<>();
+        bus.subscribe(e -> {
+            throw new IllegalStateException("boom");
+        });
+        bus.subscribe(received::add);
+
+        assertThatCode(() -> bus.onLedgerEvent(event)).doesNotThrowAnyException();
+        assertThat(received).containsExactly(event);
+    }
+}
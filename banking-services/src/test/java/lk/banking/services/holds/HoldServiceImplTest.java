@@ -0,0 +1,167 @@
+package lk.banking.services.holds;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.FundsHold;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.HoldStatus;
+import lk.banking.core.exception.InsufficientFundsException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HoldServiceImpl Unit Tests")
+public class HoldServiceImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Mock
+    private Query update;
+
+    @InjectMocks
+    private HoldServiceImpl holdService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer("John Doe", "john.doe@example.com", "123 Main St", "1234567890");
+        account = new Account("100000000001", AccountType.SAVINGS, new BigDecimal("1000.00"), customer);
+        account.setId(1L);
+    }
+
+    private void givenUpdate(int rows) {
+        when(entityManager.createQuery(anyString())).thenReturn(update);
+        when(update.setParameter(anyString(), any())).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(rows);
+    }
+
+    private FundsHold activeHold(String amount) {
+        FundsHold hold = new FundsHold(account, new BigDecimal(amount), "Card payment", LocalDateTime.now().plusDays(1));
+        hold.setId(5L);
+        when(entityManager.find(FundsHold.class, 5L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(hold);
+        return hold;
+    }
+
+    @Test
+    @DisplayName("should reserve funds with one conditional update and persist an active hold")
+    void place_Reserves() {
+        when(entityManager.find(Account.class, 1L)).thenReturn(account);
+        givenUpdate(1);
+
+        FundsHold hold = holdService.place(1L, new BigDecimal("300.00"), "Card payment", LocalDateTime.now().plusDays(1));
+
+        assertThat(hold.getStatus()).isEqualTo(HoldStatus.ACTIVE);
+        verify(entityManager).createQuery(HoldServiceImpl.RESERVE);
+        verify(update).setParameter("amount", new BigDecimal("300.00"));
+        verify(entityManager).refresh(account);
+        verify(entityManager).persist(hold);
+        verify(entityManager).flush();
+    }
+
+    @Test
+    @DisplayName("should refuse a hold the available balance does not cover")
+    void place_InsufficientFunds() {
+        when(entityManager.find(Account.class, 1L)).thenReturn(account);
+        givenUpdate(0);
+
+        assertThatThrownBy(() -> holdService.place(1L, new BigDecimal("1500.00"), "Card payment", LocalDateTime.now().plusDays(1)))
+                .isInstanceOf(InsufficientFundsException.class)
+                .hasMessageContaining("100000000001");
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    @DisplayName("should capture part of a hold and give the rest back to the available balance")
+    void capture_Partial() {
+        FundsHold hold = activeHold("300.00");
+        givenUpdate(1);
+
+        FundsHold captured = holdService.capture(5L, new BigDecimal("250.00"));
+
+        assertThat(captured.getStatus()).isEqualTo(HoldStatus.CAPTURED);
+        assertThat(captured.getCapturedAmount()).isEqualByComparingTo("250.00");
+        verify(entityManager).createQuery(HoldServiceImpl.UNRESERVE);
+        verify(update).setParameter("amount", new BigDecimal("50.00"));
+        assertThat(hold.getSettledAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should not capture or release a hold that is no longer active")
+    void captureAndRelease_Inactive() {
+        FundsHold hold = activeHold("300.00");
+        hold.setStatus(HoldStatus.EXPIRED);
+
+        assertThat(holdService.capture(5L, new BigDecimal("300.00"))).isNull();
+        assertThat(holdService.release(5L).getStatus()).isEqualTo(HoldStatus.EXPIRED);
+        verify(entityManager, never()).createQuery(anyString());
+    }
+
+    @Test
+    @DisplayName("should expire due holds in bulk and evict the accounts once the sweep commits")
+    void expireDue_Bulk() {
+        Query lockDue = mock(Query.class);
+        when(entityManager.createNativeQuery(HoldServiceImpl.LOCK_DUE)).thenReturn(lockDue);
+        when(lockDue.setParameter(anyInt(), any())).thenReturn(lockDue);
+        when(lockDue.getResultList()).thenReturn(List.of(
+                new Object[]{10L, 2L, new BigDecimal("20.00")},
+                new Object[]{11L, 1L, new BigDecimal("5.00")},
+                new Object[]{12L, 2L, new BigDecimal("30.00")}));
+        Query expire = mock(Query.class);
+        Query restore = mock(Query.class);
+        when(entityManager.createNativeQuery(startsWith("UPDATE funds_holds"))).thenReturn(expire);
+        when(entityManager.createNativeQuery(startsWith("UPDATE accounts"))).thenReturn(restore);
+        EntityManagerFactory factory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(factory);
+        when(factory.getCache()).thenReturn(cache);
+
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(holdService.expireDue(now, 100)).isEqualTo(3);
+
+        verify(entityManager).createNativeQuery("UPDATE funds_holds SET status = 'EXPIRED', settledAt = ? WHERE id IN (?, ?, ?)");
+        verify(expire).setParameter(1, now);
+        verify(expire).setParameter(4, 12L);
+        verify(entityManager).createNativeQuery(
+                "UPDATE accounts SET availableBalance = availableBalance + CASE id WHEN ? THEN ? WHEN ? THEN ? END, updatedAt = CURRENT_TIMESTAMP(6) WHERE id IN (?, ?)");
+        verify(restore).setParameter(1, 1L);
+        verify(restore).setParameter(2, new BigDecimal("5.00"));
+        verify(restore).setParameter(3, 2L);
+        verify(restore).setParameter(4, new BigDecimal("50.00"));
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+        verifyNoInteractions(cache);
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        verify(cache).evict(Account.class, 1L);
+        verify(cache).evict(Account.class, 2L);
+    }
+}
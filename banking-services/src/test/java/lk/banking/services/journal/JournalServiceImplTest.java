@@ -0,0 +1,230 @@
+package lk.banking.services.journal;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.FundsHold;
+import lk.banking.core.entity.JournalEntry;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.HoldStatus;
+import lk.banking.core.entity.enums.LedgerAccount;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.core.exception.InsufficientFundsException;
+import lk.banking.core.metrics.RowLockWaits;
+import lk.banking.services.shards.BalanceShardService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JournalServiceImpl Unit Tests")
+public class JournalServiceImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @Mock
+    private Query balanceUpdate;
+
+    @Mock
+    private BalanceShardService balanceShardService;
+
+    @InjectMocks
+    private JournalServiceImpl journalService;
+
+    private Account fromAccount;
+    private Account toAccount;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer("John Doe", "john.doe@example.com", "123 Main St", "1234567890");
+        fromAccount = new Account("100000000001", AccountType.SAVINGS, new BigDecimal("1000.00"), customer);
+        fromAccount.setId(1L);
+        toAccount = new Account("100000000002", AccountType.CURRENT, new BigDecimal("500.00"), customer);
+        toAccount.setId(2L);
+    }
+
+    private void givenEntryId(long id) {
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof JournalEntry entry) {
+                entry.setId(id);
+            }
+            return null;
+        }).when(entityManager).persist(any());
+        lenient().when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(entityManager.createQuery(anyString())).thenReturn(balanceUpdate);
+        when(balanceUpdate.setParameter(anyString(), any())).thenReturn(balanceUpdate);
+        lenient().when(balanceUpdate.executeUpdate()).thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("should post a transfer as one header, linked history rows and a single multi-row insert of legs")
+    void post_Transfer() {
+        givenEntryId(42L);
+
+        List<Transaction> history = journalService.post(JournalPosting.of(TransactionType.TRANSFER, "Transfer")
+                .account(fromAccount, new BigDecimal("-200.00"), "Transfer out")
+                .account(toAccount, new BigDecimal("200.00"), "Transfer in"));
+
+        // Debit only while the available balance covers it; both accounts reloaded afterwards
+        verify(entityManager).createQuery(JournalServiceImpl.DEBIT);
+        verify(entityManager).createQuery(JournalServiceImpl.CREDIT);
+        verify(balanceUpdate).setParameter("required", new BigDecimal("200.00"));
+        verify(entityManager).refresh(fromAccount);
+        verify(entityManager).refresh(toAccount);
+        assertThat(history).extracting(Transaction::getAccount).containsExactly(fromAccount, toAccount);
+        assertThat(history).extracting(Transaction::getJournalEntryId).containsOnly(42L);
+        assertThat(history).extracting(Transaction::getStatus).containsOnly(TransactionStatus.COMPLETED);
+        assertThat(history.get(0).getAmount()).isEqualByComparingTo("-200.00");
+        assertThat(history.get(0).getTimestamp()).isEqualTo(history.get(1).getTimestamp());
+
+        verify(entityManager).flush();
+        verify(entityManager, times(1)).createNativeQuery(
+                "INSERT INTO journal_lines (entryId, ledger, accountId, amount) VALUES (?, ?, ?, ?), (?, ?, ?, ?)");
+        verify(query).setParameter(2, "CUSTOMER_ACCOUNT");
+        verify(query).setParameter(3, 1L);
+        verify(query).setParameter(7, 2L);
+        verify(query).setParameter(8, new BigDecimal("200.00"));
+    }
+
+    @Test
+    @DisplayName("should update account rows in account id order but keep history in posting order")
+    void post_LocksInAccountIdOrder() {
+        givenEntryId(43L);
+
+        List<Transaction> history = journalService.post(JournalPosting.of(TransactionType.TRANSFER, "Transfer")
+                .account(toAccount, new BigDecimal("-50.00"), "Transfer out")
+                .account(fromAccount, new BigDecimal("50.00"), "Transfer in"));
+
+        InOrder order = inOrder(entityManager, balanceUpdate);
+        order.verify(entityManager).createQuery(JournalServiceImpl.CREDIT);
+        order.verify(balanceUpdate).setParameter("id", 1L);
+        order.verify(entityManager).refresh(fromAccount);
+        order.verify(entityManager).createQuery(JournalServiceImpl.DEBIT);
+        order.verify(balanceUpdate).setParameter("id", 2L);
+        order.verify(entityManager).refresh(toAccount);
+        assertThat(history).extracting(Transaction::getAccount).containsExactly(toAccount, fromAccount);
+    }
+
+    @Test
+    @DisplayName("should record only the customer leg in account history when the other side is a bank ledger")
+    void post_Interest() {
+        givenEntryId(7L);
+
+        List<Transaction> history = journalService.post(JournalPosting.of(TransactionType.DEPOSIT, "Interest")
+                .account(fromAccount, new BigDecimal("10.50"), "Interest")
+                .ledger(LedgerAccount.INTEREST_EXPENSE, new BigDecimal("-10.50")));
+
+        assertThat(history).hasSize(1);
+        verify(entityManager).createQuery(JournalServiceImpl.CREDIT);
+        verify(balanceUpdate).setParameter("amount", new BigDecimal("10.50"));
+        verify(query).setParameter(6, "INTEREST_EXPENSE");
+        verify(query).setParameter(7, null);
+    }
+
+    @Test
+    @DisplayName("should fail the posting when a debit exceeds the available balance at update time")
+    void post_DebitBeyondAvailable() {
+        givenEntryId(9L);
+        when(balanceUpdate.executeUpdate()).thenReturn(0);
+
+        assertThatThrownBy(() -> journalService.post(JournalPosting.of(TransactionType.WITHDRAWAL, "Withdrawal")
+                .account(fromAccount, new BigDecimal("-900.00"), "Withdrawal")
+                .ledger(LedgerAccount.CASH, new BigDecimal("900.00"))))
+                .isInstanceOf(InsufficientFundsException.class)
+                .hasMessageContaining(fromAccount.getAccountNumber());
+        verify(entityManager, never()).refresh(any());
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+
+    @Test
+    @DisplayName("should draw a captured hold without checking available funds again and complete the pending row")
+    void post_CapturedHoldSettlesPending() {
+        givenEntryId(11L);
+        FundsHold hold = new FundsHold(fromAccount, new BigDecimal("300.00"), "Card payment", LocalDateTime.now().plusDays(3));
+        hold.setId(5L);
+        hold.setStatus(HoldStatus.CAPTURED);
+        hold.setCapturedAmount(new BigDecimal("250.00"));
+        Transaction pending = new Transaction(fromAccount, new BigDecimal("300.00"), TransactionType.PAYMENT,
+                TransactionStatus.PENDING, LocalDateTime.now().minusHours(1), "Card payment");
+
+        List<Transaction> history = journalService.post(JournalPosting.of(TransactionType.PAYMENT, "Card payment")
+                .captured(hold, "Card payment")
+                .settles(pending)
+                .ledger(LedgerAccount.PAYMENTS_CLEARING, new BigDecimal("250.00")));
+
+        assertThat(history).containsExactly(pending);
+        assertThat(pending.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(pending.getAmount()).isEqualByComparingTo("-250.00");
+        assertThat(pending.getJournalEntryId()).isEqualTo(11L);
+        assertThat(hold.getJournalEntryId()).isEqualTo(11L);
+        verify(entityManager).createQuery(JournalServiceImpl.DEBIT_HOLD);
+        verify(entityManager, never()).persist(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("should refuse entries that do not balance and write nothing")
+    void post_Unbalanced() {
+        assertThatThrownBy(() -> journalService.post(JournalPosting.of(TransactionType.TRANSFER, "Broken transfer")
+                .account(fromAccount, new BigDecimal("200.00"), "Transfer out")
+                .account(toAccount, new BigDecimal("200.00"), "Transfer in")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not balance");
+        assertThatThrownBy(() -> journalService.post(JournalPosting.of(TransactionType.DEPOSIT, "One leg")
+                .account(fromAccount, new BigDecimal("10.00"), "One leg")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at least two legs");
+
+        assertThat(fromAccount.getBalance()).isEqualByComparingTo("1000.00");
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    @DisplayName("should credit a sharded account through a shard and consolidate before debiting its row, timing that debit")
+    void post_ShardedAccount() {
+        givenEntryId(9L);
+        toAccount.setBalanceShards(8);
+        RowLockWaits.getDefault().drain();
+
+        journalService.post(JournalPosting.of(TransactionType.PAYMENT, "Collection")
+                .account(fromAccount, new BigDecimal("-75.00"), "Payment out")
+                .account(toAccount, new BigDecimal("75.00"), "Payment in"));
+
+        verify(balanceShardService).credit(toAccount, new BigDecimal("75.00"));
+        verify(entityManager, never()).createQuery(JournalServiceImpl.CREDIT);
+        verify(entityManager, never()).refresh(toAccount);
+        assertThat(RowLockWaits.getDefault().drain()).doesNotContainKey(2L);
+
+        // No single shard covers the debit: fold the shards into the row, then debit the row
+        journalService.post(JournalPosting.of(TransactionType.TRANSFER, "Sweep")
+                .account(toAccount, new BigDecimal("-900.00"), "Sweep out")
+                .account(fromAccount, new BigDecimal("900.00"), "Sweep in"));
+
+        InOrder order = inOrder(balanceShardService, entityManager);
+        order.verify(balanceShardService).debit(toAccount, new BigDecimal("900.00"));
+        order.verify(balanceShardService).consolidate(2L);
+        order.verify(entityManager).createQuery(JournalServiceImpl.DEBIT);
+        order.verify(entityManager).refresh(toAccount);
+        assertThat(RowLockWaits.getDefault().drain().get(2L).updates()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,37 @@
+package lk.banking.services.journal;
+
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.TransactionStatus;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers JournalService.post in unit tests the way the real journal does: applies each account leg to
+ * its balance and returns the account-history rows. Keeps what was posted for assertions. Shipped in
+ * this module's test-jar for the modules that post through the journal.
+ */
+public class RecordingJournal implements Answer<List<Transaction>> {
+
+    public final List<JournalPosting> postings = new ArrayList<>();
+    public final List<Transaction> history = new ArrayList<>();
+
+    @Override
+    public List<Transaction> answer(InvocationOnMock invocation) {
+        JournalPosting posting = invocation.getArgument(0);
+        postings.add(posting);
+        List<Transaction> rows = new ArrayList<>();
+        for (JournalPosting.Leg leg : posting.getLegs()) {
+            if (leg.getAccount() != null) {
+                leg.getAccount().setBalance(leg.getAccount().getBalance().add(leg.getAmount()));
+                rows.add(new Transaction(leg.getAccount(), leg.getAmount(), posting.getType(),
+                        TransactionStatus.COMPLETED, LocalDateTime.now(), leg.getDescription()));
+            }
+        }
+        history.addAll(rows);
+        return rows;
+    }
+}
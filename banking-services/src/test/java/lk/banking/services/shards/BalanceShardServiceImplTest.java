@@ -0,0 +1,219 @@
+package lk.banking.services.shards;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.LedgerChangeListener;
+import lk.banking.core.entity.enums.AccountType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BalanceShardServiceImpl Unit Tests")
+public class BalanceShardServiceImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query shardStatement;
+
+    @Mock
+    private Query accountUpdate;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @InjectMocks
+    private BalanceShardServiceImpl balanceShardService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer("Acme Ltd", "billing@acme.example", "1 Harbour Rd", "0112345678");
+        account = new Account("100000000009", AccountType.CURRENT, new BigDecimal("1000.00"), customer);
+        account.setId(9L);
+        account.setBalanceShards(8);
+    }
+
+    private void givenShardStatements() {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(shardStatement);
+        when(shardStatement.setParameter(anyInt(), any())).thenReturn(shardStatement);
+    }
+
+    private Cache givenCache() {
+        EntityManagerFactory factory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(factory);
+        when(factory.getCache()).thenReturn(cache);
+        return cache;
+    }
+
+    private void givenAccountUpdates() {
+        when(entityManager.createQuery(anyString())).thenReturn(accountUpdate);
+        when(accountUpdate.setParameter(anyString(), any())).thenReturn(accountUpdate);
+    }
+
+    @Test
+    @DisplayName("should credit one of the account's shards and leave the account row alone")
+    void credit_RandomShard() {
+        givenShardStatements();
+        when(shardStatement.executeUpdate()).thenReturn(1);
+
+        balanceShardService.credit(account, new BigDecimal("25.00"));
+
+        ArgumentCaptor<Object> shard = ArgumentCaptor.forClass(Object.class);
+        verify(entityManager).createNativeQuery(BalanceShardServiceImpl.CREDIT_SHARD);
+        verify(shardStatement).setParameter(eq(3), shard.capture());
+        assertThat((Integer) shard.getValue()).isBetween(0, 7);
+        verify(entityManager, never()).createQuery(anyString());
+    }
+
+    @Test
+    @DisplayName("should credit the account row when its shards were removed in the meantime")
+    void credit_ShardGone() {
+        givenShardStatements();
+        givenAccountUpdates();
+        when(shardStatement.executeUpdate()).thenReturn(0);
+
+        balanceShardService.credit(account, new BigDecimal("25.00"));
+
+        verify(entityManager).createQuery(BalanceShardServiceImpl.CREDIT_ACCOUNT);
+        verify(accountUpdate).setParameter("amount", new BigDecimal("25.00"));
+        verify(accountUpdate).executeUpdate();
+        verify(entityManager).refresh(account);
+    }
+
+    @Test
+    @DisplayName("should lock the shards, empty them and move their total onto the account row")
+    void consolidate_MovesTotal() {
+        givenShardStatements();
+        givenAccountUpdates();
+        when(shardStatement.getSingleResult()).thenReturn(new BigDecimal("340.00"));
+        when(entityManager.find(Account.class, 9L)).thenReturn(account);
+        Cache cache = givenCache();
+        account.setShardBalance(new BigDecimal("340.00"));
+
+        assertThat(balanceShardService.consolidate(9L)).isEqualByComparingTo("340.00");
+
+        InOrder order = inOrder(entityManager);
+        order.verify(entityManager).createNativeQuery(BalanceShardServiceImpl.LOCK_SHARDS);
+        order.verify(entityManager).createNativeQuery(BalanceShardServiceImpl.EMPTY_SHARDS);
+        order.verify(entityManager).createQuery(BalanceShardServiceImpl.CREDIT_ACCOUNT);
+        order.verify(entityManager).refresh(account);
+        verify(accountUpdate).setParameter("amount", new BigDecimal("340.00"));
+        assertThat(account.getShardBalance()).isZero();
+
+        // The ledger observers hear about the account only once the consolidation has committed
+        List<Long> changed = new ArrayList<>();
+        LedgerChangeListener.Observer observer = (accountId, customerId) -> changed.add(accountId);
+        LedgerChangeListener.addObserver(observer);
+        try {
+            ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+            verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+            synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+            assertThat(changed).isEmpty();
+            verifyNoInteractions(cache);
+            synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+            assertThat(changed).containsExactly(9L);
+            verify(cache).evict(Account.class, 9L);
+        } finally {
+            LedgerChangeListener.removeObserver(observer);
+        }
+    }
+
+    @Test
+    @DisplayName("should not touch the account row when the shards are empty")
+    void consolidate_Empty() {
+        givenShardStatements();
+        when(shardStatement.getSingleResult()).thenReturn(BigDecimal.ZERO);
+
+        assertThat(balanceShardService.consolidate(9L)).isZero();
+        verify(shardStatement, never()).executeUpdate();
+        verify(entityManager, never()).createQuery(anyString());
+        verifyNoInteractions(transactionSynchronizationRegistry);
+    }
+
+    @Test
+    @DisplayName("should create the shard rows with one insert and record the shard count on the account")
+    void enable_CreatesShards() {
+        account.setBalanceShards(0);
+        givenShardStatements();
+        givenAccountUpdates();
+        when(entityManager.find(Account.class, 9L)).thenReturn(account);
+        when(shardStatement.getSingleResult()).thenReturn(BigDecimal.ZERO);
+
+        balanceShardService.enable(9L, 4);
+
+        verify(entityManager).createNativeQuery(BalanceShardServiceImpl.DELETE_SHARDS);
+        verify(entityManager).createNativeQuery(
+                "INSERT INTO account_balance_shards (accountId, shard, balance) VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?), (?, ?, ?)");
+        verify(shardStatement).setParameter(11, 3);
+        verify(entityManager).createQuery(BalanceShardServiceImpl.SET_SHARDS);
+        verify(accountUpdate).setParameter("shards", 4);
+
+        assertThatThrownBy(() -> balanceShardService.enable(9L, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should report an unsharded account's balance without querying shards")
+    void balance_IncludesShards() {
+        givenShardStatements();
+        when(shardStatement.getSingleResult()).thenReturn(new BigDecimal("15.50"));
+
+        assertThat(balanceShardService.balance(account)).isEqualByComparingTo("1015.50");
+        assertThat(account.getTotalBalance()).isEqualByComparingTo("1015.50");
+
+        account.setBalanceShards(0);
+        assertThat(balanceShardService.balance(account)).isEqualByComparingTo("1000.00");
+        verify(entityManager, times(1)).createNativeQuery(BalanceShardServiceImpl.SHARD_TOTAL);
+    }
+
+    @Test
+    @DisplayName("should load the shard totals of all sharded accounts with one query")
+    void loadBalances_OneQuery() {
+        Account plain = new Account("100000000010", AccountType.SAVINGS, new BigDecimal("50.00"), account.getCustomer());
+        plain.setId(10L);
+        Account idle = new Account("100000000011", AccountType.CURRENT, new BigDecimal("75.00"), account.getCustomer());
+        idle.setId(11L);
+        idle.setBalanceShards(4);
+        givenShardStatements();
+        when(shardStatement.getResultList()).thenReturn(Collections.singletonList(new Object[]{9L, new BigDecimal("60.25")}));
+
+        balanceShardService.loadBalances(List.of(account, plain, idle));
+
+        verify(entityManager).createNativeQuery(String.format(BalanceShardServiceImpl.SHARD_TOTALS, "?, ?"));
+        verify(shardStatement).setParameter(1, 9L);
+        verify(shardStatement).setParameter(2, 11L);
+        assertThat(account.getTotalBalance()).isEqualByComparingTo("1060.25");
+        assertThat(idle.getTotalBalance()).isEqualByComparingTo("75.00");
+        assertThat(plain.getShardBalance()).isNull();
+
+        balanceShardService.loadBalances(List.of(plain));
+        verify(entityManager, times(1)).createNativeQuery(anyString());
+    }
+}
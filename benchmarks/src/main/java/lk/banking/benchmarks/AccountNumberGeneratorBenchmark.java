@@ -0,0 +1,44 @@
+package lk.banking.benchmarks;
+
+import lk.banking.core.util.AccountNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Account number generation, single-threaded and under concurrent account creation. The shared
+ * counter stands in for AccountNumberAllocator serving a reserved block from memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberGeneratorBenchmark {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Benchmark
+    public String generate() {
+        return AccountNumberGenerator.fromSequence(SEQUENCE.getAndIncrement() % AccountNumberGenerator.SEQUENCE_LIMIT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateContended() {
+        return AccountNumberGenerator.fromSequence(SEQUENCE.getAndIncrement() % AccountNumberGenerator.SEQUENCE_LIMIT);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return AccountNumberGenerator.isValid("4821730596182");
+    }
+}
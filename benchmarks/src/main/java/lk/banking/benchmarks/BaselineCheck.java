@@ -0,0 +1,120 @@
+package lk.banking.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file (-rf csv) against the committed baseline and prints the relative
+ * change per benchmark. Exits with status 1 if any benchmark regressed by more than the threshold
+ * (default 15%, override with -Dthreshold=0.10).
+ *
+ * Usage: BaselineCheck baseline/jmh-baseline.csv target/jmh-result.csv
+ */
+public final class BaselineCheck {
+
+    private BaselineCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BaselineCheck <baseline.csv> <result.csv>");
+            System.exit(2);
+        }
+        double threshold = Double.parseDouble(System.getProperty("threshold", "0.15"));
+        Map<String, Result> baseline = read(Paths.get(args[0]));
+        Map<String, Result> current = read(Paths.get(args[1]));
+
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-90s %14s %14.3f %9s%n", entry.getKey(), "-", now.score, "new");
+                continue;
+            }
+            // Positive change = slower, whatever the mode.
+            double change = now.higherIsBetter()
+                    ? (before.score - now.score) / before.score
+                    : (now.score - before.score) / before.score;
+            boolean regressed = change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-90s %14.3f %14.3f %+8.1f%%%s%n",
+                    entry.getKey(), before.score, now.score, change * 100, regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d benchmark(s) regressed by more than %.0f%%.%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    static Map<String, Result> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        List<String> header = split(lines.get(0));
+        int benchmarkColumn = header.indexOf("Benchmark");
+        int modeColumn = header.indexOf("Mode");
+        int scoreColumn = header.indexOf("Score");
+        int unitColumn = header.indexOf("Unit");
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> cells = split(line);
+            StringBuilder key = new StringBuilder(cells.get(benchmarkColumn));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < cells.size() && !cells.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(cells.get(i));
+                }
+            }
+            key.append(" (").append(cells.get(unitColumn)).append(')');
+            results.put(key.toString(), new Result(cells.get(modeColumn), Double.parseDouble(cells.get(scoreColumn))));
+        }
+        return results;
+    }
+
+    private static List<String> split(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    static final class Result {
+        final String mode;
+        final double score;
+
+        Result(String mode, double score) {
+            this.mode = mode;
+            this.score = score;
+        }
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
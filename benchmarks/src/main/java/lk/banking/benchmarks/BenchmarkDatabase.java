@@ -0,0 +1,111 @@
+package lk.banking.benchmarks;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.enums.AccountType;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Boots the production "bankingPU" mappings as a resource-local unit on an in-memory H2 database
+ * in MySQL compatibility mode, and wires EntityManagers into EJB instances the way the container
+ * would (one transaction-scoped EntityManager per business call).
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+    // Held strongly so the level survives; child loggers inherit it.
+    private static final Logger APPLICATION_LOGGER = Logger.getLogger("lk.banking");
+
+    private final EntityManagerFactory emf;
+
+    private BenchmarkDatabase(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /**
+     * Creates a fresh, empty schema. Each call gets its own in-memory database.
+     */
+    public static BenchmarkDatabase create() {
+        quietApplicationLogging();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.transactionType", "RESOURCE_LOCAL");
+        properties.put("jakarta.persistence.jtaDataSource", "");
+        properties.put("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        properties.put("jakarta.persistence.jdbc.url",
+                "jdbc:h2:mem:bench" + DATABASE_COUNTER.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        properties.put("jakarta.persistence.jdbc.user", "sa");
+        properties.put("jakarta.persistence.jdbc.password", "");
+        properties.put("jakarta.persistence.schema-generation.database.action", "create");
+        properties.put("eclipselink.target-database", "MySQL");
+        properties.put("eclipselink.logging.level", "WARNING");
+        properties.put("eclipselink.cache.shared.default", "false");
+        return new BenchmarkDatabase(Persistence.createEntityManagerFactory("bankingPU", properties));
+    }
+
+    /**
+     * Inserts one customer owning {@code count} active accounts with the given opening balance.
+     * @return the generated account ids, in insertion order.
+     */
+    public long[] seedAccounts(int count, BigDecimal openingBalance) {
+        long[] ids = new long[count];
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Customer customer = new Customer("Benchmark Customer", "bench-" + System.nanoTime() + "@nawwa.local",
+                    "1 Benchmark Road", "0770000000");
+            em.persist(customer);
+            Account[] accounts = new Account[count];
+            for (int i = 0; i < count; i++) {
+                accounts[i] = new Account(String.format("%012d", i + 1L), AccountType.SAVINGS, openingBalance, customer);
+                em.persist(accounts[i]);
+            }
+            em.getTransaction().commit();
+            for (int i = 0; i < count; i++) {
+                ids[i] = accounts[i].getId();
+            }
+        } finally {
+            em.close();
+        }
+        return ids;
+    }
+
+    public EntityManager createEntityManager() {
+        return emf.createEntityManager();
+    }
+
+    /**
+     * Sets the {@code @PersistenceContext} field of an EJB instance.
+     */
+    public static void inject(Object bean, EntityManager em) {
+        try {
+            Field field = bean.getClass().getDeclaredField("em");
+            field.setAccessible(true);
+            field.set(bean, em);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject EntityManager into " + bean.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        emf.close();
+    }
+
+    /**
+     * The services log at INFO on every call; GlassFish would write that to server.log asynchronously,
+     * so console logging is turned down here to keep it from dominating the measurements.
+     */
+    private static void quietApplicationLogging() {
+        APPLICATION_LOGGER.setLevel(Level.WARNING);
+    }
+}
@@ -0,0 +1,51 @@
+package lk.banking.benchmarks;
+
+import lk.banking.timer.InterestCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily compounding as done by the interest timer for one account, by number of days since
+ * interest was last applied (1 for the nightly run, larger after downtime or for new accounts).
+ * {@code closedForm} is a reference point: balance * ((1 + r)^days - 1) at the same precision.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestCompoundingBenchmark {
+
+    private static final MathContext CALCULATION_MATH_CONTEXT = new MathContext(20, RoundingMode.HALF_UP);
+    private static final BigDecimal ONE_PLUS_DAILY_RATE = BigDecimal.ONE.add(BigDecimal.valueOf(0.01));
+
+    @Param({"1", "30", "365"})
+    public int days;
+
+    private final BigDecimal balance = new BigDecimal("15234.57");
+
+    @Benchmark
+    public BigDecimal dailyLoop() {
+        return InterestCalculationService.compoundInterest(balance, days);
+    }
+
+    @Benchmark
+    public BigDecimal closedForm() {
+        return balance.multiply(ONE_PLUS_DAILY_RATE.pow(days, CALCULATION_MATH_CONTEXT).subtract(BigDecimal.ONE),
+                CALCULATION_MATH_CONTEXT);
+    }
+}
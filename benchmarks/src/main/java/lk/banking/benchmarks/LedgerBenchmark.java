@@ -0,0 +1,112 @@
+package lk.banking.benchmarks;
+
+import jakarta.persistence.EntityManager;
+import lk.banking.core.dto.TransactionDto;
+import lk.banking.core.dto.TransferRequestDto;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.transaction.FundTransferServiceImpl;
+import lk.banking.transaction.PaymentProcessingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of the two ledger write paths (load accounts, validate, update balances,
+ * insert transaction rows, commit) against an embedded database. Each invocation runs in its
+ * own transaction with a fresh EntityManager, matching one container-managed business call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LedgerBenchmark {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+
+    /** Number of accounts the traffic is spread over; fewer accounts means more row contention. */
+    @Param({"1000"})
+    public int accounts;
+
+    private BenchmarkDatabase database;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.create();
+        accountIds = database.seedAccounts(accounts, OPENING_BALANCE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        final FundTransferServiceImpl fundTransferService = new FundTransferServiceImpl();
+        final PaymentProcessingServiceImpl paymentProcessingService = new PaymentProcessingServiceImpl();
+        final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public Transaction transferFunds(Caller caller) {
+        int from = caller.random.nextInt(accountIds.length);
+        int to = (from + 1 + caller.random.nextInt(accountIds.length - 1)) % accountIds.length;
+        TransferRequestDto request = new TransferRequestDto(accountIds[from], accountIds[to], AMOUNT);
+
+        EntityManager em = database.createEntityManager();
+        try {
+            BenchmarkDatabase.inject(caller.fundTransferService, em);
+            em.getTransaction().begin();
+            Transaction result = caller.fundTransferService.transferFunds(request);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public Transaction processPayment(Caller caller) {
+        TransactionDto payment = new TransactionDto();
+        payment.setAccountId(accountIds[caller.random.nextInt(accountIds.length)]);
+        payment.setAmount(AMOUNT);
+        payment.setType(caller.random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.PAYMENT);
+        payment.setDescription("Benchmark payment");
+
+        EntityManager em = database.createEntityManager();
+        try {
+            BenchmarkDatabase.inject(caller.paymentProcessingService, em);
+            em.getTransaction().begin();
+            Transaction result = caller.paymentProcessingService.processPayment(payment);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package lk.banking.benchmarks;
+
+import lk.banking.core.dto.TransactionDto;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.web.util.PdfGenerationUtil;
+import lk.banking.web.util.StatementWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement output: the HTML template through Flying Saucer (what PdfFilter does) against
+ * StatementWriter's direct PDF and CSV. The HTML is prepared once in setup, equivalent to what
+ * transactionPdfView.jsp produces, so the template path is measured without its JSP cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementRenderBenchmark {
+
+    @Param({"100", "500", "2000"})
+    public int size;
+
+    private List<TransactionDto> transactions;
+    private String html;
+    private final LocalDateTime generatedAt = LocalDateTime.of(2025, 6, 30, 12, 0);
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(11);
+        TransactionType[] types = TransactionType.values();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long cents = random.nextLong(1, 1_000_000);
+            transactions.add(new TransactionDto((long) i + 1, (long) (i % 3) + 1, String.format("%012d", i % 3 + 1L),
+                    AccountType.values()[i % AccountType.values().length],
+                    BigDecimal.valueOf(random.nextBoolean() ? cents : -cents, 2), types[random.nextInt(types.length)],
+                    TransactionStatus.COMPLETED, start.plusSeconds(i * 37L),
+                    "Funds transfer out to account " + String.format("%012d", random.nextLong(1, 1_000_000)) + " (initiated by user ID: 7)"));
+        }
+        html = statementHtml(transactions);
+    }
+
+    @Benchmark
+    public long htmlTemplate() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        PdfGenerationUtil.layout(new StringReader(html), "http://localhost:8080/banking-system").createPDF(out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long directPdf() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        StatementWriter.writePdf(transactions.iterator(), "Recent Transaction Statement", "bench", generatedAt, out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long directCsv() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        StatementWriter.writeCsv(transactions.iterator(), writer);
+        return out.count;
+    }
+
+    private static String statementHtml(List<TransactionDto> transactions) {
+        NumberFormat currency = NumberFormat.getCurrencyInstance(Locale.US);
+        StringBuilder sb = new StringBuilder(256 + transactions.size() * 300);
+        sb.append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\" /><style>")
+                .append("body { font-family: Helvetica, Arial, sans-serif; font-size: 10pt; } h3 { font-size: 16pt; }")
+                .append(" p { font-size: 10pt; } hr { border-top: 1px solid #ccc; }")
+                .append(" .data-table { border-collapse: collapse; width: 100%; margin-top: 20px; }")
+                .append(" .data-table th, .data-table td { border: 1px solid #ccc; padding: 8px; text-align: left; font-size: 9pt;}")
+                .append(" .data-table th { background-color: #f2f2f2; font-weight: bold; }")
+                .append(" .text-red { color: #dc3545; font-weight: bold; } .text-green { color: #28a745; font-weight: bold; }")
+                .append("</style></head><body><h3>Recent Transaction Statement</h3><p>User: bench</p>")
+                .append("<p>Generated on: 2025-06-30 12:00:00</p><hr /><table class=\"data-table\"><thead><tr>")
+                .append("<th>Timestamp</th><th>Account</th><th>Type</th><th>Amount</th><th>Status</th><th>Description</th>")
+                .append("</tr></thead><tbody>");
+        for (TransactionDto tx : transactions) {
+            sb.append("<tr><td>").append(tx.getFormattedTimestamp()).append("</td><td>").append(tx.getAccountNumber())
+                    .append("</td><td>").append(tx.getType()).append("</td><td class=\"")
+                    .append(tx.getAmount().signum() < 0 ? "text-red" : "text-green").append("\">")
+                    .append(currency.format(tx.getAmount())).append("</td><td>").append(tx.getStatus())
+                    .append("</td><td>").append(tx.getDescription()).append("</td></tr>");
+        }
+        return sb.append("</tbody></table></body></html>").toString();
+    }
+
+    /** Discards output but keeps its size, so the work cannot be optimized away. */
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
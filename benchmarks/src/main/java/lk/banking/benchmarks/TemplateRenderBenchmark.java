@@ -0,0 +1,91 @@
+package lk.banking.benchmarks;
+
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+import lk.banking.notification.TemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One transfer receipt email: the shared TemplateEngine (precompiled, pooled builders) against a cached
+ * template written to a fresh StringWriter, and against parsing the template source for every message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    private static final String TEMPLATE = TemplateEngine.notificationTemplate(NotificationType.TRANSFER_SENT, NotificationChannel.EMAIL);
+
+    private final Map<String, String> model = new LinkedHashMap<>();
+    private TemplateEngine engine;
+    private Configuration configuration;
+    private Template cached;
+    private String source;
+
+    @Setup
+    public void setUp() throws IOException {
+        model.put("customerName", "John Doe");
+        model.put("amount", "1,250.00");
+        model.put("fromAccount", "****0001");
+        model.put("toAccount", "****0002");
+        model.put("balance", "8,750.50");
+        model.put("timestamp", "2025-07-19 18:10");
+        model.put("reference", "7");
+
+        engine = new TemplateEngine();
+        engine.start(null, null);
+
+        configuration = new Configuration(Configuration.VERSION_2_3_32);
+        configuration.setTemplateLoader(new ClassTemplateLoader(TemplateEngine.class, "/templates"));
+        configuration.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        cached = configuration.getTemplate(TEMPLATE);
+        try (InputStream in = TemplateEngine.class.getResourceAsStream("/templates/" + TEMPLATE)) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public String precompiledPooled() {
+        return engine.render(TEMPLATE, model);
+    }
+
+    @Benchmark
+    public String cachedStringWriter() throws IOException, TemplateException {
+        StringWriter out = new StringWriter();
+        cached.process(model, out);
+        return out.toString();
+    }
+
+    @Benchmark
+    public String parsePerMessage() throws IOException, TemplateException {
+        Template template = new Template(TEMPLATE, new StringReader(source), configuration);
+        StringWriter out = new StringWriter();
+        template.process(model, out);
+        return out.toString();
+    }
+}
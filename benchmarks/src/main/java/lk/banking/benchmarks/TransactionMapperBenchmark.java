@@ -0,0 +1,84 @@
+package lk.banking.benchmarks;
+
+import lk.banking.core.dto.TransactionDto;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.core.mapper.TransactionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mapping transaction history pages and statement-sized lists to DTOs.
+ * Compares the stream pipeline used by the servlets with a presized loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionMapperBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        Customer customer = new Customer("Mapper Bench", "mapper@nawwa.local", "1 Road", "0770000000");
+        Account[] accounts = new Account[16];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = new Account(String.format("%012d", i + 1L), AccountType.values()[i % AccountType.values().length],
+                    BigDecimal.valueOf(10_000), customer);
+            accounts[i].setId((long) i + 1);
+        }
+        TransactionType[] types = TransactionType.values();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction tx = new Transaction(accounts[random.nextInt(accounts.length)],
+                    BigDecimal.valueOf(random.nextLong(1, 1_000_000), 2),
+                    types[random.nextInt(types.length)], TransactionStatus.COMPLETED,
+                    start.plusSeconds(i * 37L), "Benchmark transaction " + i);
+            tx.setId((long) i + 1);
+            transactions.add(tx);
+        }
+    }
+
+    @Benchmark
+    public List<TransactionDto> streamCollect() {
+        return transactions.stream().map(TransactionMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<TransactionDto> presizedLoop() {
+        List<TransactionDto> result = new ArrayList<>(transactions.size());
+        for (Transaction tx : transactions) {
+            result.add(TransactionMapper.toDto(tx));
+        }
+        return result;
+    }
+}
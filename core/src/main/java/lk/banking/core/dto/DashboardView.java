@@ -0,0 +1,75 @@
+package lk.banking.core.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Read-only snapshot of everything the customer dashboard shows. Instances are shared between requests
+ * while cached, so nothing in here may be modified; the lists are unmodifiable.
+ */
+public final class DashboardView implements Serializable {
+
+    private final CustomerDto customer;
+    private final List<AccountDto> accounts;
+    private final BigDecimal totalBalance;
+    private final List<TransactionDto> recentTransactions;
+    private final List<PendingTransfer> pendingTransfers;
+    private final LocalDateTime generatedAt;
+
+    public DashboardView(CustomerDto customer, List<AccountDto> accounts, List<TransactionDto> recentTransactions,
+                         List<PendingTransfer> pendingTransfers, LocalDateTime generatedAt) {
+        this.customer = customer;
+        this.accounts = List.copyOf(accounts);
+        this.recentTransactions = List.copyOf(recentTransactions);
+        this.pendingTransfers = List.copyOf(pendingTransfers);
+        this.generatedAt = generatedAt;
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountDto account : accounts) {
+            if (account.getBalance() != null && !Boolean.FALSE.equals(account.getIsActive())) {
+                total = total.add(account.getBalance());
+            }
+        }
+        this.totalBalance = total;
+    }
+
+    public CustomerDto getCustomer() { return customer; }
+    public List<AccountDto> getAccounts() { return accounts; }
+    /** Sum of the balances of the active accounts. */
+    public BigDecimal getTotalBalance() { return totalBalance; }
+    public List<TransactionDto> getRecentTransactions() { return recentTransactions; }
+    public List<PendingTransfer> getPendingTransfers() { return pendingTransfers; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+
+    /** An unprocessed scheduled transfer out of one of the customer's accounts. */
+    public static final class PendingTransfer implements Serializable {
+        private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+        private final Long id;
+        private final String fromAccountNumber;
+        private final String toAccountNumber;
+        private final BigDecimal amount;
+        private final LocalDateTime scheduledTime;
+
+        public PendingTransfer(Long id, String fromAccountNumber, String toAccountNumber, BigDecimal amount,
+                               LocalDateTime scheduledTime) {
+            this.id = id;
+            this.fromAccountNumber = fromAccountNumber;
+            this.toAccountNumber = toAccountNumber;
+            this.amount = amount;
+            this.scheduledTime = scheduledTime;
+        }
+
+        public Long getId() { return id; }
+        public String getFromAccountNumber() { return fromAccountNumber; }
+        public String getToAccountNumber() { return toAccountNumber; }
+        public BigDecimal getAmount() { return amount; }
+        public LocalDateTime getScheduledTime() { return scheduledTime; }
+
+        public String getFormattedScheduledTime() {
+            return scheduledTime != null ? scheduledTime.format(FORMATTER) : "";
+        }
+    }
+}
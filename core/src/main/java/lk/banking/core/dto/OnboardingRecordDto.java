@@ -0,0 +1,66 @@
+package lk.banking.core.dto;
+
+import lk.banking.core.entity.enums.AccountType;
+
+import java.math.BigDecimal;
+
+/**
+ * One customer to onboard in bulk: a CUSTOMER login, the customer profile and optionally one account.
+ * The line number refers to the source file and is used in the failure report.
+ */
+public class OnboardingRecordDto {
+    private int lineNumber;
+    private String username;
+    private String password;
+    private String email;
+    private String name;
+    private String address;
+    private String phoneNumber;
+    private AccountType accountType;   // null = no account
+    private BigDecimal openingBalance;
+
+    public OnboardingRecordDto() {}
+
+    public OnboardingRecordDto(int lineNumber, String username, String password, String email, String name,
+                               String address, String phoneNumber, AccountType accountType, BigDecimal openingBalance) {
+        this.lineNumber = lineNumber;
+        this.username = username;
+        this.password = password;
+        this.email = email;
+        this.name = name;
+        this.address = address;
+        this.phoneNumber = phoneNumber;
+        this.accountType = accountType;
+        this.openingBalance = openingBalance;
+    }
+
+    // Getters and setters
+    public int getLineNumber() { return lineNumber; }
+    public void setLineNumber(int lineNumber) { this.lineNumber = lineNumber; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+    public AccountType getAccountType() { return accountType; }
+    public void setAccountType(AccountType accountType) { this.accountType = accountType; }
+    public BigDecimal getOpeningBalance() { return openingBalance; }
+    public void setOpeningBalance(BigDecimal openingBalance) { this.openingBalance = openingBalance; }
+
+    @Override
+    public String toString() {
+        return "OnboardingRecordDto{" +
+                "lineNumber=" + lineNumber +
+                ", username='" + username + '\'' +
+                ", email='" + email + '\'' +
+                ", accountType=" + accountType +
+                '}';
+    }
+}
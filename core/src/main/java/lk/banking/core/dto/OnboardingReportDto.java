@@ -0,0 +1,64 @@
+package lk.banking.core.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outcome of a bulk onboarding run: how many customers and accounts were created and why each
+ * rejected line failed. Lines are independent; a failed line never stops the others.
+ */
+public class OnboardingReportDto {
+    private int totalRecords;
+    private int customersCreated;
+    private int accountsCreated;
+    private final List<LineFailure> failures = new ArrayList<>();
+
+    public void addFailure(int lineNumber, String message) {
+        failures.add(new LineFailure(lineNumber, message));
+    }
+
+    public void addRecords(int count) { totalRecords += count; }
+    public void addCreated(int customers, int accounts) {
+        customersCreated += customers;
+        accountsCreated += accounts;
+    }
+
+    public int getTotalRecords() { return totalRecords; }
+    public int getCustomersCreated() { return customersCreated; }
+    public int getAccountsCreated() { return accountsCreated; }
+
+    /** Failures ordered by line number. */
+    public List<LineFailure> getFailures() {
+        failures.sort(Comparator.comparingInt(LineFailure::getLineNumber));
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "OnboardingReportDto{" +
+                "totalRecords=" + totalRecords +
+                ", customersCreated=" + customersCreated +
+                ", accountsCreated=" + accountsCreated +
+                ", failures=" + failures.size() +
+                '}';
+    }
+
+    public static class LineFailure {
+        private final int lineNumber;
+        private final String message;
+
+        public LineFailure(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public int getLineNumber() { return lineNumber; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + message;
+        }
+    }
+}
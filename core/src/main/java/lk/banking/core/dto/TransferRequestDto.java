@@ -9,6 +9,8 @@ public class TransferRequestDto {
     private Long fromAccountId;
     private Long toAccountId;
     private BigDecimal amount;
+    /** Optional funds hold on the source account that already reserves the amount. */
+    private Long holdId;
 
     public TransferRequestDto() {}
 
@@ -25,6 +27,8 @@ public class TransferRequestDto {
     public void setToAccountId(Long toAccountId) { this.toAccountId = toAccountId; }
     public BigDecimal getAmount() { return amount; }
     public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public Long getHoldId() { return holdId; }
+    public void setHoldId(Long holdId) { this.holdId = holdId; }
 
     @Override
     public String toString() {
@@ -32,6 +36,7 @@ public class TransferRequestDto {
                 "fromAccountId=" + fromAccountId +
                 ", toAccountId=" + toAccountId +
                 ", amount=" + amount +
+                ", holdId=" + holdId +
                 '}';
     }
 }
\ No newline at end of file
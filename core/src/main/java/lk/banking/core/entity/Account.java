@@ -13,6 +13,7 @@ import java.util.Objects;
  * Represents a bank account, linked to a customer, with audit fields and improved design.
  */
 @Entity
+@EntityListeners(LedgerChangeListener.class)
 @Table(name = "accounts", uniqueConstraints = @UniqueConstraint(columnNames = "accountNumber"))
 public class Account implements Serializable {
 
@@ -30,6 +31,31 @@ public class Account implements Serializable {
     @Column(nullable=false)
     private BigDecimal balance;
 
+    /** The ledger balance less all ACTIVE funds holds; what can still be spent. */
+    @Column(nullable=false)
+    private BigDecimal availableBalance;
+
+    /**
+     * Number of sub-balance rows in account_balance_shards, or 0 for an ordinary account. A sharded
+     * account's balance is this row's balance plus its shards until they are consolidated.
+     */
+    @Column(nullable=false)
+    private int balanceShards;
+
+    /**
+     * What a sharded account's shards held when they were last read by BalanceShardService; never stored.
+     * Null until then, and for ordinary accounts.
+     */
+    @Transient
+    private BigDecimal shardBalance;
+
+    /**
+     * The balance the account was opened with, which no transaction explains. Reconciliation starts from
+     * it; null for accounts opened before it was recorded.
+     */
+    @Column(updatable=false)
+    private BigDecimal openingBalance;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
@@ -57,6 +83,8 @@ public class Account implements Serializable {
         this.accountNumber = accountNumber;
         this.type = type;
         this.balance = balance;
+        this.availableBalance = balance;
+        this.openingBalance = balance;
         this.customer = customer;
         this.isActive = true;
         this.createdAt = LocalDateTime.now();
@@ -107,7 +135,26 @@ public class Account implements Serializable {
     public AccountType getType() { return type; }
     public void setType(AccountType type) { this.type = type; }
     public BigDecimal getBalance() { return balance; }
-    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    /** Sets the ledger balance; the available balance moves by the same amount, leaving holds in place. */
+    public void setBalance(BigDecimal balance) {
+        if (this.balance != null && this.availableBalance != null && balance != null) {
+            this.availableBalance = this.availableBalance.add(balance.subtract(this.balance));
+        } else if (this.availableBalance == null) {
+            this.availableBalance = balance;
+        }
+        this.balance = balance;
+    }
+    public BigDecimal getAvailableBalance() { return availableBalance; }
+    public void setAvailableBalance(BigDecimal availableBalance) { this.availableBalance = availableBalance; }
+    public int getBalanceShards() { return balanceShards; }
+    public void setBalanceShards(int balanceShards) { this.balanceShards = balanceShards; }
+    public BigDecimal getShardBalance() { return shardBalance; }
+    public void setShardBalance(BigDecimal shardBalance) { this.shardBalance = shardBalance; }
+    /** The balance including the shards last loaded for it: what the customer actually has. */
+    public BigDecimal getTotalBalance() {
+        return shardBalance == null || balance == null ? balance : balance.add(shardBalance);
+    }
+    public BigDecimal getOpeningBalance() { return openingBalance; }
     public Customer getCustomer() { return customer; }
     public void setCustomer(Customer customer) { this.customer = customer; }
     public List<Transaction> getTransactions() { return transactions; }
@@ -150,6 +197,8 @@ public class Account implements Serializable {
                 ", number='" + accountNumber + '\'' +
                 ", type=" + type +
                 ", balance=" + balance +
+                ", availableBalance=" + availableBalance +
+                ", balanceShards=" + balanceShards +
                 ", isActive=" + isActive +
                 ", lastInterestAppliedDate=" + lastInterestAppliedDate +
                 '}';
@@ -0,0 +1,51 @@
+package lk.banking.core.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Next unallocated account number sequence value. Servers reserve blocks of values from this row
+ * under a row lock and hand them out from memory (see AccountNumberAllocator).
+ */
+@Entity
+@Table(name = "account_number_sequences")
+public class AccountNumberSequence implements Serializable {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private Long nextValue;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public AccountNumberSequence() {}
+
+    public AccountNumberSequence(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public String getName() { return name; }
+    public Long getNextValue() { return nextValue; }
+    public void setNextValue(Long nextValue) { this.nextValue = nextValue; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    @Override
+    public String toString() {
+        return "AccountNumberSequence{" +
+                "name='" + name + '\'' +
+                ", nextValue=" + nextValue +
+                '}';
+    }
+}
@@ -1,6 +1,8 @@
 package lk.banking.core.entity;
 
 import jakarta.persistence.*;
+import lk.banking.core.entity.enums.DigestSchedule;
+
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,6 +31,11 @@ public class Customer implements Serializable {
     @Column(nullable=false, length=20)
     private String phoneNumber;
 
+    /** How credit notifications reach this customer; merchants with many deposits pick a digest. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DigestSchedule notificationDigest = DigestSchedule.NONE;
+
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Account> accounts;
 
@@ -83,6 +90,8 @@ public class Customer implements Serializable {
     public void setAddress(String address) { this.address = address; }
     public String getPhoneNumber() { return phoneNumber; }
     public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+    public DigestSchedule getNotificationDigest() { return notificationDigest; }
+    public void setNotificationDigest(DigestSchedule notificationDigest) { this.notificationDigest = notificationDigest; }
     public List<Account> getAccounts() { return accounts; }
     public void setAccounts(List<Account> accounts) { this.accounts = accounts; }
     public LocalDateTime getCreatedAt() { return createdAt; }
@@ -0,0 +1,80 @@
+package lk.banking.core.entity;
+
+import jakarta.persistence.*;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A notification the outbox dispatcher gave up on: it could not be rendered, had no sender, or failed
+ * every attempt. Copied here with everything needed to look into it and, once the cause is fixed, put the
+ * original outbox row back in the queue.
+ */
+@Entity
+@Table(name = "notification_dead_letters")
+public class DeadLetter implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long outboxId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private NotificationType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NotificationChannel channel;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Lob
+    private String payload;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(length = 512)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+
+    public DeadLetter() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getOutboxId() { return outboxId; }
+    public void setOutboxId(Long outboxId) { this.outboxId = outboxId; }
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+    public NotificationChannel getChannel() { return channel; }
+    public void setChannel(NotificationChannel channel) { this.channel = channel; }
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getFailedAt() { return failedAt; }
+    public void setFailedAt(LocalDateTime failedAt) { this.failedAt = failedAt; }
+
+    @Override
+    public String toString() {
+        return "DeadLetter{" +
+                "id=" + id +
+                ", outboxId=" + outboxId +
+                ", type=" + type +
+                ", channel=" + channel +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
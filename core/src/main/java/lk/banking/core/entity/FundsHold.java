@@ -0,0 +1,102 @@
+package lk.banking.core.entity;
+
+import jakarta.persistence.*;
+import lk.banking.core.entity.enums.HoldStatus;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Funds reserved on an account for a payment or transfer that has not posted yet. While the hold is ACTIVE
+ * its amount is missing from the account's available balance but still part of its ledger balance. It ends
+ * captured (the money moved, see {@code capturedAmount}), released, or expired by the sweeper.
+ */
+@Entity
+@EntityListeners(LedgerChangeListener.class)
+@Table(name = "funds_holds")
+public class FundsHold implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    /** Part of the amount that was actually taken; set on capture, the rest went back to available. */
+    @Column(nullable = true)
+    private BigDecimal capturedAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HoldStatus status;
+
+    @Column(nullable = true, length = 256)
+    private String description;
+
+    /** The PENDING transaction this hold reserves funds for, if any. */
+    @Column(nullable = true)
+    private Long transactionId;
+
+    /** Journal entry that posted the captured amount. */
+    @Column(nullable = true)
+    private Long journalEntryId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = true)
+    private LocalDateTime settledAt;
+
+    public FundsHold() {}
+
+    public FundsHold(Account account, BigDecimal amount, String description, LocalDateTime expiresAt) {
+        this.account = account;
+        this.amount = amount;
+        this.description = description;
+        this.expiresAt = expiresAt;
+        this.status = HoldStatus.ACTIVE;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Account getAccount() { return account; }
+    public void setAccount(Account account) { this.account = account; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public BigDecimal getCapturedAmount() { return capturedAmount; }
+    public void setCapturedAmount(BigDecimal capturedAmount) { this.capturedAmount = capturedAmount; }
+    public HoldStatus getStatus() { return status; }
+    public void setStatus(HoldStatus status) { this.status = status; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+    public Long getJournalEntryId() { return journalEntryId; }
+    public void setJournalEntryId(Long journalEntryId) { this.journalEntryId = journalEntryId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    public LocalDateTime getSettledAt() { return settledAt; }
+    public void setSettledAt(LocalDateTime settledAt) { this.settledAt = settledAt; }
+
+    @Override
+    public String toString() {
+        return "FundsHold{" +
+                "id=" + id +
+                ", amount=" + amount +
+                ", status=" + status +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
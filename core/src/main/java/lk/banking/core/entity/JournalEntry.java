@@ -0,0 +1,57 @@
+package lk.banking.core.entity;
+
+import jakarta.persistence.*;
+import lk.banking.core.entity.enums.TransactionType;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * The header of one double-entry posting: a transfer, payment, deposit, withdrawal or interest credit.
+ * Its legs are {@link JournalLine} rows that sum to zero; the account-history {@link Transaction} rows it
+ * produced carry its id, so the two sides of a transfer are found with one indexed join.
+ */
+@Entity
+@Table(name = "journal_entries")
+public class JournalEntry implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private TransactionType type;
+
+    @Column(length = 256)
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDateTime postedAt;
+
+    public JournalEntry() {}
+
+    public JournalEntry(TransactionType type, String description, LocalDateTime postedAt) {
+        this.type = type;
+        this.description = description;
+        this.postedAt = postedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public TransactionType getType() { return type; }
+    public void setType(TransactionType type) { this.type = type; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public LocalDateTime getPostedAt() { return postedAt; }
+    public void setPostedAt(LocalDateTime postedAt) { this.postedAt = postedAt; }
+
+    @Override
+    public String toString() {
+        return "JournalEntry{" +
+                "id=" + id +
+                ", type=" + type +
+                ", postedAt=" + postedAt +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package lk.banking.core.entity;
+
+import jakarta.persistence.*;
+import lk.banking.core.entity.enums.LedgerAccount;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * One leg of a {@link JournalEntry}. Amounts are signed from the ledger's point of view: a positive amount
+ * adds to a customer account's balance, and the bank's side of the entry carries the opposite amount, so
+ * the legs of every entry sum to zero. Written by the journal with one multi-row INSERT per entry.
+ */
+@Entity
+@Table(name = "journal_lines")
+public class JournalLine implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long entryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private LedgerAccount ledger;
+
+    /** The customer account for CUSTOMER_ACCOUNT lines, otherwise null. */
+    private Long accountId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    public JournalLine() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getEntryId() { return entryId; }
+    public void setEntryId(Long entryId) { this.entryId = entryId; }
+    public LedgerAccount getLedger() { return ledger; }
+    public void setLedger(LedgerAccount ledger) { this.ledger = ledger; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    @Override
+    public String toString() {
+        return "JournalLine{" +
+                "id=" + id +
+                ", entryId=" + entryId +
+                ", ledger=" + ledger +
+                ", accountId=" + accountId +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,95 @@
+package lk.banking.core.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Entity listener on {@link Account}, {@link Transaction}, {@link ScheduledTransfer} and {@link FundsHold}
+ * that tells registered observers whose ledger just changed, whichever service made the change. Callbacks
+ * run when the change is flushed, inside the changing transaction, so observers must be quick and must not
+ * touch the persistence context. Bulk updates bypass entity callbacks; their callers report the accounts
+ * they touched through {@link #accountChanged(Long)}.
+ */
+public class LedgerChangeListener {
+
+    private static final Logger LOGGER = Logger.getLogger(LedgerChangeListener.class.getName());
+
+    /** Receives ledger changes. */
+    @FunctionalInterface
+    public interface Observer {
+        /**
+         * @param accountId  the account whose balance, transactions or pending transfers changed.
+         * @param customerId the owning customer for newly created accounts, otherwise null.
+         */
+        void ledgerChanged(Long accountId, Long customerId);
+    }
+
+    private static final List<Observer> OBSERVERS = new CopyOnWriteArrayList<>();
+
+    public static void addObserver(Observer observer) {
+        OBSERVERS.add(observer);
+    }
+
+    public static void removeObserver(Observer observer) {
+        OBSERVERS.remove(observer);
+    }
+
+    /** Reports a change made by a bulk update or native statement, which entity callbacks never see. */
+    public static void accountChanged(Long accountId) {
+        for (Observer observer : OBSERVERS) {
+            try {
+                observer.ledgerChanged(accountId, null);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "LedgerChangeListener: Observer failed for account ID " + accountId, e);
+            }
+        }
+    }
+
+    @PostPersist
+    void persisted(Object entity) {
+        // A new account is not in any view yet, so observers need its customer. The services always set
+        // the customer before persisting, so reading it here triggers no lazy load.
+        Long customerId = entity instanceof Account account && account.getCustomer() != null
+                ? account.getCustomer().getId() : null;
+        notifyObservers(entity, customerId);
+    }
+
+    @PostUpdate
+    @PostRemove
+    void changed(Object entity) {
+        notifyObservers(entity, null);
+    }
+
+    private static void notifyObservers(Object entity, Long customerId) {
+        if (OBSERVERS.isEmpty()) {
+            return;
+        }
+        Account account;
+        if (entity instanceof Account changedAccount) {
+            account = changedAccount;
+        } else if (entity instanceof Transaction transaction) {
+            account = transaction.getAccount();
+        } else if (entity instanceof ScheduledTransfer transfer) {
+            account = transfer.getFromAccount();
+        } else if (entity instanceof FundsHold hold) {
+            account = hold.getAccount();
+        } else {
+            return;
+        }
+        Long accountId = account != null ? account.getId() : null;
+        for (Observer observer : OBSERVERS) {
+            try {
+                observer.ledgerChanged(accountId, customerId);
+            } catch (RuntimeException e) {
+                // An observer must never fail the business transaction
+                LOGGER.log(Level.WARNING, "LedgerChangeListener: Observer failed for account ID " + accountId, e);
+            }
+        }
+    }
+}
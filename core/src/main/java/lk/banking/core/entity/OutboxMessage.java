@@ -0,0 +1,117 @@
+package lk.banking.core.entity;
+
+import jakarta.persistence.*;
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+import lk.banking.core.entity.enums.OutboxStatus;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A notification waiting in the transactional outbox. Rows are inserted in the same transaction as the
+ * ledger change they report (see NotificationOutbox) and delivered afterwards by the outbox dispatcher,
+ * so a notification exists if and only if the change committed.
+ */
+@Entity
+@Table(name = "outbox")
+public class OutboxMessage implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private NotificationType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NotificationChannel channel;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    /** Template parameters, URL-encoded as {@code key=value&key=value}. */
+    @Lob
+    private String payload;
+
+    /** The recipient's digest preference when the row was written; null for types that are never merged. */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private DigestSchedule digest;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Not delivered before this time; pushed back after a failed attempt. */
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(length = 512)
+    private String lastError;
+
+    public OutboxMessage() {}
+
+    public OutboxMessage(NotificationType type, NotificationChannel channel, String recipient, String payload) {
+        this.type = type;
+        this.channel = channel;
+        this.recipient = recipient;
+        this.payload = payload;
+        this.status = OutboxStatus.PENDING;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (availableAt == null) {
+            availableAt = createdAt;
+        }
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public NotificationType getType() { return type; }
+    public NotificationChannel getChannel() { return channel; }
+    public String getRecipient() { return recipient; }
+    public String getPayload() { return payload; }
+    public DigestSchedule getDigest() { return digest; }
+    public void setDigest(DigestSchedule digest) { this.digest = digest; }
+    public OutboxStatus getStatus() { return status; }
+    public void setStatus(OutboxStatus status) { this.status = status; }
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getAvailableAt() { return availableAt; }
+    public void setAvailableAt(LocalDateTime availableAt) { this.availableAt = availableAt; }
+    public String getClaimToken() { return claimToken; }
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public LocalDateTime getSentAt() { return sentAt; }
+    public String getLastError() { return lastError; }
+
+    @Override
+    public String toString() {
+        return "OutboxMessage{" +
+                "id=" + id +
+                ", type=" + type +
+                ", channel=" + channel +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package lk.banking.core.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An account whose stored balance did not match its history in a reconciliation run: the opening balance
+ * plus the sum of its completed transactions. Written by the ledger reconciliation job, one row per account
+ * per run, so a break that is not fixed shows up again in the next run.
+ * <p>
+ * An account with no known opening balance is checked as if it had opened at zero and gets a break with
+ * {@code missingBaseline} set. Acknowledging one records its difference as the account's opening balance.
+ */
+@Entity
+@Table(name = "reconciliation_breaks")
+public class ReconciliationBreak implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String runId;
+
+    @Column(nullable = false)
+    private Long accountId;
+
+    /** accounts.balance when the account was checked. */
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    /** What the history adds up to. */
+    @Column(nullable = false)
+    private BigDecimal expectedBalance;
+
+    /** balance - expectedBalance. */
+    @Column(nullable = false)
+    private BigDecimal difference;
+
+    @Column(nullable = false)
+    private LocalDateTime detectedAt;
+
+    /** The account had no opening balance; expectedBalance assumes zero. */
+    @Column(nullable = false)
+    private boolean missingBaseline;
+
+    private LocalDateTime acknowledgedAt;
+
+    private String acknowledgedBy;
+
+    public ReconciliationBreak() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    public BigDecimal getExpectedBalance() { return expectedBalance; }
+    public void setExpectedBalance(BigDecimal expectedBalance) { this.expectedBalance = expectedBalance; }
+    public BigDecimal getDifference() { return difference; }
+    public void setDifference(BigDecimal difference) { this.difference = difference; }
+    public LocalDateTime getDetectedAt() { return detectedAt; }
+    public void setDetectedAt(LocalDateTime detectedAt) { this.detectedAt = detectedAt; }
+    public boolean isMissingBaseline() { return missingBaseline; }
+    public void setMissingBaseline(boolean missingBaseline) { this.missingBaseline = missingBaseline; }
+    public LocalDateTime getAcknowledgedAt() { return acknowledgedAt; }
+    public void setAcknowledgedAt(LocalDateTime acknowledgedAt) { this.acknowledgedAt = acknowledgedAt; }
+    public String getAcknowledgedBy() { return acknowledgedBy; }
+    public void setAcknowledgedBy(String acknowledgedBy) { this.acknowledgedBy = acknowledgedBy; }
+
+    @Override
+    public String toString() {
+        return "ReconciliationBreak{" +
+                "runId=" + runId +
+                ", accountId=" + accountId +
+                ", balance=" + balance +
+                ", expectedBalance=" + expectedBalance +
+                '}';
+    }
+}
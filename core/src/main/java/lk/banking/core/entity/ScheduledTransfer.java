@@ -12,6 +12,7 @@ import java.util.Objects;
  * Includes audit fields, processed flag, and extensibility for future scheduling options.
  */
 @Entity
+@EntityListeners(LedgerChangeListener.class)
 @Table(name = "scheduled_transfers")
 public class ScheduledTransfer implements Serializable {
 
@@ -36,6 +37,10 @@ public class ScheduledTransfer implements Serializable {
     @Column(nullable = false)
     private Boolean processed = false;
 
+    /** Funds hold reserving the amount on the source account until the transfer runs. */
+    @Column(nullable = true)
+    private Long holdId;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -89,6 +94,8 @@ public class ScheduledTransfer implements Serializable {
     public void setScheduledTime(LocalDateTime scheduledTime) { this.scheduledTime = scheduledTime; }
     public Boolean getProcessed() { return processed; }
     public void setProcessed(Boolean processed) { this.processed = processed; }
+    public Long getHoldId() { return holdId; }
+    public void setHoldId(Long holdId) { this.holdId = holdId; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
 
@@ -14,6 +14,7 @@ import java.util.Objects;
  * Includes audit fields and status tracking.
  */
 @Entity
+@EntityListeners(LedgerChangeListener.class)
 @Table(name = "transactions")
 public class Transaction implements Serializable {
 
@@ -45,6 +46,16 @@ public class Transaction implements Serializable {
     @Column(length = 256)
     private String description;
 
+    /** The journal entry this row is a leg of; null for rows written before the journal existed. */
+    private Long journalEntryId;
+
+    /**
+     * When the row was inserted or last changed, e.g. a pending transaction settling. Maintained by the
+     * database (ON UPDATE CURRENT_TIMESTAMP), so bulk updates move it too; never written from here.
+     */
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     // ---- Constructors ----
     public Transaction() {}
 
@@ -83,10 +94,13 @@ public class Transaction implements Serializable {
     public void setType(TransactionType type) { this.type = type; }
     public TransactionStatus getStatus() { return status; }
     public void setStatus(TransactionStatus status) { this.status = status; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+    public Long getJournalEntryId() { return journalEntryId; }
+    public void setJournalEntryId(Long journalEntryId) { this.journalEntryId = journalEntryId; }
 
     // ---- equals & hashCode (by id) ----
     @Override
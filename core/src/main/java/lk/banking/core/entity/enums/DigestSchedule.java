@@ -0,0 +1,11 @@
+package lk.banking.core.entity.enums;
+
+/**
+ * How a customer wants frequent credit notifications delivered. NONE sends each one, merging only the
+ * bursts that arrive within a short coalescing window; HOURLY and DAILY collect them into one digest.
+ */
+public enum DigestSchedule {
+    NONE,
+    HOURLY,
+    DAILY
+}
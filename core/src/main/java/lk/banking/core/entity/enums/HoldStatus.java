@@ -0,0 +1,12 @@
+package lk.banking.core.entity.enums;
+
+/**
+ * Lifecycle of a funds hold. Only ACTIVE holds reduce an account's available balance; the other states are
+ * final.
+ */
+public enum HoldStatus {
+    ACTIVE,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
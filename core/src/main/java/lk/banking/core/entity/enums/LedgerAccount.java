@@ -0,0 +1,12 @@
+package lk.banking.core.entity.enums;
+
+/**
+ * The ledgers a journal line can post to. CUSTOMER_ACCOUNT lines name a customer account; the others are
+ * the bank's own side of deposits, withdrawals, payments and interest.
+ */
+public enum LedgerAccount {
+    CUSTOMER_ACCOUNT,
+    CASH,
+    PAYMENTS_CLEARING,
+    INTEREST_EXPENSE
+}
@@ -0,0 +1,9 @@
+package lk.banking.core.entity.enums;
+
+/**
+ * Delivery channel of a customer notification.
+ */
+public enum NotificationChannel {
+    EMAIL,
+    SMS
+}
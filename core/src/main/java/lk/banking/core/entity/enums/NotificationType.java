@@ -0,0 +1,13 @@
+package lk.banking.core.entity.enums;
+
+/**
+ * What a customer notification is about. Each type has one template per channel.
+ */
+public enum NotificationType {
+    TRANSFER_SENT,
+    TRANSFER_RECEIVED,
+    PAYMENT_POSTED,
+    USER_REGISTERED,
+    /** Several coalesced notifications to one recipient, sent as one message. Never stored in the outbox. */
+    DIGEST
+}
@@ -0,0 +1,11 @@
+package lk.banking.core.entity.enums;
+
+/**
+ * Delivery state of an outbox message.
+ */
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -7,5 +7,10 @@ public enum TransactionType {
     DEPOSIT,
     WITHDRAWAL,
     TRANSFER,
-    PAYMENT
-}
\ No newline at end of file
+    PAYMENT;
+
+    /** Whether a transaction of this type takes money out of its account. */
+    public boolean isDebit() {
+        return this != DEPOSIT;
+    }
+}
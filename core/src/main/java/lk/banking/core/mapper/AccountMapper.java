@@ -28,7 +28,7 @@ public class AccountMapper {
                 entity.getId(),
                 entity.getAccountNumber(),
                 entity.getType(),
-                entity.getBalance(),
+                entity.getTotalBalance(),
                 customerId, // Map customer ID
                 customerName, // NEW: Map customer name
                 entity.getIsActive(), // NEW: Map isActive
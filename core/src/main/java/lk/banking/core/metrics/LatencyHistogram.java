@@ -0,0 +1,137 @@
+package lk.banking.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, HDR-style latency histogram for nanosecond values.
+ * Buckets are log-linear: each power of two is split into 64 linear sub-buckets, which keeps
+ * the relative error of any reported value below 1/64 (~1.6%) from 1 ns up to ~73 minutes
+ * using a fixed array of about 2.4k counters. Recording is a single atomic increment and never allocates.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;          // 128
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;     // 64
+    private static final int MAX_VALUE_BITS = 42;
+
+    /** Largest value tracked exactly (~73 minutes in ns); larger values are clamped. */
+    public static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    private static final int BUCKET_COUNT = indexFor(MAX_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value in nanoseconds. Negative values are treated as zero.
+     */
+    public void record(long valueNanos) {
+        long value = Math.max(0L, Math.min(valueNanos, MAX_TRACKABLE_VALUE));
+        counts.incrementAndGet(indexFor(value));
+        totalCount.increment();
+        totalSum.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Copies the current counters. The copy is not atomic across buckets, which is acceptable
+     * for monitoring: concurrent recordings show up in this snapshot or the next one.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, totalSum.sum(), max.get());
+    }
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return exponent * SUB_BUCKET_HALF_COUNT + (int) (value >>> exponent);
+    }
+
+    /** Highest value that maps to the same bucket as {@code index}. */
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - (long) exponent * SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+
+    /**
+     * Immutable point-in-time view of a histogram.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public long getSumNanos() { return sum; }
+        public long getMaxNanos() { return max; }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * @param quantile Between 0.0 and 1.0, e.g. 0.99 for the 99th percentile.
+         * @return the value (ns) at the quantile, or 0 if nothing was recorded.
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(Math.min(1.0, Math.max(0.0, quantile)) * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueAt(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Cumulative counts for a set of ascending upper bounds, computed in one pass.
+         * @return for each bound, the number of recorded values less than or equal to it (bucket resolution applies).
+         */
+        public long[] getCumulativeCounts(long[] ascendingUpperBoundsNanos) {
+            long[] result = new long[ascendingUpperBoundsNanos.length];
+            long running = 0;
+            int i = 0;
+            for (int b = 0; b < ascendingUpperBoundsNanos.length; b++) {
+                while (i < counts.length && highestValueAt(i) <= ascendingUpperBoundsNanos[b]) {
+                    running += counts[i++];
+                }
+                result[b] = running;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package lk.banking.core.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error counters for one business method (component + method name).
+ */
+public class MethodMetrics {
+
+    private final String component;
+    private final String method;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    MethodMetrics(String component, String method) {
+        this.component = component;
+        this.method = method;
+    }
+
+    public void recordSuccess(long latencyNanos) {
+        latency.record(latencyNanos);
+    }
+
+    public void recordFailure(long latencyNanos, Throwable error) {
+        latency.record(latencyNanos);
+        errors.computeIfAbsent(error.getClass().getSimpleName(), k -> new LongAdder()).increment();
+    }
+
+    public String getComponent() { return component; }
+    public String getMethod() { return method; }
+    public LatencyHistogram getLatency() { return latency; }
+
+    /** Error counts keyed by exception simple class name. */
+    public Map<String, LongAdder> getErrors() {
+        return Collections.unmodifiableMap(errors);
+    }
+}
@@ -0,0 +1,43 @@
+package lk.banking.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Application-wide registry of per-method metrics. The core jar is packaged once in the EAR's lib
+ * directory, so every EJB module records into the same {@link #getDefault()} instance.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the metrics for a method, creating them on first use.
+     * Overloads share one entry, since they share the same labels.
+     */
+    public MethodMetrics forMethod(String component, String method) {
+        String key = component + '.' + method;
+        MethodMetrics existing = methods.get(key);
+        return existing != null ? existing : methods.computeIfAbsent(key, k -> new MethodMetrics(component, method));
+    }
+
+    /** All registered methods, ordered by component and method name. */
+    public List<MethodMetrics> getMethods() {
+        List<MethodMetrics> result = new ArrayList<>(methods.values());
+        result.sort(Comparator.comparing(MethodMetrics::getComponent).thenComparing(MethodMetrics::getMethod));
+        return result;
+    }
+
+    /** Drops all recorded metrics (tests and benchmarks). */
+    public void clear() {
+        methods.clear();
+    }
+}
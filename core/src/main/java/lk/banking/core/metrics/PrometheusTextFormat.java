@@ -0,0 +1,125 @@
+package lk.banking.core.metrics;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders a {@link MetricsRegistry} in the Prometheus text exposition format (version 0.0.4).
+ *
+ * <ul>
+ *   <li>{@code banking_ejb_latency_seconds} - histogram with fixed buckets, for aggregation and
+ *       {@code histogram_quantile()} over time windows in Prometheus.</li>
+ *   <li>{@code banking_ejb_latency_quantile_seconds} - p50/p90/p99/p99.9 computed from the full-resolution
+ *       histogram since startup.</li>
+ *   <li>{@code banking_ejb_latency_max_seconds} - largest observed latency since startup.</li>
+ *   <li>{@code banking_ejb_errors_total} - failed invocations by exception type.</li>
+ * </ul>
+ */
+public class PrometheusTextFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** Histogram bucket upper bounds in seconds. */
+    private static final double[] BUCKETS_SECONDS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] BUCKETS_NANOS = new long[BUCKETS_SECONDS.length];
+    private static final String[] BUCKET_LABELS = new String[BUCKETS_SECONDS.length];
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    static {
+        for (int i = 0; i < BUCKETS_SECONDS.length; i++) {
+            BUCKETS_NANOS[i] = (long) (BUCKETS_SECONDS[i] * NANOS_PER_SECOND);
+            BUCKET_LABELS[i] = BigDecimal.valueOf(BUCKETS_SECONDS[i]).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private PrometheusTextFormat() {}
+
+    public static String format(MetricsRegistry registry) {
+        StringBuilder out = new StringBuilder(8192);
+        write(registry, out);
+        return out.toString();
+    }
+
+    public static void write(MetricsRegistry registry, StringBuilder out) {
+        List<MethodMetrics> methods = registry.getMethods();
+        List<LatencyHistogram.Snapshot> snapshots = new ArrayList<>(methods.size());
+        for (MethodMetrics m : methods) {
+            snapshots.add(m.getLatency().snapshot());
+        }
+
+        header(out, "banking_ejb_latency_seconds", "histogram", "EJB business method latency.");
+        for (int i = 0; i < methods.size(); i++) {
+            MethodMetrics m = methods.get(i);
+            LatencyHistogram.Snapshot s = snapshots.get(i);
+            String labels = labels(m);
+            long[] cumulative = s.getCumulativeCounts(BUCKETS_NANOS);
+            for (int b = 0; b < BUCKETS_SECONDS.length; b++) {
+                out.append("banking_ejb_latency_seconds_bucket{").append(labels)
+                        .append(",le=\"").append(BUCKET_LABELS[b]).append("\"} ").append(cumulative[b]).append('\n');
+            }
+            out.append("banking_ejb_latency_seconds_bucket{").append(labels).append(",le=\"+Inf\"} ").append(s.getCount()).append('\n');
+            out.append("banking_ejb_latency_seconds_sum{").append(labels).append("} ").append(s.getSumNanos() / NANOS_PER_SECOND).append('\n');
+            out.append("banking_ejb_latency_seconds_count{").append(labels).append("} ").append(s.getCount()).append('\n');
+        }
+
+        header(out, "banking_ejb_latency_quantile_seconds", "gauge", "EJB business method latency percentiles since startup.");
+        for (int i = 0; i < methods.size(); i++) {
+            String labels = labels(methods.get(i));
+            LatencyHistogram.Snapshot s = snapshots.get(i);
+            for (double q : QUANTILES) {
+                out.append("banking_ejb_latency_quantile_seconds{").append(labels)
+                        .append(",quantile=\"").append(q).append("\"} ")
+                        .append(s.getValueAtQuantile(q) / NANOS_PER_SECOND).append('\n');
+            }
+        }
+
+        header(out, "banking_ejb_latency_max_seconds", "gauge", "Largest EJB business method latency since startup.");
+        for (int i = 0; i < methods.size(); i++) {
+            out.append("banking_ejb_latency_max_seconds{").append(labels(methods.get(i))).append("} ")
+                    .append(snapshots.get(i).getMaxNanos() / NANOS_PER_SECOND).append('\n');
+        }
+
+        header(out, "banking_ejb_errors_total", "counter", "Failed EJB business method invocations by exception type.");
+        for (MethodMetrics m : methods) {
+            String labels = labels(m);
+            Map<String, LongAdder> errors = new TreeMap<>(m.getErrors());
+            for (Map.Entry<String, LongAdder> e : errors.entrySet()) {
+                out.append("banking_ejb_errors_total{").append(labels)
+                        .append(",exception=\"").append(escape(e.getKey())).append("\"} ")
+                        .append(e.getValue().sum()).append('\n');
+            }
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String labels(MethodMetrics m) {
+        return "component=\"" + escape(m.getComponent()) + "\",method=\"" + escape(m.getMethod()) + "\"";
+    }
+
+    static String escape(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"' || c == '\n') {
+                if (sb == null) {
+                    sb = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                sb.append(c == '\n' ? "\\n" : "\\" + c);
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb != null ? sb.toString() : value;
+    }
+}
@@ -0,0 +1,58 @@
+package lk.banking.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in single-row balance UPDATEs, per account. Such an UPDATE is a primary-key lookup, so on a
+ * busy account nearly all of its time is spent waiting for the row lock. Samples collect in a window
+ * that the hot-account detector drains; like {@link MetricsRegistry}, there is one {@link #getDefault()}
+ * instance for the whole application.
+ */
+public class RowLockWaits {
+
+    private static final RowLockWaits DEFAULT = new RowLockWaits();
+
+    private final AtomicReference<ConcurrentHashMap<Long, Window>> window =
+            new AtomicReference<>(new ConcurrentHashMap<>());
+
+    /** Updates and their total duration for one account within a window. */
+    public record Sample(long updates, long totalNanos) {
+        public double meanMillis() {
+            return updates == 0 ? 0 : totalNanos / 1_000_000.0 / updates;
+        }
+    }
+
+    private static final class Window {
+        final LongAdder updates = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+
+    public static RowLockWaits getDefault() {
+        return DEFAULT;
+    }
+
+    public void record(Long accountId, long nanos) {
+        ConcurrentHashMap<Long, Window> current = window.get();
+        Window account = current.get(accountId);
+        if (account == null) {
+            account = current.computeIfAbsent(accountId, id -> new Window());
+        }
+        account.updates.increment();
+        account.nanos.add(nanos);
+    }
+
+    /**
+     * Returns the samples recorded since the last drain and starts a new window. An update that
+     * finishes while the window is being swapped may be lost, which is harmless for a sampled metric.
+     */
+    public Map<Long, Sample> drain() {
+        ConcurrentHashMap<Long, Window> drained = window.getAndSet(new ConcurrentHashMap<>());
+        Map<Long, Sample> samples = new ConcurrentHashMap<>(drained.size());
+        drained.forEach((accountId, account) ->
+                samples.put(accountId, new Sample(account.updates.sum(), account.nanos.sum())));
+        return samples;
+    }
+}
@@ -1,14 +1,119 @@
 package lk.banking.core.util;
 
-import java.util.Random;
+/**
+ * Account numbers are 13 digits: a 12-digit payload followed by a Luhn check digit.
+ *
+ * The payload is a keyed Feistel permutation of a sequence value (see AccountNumberAllocator), so
+ * distinct sequence values always give distinct numbers without a database probe, while consecutive
+ * accounts do not get guessable neighbouring numbers. The key comes from the system property
+ * {@code banking.accountNumber.key} and must never change once numbers have been issued.
+ *
+ * Numbers issued before this scheme are 12 random digits without a check digit. They can never collide
+ * with 13-digit numbers and stay in use, but are only accepted once the account is known to exist.
+ */
+public final class AccountNumberGenerator {
 
-public class AccountNumberGenerator {
-    public static String generateAccountNumber() {
-        Random random = new Random();
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 12; i++) {
-            sb.append(random.nextInt(10));
+    public static final int LENGTH = 13;
+    public static final int LEGACY_LENGTH = 12;
+    /** Exclusive upper bound of sequence values: 12 payload digits. */
+    public static final long SEQUENCE_LIMIT = 1_000_000_000_000L;
+
+    private static final long HALF_MODULUS = 1_000_000L; // each Feistel half holds 6 digits
+    private static final int ROUNDS = 8;
+    private static final long KEY = Long.getLong("banking.accountNumber.key", 0x6E617777615F6C6BL);
+
+    private AccountNumberGenerator() {}
+
+    /**
+     * Encodes a sequence value in [0, {@link #SEQUENCE_LIMIT}) as a 13-digit account number.
+     */
+    public static String fromSequence(long sequence) {
+        return fromSequence(sequence, KEY);
+    }
+
+    static String fromSequence(long sequence, long key) {
+        if (sequence < 0 || sequence >= SEQUENCE_LIMIT) {
+            throw new IllegalArgumentException("Account number sequence out of range: " + sequence);
+        }
+        long payload = permute(sequence, key);
+        char[] digits = new char[LENGTH];
+        int sum = 0;
+        // Fill right to left; the rightmost payload digit is the first one Luhn doubles.
+        for (int i = LENGTH - 2, position = 0; i >= 0; i--, position++) {
+            int digit = (int) (payload % 10);
+            payload /= 10;
+            digits[i] = (char) ('0' + digit);
+            sum += (position & 1) == 0 ? doubled(digit) : digit;
         }
-        return sb.toString();
+        digits[LENGTH - 1] = (char) ('0' + (10 - sum % 10) % 10);
+        return new String(digits);
+    }
+
+    /**
+     * Cheap syntactic check run before any lookup: 13 digits with a correct check digit. Catches every
+     * single-digit typo and most adjacent transpositions. Legacy 12-digit numbers have no check digit, and
+     * a 13-digit number with one digit dropped has their shape, so they are not valid here; see
+     * {@link #isLegacyFormat}.
+     */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LENGTH) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = LENGTH - 1, position = 0; i >= 0; i--, position++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            int digit = c - '0';
+            sum += (position & 1) == 1 ? doubled(digit) : digit;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * Whether the number has the shape of a legacy number: 12 digits. Nothing about the digits themselves
+     * can tell a legacy number from a typo, so callers must confirm that such an account exists before
+     * accepting it.
+     */
+    public static boolean isLegacyFormat(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != LEGACY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LEGACY_LENGTH; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Balanced Feistel network over two 6-digit halves. Every round is invertible, so the whole
+     * mapping is a bijection on [0, 10^12).
+     */
+    static long permute(long value, long key) {
+        long left = value / HALF_MODULUS;
+        long right = value % HALF_MODULUS;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = (left + roundFunction(right, round, key)) % HALF_MODULUS;
+            left = right;
+            right = next;
+        }
+        return left * HALF_MODULUS + right;
+    }
+
+    private static long roundFunction(long half, int round, long key) {
+        long z = half * 0x9E3779B97F4A7C15L + key + round * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return Long.remainderUnsigned(z, HALF_MODULUS);
+    }
+
+    private static int doubled(int digit) {
+        int d = digit * 2;
+        return d > 9 ? d - 9 : d;
     }
-}
\ No newline at end of file
+}
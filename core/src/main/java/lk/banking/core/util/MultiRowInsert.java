@@ -0,0 +1,74 @@
+package lk.banking.core.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.List;
+
+/**
+ * Writes rows with multi-row native INSERT statements
+ * ({@code INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ...}).
+ * Entities use IDENTITY keys, which stops the JPA provider from batching persist() calls,
+ * so bulk writers use this helper to get one round trip per chunk instead of one per row.
+ */
+public class MultiRowInsert {
+
+    /** Keeps a single statement well below MySQL's default max_allowed_packet and placeholder limits. */
+    public static final int DEFAULT_ROWS_PER_STATEMENT = 500;
+
+    private MultiRowInsert() {}
+
+    /**
+     * Builds the SQL for inserting {@code rowCount} rows.
+     */
+    public static String sql(String table, List<String> columns, int rowCount) {
+        if (columns.isEmpty() || rowCount <= 0) {
+            throw new IllegalArgumentException("At least one column and one row are required.");
+        }
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columns.size(); i++) {
+            row.append(i == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+
+        StringBuilder sql = new StringBuilder(32 + rowCount * (row.length() + 2))
+                .append("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Inserts all rows, chunked into statements of {@link #DEFAULT_ROWS_PER_STATEMENT} rows.
+     * Must be called inside an active transaction.
+     * @param rows One Object[] per row, values in column order.
+     * @return total number of rows inserted.
+     */
+    public static int execute(EntityManager em, String table, List<String> columns, List<Object[]> rows) {
+        return execute(em, table, columns, rows, DEFAULT_ROWS_PER_STATEMENT);
+    }
+
+    public static int execute(EntityManager em, String table, List<String> columns, List<Object[]> rows, int rowsPerStatement) {
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + rowsPerStatement, rows.size()));
+            Query query = em.createNativeQuery(sql(table, columns, chunk.size()));
+            int position = 1;
+            for (Object[] row : chunk) {
+                if (row.length != columns.size()) {
+                    throw new IllegalArgumentException("Row has " + row.length + " values but " + columns.size() + " columns were declared.");
+                }
+                for (Object value : row) {
+                    query.setParameter(position++, value);
+                }
+            }
+            inserted += query.executeUpdate();
+        }
+        return inserted;
+    }
+}
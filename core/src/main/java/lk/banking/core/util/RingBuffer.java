@@ -0,0 +1,118 @@
+package lk.banking.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free ring buffer (Vyukov-style sequenced slots).
+ * Any number of threads may offer concurrently; offer never blocks and simply
+ * returns false when the buffer is full, leaving the overflow policy to the caller.
+ * Draining is safe from multiple threads, but callers normally use a single drainer.
+ *
+ * @param <E> element type
+ */
+public class RingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong(); // next position to publish
+    private final AtomicLong head = new AtomicLong(); // next position to consume
+
+    /**
+     * @param requestedCapacity Minimum capacity; rounded up to the next power of two.
+     */
+    public RingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive.");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity);
+        if (capacity < requestedCapacity) {
+            capacity <<= 1;
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publishes an element without blocking.
+     * @return false if the buffer is full and the element was not accepted.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Ring buffer does not accept null elements.");
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long delta = sequences.get(index) - position;
+            if (delta == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1); // volatile write publishes the slot
+                    return true;
+                }
+                position = tail.get();
+            } else if (delta < 0) {
+                return false; // the slot still holds an unconsumed element: full
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.
+     * @return the element, or null if the buffer is empty.
+     */
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long delta = sequences.get(index) - (position + 1);
+            if (delta == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + mask + 1); // hand the slot back to producers
+                    return element;
+                }
+                position = head.get();
+            } else if (delta < 0) {
+                return null; // nothing published yet
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code maxElements} elements into the given consumer, oldest first.
+     * @return the number of elements drained.
+     */
+    public int drainTo(Consumer<? super E> consumer, int maxElements) {
+        int drained = 0;
+        E element;
+        while (drained < maxElements && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /** Approximate number of buffered elements. */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
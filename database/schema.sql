@@ -33,6 +33,7 @@ CREATE TABLE IF NOT EXISTS customers (
     email VARCHAR(128) NOT NULL,
     address VARCHAR(256) NOT NULL,
     phoneNumber VARCHAR(20) NOT NULL,
+    notificationDigest VARCHAR(16) NOT NULL DEFAULT 'NONE',
     createdAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     updatedAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
     PRIMARY KEY (id),
@@ -44,6 +45,10 @@ CREATE TABLE IF NOT EXISTS accounts (
     accountNumber VARCHAR(32) NOT NULL,
     type VARCHAR(32) NOT NULL,
     balance DECIMAL(19,2) NOT NULL,
+    availableBalance DECIMAL(19,2) NOT NULL,
+    balanceShards INT NOT NULL DEFAULT 0,
+    -- NULL for accounts opened before it was recorded; reconciliation asks an operator for those
+    openingBalance DECIMAL(19,2) NULL,
     customer_id BIGINT NOT NULL,
     createdAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     updatedAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
@@ -55,6 +60,41 @@ CREATE TABLE IF NOT EXISTS accounts (
     CONSTRAINT fk_accounts_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
 ) ENGINE=InnoDB;
 
+-- Sub-balances of hot accounts (accounts.balanceShards > 0). Credits land on a random shard instead of
+-- the account row, so concurrent credits do not queue on one row lock; the account's balance is
+-- accounts.balance plus its shards until they are consolidated back into the account row.
+CREATE TABLE IF NOT EXISTS account_balance_shards (
+    accountId BIGINT NOT NULL,
+    shard INT NOT NULL,
+    balance DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (accountId, shard),
+    CONSTRAINT fk_account_balance_shards_account FOREIGN KEY (accountId) REFERENCES accounts (id)
+) ENGINE=InnoDB;
+
+-- Double-entry journal: one header per posting, legs summing to zero. Account-history rows in
+-- transactions point at their entry, so the legs of a transfer pair up through journalEntryId.
+CREATE TABLE IF NOT EXISTS journal_entries (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    type VARCHAR(32) NOT NULL,
+    description VARCHAR(256) NULL,
+    postedAt DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_journal_entries_posted (postedAt)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS journal_lines (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    entryId BIGINT NOT NULL,
+    ledger VARCHAR(32) NOT NULL,
+    accountId BIGINT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_journal_lines_entry (entryId),
+    KEY idx_journal_lines_account (accountId),
+    CONSTRAINT fk_journal_lines_entry FOREIGN KEY (entryId) REFERENCES journal_entries (id),
+    CONSTRAINT fk_journal_lines_account FOREIGN KEY (accountId) REFERENCES accounts (id)
+) ENGINE=InnoDB;
+
 CREATE TABLE IF NOT EXISTS transactions (
     id BIGINT NOT NULL AUTO_INCREMENT,
     account_id BIGINT NOT NULL,
@@ -64,9 +104,38 @@ CREATE TABLE IF NOT EXISTS transactions (
     status VARCHAR(32) NOT NULL,
     timestamp DATETIME(6) NOT NULL,
     description VARCHAR(256) NULL,
+    journalEntryId BIGINT NULL,
+    -- Moves on every change, e.g. settlement; versions the cached statements
+    updatedAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
     PRIMARY KEY (id),
     KEY idx_transactions_account_time (account_id, timestamp),
-    CONSTRAINT fk_transactions_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+    KEY idx_transactions_journal (journalEntryId),
+    KEY idx_transactions_reconcile (account_id, status, amount),
+    KEY idx_transactions_status (status, account_id, timestamp),
+    CONSTRAINT fk_transactions_account FOREIGN KEY (account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_transactions_journal FOREIGN KEY (journalEntryId) REFERENCES journal_entries (id)
+) ENGINE=InnoDB;
+
+-- Funds reserved for pending payments and scheduled transfers. accounts.availableBalance is the balance
+-- less the ACTIVE holds; the sweeper finds expired ones through idx_funds_holds_expiry.
+CREATE TABLE IF NOT EXISTS funds_holds (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    account_id BIGINT NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    capturedAmount DECIMAL(19,2) NULL,
+    status VARCHAR(16) NOT NULL,
+    description VARCHAR(256) NULL,
+    transactionId BIGINT NULL,
+    journalEntryId BIGINT NULL,
+    createdAt DATETIME(6) NOT NULL,
+    expiresAt DATETIME(6) NOT NULL,
+    settledAt DATETIME(6) NULL,
+    PRIMARY KEY (id),
+    KEY idx_funds_holds_account (account_id, status),
+    KEY idx_funds_holds_expiry (status, expiresAt),
+    KEY idx_funds_holds_transaction (transactionId),
+    CONSTRAINT fk_funds_holds_account FOREIGN KEY (account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_funds_holds_transaction FOREIGN KEY (transactionId) REFERENCES transactions (id)
 ) ENGINE=InnoDB;
 
 CREATE TABLE IF NOT EXISTS scheduled_transfers (
@@ -76,6 +145,7 @@ CREATE TABLE IF NOT EXISTS scheduled_transfers (
     amount DECIMAL(19,2) NOT NULL,
     scheduledTime DATETIME(6) NOT NULL,
     processed BOOLEAN NOT NULL DEFAULT FALSE,
+    holdId BIGINT NULL,
     createdAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
     updatedAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
     PRIMARY KEY (id),
@@ -83,7 +153,8 @@ CREATE TABLE IF NOT EXISTS scheduled_transfers (
     KEY idx_scheduled_from (from_account_id),
     KEY idx_scheduled_to (to_account_id),
     CONSTRAINT fk_scheduled_from FOREIGN KEY (from_account_id) REFERENCES accounts (id),
-    CONSTRAINT fk_scheduled_to FOREIGN KEY (to_account_id) REFERENCES accounts (id)
+    CONSTRAINT fk_scheduled_to FOREIGN KEY (to_account_id) REFERENCES accounts (id),
+    CONSTRAINT fk_scheduled_hold FOREIGN KEY (holdId) REFERENCES funds_holds (id)
 ) ENGINE=InnoDB;
 
 CREATE TABLE IF NOT EXISTS user_roles (
@@ -95,9 +166,246 @@ CREATE TABLE IF NOT EXISTS user_roles (
     CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id) ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
+-- Servers reserve blocks of account number sequence values from here (AccountNumberAllocator).
+CREATE TABLE IF NOT EXISTS account_number_sequences (
+    name VARCHAR(32) NOT NULL,
+    nextValue BIGINT NOT NULL,
+    updatedAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
+
+-- Append-only: rows are only ever inserted by the audit trail writer.
+CREATE TABLE IF NOT EXISTS audit_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    occurredAt DATETIME(6) NOT NULL,
+    caller VARCHAR(128) NULL,
+    component VARCHAR(128) NOT NULL,
+    method VARCHAR(128) NOT NULL,
+    arguments VARCHAR(512) NULL,
+    outcome VARCHAR(16) NOT NULL,
+    errorType VARCHAR(128) NULL,
+    latencyMicros BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_audit_log_occurred (occurredAt),
+    KEY idx_audit_log_caller_time (caller, occurredAt)
+) ENGINE=InnoDB;
+
+-- Transactional outbox: notification intents written in the same transaction as the ledger change,
+-- delivered afterwards by OutboxDispatcher. claimToken marks the rows one dispatcher run has taken.
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    type VARCHAR(32) NOT NULL,
+    channel VARCHAR(16) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    payload TEXT NULL,
+    digest VARCHAR(16) NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    createdAt DATETIME(6) NOT NULL,
+    availableAt DATETIME(6) NOT NULL,
+    claimToken VARCHAR(36) NULL,
+    claimedAt DATETIME(6) NULL,
+    sentAt DATETIME(6) NULL,
+    lastError VARCHAR(512) NULL,
+    PRIMARY KEY (id),
+    KEY idx_outbox_due (status, availableAt),
+    KEY idx_outbox_claim (claimToken)
+) ENGINE=InnoDB;
+
+-- Notifications the dispatcher gave up on, kept for inspection and requeueing (DeadLetterQueue).
+CREATE TABLE IF NOT EXISTS notification_dead_letters (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    outboxId BIGINT NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    channel VARCHAR(16) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    payload TEXT NULL,
+    attempts INT NOT NULL,
+    lastError VARCHAR(512) NULL,
+    failedAt DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_dead_letters_failed (failedAt)
+) ENGINE=InnoDB;
+
+-- Ledger reconciliation. A baseline is the opening balance of an account opened before
+-- accounts.openingBalance was recorded, confirmed by an operator acknowledging its first break. A break
+-- is an account whose balance does not equal its opening balance + SUM(completed transactions).
+CREATE TABLE IF NOT EXISTS reconciliation_baselines (
+    accountId BIGINT NOT NULL,
+    openingBalance DECIMAL(19,2) NOT NULL,
+    recordedAt DATETIME(6) NOT NULL,
+    PRIMARY KEY (accountId),
+    CONSTRAINT fk_reconciliation_baselines_account FOREIGN KEY (accountId) REFERENCES accounts (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS reconciliation_breaks (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    runId VARCHAR(36) NOT NULL,
+    accountId BIGINT NOT NULL,
+    balance DECIMAL(19,2) NOT NULL,
+    expectedBalance DECIMAL(19,2) NOT NULL,
+    difference DECIMAL(19,2) NOT NULL,
+    detectedAt DATETIME(6) NOT NULL,
+    -- The account has no opening balance to start from: expectedBalance assumes it opened at zero
+    missingBaseline BOOLEAN NOT NULL DEFAULT FALSE,
+    acknowledgedAt DATETIME(6) NULL,
+    acknowledgedBy VARCHAR(255) NULL,
+    PRIMARY KEY (id),
+    KEY idx_reconciliation_breaks_run (runId),
+    KEY idx_reconciliation_breaks_account (accountId)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotencyKey VARCHAR(64) NOT NULL,
+    -- SHA-256 of the request the key was first used for; reuse for another request is refused
+    requestHash CHAR(64) NOT NULL,
+    -- transactions.id, or scheduled_transfers.id for a scheduled transfer; NULL until completed
+    resultId BIGINT NULL,
+    createdAt DATETIME(6) NOT NULL,
+    expiresAt DATETIME(6) NOT NULL,
+    PRIMARY KEY (idempotencyKey),
+    KEY idx_idempotency_keys_expires (expiresAt)
+) ENGINE=InnoDB;
+
+-- Status changes made by pending-transaction settlement runs, one row per transaction settled or failed.
+CREATE TABLE IF NOT EXISTS transaction_status_changes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    transactionId BIGINT NOT NULL,
+    fromStatus VARCHAR(32) NOT NULL,
+    toStatus VARCHAR(32) NOT NULL,
+    reason VARCHAR(256) NULL,
+    changedAt DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_transaction_status_changes_transaction (transactionId),
+    CONSTRAINT fk_transaction_status_changes_transaction FOREIGN KEY (transactionId) REFERENCES transactions (id)
+) ENGINE=InnoDB;
+
+-- Upgrades for databases created before a column existed: CREATE TABLE IF NOT EXISTS leaves existing
+-- tables alone and MySQL 8.0 has no ADD COLUMN IF NOT EXISTS, so each step looks in information_schema
+-- and runs its DDL as a prepared statement, or DO 0 once it has been applied. Safe to re-run on every boot.
+
+-- customers.notificationDigest; existing customers keep per-event notifications
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'customers' AND column_name = 'notificationDigest');
+SET @ddl = IF(@missing,
+    'ALTER TABLE customers ADD COLUMN notificationDigest VARCHAR(16) NOT NULL DEFAULT ''NONE'' AFTER phoneNumber',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+-- transactions.journalEntryId; history written before the journal has no entry
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'transactions' AND column_name = 'journalEntryId');
+SET @ddl = IF(@missing,
+    'ALTER TABLE transactions ADD COLUMN journalEntryId BIGINT NULL AFTER description,
+        ADD KEY idx_transactions_journal (journalEntryId),
+        ADD CONSTRAINT fk_transactions_journal FOREIGN KEY (journalEntryId) REFERENCES journal_entries (id)',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+-- accounts.openingBalance stays NULL for existing accounts; reconciliation reports them as missing a baseline
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'accounts' AND column_name = 'openingBalance');
+SET @ddl = IF(@missing,
+    'ALTER TABLE accounts ADD COLUMN openingBalance DECIMAL(19,2) NULL AFTER balance',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'transactions' AND index_name = 'idx_transactions_reconcile');
+SET @ddl = IF(@missing,
+    'ALTER TABLE transactions ADD KEY idx_transactions_reconcile (account_id, status, amount)',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'reconciliation_breaks' AND column_name = 'missingBaseline');
+SET @ddl = IF(@missing,
+    'ALTER TABLE reconciliation_breaks ADD COLUMN missingBaseline BOOLEAN NOT NULL DEFAULT FALSE AFTER detectedAt,
+        ADD COLUMN acknowledgedAt DATETIME(6) NULL AFTER missingBaseline,
+        ADD COLUMN acknowledgedBy VARCHAR(255) NULL AFTER acknowledgedAt',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+-- accounts.availableBalance: added nullable, set to the balance less the account's ACTIVE holds, then made
+-- NOT NULL
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'accounts' AND column_name = 'availableBalance');
+SET @ddl = IF(@missing,
+    'ALTER TABLE accounts ADD COLUMN availableBalance DECIMAL(19,2) NULL AFTER balance',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+SET @ddl = IF(@missing,
+    'UPDATE accounts a SET a.availableBalance = a.balance - (SELECT COALESCE(SUM(h.amount), 0) FROM funds_holds h
+        WHERE h.account_id = a.id AND h.status = ''ACTIVE'')',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+SET @ddl = IF(@missing,
+    'ALTER TABLE accounts MODIFY COLUMN availableBalance DECIMAL(19,2) NOT NULL',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+-- scheduled_transfers.holdId; transfers scheduled before holds existed reserve nothing
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'scheduled_transfers' AND column_name = 'holdId');
+SET @ddl = IF(@missing,
+    'ALTER TABLE scheduled_transfers ADD COLUMN holdId BIGINT NULL AFTER processed,
+        ADD CONSTRAINT fk_scheduled_hold FOREIGN KEY (holdId) REFERENCES funds_holds (id)',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+-- transactions.updatedAt and idx_transactions_status; existing rows start at the time of the upgrade
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'transactions' AND column_name = 'updatedAt');
+SET @ddl = IF(@missing,
+    'ALTER TABLE transactions ADD COLUMN updatedAt DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+        ON UPDATE CURRENT_TIMESTAMP(6) AFTER journalEntryId',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'transactions' AND index_name = 'idx_transactions_status');
+SET @ddl = IF(@missing,
+    'ALTER TABLE transactions ADD KEY idx_transactions_status (status, account_id, timestamp)',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+-- accounts.balanceShards; existing accounts start unsharded
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'accounts' AND column_name = 'balanceShards');
+SET @ddl = IF(@missing,
+    'ALTER TABLE accounts ADD COLUMN balanceShards INT NOT NULL DEFAULT 0 AFTER availableBalance',
+    'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
 INSERT INTO roles (name) VALUES ('CUSTOMER'), ('EMPLOYEE'), ('ADMIN')
 ON DUPLICATE KEY UPDATE name = VALUES(name);
 
+INSERT IGNORE INTO account_number_sequences (name, nextValue) VALUES ('ACCOUNT', 0);
+
 INSERT INTO users (username, password, email, phone, isActive)
 VALUES (
     'mac',
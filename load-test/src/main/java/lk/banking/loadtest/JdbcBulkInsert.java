@@ -0,0 +1,97 @@
+package lk.banking.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers rows and writes them as multi-row INSERT statements, one round trip per chunk.
+ * The JDBC counterpart of core's MultiRowInsert, for tools that talk to the database directly.
+ * Not thread-safe; use one instance per connection.
+ */
+public class JdbcBulkInsert implements AutoCloseable {
+
+    private final Connection connection;
+    private final String table;
+    private final List<String> columns;
+    private final int rowsPerStatement;
+    private final List<Object[]> pending;
+    private PreparedStatement fullChunkStatement;
+    private long inserted;
+
+    public JdbcBulkInsert(Connection connection, String table, List<String> columns, int rowsPerStatement) {
+        this.connection = connection;
+        this.table = table;
+        this.columns = columns;
+        this.rowsPerStatement = rowsPerStatement;
+        this.pending = new ArrayList<>(rowsPerStatement);
+    }
+
+    public void add(Object... row) throws SQLException {
+        if (row.length != columns.size()) {
+            throw new IllegalArgumentException("Row has " + row.length + " values but " + columns.size() + " columns were declared.");
+        }
+        pending.add(row);
+        if (pending.size() == rowsPerStatement) {
+            if (fullChunkStatement == null) {
+                fullChunkStatement = connection.prepareStatement(sql(rowsPerStatement));
+            }
+            write(fullChunkStatement);
+        }
+    }
+
+    /** Writes any buffered rows. */
+    public void flush() throws SQLException {
+        if (!pending.isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(sql(pending.size()))) {
+                write(statement);
+            }
+        }
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            if (fullChunkStatement != null) {
+                fullChunkStatement.close();
+            }
+        }
+    }
+
+    private void write(PreparedStatement statement) throws SQLException {
+        int position = 1;
+        for (Object[] row : pending) {
+            for (Object value : row) {
+                statement.setObject(position++, value);
+            }
+        }
+        inserted += statement.executeUpdate();
+        pending.clear();
+    }
+
+    private String sql(int rowCount) {
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columns.size(); i++) {
+            row.append(i == 0 ? "?" : ",?");
+        }
+        row.append(')');
+        StringBuilder sql = new StringBuilder(64 + rowCount * (row.length() + 1))
+                .append("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+}
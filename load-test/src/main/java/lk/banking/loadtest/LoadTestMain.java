@@ -0,0 +1,218 @@
+package lk.banking.loadtest;
+
+import lk.banking.core.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seeds customers and accounts directly into the banking database, then replays a weighted mix of
+ * login / dashboard / transfer / deposit / PDF-download requests against the deployed web module
+ * with a fixed number of closed-loop virtual users, and reports throughput and latency percentiles
+ * per scenario.
+ *
+ * <pre>
+ * --base-url=http://localhost:8080/banking-system   web module under test
+ * --jdbc-url=jdbc:mysql://localhost:3306/macna_banking?...   database used by the server
+ * --db-user=banking_user --db-password=banking_password
+ * --customers=1000            customers to seed (existing load-test customers are reused)
+ * --accounts-per-customer=2
+ * --balance=100000.00         opening balance of each seeded account
+ * --password=LoadTest#2024    password of every seeded user
+ * --skip-seed                 use whatever load-test users already exist
+ * --users=50                  concurrent virtual users (each logs in as a different customer)
+ * --warmup=30 --duration=120  seconds; results are only recorded after warm-up
+ * --mix=login=5,dashboard=45,transfer=20,deposit=20,pdf=10
+ * --seed=42                   random seed for scenario choice, amounts and payees
+ * --timeout=30                per-request timeout in seconds
+ * --report=results.csv        optional CSV copy of the summary
+ * </pre>
+ */
+public class LoadTestMain {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String baseUrl = stripTrailingSlash(options.get("base-url", "http://localhost:8080/banking-system"));
+        String jdbcUrl = options.get("jdbc-url",
+                "jdbc:mysql://localhost:3306/macna_banking?useSSL=false&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true");
+        String password = options.get("password", "LoadTest#2024");
+        int users = options.getInt("users", 50);
+        int warmupSeconds = options.getInt("warmup", 30);
+        int durationSeconds = options.getInt("duration", 120);
+        long seed = options.getLong("seed", 42L);
+        Duration timeout = Duration.ofSeconds(options.getInt("timeout", 30));
+        WeightedMix mix = WeightedMix.parse(options.get("mix", null));
+
+        Seeder seeder = new Seeder(jdbcUrl, options.get("db-user", "banking_user"), options.get("db-password", "banking_password"));
+        if (!options.getBoolean("skip-seed")) {
+            seeder.seed(options.getInt("customers", 1000), options.getInt("accounts-per-customer", 2),
+                    new BigDecimal(options.get("balance", "100000.00")), password);
+        }
+        List<SeededUser> directory = seeder.loadUsers(Integer.MAX_VALUE);
+        if (directory.size() < users) {
+            throw new IllegalStateException("Only " + directory.size() + " load-test users with accounts exist; "
+                    + "seed more customers or lower --users.");
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        awaitReady(client, baseUrl + "/login", timeout);
+
+        List<VirtualUser> virtualUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            VirtualUser user = new VirtualUser(client, baseUrl, directory.get(i), password, directory, timeout, seed + i);
+            if (!user.login()) {
+                throw new IllegalStateException("Virtual user " + directory.get(i).getUsername() + " could not log in.");
+            }
+            virtualUsers.add(user);
+        }
+
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats(scenario));
+        }
+        LongAdder transportErrors = new LongAdder();
+        AtomicBoolean recording = new AtomicBoolean(false);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch finished = new CountDownLatch(users);
+
+        System.out.printf(Locale.ROOT, "Running %d virtual users against %s: %ds warm-up + %ds measured, mix [%s]%n",
+                users, baseUrl, warmupSeconds, durationSeconds, mix);
+        // One virtual thread per user, so thousands of users do not need thousands of platform threads
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        for (VirtualUser user : virtualUsers) {
+            workers.execute(() -> {
+                try {
+                    runUser(user, mix, stats, recording, running, transportErrors);
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        recording.set(true);
+        long measuredStart = System.nanoTime();
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        recording.set(false);
+        double elapsedSeconds = (System.nanoTime() - measuredStart) / 1_000_000_000.0;
+        running.set(false);
+        finished.await(timeout.toSeconds() + 5, TimeUnit.SECONDS);
+        workers.shutdownNow();
+
+        report(stats, elapsedSeconds, transportErrors.sum(), options.get("report", null));
+        System.exit(0); // do not wait for the HttpClient's internal threads
+    }
+
+    private static void runUser(VirtualUser user, WeightedMix mix, Map<Scenario, ScenarioStats> stats,
+                                AtomicBoolean recording, AtomicBoolean running, LongAdder transportErrors) {
+        while (running.get()) {
+            Scenario scenario = mix.next(user.getRandom());
+            try {
+                if (scenario == Scenario.LOGIN) {
+                    user.logout();
+                } else if (!user.isLoggedIn() && !user.login()) {
+                    continue;
+                }
+                boolean measured = recording.get();
+                long start = System.nanoTime();
+                boolean success = user.execute(scenario);
+                long latency = System.nanoTime() - start;
+                if (measured && recording.get()) {
+                    stats.get(scenario).record(latency, success);
+                }
+            } catch (IOException e) {
+                transportErrors.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void awaitReady(HttpClient client, String url, Duration timeout) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (true) {
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not accepting connections yet
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(url + " did not become ready within 5 minutes.");
+            }
+            System.out.println("Waiting for " + url + " ...");
+            TimeUnit.SECONDS.sleep(5);
+        }
+    }
+
+    private static void report(Map<Scenario, ScenarioStats> stats, double elapsedSeconds, long transportErrors,
+                               String csvPath) throws IOException {
+        List<String> csv = new ArrayList<>();
+        csv.add("scenario,count,errors,opsPerSecond,p50Ms,p90Ms,p99Ms,p999Ms,maxMs");
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Scenario", "Count", "Errors", "Ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        long totalCount = 0;
+        for (ScenarioStats s : stats.values()) {
+            LatencyHistogram.Snapshot snapshot = s.snapshot();
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            totalCount += snapshot.getCount();
+            double[] q = new double[QUANTILES.length];
+            for (int i = 0; i < QUANTILES.length; i++) {
+                q[i] = snapshot.getValueAtQuantile(QUANTILES[i]) / NANOS_PER_MILLI;
+            }
+            double max = snapshot.getMaxNanos() / NANOS_PER_MILLI;
+            double throughput = snapshot.getCount() / elapsedSeconds;
+            System.out.printf(Locale.ROOT, "%-10s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    s.getScenario().getKey(), snapshot.getCount(), s.getFailures(), throughput, q[0], q[1], q[2], q[3], max);
+            csv.add(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    s.getScenario().getKey(), snapshot.getCount(), s.getFailures(), throughput, q[0], q[1], q[2], q[3], max));
+        }
+        System.out.printf(Locale.ROOT, "%-10s %9d %7s %9.1f%n", "total", totalCount, "", totalCount / elapsedSeconds);
+        if (transportErrors > 0) {
+            System.out.println("Transport errors (timeouts, refused connections): " + transportErrors);
+        }
+        if (csvPath != null) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(csvPath), StandardCharsets.UTF_8))) {
+                csv.forEach(out::println);
+            }
+        }
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,32 @@
+package lk.banking.loadtest;
+
+/**
+ * User journeys replayed by the load generator, with their default weight in the mix.
+ */
+public enum Scenario {
+    LOGIN("login", 5),
+    DASHBOARD("dashboard", 45),
+    TRANSFER("transfer", 20),
+    DEPOSIT("deposit", 20),
+    PDF_DOWNLOAD("pdf", 10);
+
+    private final String key;
+    private final int defaultWeight;
+
+    Scenario(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String getKey() { return key; }
+    public int getDefaultWeight() { return defaultWeight; }
+
+    public static Scenario fromKey(String key) {
+        for (Scenario scenario : values()) {
+            if (scenario.key.equalsIgnoreCase(key) || scenario.name().equalsIgnoreCase(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario '" + key + "'. Known: login, dashboard, transfer, deposit, pdf.");
+    }
+}
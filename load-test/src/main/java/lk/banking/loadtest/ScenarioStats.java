@@ -0,0 +1,30 @@
+package lk.banking.loadtest;
+
+import lk.banking.core.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters for one scenario, shared by all virtual users.
+ */
+public class ScenarioStats {
+
+    private final Scenario scenario;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    public ScenarioStats(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public void record(long latencyNanos, boolean success) {
+        latency.record(latencyNanos);
+        if (!success) {
+            failures.increment();
+        }
+    }
+
+    public Scenario getScenario() { return scenario; }
+    public LatencyHistogram.Snapshot snapshot() { return latency.snapshot(); }
+    public long getFailures() { return failures.sum(); }
+}
@@ -0,0 +1,27 @@
+package lk.banking.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A seeded CUSTOMER login and the accounts it owns.
+ */
+public class SeededUser {
+
+    private final String username;
+    private final List<Long> accountIds = new ArrayList<>();
+    private final List<String> accountNumbers = new ArrayList<>();
+
+    public SeededUser(String username) {
+        this.username = username;
+    }
+
+    void addAccount(long id, String accountNumber) {
+        accountIds.add(id);
+        accountNumbers.add(accountNumber);
+    }
+
+    public String getUsername() { return username; }
+    public List<Long> getAccountIds() { return accountIds; }
+    public List<String> getAccountNumbers() { return accountNumbers; }
+}
@@ -0,0 +1,154 @@
+package lk.banking.loadtest;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Seeds CUSTOMER users, their customers and accounts straight into the database/schema.sql layout,
+ * and loads them back as the catalogue the virtual users log in with.
+ * Seeding is incremental: users that already exist (by the loadtest username prefix) are kept.
+ */
+public class Seeder {
+
+    private static final Logger LOGGER = Logger.getLogger(Seeder.class.getName());
+
+    public static final String USERNAME_PREFIX = "loadtest";
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+
+    public Seeder(String jdbcUrl, String dbUser, String dbPassword) {
+        this.jdbcUrl = jdbcUrl;
+        this.dbUser = dbUser;
+        this.dbPassword = dbPassword;
+    }
+
+    /**
+     * Ensures at least {@code customers} load-test customers exist, each with {@code accountsPerCustomer} accounts.
+     * All users share one BCrypt hash of {@code password}, computed once.
+     */
+    public void seed(int customers, int accountsPerCustomer, BigDecimal openingBalance, String password) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+            connection.setAutoCommit(false);
+            int existing = countExisting(connection);
+            if (existing >= customers) {
+                LOGGER.info("Seeder: " + existing + " load-test customers already present, nothing to seed.");
+                return;
+            }
+            long roleId = customerRoleId(connection);
+            long nextUserId = maxId(connection, "users") + 1;
+            long nextCustomerId = maxId(connection, "customers") + 1;
+            long nextAccountId = maxId(connection, "accounts") + 1;
+            String hash = BCrypt.hashpw(password, BCrypt.gensalt(12));
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            // Tables fill their chunks at different rates, so children can reach the server before their parents.
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+            }
+
+            try (JdbcBulkInsert users = new JdbcBulkInsert(connection, "users",
+                         List.of("id", "username", "password", "email", "phone", "isActive", "createdAt", "updatedAt"), ROWS_PER_STATEMENT);
+                 JdbcBulkInsert userRoles = new JdbcBulkInsert(connection, "user_roles",
+                         List.of("user_id", "role_id"), ROWS_PER_STATEMENT);
+                 JdbcBulkInsert customerRows = new JdbcBulkInsert(connection, "customers",
+                         List.of("id", "name", "email", "address", "phoneNumber", "createdAt", "updatedAt"), ROWS_PER_STATEMENT);
+                 JdbcBulkInsert accounts = new JdbcBulkInsert(connection, "accounts",
+                         List.of("id", "accountNumber", "type", "balance", "availableBalance", "customer_id", "createdAt", "updatedAt", "isActive"), ROWS_PER_STATEMENT)) {
+                for (int i = existing; i < customers; i++) {
+                    String username = USERNAME_PREFIX + i;
+                    String email = username + "@loadtest.nawwa.local";
+                    String phone = String.format("07%08d", i % 100_000_000);
+                    long userId = nextUserId++;
+                    long customerId = nextCustomerId++;
+                    users.add(userId, username, hash, email, phone, true, now, now);
+                    userRoles.add(userId, roleId);
+                    customerRows.add(customerId, "Load Test Customer " + i, email, i + " Load Test Lane", phone, now, now);
+                    for (int a = 0; a < accountsPerCustomer; a++) {
+                        long accountId = nextAccountId++;
+                        accounts.add(accountId, String.format("9%011d", accountId), a == 0 ? "CURRENT" : "SAVINGS",
+                                openingBalance, openingBalance, customerId, now, now, true);
+                    }
+                }
+            }
+            connection.commit();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+            LOGGER.info("Seeder: Seeded " + (customers - existing) + " customers with " + accountsPerCustomer + " accounts each.");
+        }
+    }
+
+    /**
+     * Loads the seeded users and their active accounts.
+     */
+    public List<SeededUser> loadUsers(int limit) throws SQLException {
+        Map<String, SeededUser> users = new LinkedHashMap<>();
+        String sql = "SELECT u.username, a.id, a.accountNumber FROM users u "
+                + "JOIN customers c ON c.email = u.email "
+                + "JOIN accounts a ON a.customer_id = c.id AND a.isActive = TRUE "
+                + "WHERE u.username LIKE ? ORDER BY u.id, a.id";
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, USERNAME_PREFIX + "%");
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String username = rs.getString(1);
+                    SeededUser user = users.get(username);
+                    if (user == null) {
+                        if (users.size() == limit) {
+                            break;
+                        }
+                        user = new SeededUser(username);
+                        users.put(username, user);
+                    }
+                    user.addAccount(rs.getLong(2), rs.getString(3));
+                }
+            }
+        }
+        return new ArrayList<>(users.values());
+    }
+
+    private static int countExisting(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM users WHERE username LIKE ?")) {
+            statement.setString(1, USERNAME_PREFIX + "%");
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    public static long customerRoleId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM roles WHERE name = 'CUSTOMER'")) {
+            if (!rs.next()) {
+                throw new SQLException("Role CUSTOMER not found; load database/schema.sql first.");
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    public static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
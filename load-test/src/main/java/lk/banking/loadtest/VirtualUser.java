@@ -0,0 +1,184 @@
+package lk.banking.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * One simulated customer with its own session cookies. Redirects are not followed, so each
+ * measurement covers exactly one servlet request; success is judged by the same redirect or
+ * content type a browser user would see.
+ */
+public class VirtualUser {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final SeededUser user;
+    private final String password;
+    private final List<SeededUser> directory;
+    private final Duration timeout;
+    private final SplittableRandom random;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+    private boolean loggedIn;
+
+    public VirtualUser(HttpClient client, String baseUrl, SeededUser user, String password,
+                       List<SeededUser> directory, Duration timeout, long seed) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.user = user;
+        this.password = password;
+        this.directory = directory;
+        this.timeout = timeout;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    public boolean isLoggedIn() {
+        return loggedIn;
+    }
+
+    /**
+     * Runs one scenario and returns whether it succeeded. The caller measures the elapsed time.
+     */
+    public boolean execute(Scenario scenario) throws IOException, InterruptedException {
+        switch (scenario) {
+            case LOGIN:
+                return login();
+            case DASHBOARD:
+                return dashboard();
+            case TRANSFER:
+                return transfer();
+            case DEPOSIT:
+                return deposit();
+            case PDF_DOWNLOAD:
+                return downloadPdf();
+            default:
+                throw new IllegalArgumentException("Unsupported scenario " + scenario);
+        }
+    }
+
+    /** Drops the session so the next LOGIN measures a fresh authentication. */
+    public void logout() throws IOException, InterruptedException {
+        if (loggedIn) {
+            send(get("/logout"), HttpResponse.BodyHandlers.discarding());
+        }
+        cookies.clear();
+        loggedIn = false;
+    }
+
+    public boolean login() throws IOException, InterruptedException {
+        HttpResponse<Void> response = send(post("/login", form(
+                "username", user.getUsername(),
+                "password", password)), HttpResponse.BodyHandlers.discarding());
+        loggedIn = redirectsTo(response, "/dashboard");
+        return loggedIn;
+    }
+
+    private boolean dashboard() throws IOException, InterruptedException {
+        HttpResponse<Void> response = send(get("/dashboard"), HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() == 200;
+    }
+
+    private boolean transfer() throws IOException, InterruptedException {
+        SeededUser payee = directory.get(random.nextInt(directory.size()));
+        if (payee == user && directory.size() > 1) {
+            payee = directory.get((directory.indexOf(user) + 1) % directory.size());
+        }
+        String toAccountNumber = payee.getAccountNumbers().get(random.nextInt(payee.getAccountNumbers().size()));
+        HttpResponse<Void> response = send(post("/transfer", form(
+                "fromAccountId", String.valueOf(randomOwnAccount()),
+                "toAccountNumber", toAccountNumber,
+                "amount", randomAmount())), HttpResponse.BodyHandlers.discarding());
+        return redirectsTo(response, "/dashboard");
+    }
+
+    private boolean deposit() throws IOException, InterruptedException {
+        HttpResponse<Void> response = send(post("/deposit-withdraw", form(
+                "accountId", String.valueOf(randomOwnAccount()),
+                "transactionType", "DEPOSIT",
+                "amount", randomAmount(),
+                "description", "Load test deposit")), HttpResponse.BodyHandlers.discarding());
+        return redirectsTo(response, "/dashboard");
+    }
+
+    private boolean downloadPdf() throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = send(get("/pdf/transactions"), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            body.transferTo(OutputStream.nullOutputStream()); // read the whole document, as a browser would
+        }
+        return response.statusCode() == 200
+                && response.headers().firstValue("Content-Type").orElse("").startsWith("application/pdf");
+    }
+
+    private long randomOwnAccount() {
+        List<Long> accounts = user.getAccountIds();
+        return accounts.get(random.nextInt(accounts.size()));
+    }
+
+    private String randomAmount() {
+        return (1 + random.nextInt(20)) + "." + String.format("%02d", random.nextInt(100));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String form) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest.Builder builder, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        if (!cookies.isEmpty()) {
+            StringBuilder header = new StringBuilder();
+            cookies.forEach((name, value) -> header.append(header.length() == 0 ? "" : "; ").append(name).append('=').append(value));
+            builder.header("Cookie", header.toString());
+        }
+        HttpResponse<T> response = client.send(builder.build(), handler);
+        for (String setCookie : response.headers().allValues("Set-Cookie")) {
+            int eq = setCookie.indexOf('=');
+            int end = setCookie.indexOf(';');
+            if (eq > 0) {
+                cookies.put(setCookie.substring(0, eq).trim(), setCookie.substring(eq + 1, end > eq ? end : setCookie.length()));
+            }
+        }
+        if (redirectsTo(response, "/login")) {
+            loggedIn = false; // session expired or was never established
+        }
+        return response;
+    }
+
+    private static boolean redirectsTo(HttpResponse<?> response, String pathSuffix) {
+        int status = response.statusCode();
+        return (status == 302 || status == 303)
+                && response.headers().firstValue("Location").map(location -> location.endsWith(pathSuffix)).orElse(false);
+    }
+
+    private static String form(String... keyValues) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (i > 0) {
+                sb.append('&');
+            }
+            sb.append(URLEncoder.encode(keyValues[i], StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(keyValues[i + 1], StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+}
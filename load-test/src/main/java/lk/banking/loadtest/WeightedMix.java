@@ -0,0 +1,74 @@
+package lk.banking.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Picks scenarios at random according to relative weights, e.g. {@code login=5,dashboard=45,transfer=20}.
+ */
+public class WeightedMix {
+
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public WeightedMix(Map<Scenario, Integer> weights) {
+        scenarios = weights.entrySet().stream().filter(e -> e.getValue() > 0).map(Map.Entry::getKey).toArray(Scenario[]::new);
+        if (scenarios.length == 0) {
+            throw new IllegalArgumentException("The scenario mix needs at least one positive weight.");
+        }
+        cumulativeWeights = new int[scenarios.length];
+        int running = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            running += weights.get(scenarios[i]);
+            cumulativeWeights[i] = running;
+        }
+        totalWeight = running;
+    }
+
+    /**
+     * Parses {@code key=weight} pairs; scenarios not mentioned get weight 0. Null or blank uses the defaults.
+     */
+    public static WeightedMix parse(String spec) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        if (spec == null || spec.isBlank()) {
+            for (Scenario scenario : Scenario.values()) {
+                weights.put(scenario, scenario.getDefaultWeight());
+            }
+        } else {
+            for (String part : spec.split(",")) {
+                String[] kv = part.trim().split("=");
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("Invalid mix entry '" + part + "' (expected scenario=weight).");
+                }
+                weights.put(Scenario.fromKey(kv[0].trim()), Integer.parseInt(kv[1].trim()));
+            }
+        }
+        return new WeightedMix(weights);
+    }
+
+    public Scenario next(SplittableRandom random) {
+        int r = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(scenarios[i].getKey()).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return sb.toString();
+    }
+}
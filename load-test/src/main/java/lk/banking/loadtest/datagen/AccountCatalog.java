@@ -0,0 +1,134 @@
+package lk.banking.loadtest.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * The generated accounts, held as primitive arrays so tens of millions fit in a few hundred MB.
+ * Account {@code i} has id {@code firstAccountId + i} and belongs to customer index {@link #customerOf(int)}.
+ *
+ * Activity is skewed twice: a small set of hot accounts (merchants, payroll) receives a fixed share
+ * of all credits, and everything else is picked by Zipf rank. Ranks are mapped to account indexes
+ * through an affine permutation so the busiest accounts are spread across customers and ids rather
+ * than clustered at the start of the table.
+ */
+public class AccountCatalog {
+
+    static final String[] TYPES = {"SAVINGS", "CURRENT", "FIXED_DEPOSIT"};
+
+    private final long firstAccountId;
+    private final int[] customerIndex;
+    private final byte[] type;
+    private final long[] openingCents;
+    private final int hotAccounts;
+    private final ZipfSampler zipf;
+    private final long stride;
+    private final long offset;
+
+    private AccountCatalog(long firstAccountId, int[] customerIndex, byte[] type, long[] openingCents,
+                           int hotAccounts, double zipfExponent, long seed) {
+        this.firstAccountId = firstAccountId;
+        this.customerIndex = customerIndex;
+        this.type = type;
+        this.openingCents = openingCents;
+        int size = customerIndex.length;
+        this.hotAccounts = Math.min(hotAccounts, size);
+        this.zipf = new ZipfSampler(size, zipfExponent);
+        SplittableRandom random = new SplittableRandom(seed);
+        long candidate = size > 1 ? 1 + random.nextLong(size - 1) : 1;
+        while (gcd(candidate, size) != 1) {
+            candidate++;
+        }
+        this.stride = candidate % Math.max(size, 1);
+        this.offset = size > 0 ? random.nextLong(size) : 0;
+    }
+
+    /**
+     * Assigns one to three accounts per customer (55% / 35% / 10%) with log-normal opening balances.
+     * Deterministic for a given seed.
+     */
+    public static AccountCatalog generate(int customers, long firstAccountId, int hotAccounts,
+                                          double zipfExponent, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] perCustomer = new int[customers];
+        int total = 0;
+        for (int c = 0; c < customers; c++) {
+            double r = random.nextDouble();
+            perCustomer[c] = r < 0.55 ? 1 : r < 0.90 ? 2 : 3;
+            total += perCustomer[c];
+        }
+        int[] customerIndex = new int[total];
+        byte[] type = new byte[total];
+        long[] openingCents = new long[total];
+        int a = 0;
+        for (int c = 0; c < customers; c++) {
+            for (int k = 0; k < perCustomer[c]; k++, a++) {
+                customerIndex[a] = c;
+                // First account is the everyday one; extras are savings or the occasional fixed deposit.
+                type[a] = (byte) (k == 0 ? (random.nextDouble() < 0.6 ? 1 : 0) : (random.nextDouble() < 0.8 ? 0 : 2));
+                openingCents[a] = logNormalCents(random, 11.5, 1.2); // median ~ 100,000.00
+            }
+        }
+        return new AccountCatalog(firstAccountId, customerIndex, type, openingCents, hotAccounts, zipfExponent, seed + 1);
+    }
+
+    /** Log-normal amount in cents with the given mu/sigma of the underlying normal (in currency units). */
+    static long logNormalCents(SplittableRandom random, double mu, double sigma) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        double normal = Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+        return Math.max(1L, Math.round(Math.exp(mu + sigma * normal) * 100.0));
+    }
+
+    public int size() {
+        return customerIndex.length;
+    }
+
+    public long idOf(int index) {
+        return firstAccountId + index;
+    }
+
+    /** Account number derived from the id, so it never needs to be stored. */
+    public static String accountNumber(long accountId) {
+        return String.format("8%011d", accountId);
+    }
+
+    public int customerOf(int index) {
+        return customerIndex[index];
+    }
+
+    public String typeOf(int index) {
+        return TYPES[type[index]];
+    }
+
+    public long openingCentsOf(int index) {
+        return openingCents[index];
+    }
+
+    /** An account chosen by Zipfian activity. */
+    public int pickActive(SplittableRandom random) {
+        return byRank(zipf.sample(random) - 1);
+    }
+
+    /**
+     * A credit destination: one of the hot accounts with probability {@code hotShare}, otherwise Zipfian.
+     */
+    public int pickCreditTarget(SplittableRandom random, double hotShare) {
+        if (hotAccounts > 0 && random.nextDouble() < hotShare) {
+            return byRank(random.nextInt(hotAccounts));
+        }
+        return pickActive(random);
+    }
+
+    private int byRank(int rank) {
+        return (int) ((rank * stride + offset) % customerIndex.length);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,73 @@
+package lk.banking.loadtest.datagen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes rows in the format {@link MySqlLoader} loads: comma separated, strings in double quotes,
+ * backslash escapes, {@code \N} for NULL and 1/0 for booleans.
+ */
+public class CsvRowSink implements RowSink {
+
+    private static final int BUFFER_CHARS = 1 << 20;
+
+    private final Path file;
+    private final BufferedWriter out;
+    private long rows;
+
+    public CsvRowSink(Path file) throws IOException {
+        this.file = file;
+        this.out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_CHARS);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void add(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                out.write("\\N");
+            } else if (value instanceof Boolean) {
+                out.write((Boolean) value ? '1' : '0');
+            } else if (value instanceof String) {
+                writeQuoted((String) value);
+            } else {
+                out.write(value.toString());
+            }
+        }
+        out.write('\n');
+        rows++;
+    }
+
+    @Override
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
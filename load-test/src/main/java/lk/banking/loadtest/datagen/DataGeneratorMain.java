@@ -0,0 +1,287 @@
+package lk.banking.loadtest.datagen;
+
+import lk.banking.loadtest.Options;
+import lk.banking.loadtest.Seeder;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads a synthetic bank into the database/schema.sql layout for testing statement generation,
+ * daily reports and transaction history at scale: customers with login users, one to three accounts
+ * each, and transactions with Zipfian account activity, hot accounts and a daily volume curve.
+ * Account balances equal opening balance plus all COMPLETED rows, so ledger checks reconcile.
+ * Rows are appended after the current maximum ids; the same seed always produces the same data.
+ *
+ * <pre>
+ * --customers=1000000          --transactions=100000000   (rows; a transfer is two rows)
+ * --days=730                   activity window ending yesterday; rows older than 365 days are archived
+ * --zipf=1.1                   Zipf exponent of account activity
+ * --hot-accounts=100 --hot-share=0.2   share of credits landing on the hottest accounts
+ * --seed=42                    --threads=&lt;cores&gt;  --chunk-rows=1000000
+ * --mode=csv                   csv: write chunks and LOAD DATA LOCAL INFILE each one (fastest)
+ *                              insert: multi-row INSERT statements, no server-side file access needed
+ * --out-dir=target/datagen --keep-csv
+ * --csv-only                   only write CSV files, ids starting at --first-id (default 1); no database
+ * --jdbc-url=... --db-user=banking_user --db-password=banking_password
+ * --password=DataGen#2024      password of every generated user (username datagen&lt;n&gt;)
+ * </pre>
+ *
+ * Generation and loading run in the same worker per chunk, so CPU-bound generation overlaps with
+ * the server's inserts. On a laptop-class MySQL, csv mode sustains a few hundred thousand rows per
+ * second; 100M transaction rows take minutes rather than hours and need roughly 10 GB of scratch
+ * space only with --keep-csv (chunks are deleted once loaded).
+ */
+public class DataGeneratorMain {
+
+    private static final String USERNAME_PREFIX = "datagen";
+    private static final int ROWS_PER_STATEMENT = 1000;
+    private static final int ROWS_PER_COMMIT = 50_000;
+    private static final List<String> CUSTOMER_COLUMNS =
+            List.of("id", "name", "email", "address", "phoneNumber", "createdAt", "updatedAt");
+    private static final List<String> USER_COLUMNS =
+            List.of("id", "username", "password", "email", "phone", "isActive", "createdAt", "updatedAt");
+    private static final List<String> USER_ROLE_COLUMNS = List.of("user_id", "role_id");
+    private static final List<String> ACCOUNT_COLUMNS =
+            List.of("id", "accountNumber", "type", "balance", "availableBalance", "customer_id", "createdAt", "updatedAt", "isActive");
+    private static final String[] FIRST_NAMES = {
+            "Nimal", "Kamal", "Sunil", "Amara", "Dilani", "Chamari", "Ruwan", "Sanjaya", "Ishara", "Tharindu",
+            "Nadeesha", "Kasun", "Malsha", "Pradeep", "Harsha", "Sachini", "Dinuka", "Gayani", "Lahiru", "Shehani"
+    };
+    private static final String[] LAST_NAMES = {
+            "Perera", "Fernando", "Silva", "Jayasinghe", "Bandara", "Wickramasinghe", "Gunawardena", "Rathnayake",
+            "Dissanayake", "Herath", "Karunaratne", "Senanayake", "Wijesinghe", "Amarasinghe", "Rajapaksa"
+    };
+    private static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Negombo", "Jaffna", "Matara", "Kurunegala"};
+
+    private final Options options;
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final boolean csvMode;
+    private final boolean csvOnly;
+    private final boolean keepCsv;
+    private final Path outDir;
+
+    private DataGeneratorMain(Options options) {
+        this.options = options;
+        String url = options.get("jdbc-url",
+                "jdbc:mysql://localhost:3306/macna_banking?useSSL=false&allowPublicKeyRetrieval=true");
+        if (!url.contains("allowLoadLocalInfile")) {
+            url += (url.contains("?") ? "&" : "?") + "allowLoadLocalInfile=true";
+        }
+        this.jdbcUrl = url;
+        this.dbUser = options.get("db-user", "banking_user");
+        this.dbPassword = options.get("db-password", "banking_password");
+        this.csvOnly = options.getBoolean("csv-only");
+        this.csvMode = csvOnly || "csv".equals(options.get("mode", "csv"));
+        this.keepCsv = csvOnly || options.getBoolean("keep-csv");
+        this.outDir = Paths.get(options.get("out-dir", "target/datagen"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new DataGeneratorMain(new Options(args)).run();
+    }
+
+    private void run() throws Exception {
+        int customers = options.getInt("customers", 1_000_000);
+        long transactions = options.getLong("transactions", 100_000_000L);
+        int days = options.getInt("days", 730);
+        long seed = options.getLong("seed", 42L);
+        int threads = options.getInt("threads", Runtime.getRuntime().availableProcessors());
+        int chunkRows = options.getInt("chunk-rows", 1_000_000);
+        if (csvMode) {
+            Files.createDirectories(outDir);
+        }
+
+        long firstCustomerId;
+        long firstUserId;
+        long firstAccountId;
+        long firstTransactionId;
+        long customerRoleId;
+        if (csvOnly) {
+            long firstId = options.getLong("first-id", 1L);
+            firstCustomerId = firstUserId = firstAccountId = firstTransactionId = firstId;
+            customerRoleId = options.getLong("customer-role-id", 1L);
+        } else {
+            try (Connection connection = connect()) {
+                firstCustomerId = Seeder.maxId(connection, "customers") + 1;
+                firstUserId = Seeder.maxId(connection, "users") + 1;
+                firstAccountId = Seeder.maxId(connection, "accounts") + 1;
+                firstTransactionId = Seeder.maxId(connection, "transactions") + 1;
+                customerRoleId = Seeder.customerRoleId(connection);
+            }
+        }
+
+        long started = System.nanoTime();
+        AccountCatalog catalog = AccountCatalog.generate(customers, firstAccountId,
+                options.getInt("hot-accounts", 100), options.getDouble("zipf", 1.1), seed);
+        System.out.printf(Locale.ROOT, "Generating %,d customers, %,d accounts and %,d transactions (seed %d, %s mode, %d threads)%n",
+                customers, catalog.size(), transactions, seed, csvMode ? "csv" : "insert", threads);
+
+        TransactionGenerator generator = new TransactionGenerator(catalog, LocalDate.now().minusDays(1), days,
+                options.getDouble("hot-share", 0.2), seed + 2);
+        ConcurrentLinkedQueue<long[]> deltas = new ConcurrentLinkedQueue<>();
+        ThreadLocal<long[]> workerDelta = ThreadLocal.withInitial(() -> {
+            long[] delta = new long[catalog.size()];
+            deltas.add(delta);
+            return delta;
+        });
+        AtomicLong transactionRows = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            int chunks = (int) ((transactions + chunkRows - 1) / chunkRows);
+            for (int c = 0; c < chunks; c++) {
+                int chunk = c;
+                int rows = (int) Math.min(chunkRows, transactions - (long) c * chunkRows);
+                long firstId = firstTransactionId + (long) c * chunkRows;
+                tasks.add(() -> {
+                    String name = String.format("transactions-%05d", chunk);
+                    try (RowSink sink = open(name, "transactions", TransactionGenerator.COLUMNS)) {
+                        generator.generateChunk(chunk, firstId, rows, sink, workerDelta.get());
+                    }
+                    load(name, "transactions", TransactionGenerator.COLUMNS);
+                    transactionRows.addAndGet(rows);
+                    return null;
+                });
+            }
+            runAll(workers, tasks);
+            report("transactions", transactionRows.get(), started);
+
+            long[] balanceDelta = new long[catalog.size()];
+            for (long[] delta : deltas) {
+                for (int i = 0; i < delta.length; i++) {
+                    balanceDelta[i] += delta[i];
+                }
+            }
+            long parentsStarted = System.nanoTime();
+            String createdAt = LocalDate.now().minusDays(days + 1L) + " 09:00:00.000000";
+            String hash = BCrypt.hashpw(options.get("password", "DataGen#2024"), BCrypt.gensalt(12));
+            List<Callable<Void>> parents = List.of(
+                    () -> writeCustomers(customers, firstCustomerId, createdAt, seed + 3),
+                    () -> writeUsers(customers, firstUserId, customerRoleId, hash, createdAt),
+                    () -> writeAccounts(catalog, balanceDelta, firstCustomerId, createdAt));
+            runAll(workers, parents);
+            report("customers, users and accounts", customers * 3L + catalog.size(), parentsStarted);
+        } finally {
+            workers.shutdown();
+        }
+        report("total", transactionRows.get() + customers * 3L + catalog.size(), started);
+        if (csvOnly) {
+            System.out.println("CSV files written to " + outDir.toAbsolutePath());
+        }
+    }
+
+    private Void writeCustomers(int customers, long firstCustomerId, String createdAt, long seed) throws Exception {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (RowSink sink = open("customers", "customers", CUSTOMER_COLUMNS)) {
+            for (int c = 0; c < customers; c++) {
+                String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                String address = (1 + random.nextInt(500)) + " Galle Road, " + CITIES[random.nextInt(CITIES.length)];
+                sink.add(firstCustomerId + c, name, email(c), address, phone(c), createdAt, createdAt);
+            }
+        }
+        load("customers", "customers", CUSTOMER_COLUMNS);
+        return null;
+    }
+
+    /** Users are linked to customers by email, as UserManagementService does on registration. */
+    private Void writeUsers(int customers, long firstUserId, long roleId, String hash, String createdAt) throws Exception {
+        try (RowSink users = open("users", "users", USER_COLUMNS);
+             RowSink roles = open("user_roles", "user_roles", USER_ROLE_COLUMNS)) {
+            for (int c = 0; c < customers; c++) {
+                long userId = firstUserId + c;
+                users.add(userId, USERNAME_PREFIX + c, hash, email(c), phone(c), true, createdAt, createdAt);
+                roles.add(userId, roleId);
+            }
+        }
+        load("users", "users", USER_COLUMNS);
+        load("user_roles", "user_roles", USER_ROLE_COLUMNS);
+        return null;
+    }
+
+    private Void writeAccounts(AccountCatalog catalog, long[] balanceDelta, long firstCustomerId, String createdAt) throws Exception {
+        try (RowSink sink = open("accounts", "accounts", ACCOUNT_COLUMNS)) {
+            for (int a = 0; a < catalog.size(); a++) {
+                long accountId = catalog.idOf(a);
+                String balance = TransactionGenerator.decimal(catalog.openingCentsOf(a) + balanceDelta[a]);
+                sink.add(accountId, AccountCatalog.accountNumber(accountId), catalog.typeOf(a), balance, balance,
+                        firstCustomerId + catalog.customerOf(a), createdAt, createdAt, true);
+            }
+        }
+        load("accounts", "accounts", ACCOUNT_COLUMNS);
+        return null;
+    }
+
+    private RowSink open(String name, String table, List<String> columns) throws IOException, SQLException {
+        if (csvMode) {
+            return new CsvRowSink(outDir.resolve(name + ".csv"));
+        }
+        return new InsertRowSink(connect(), table, columns, ROWS_PER_STATEMENT, ROWS_PER_COMMIT);
+    }
+
+    /**
+     * In csv mode, loads a finished file and deletes it unless asked to keep it. Insert mode sinks
+     * have already written their rows.
+     */
+    private void load(String name, String table, List<String> columns) throws IOException, SQLException {
+        if (!csvMode || csvOnly) {
+            return;
+        }
+        Path file = outDir.resolve(name + ".csv");
+        try (Connection connection = connect()) {
+            MySqlLoader.relaxChecks(connection);
+            MySqlLoader.load(connection, file, table, columns);
+        }
+        if (!keepCsv) {
+            Files.delete(file);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+    }
+
+    private static void runAll(ExecutorService workers, List<Callable<Void>> tasks) throws Exception {
+        List<Future<Void>> futures = workers.invokeAll(tasks);
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+    }
+
+    private static void report(String what, long rows, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+        System.out.printf(Locale.ROOT, "%-30s %,15d rows in %8.1f s (%,.0f rows/s)%n", what, rows, seconds, rows / seconds);
+    }
+
+    private static String email(int customer) {
+        return USERNAME_PREFIX + customer + "@datagen.nawwa.local";
+    }
+
+    private static String phone(int customer) {
+        return String.format("07%08d", customer % 100_000_000);
+    }
+}
@@ -0,0 +1,51 @@
+package lk.banking.loadtest.datagen;
+
+import lk.banking.loadtest.JdbcBulkInsert;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes rows as multi-row INSERTs on a connection it owns, committing every {@code rowsPerCommit} rows.
+ */
+public class InsertRowSink implements RowSink {
+
+    private final Connection connection;
+    private final JdbcBulkInsert insert;
+    private final int rowsPerCommit;
+    private long rows;
+
+    public InsertRowSink(Connection connection, String table, List<String> columns,
+                         int rowsPerStatement, int rowsPerCommit) throws SQLException {
+        this.connection = connection;
+        this.insert = new JdbcBulkInsert(connection, table, columns, rowsPerStatement);
+        this.rowsPerCommit = rowsPerCommit;
+        connection.setAutoCommit(false);
+        MySqlLoader.relaxChecks(connection);
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        insert.add(values);
+        if (++rows % rowsPerCommit == 0) {
+            insert.flush();
+            connection.commit();
+        }
+    }
+
+    @Override
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            insert.close();
+            connection.commit();
+        } finally {
+            connection.close();
+        }
+    }
+}
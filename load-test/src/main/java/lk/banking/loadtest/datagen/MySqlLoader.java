@@ -0,0 +1,39 @@
+package lk.banking.loadtest.datagen;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Bulk-loads {@link CsvRowSink} files with {@code LOAD DATA LOCAL INFILE}. Needs
+ * {@code allowLoadLocalInfile=true} on the JDBC URL and {@code local_infile=ON} on the server
+ * (docker-compose starts MySQL with {@code --local-infile=1}).
+ */
+public final class MySqlLoader {
+
+    private MySqlLoader() {}
+
+    /**
+     * Skips foreign key and secondary unique checks for this session. Generated ids and account
+     * numbers are unique by construction and tables are loaded parent-last for speed.
+     */
+    public static void relaxChecks(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+            statement.execute("SET UNIQUE_CHECKS = 0");
+        }
+    }
+
+    public static long load(Connection connection, Path file, String table, List<String> columns) throws SQLException {
+        String sql = "LOAD DATA LOCAL INFILE '" + file.toAbsolutePath().toString().replace("\\", "/").replace("'", "''") + "'"
+                + " INTO TABLE " + table + " CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\'"
+                + " LINES TERMINATED BY '\\n'"
+                + " (" + String.join(", ", columns) + ")";
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package lk.banking.loadtest.datagen;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Destination for generated rows of one table: a CSV file for {@code LOAD DATA}, or multi-row INSERTs.
+ * Values are Long, Integer, Boolean, String (also used for DECIMAL and DATETIME literals) or null.
+ */
+public interface RowSink extends AutoCloseable {
+
+    void add(Object... values) throws IOException, SQLException;
+
+    long getRows();
+
+    @Override
+    void close() throws IOException, SQLException;
+}
@@ -0,0 +1,164 @@
+package lk.banking.loadtest.datagen;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates transaction rows in the shapes the services write them: debits negative, credits positive,
+ * transfers as a debit/credit pair with matching descriptions, rows older than a year archived the
+ * way MaintenanceTaskService would leave them. Each chunk has its own random stream derived from the
+ * seed and the chunk number, so output is identical for any thread count.
+ */
+public class TransactionGenerator {
+
+    public static final List<String> COLUMNS =
+            List.of("id", "account_id", "amount", "isArchived", "type", "status", "timestamp", "description");
+
+    /** Relative transaction volume per hour of day, lunch and early evening peaks. */
+    private static final int[] HOURLY_WEIGHT = {
+            1, 1, 1, 1, 1, 2, 4, 7, 9, 10, 10, 11, 13, 12, 10, 9, 9, 11, 12, 10, 7, 5, 3, 2
+    };
+    private static final int[] CUMULATIVE_HOURLY_WEIGHT = new int[HOURLY_WEIGHT.length];
+    private static final int TOTAL_HOURLY_WEIGHT;
+    private static final long MICROS_PER_HOUR = 3_600_000_000L;
+    private static final int ARCHIVE_AFTER_DAYS = 365;
+
+    static {
+        int running = 0;
+        for (int h = 0; h < HOURLY_WEIGHT.length; h++) {
+            running += HOURLY_WEIGHT[h];
+            CUMULATIVE_HOURLY_WEIGHT[h] = running;
+        }
+        TOTAL_HOURLY_WEIGHT = running;
+    }
+
+    private final AccountCatalog catalog;
+    private final int days;
+    private final double hotShare;
+    private final long seed;
+    private final String[] dayPrefix;
+
+    /**
+     * @param lastDay  the newest day that gets activity; the window covers {@code days} days ending on it.
+     * @param hotShare fraction of credits (transfers in, deposits) that land on hot accounts.
+     */
+    public TransactionGenerator(AccountCatalog catalog, LocalDate lastDay, int days, double hotShare, long seed) {
+        this.catalog = catalog;
+        this.days = days;
+        this.hotShare = hotShare;
+        this.seed = seed;
+        this.dayPrefix = new String[days];
+        for (int d = 0; d < days; d++) {
+            dayPrefix[d] = lastDay.minusDays(d) + " ";
+        }
+    }
+
+    /**
+     * Writes exactly {@code rows} rows with ids {@code firstId ..} and adds the cents of every COMPLETED
+     * row to {@code balanceDelta[accountIndex]}.
+     */
+    public void generateChunk(int chunk, long firstId, int rows, RowSink sink, long[] balanceDelta)
+            throws IOException, SQLException {
+        SplittableRandom random = new SplittableRandom(seed ^ (chunk * 0x9E3779B97F4A7C15L));
+        long id = firstId;
+        int written = 0;
+        while (written < rows) {
+            int day = random.nextInt(days);
+            String timestamp = timestamp(day, random);
+            boolean archived = day >= ARCHIVE_AFTER_DAYS;
+            String status = status(random);
+            boolean completed = "COMPLETED".equals(status);
+            double kind = random.nextDouble();
+
+            if (kind < 0.35 && rows - written >= 2) {
+                int from = catalog.pickActive(random);
+                int to = catalog.pickCreditTarget(random, hotShare);
+                if (to == from) {
+                    to = (from + 1) % catalog.size();
+                }
+                long cents = AccountCatalog.logNormalCents(random, 5.0, 1.2);
+                long fromId = catalog.idOf(from);
+                long toId = catalog.idOf(to);
+                sink.add(id++, fromId, decimal(-cents), archived, "TRANSFER", status, timestamp,
+                        "Transfer out to account " + AccountCatalog.accountNumber(toId));
+                sink.add(id++, toId, decimal(cents), archived, "TRANSFER", status, timestamp,
+                        "Transfer in from account " + AccountCatalog.accountNumber(fromId));
+                if (completed) {
+                    balanceDelta[from] -= cents;
+                    balanceDelta[to] += cents;
+                }
+                written += 2;
+                continue;
+            }
+
+            int account;
+            long cents;
+            String type;
+            String description;
+            if (kind < 0.65) {
+                account = catalog.pickCreditTarget(random, hotShare);
+                cents = AccountCatalog.logNormalCents(random, 4.5, 1.3);
+                type = "DEPOSIT";
+                description = "Cash deposit";
+            } else if (kind < 0.85) {
+                account = catalog.pickActive(random);
+                cents = -AccountCatalog.logNormalCents(random, 4.0, 0.9);
+                type = "WITHDRAWAL";
+                description = "ATM withdrawal";
+            } else {
+                account = catalog.pickActive(random);
+                cents = -AccountCatalog.logNormalCents(random, 3.5, 1.0);
+                type = "PAYMENT";
+                description = "Card payment";
+            }
+            sink.add(id++, catalog.idOf(account), decimal(cents), archived, type, status, timestamp, description);
+            if (completed) {
+                balanceDelta[account] += cents;
+            }
+            written++;
+        }
+    }
+
+    private static String status(SplittableRandom random) {
+        int r = random.nextInt(100);
+        return r < 97 ? "COMPLETED" : r < 99 ? "FAILED" : "PENDING";
+    }
+
+    private String timestamp(int day, SplittableRandom random) {
+        int r = random.nextInt(TOTAL_HOURLY_WEIGHT);
+        int hour = 0;
+        while (r >= CUMULATIVE_HOURLY_WEIGHT[hour]) {
+            hour++;
+        }
+        long micros = random.nextLong(MICROS_PER_HOUR);
+        long seconds = micros / 1_000_000;
+        StringBuilder sb = new StringBuilder(26).append(dayPrefix[day]);
+        twoDigits(sb, hour).append(':');
+        twoDigits(sb, (int) (seconds / 60)).append(':');
+        twoDigits(sb, (int) (seconds % 60)).append('.');
+        String fraction = Long.toString(1_000_000 + micros % 1_000_000);
+        return sb.append(fraction, 1, 7).toString();
+    }
+
+    private static StringBuilder twoDigits(StringBuilder sb, int value) {
+        return sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /** Cents as a DECIMAL(19,2) literal. */
+    static String decimal(long cents) {
+        long abs = Math.abs(cents);
+        StringBuilder sb = new StringBuilder(16);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        sb.append(abs / 100).append('.');
+        long fraction = abs % 100;
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+}
@@ -0,0 +1,134 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.enums.NotificationChannel;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Everything between the dispatcher and one channel's sender: a token bucket for the provider's rate limit,
+ * a circuit breaker, and a small executor of its own (a bulkhead), so a slow or failing provider ties up
+ * only its own threads. The dispatcher never calls a sender directly; it submits here and waits at most
+ * {@code sendTimeoutMillis} for the outcome, however long the provider takes.
+ * <p>
+ * A send that times out counts as a failure, but the provider may still accept it later: delivery stays at
+ * least once. Limits per channel come from system properties {@code banking.notification.<channel>.*}
+ * (channel in lower case): ratePerSecond, burst, threads, queue, breakerFailures, breakerOpenSeconds.
+ */
+final class ChannelGateway {
+
+    private static final Logger LOGGER = Logger.getLogger(ChannelGateway.class.getName());
+
+    /** Refused sends come back after this long when the channel gives no better estimate. */
+    static final long DEFAULT_RETRY_MILLIS = 2_000;
+
+    private final NotificationChannel channel;
+    private final NotificationSender sender;
+    private final TokenBucket rateLimit;
+    private final CircuitBreaker breaker;
+    private final ThreadPoolExecutor executor;
+    private final long sendTimeoutMillis;
+
+    ChannelGateway(NotificationChannel channel, NotificationSender sender, TokenBucket rateLimit, CircuitBreaker breaker,
+                   int threads, int queueSize, long sendTimeoutMillis, ThreadFactory threadFactory) {
+        this.channel = channel;
+        this.sender = sender;
+        this.rateLimit = rateLimit;
+        this.breaker = breaker;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), named(channel, threadFactory), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** A gateway with the limits configured for {@code channel}. */
+    static ChannelGateway configured(NotificationChannel channel, NotificationSender sender, long sendTimeoutMillis,
+                                     ThreadFactory threadFactory) {
+        boolean sms = channel == NotificationChannel.SMS;
+        double rate = doubleProperty(channel, "ratePerSecond", sms ? 5 : 20);
+        double burst = doubleProperty(channel, "burst", rate * 2);
+        int threads = Integer.getInteger(property(channel, "threads"), sms ? 2 : 4);
+        int queue = Integer.getInteger(property(channel, "queue"), 100);
+        int failures = Integer.getInteger(property(channel, "breakerFailures"), 5);
+        long openSeconds = Long.getLong(property(channel, "breakerOpenSeconds"), 30);
+        return new ChannelGateway(channel, sender, new TokenBucket(rate, burst), new CircuitBreaker(failures, openSeconds * 1000),
+                threads, queue, sendTimeoutMillis, threadFactory);
+    }
+
+    NotificationSender sender() {
+        return sender;
+    }
+
+    CircuitBreaker.State breakerState() {
+        return breaker.state();
+    }
+
+    /**
+     * Hands a message to the channel's executor.
+     *
+     * @return completes when the provider accepted the message; fails with the provider's exception, or a
+     *         TimeoutException after {@code sendTimeoutMillis}.
+     * @throws ChannelUnavailableException if the message was refused without being attempted.
+     */
+    CompletableFuture<Void> send(RenderedNotification notification) {
+        if (!breaker.tryAcquire()) {
+            throw new ChannelUnavailableException("Circuit breaker open for " + channel,
+                    Math.max(breaker.millisUntilProbe(), DEFAULT_RETRY_MILLIS));
+        }
+        if (!rateLimit.tryAcquire()) {
+            breaker.onNotAttempted();
+            throw new ChannelUnavailableException("Rate limit reached for " + channel,
+                    Math.max(rateLimit.millisUntilNext(), DEFAULT_RETRY_MILLIS));
+        }
+        CompletableFuture<Void> sent;
+        try {
+            sent = CompletableFuture.runAsync(() -> sender.send(notification), executor);
+        } catch (RejectedExecutionException e) {
+            breaker.onNotAttempted();
+            throw new ChannelUnavailableException("All " + executor.getMaximumPoolSize() + " " + channel
+                    + " senders busy and queue full", DEFAULT_RETRY_MILLIS);
+        }
+        return sent.orTimeout(sendTimeoutMillis, TimeUnit.MILLISECONDS).whenComplete((ignored, failure) -> {
+            CircuitBreaker.State before = breaker.state();
+            if (failure == null) {
+                breaker.onSuccess();
+            } else {
+                breaker.onFailure();
+            }
+            CircuitBreaker.State after = breaker.state();
+            if (before != after) {
+                LOGGER.warning("ChannelGateway: " + channel + " circuit breaker " + before + " -> " + after);
+            }
+        });
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory named(NotificationChannel channel, ThreadFactory threadFactory) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = threadFactory.newThread(runnable);
+            thread.setName("notification-" + channel.name().toLowerCase(Locale.ROOT) + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String property(NotificationChannel channel, String name) {
+        return "banking.notification." + channel.name().toLowerCase(Locale.ROOT) + "." + name;
+    }
+
+    private static double doubleProperty(NotificationChannel channel, String name, double defaultValue) {
+        String value = System.getProperty(property(channel, name));
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
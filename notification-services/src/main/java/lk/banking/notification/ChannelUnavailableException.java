@@ -0,0 +1,17 @@
+package lk.banking.notification;
+
+/**
+ * Thrown when a channel refuses a message before trying to send it: its rate limit is used up, its circuit
+ * breaker is open, or its executor is full. The message was not attempted and can be offered again after
+ * {@link #getRetryAfterMillis()}.
+ */
+public class ChannelUnavailableException extends NotificationDeliveryException {
+    private final long retryAfterMillis;
+    public ChannelUnavailableException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
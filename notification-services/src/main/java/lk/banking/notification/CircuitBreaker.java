@@ -0,0 +1,96 @@
+package lk.banking.notification;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a provider that keeps failing. After {@code failureThreshold} failures in a row the breaker
+ * opens and every call is refused for {@code openMillis}. Then it lets one probe through (half-open): if the
+ * probe succeeds the breaker closes, if it fails it opens again for another period.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks to make a call. A caller that gets true must report the outcome with {@link #onSuccess()},
+     * {@link #onFailure()} or, if the call was never made, {@link #onNotAttempted()}.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * A success closes a half-open breaker and resets the failure count of a closed one. One reported while
+     * open came from a call started before it opened and changes nothing.
+     */
+    synchronized void onSuccess() {
+        if (state == State.OPEN) {
+            return;
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+        probeInFlight = false;
+    }
+
+    /** The permit was not used, e.g. the call was refused by a full executor. */
+    synchronized void onNotAttempted() {
+        probeInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /** Milliseconds until an open breaker lets a probe through; 0 unless open. */
+    synchronized long millisUntilProbe() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openNanos - (nanoClock.getAsLong() - openedAt)));
+    }
+}
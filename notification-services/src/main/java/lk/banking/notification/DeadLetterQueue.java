@@ -0,0 +1,23 @@
+package lk.banking.notification;
+
+import jakarta.ejb.Local;
+import lk.banking.core.entity.DeadLetter;
+
+import java.util.List;
+
+@Local
+public interface DeadLetterQueue {
+
+    /** The most recent dead letters, newest first. */
+    List<DeadLetter> findRecent(int limit);
+
+    long count();
+
+    /**
+     * Puts the outbox rows behind these dead letters back in the queue with a fresh attempt count, and
+     * removes the dead letters. Use once the cause (a template, a provider account) has been fixed.
+     *
+     * @return number of outbox rows requeued.
+     */
+    int requeue(List<Long> deadLetterIds);
+}
@@ -0,0 +1,60 @@
+package lk.banking.notification;
+
+import jakarta.ejb.Stateless;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lk.banking.core.entity.DeadLetter;
+import lk.banking.core.entity.enums.OutboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Reads and requeues the dead letters written by {@link OutboxDispatcher}.
+ */
+@Stateless
+public class DeadLetterQueueImpl implements DeadLetterQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(DeadLetterQueueImpl.class.getName());
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Override
+    public List<DeadLetter> findRecent(int limit) {
+        return em.createQuery("SELECT d FROM DeadLetter d ORDER BY d.failedAt DESC, d.id DESC", DeadLetter.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long count() {
+        return em.createQuery("SELECT COUNT(d) FROM DeadLetter d", Long.class).getSingleResult();
+    }
+
+    @Override
+    public int requeue(List<Long> deadLetterIds) {
+        if (deadLetterIds == null || deadLetterIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> outboxIds = em.createQuery("SELECT d.outboxId FROM DeadLetter d WHERE d.id IN :ids", Long.class)
+                .setParameter("ids", deadLetterIds)
+                .getResultList();
+        if (outboxIds.isEmpty()) {
+            return 0;
+        }
+        int requeued = em.createQuery("UPDATE OutboxMessage o SET o.status = :pending, o.attempts = 0, "
+                        + "o.availableAt = :now, o.lastError = NULL WHERE o.id IN :ids AND o.status = :failed")
+                .setParameter("pending", OutboxStatus.PENDING)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("ids", outboxIds)
+                .setParameter("failed", OutboxStatus.FAILED)
+                .executeUpdate();
+        em.createQuery("DELETE FROM DeadLetter d WHERE d.id IN :ids")
+                .setParameter("ids", deadLetterIds)
+                .executeUpdate();
+        LOGGER.info("DeadLetterQueue: Requeued " + requeued + " of " + deadLetterIds.size() + " dead letters.");
+        return requeued;
+    }
+}
@@ -0,0 +1,110 @@
+package lk.banking.notification;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import lk.banking.core.entity.enums.NotificationChannel;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Stand-in for the email and SMS providers: appends every notification to a daily file,
+ * notifications-yyyy-MM-dd.log under {@code banking.notification.dir} (default
+ * ${java.io.tmpdir}/banking-notifications), and logs one line per message. Used for every channel no real
+ * sender is deployed for, so development and test environments never reach a provider.
+ * <p>
+ * To try the dispatcher's rate limits, bulkheads and circuit breakers without a provider, it can behave like
+ * a slow or flaky one: {@code banking.notification.stub.latencyMillis} delays every send, and
+ * {@code banking.notification.stub.failureRate} (0 to 1) fails that share of them.
+ */
+@ApplicationScoped
+public class LocalFileSender implements NotificationSender {
+
+    private static final Logger LOGGER = Logger.getLogger(LocalFileSender.class.getName());
+
+    private final Path directory;
+    private final long latencyMillis;
+    private final double failureRate;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LocalFileSender() {
+        this(Paths.get(System.getProperty("banking.notification.dir",
+                        Paths.get(System.getProperty("java.io.tmpdir"), "banking-notifications").toString())),
+                Long.getLong("banking.notification.stub.latencyMillis", 0),
+                Double.parseDouble(System.getProperty("banking.notification.stub.failureRate", "0")));
+    }
+
+    LocalFileSender(Path directory) {
+        this(directory, 0, 0);
+    }
+
+    LocalFileSender(Path directory, long latencyMillis, double failureRate) {
+        this.directory = directory;
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public boolean supports(NotificationChannel channel) {
+        return true;
+    }
+
+    @Override
+    public boolean isFallback() {
+        return true;
+    }
+
+    @Override
+    public void send(RenderedNotification notification) {
+        injectFaults();
+        LOGGER.info("LocalFileSender: " + notification.getChannel() + " " + notification.getType()
+                + " to " + notification.getRecipient() + " (outbox " + notification.getOutboxId() + ")");
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("notifications-" + LocalDate.now() + ".log");
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write("=== " + LocalDateTime.now() + " " + notification.getChannel() + " " + notification.getType()
+                        + " outbox=" + notification.getOutboxId());
+                writer.newLine();
+                writer.write("To: " + notification.getRecipient());
+                writer.newLine();
+                if (notification.getSubject() != null) {
+                    writer.write("Subject: " + notification.getSubject());
+                    writer.newLine();
+                }
+                writer.newLine();
+                writer.write(notification.getBody());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new NotificationDeliveryException("Could not write notification to " + directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void injectFaults() {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NotificationDeliveryException("Interrupted while simulating provider latency");
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new NotificationDeliveryException("Simulated provider failure");
+        }
+    }
+}
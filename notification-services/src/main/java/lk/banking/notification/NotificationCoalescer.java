@@ -0,0 +1,168 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.OutboxMessage;
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.NotificationChannel;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory buffers that merge frequent notifications to one recipient, owned by {@link OutboxDispatcher}.
+ * <ul>
+ *   <li>{@link DigestSchedule#NONE}: the first message goes out at once and opens a coalescing window;
+ *       whatever arrives for the recipient during the window is held and sent together when it ends.</li>
+ *   <li>HOURLY and DAILY: everything is held until the next full hour, or the next {@code digestHour}:00.</li>
+ * </ul>
+ * The buffers are bounded: a recipient's buffer that reaches {@code maxPerRecipient} is flushed early,
+ * and once {@code maxRecipients} recipients or {@code maxHeld} messages are buffered, further messages are
+ * sent on their own. Nothing is lost when a server stops: held rows stay claimed in the outbox and are
+ * claimed again once their hold has passed.
+ */
+final class NotificationCoalescer {
+
+    private final long windowSeconds;
+    private final int digestHour;
+    private final int maxRecipients;
+    private final int maxPerRecipient;
+    private final int maxHeld;
+
+    private final Map<Key, Buffer> buffers = new HashMap<>();
+    private int held;
+
+    NotificationCoalescer(long windowSeconds, int digestHour, int maxRecipients, int maxPerRecipient, int maxHeld) {
+        this.windowSeconds = windowSeconds;
+        this.digestHour = digestHour;
+        this.maxRecipients = maxRecipients;
+        this.maxPerRecipient = maxPerRecipient;
+        this.maxHeld = maxHeld;
+    }
+
+    /** A message waiting in a buffer, with what is needed to record its outcome later. */
+    static final class Held {
+        final OutboxMessage message;
+        final String claimToken;
+        final int attempts;
+
+        Held(OutboxMessage message, String claimToken, int attempts) {
+            this.message = message;
+            this.claimToken = claimToken;
+            this.attempts = attempts;
+        }
+    }
+
+    /** The held messages of one recipient, to be sent as one notification. */
+    static final class Digest {
+        final NotificationChannel channel;
+        final String recipient;
+        final DigestSchedule schedule;
+        final List<Held> messages;
+
+        Digest(NotificationChannel channel, String recipient, DigestSchedule schedule, List<Held> messages) {
+            this.channel = channel;
+            this.recipient = recipient;
+            this.schedule = schedule;
+            this.messages = messages;
+        }
+    }
+
+    private record Key(NotificationChannel channel, DigestSchedule schedule, String recipient) {}
+
+    private static final class Buffer {
+        LocalDateTime flushAt;
+        final List<Held> messages = new ArrayList<>();
+
+        Buffer(LocalDateTime flushAt) {
+            this.flushAt = flushAt;
+        }
+    }
+
+    /**
+     * Offers a claimed message that may be merged.
+     *
+     * @return null if the message should be sent now, otherwise the time its buffer is flushed.
+     */
+    synchronized LocalDateTime offer(OutboxMessage message, String claimToken, int attempts, LocalDateTime now) {
+        DigestSchedule schedule = message.getDigest();
+        if (schedule == null || (schedule == DigestSchedule.NONE && windowSeconds <= 0)) {
+            return null;
+        }
+        Key key = new Key(message.getChannel(), schedule, message.getRecipient());
+        Buffer buffer = buffers.get(key);
+
+        if (schedule == DigestSchedule.NONE && (buffer == null || (buffer.messages.isEmpty() && !buffer.flushAt.isAfter(now)))) {
+            // Nothing sent to this recipient lately: send this one and merge whatever follows it
+            if (buffer == null && buffers.size() >= maxRecipients) {
+                return null;
+            }
+            buffers.put(key, new Buffer(now.plusSeconds(windowSeconds)));
+            return null;
+        }
+        if (held >= maxHeld) {
+            return null;
+        }
+        if (buffer == null) {
+            if (buffers.size() >= maxRecipients) {
+                return null;
+            }
+            buffer = new Buffer(flushTime(schedule, message.getCreatedAt() != null ? message.getCreatedAt() : now, now));
+            buffers.put(key, buffer);
+        } else if (buffer.messages.size() >= maxPerRecipient) {
+            // Full: flush on the next run instead of growing, and send this one on its own
+            buffer.flushAt = now;
+            return null;
+        }
+        buffer.messages.add(new Held(message, claimToken, attempts));
+        held++;
+        return buffer.flushAt;
+    }
+
+    /** Removes and returns the buffers whose time has come, in no particular order. */
+    synchronized List<Digest> takeDue(LocalDateTime now) {
+        if (buffers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Digest> due = new ArrayList<>();
+        for (Iterator<Map.Entry<Key, Buffer>> it = buffers.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, Buffer> entry = it.next();
+            Buffer buffer = entry.getValue();
+            if (buffer.flushAt.isAfter(now)) {
+                continue;
+            }
+            it.remove();
+            if (!buffer.messages.isEmpty()) {
+                Key key = entry.getKey();
+                held -= buffer.messages.size();
+                due.add(new Digest(key.channel(), key.recipient(), key.schedule(), buffer.messages));
+            }
+        }
+        return due;
+    }
+
+    synchronized int heldCount() {
+        return held;
+    }
+
+    /**
+     * When a digest that includes a message written at {@code createdAt} is due. Based on the message rather
+     * than the clock, so a row claimed again after a restart goes out with its own period, not the next one.
+     */
+    LocalDateTime flushTime(DigestSchedule schedule, LocalDateTime createdAt, LocalDateTime now) {
+        LocalDateTime flushAt;
+        if (schedule == DigestSchedule.HOURLY) {
+            flushAt = createdAt.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        } else if (schedule == DigestSchedule.DAILY) {
+            LocalDateTime today = createdAt.truncatedTo(ChronoUnit.DAYS).withHour(digestHour);
+            flushAt = today.isAfter(createdAt) ? today : today.plusDays(1);
+        } else {
+            flushAt = createdAt.plusSeconds(windowSeconds);
+        }
+        return flushAt.isBefore(now) ? now : flushAt;
+    }
+}
@@ -0,0 +1,15 @@
+package lk.banking.notification;
+
+import lk.banking.core.exception.BankingException;
+
+/**
+ * Thrown when a notification could not be rendered or a provider did not accept it.
+ */
+public class NotificationDeliveryException extends BankingException {
+    public NotificationDeliveryException(String message) {
+        super(message);
+    }
+    public NotificationDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,124 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A notification to send once the current transaction commits: its type, channel, recipient and the
+ * parameters its template needs. Built by the business services and handed to {@link NotificationOutbox}.
+ * Parameters are stored as strings: amounts and times are formatted here, anything else by its toString().
+ */
+public final class NotificationIntent {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final NotificationType type;
+    private final NotificationChannel channel;
+    private final String recipient;
+    private final Map<String, String> params = new LinkedHashMap<>();
+    private DigestSchedule digest;
+
+    public NotificationIntent(NotificationType type, NotificationChannel channel, String recipient) {
+        this.type = type;
+        this.channel = channel;
+        this.recipient = recipient;
+    }
+
+    public static NotificationIntent email(NotificationType type, String recipient) {
+        return new NotificationIntent(type, NotificationChannel.EMAIL, recipient);
+    }
+
+    /**
+     * Lets the dispatcher merge this notification with others to the same recipient, following the
+     * recipient's schedule; null (the default) always sends it on its own. Only worth setting on frequent,
+     * informational types such as credits.
+     */
+    public NotificationIntent digest(DigestSchedule schedule) {
+        this.digest = schedule;
+        return this;
+    }
+
+    /** Adds a template parameter; null values are left out. */
+    public NotificationIntent with(String name, Object value) {
+        if (value != null) {
+            params.put(name, String.valueOf(value));
+        }
+        return this;
+    }
+
+    /** Adds an amount, formatted as customers read it: {@code 1,250.00}. */
+    public NotificationIntent with(String name, BigDecimal amount) {
+        return amount == null ? this : with(name, (Object) String.format(Locale.US, "%,.2f", amount));
+    }
+
+    /** Adds a time, to the minute: {@code 2025-07-19 18:10}. */
+    public NotificationIntent with(String name, LocalDateTime time) {
+        return time == null ? this : with(name, (Object) TIME_FORMAT.format(time));
+    }
+
+    public NotificationType getType() { return type; }
+    public NotificationChannel getChannel() { return channel; }
+    public String getRecipient() { return recipient; }
+    public Map<String, String> getParams() { return Collections.unmodifiableMap(params); }
+    public DigestSchedule getDigest() { return digest; }
+
+    /** False for intents without a recipient, which are skipped rather than stored. */
+    public boolean isDeliverable() {
+        return type != null && channel != null && recipient != null && !recipient.isBlank();
+    }
+
+    /** The parameters as stored in {@code outbox.payload}. */
+    public String encodedParams() {
+        return encode(params);
+    }
+
+    /**
+     * Shows only the last four characters of an account number, as every customer-facing message does.
+     */
+    public static String maskAccountNumber(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() <= 4) {
+            return accountNumber;
+        }
+        return "****" + accountNumber.substring(accountNumber.length() - 4);
+    }
+
+    static String encode(Map<String, String> params) {
+        StringBuilder sb = new StringBuilder(params.size() * 24);
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    static Map<String, String> decode(String payload) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (payload == null || payload.isEmpty()) {
+            return params;
+        }
+        for (String pair : payload.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,17 @@
+package lk.banking.notification;
+
+import jakarta.ejb.Local;
+
+import java.util.List;
+
+@Local
+public interface NotificationOutbox {
+
+    /**
+     * Stores the intents in the outbox as part of the caller's transaction: they are delivered only if
+     * it commits. Intents without a recipient are skipped.
+     *
+     * @return number of outbox rows written.
+     */
+    int enqueue(List<NotificationIntent> intents);
+}
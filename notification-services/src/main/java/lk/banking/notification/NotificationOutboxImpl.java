@@ -0,0 +1,53 @@
+package lk.banking.notification;
+
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lk.banking.core.entity.enums.OutboxStatus;
+import lk.banking.core.util.MultiRowInsert;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes notification intents into the outbox table. MANDATORY: an intent only means something as part
+ * of the transaction that made the change it reports. All intents of a call go out in one multi-row
+ * INSERT, so a transfer pays a single extra round trip inside its transaction; rendering and delivery
+ * happen later in {@link OutboxDispatcher}.
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.MANDATORY)
+public class NotificationOutboxImpl implements NotificationOutbox {
+
+    static final String TABLE = "outbox";
+    static final List<String> COLUMNS = List.of(
+            "type", "channel", "recipient", "payload", "status", "attempts", "createdAt", "availableAt", "digest");
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Override
+    public int enqueue(List<NotificationIntent> intents) {
+        if (intents == null || intents.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(intents.size());
+        for (NotificationIntent intent : intents) {
+            if (!intent.isDeliverable()) {
+                continue;
+            }
+            rows.add(new Object[]{
+                    intent.getType().name(), intent.getChannel().name(), intent.getRecipient(),
+                    intent.encodedParams(), OutboxStatus.PENDING.name(), 0, now, now,
+                    intent.getDigest() != null ? intent.getDigest().name() : null});
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return MultiRowInsert.execute(em, TABLE, COLUMNS, rows);
+    }
+}
@@ -0,0 +1,92 @@
+package lk.banking.notification;
+
+import freemarker.core.Environment;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateScalarModel;
+import lk.banking.core.entity.OutboxMessage;
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders outbox messages with the templates under /templates/notifications, one per type and channel:
+ * {@code <type>.<channel>.ftl}, e.g. {@code transfer_sent.email.ftl}. The outbox parameters are the data
+ * model. An email template sets its subject with {@code <#assign subject = "...">}. Merged messages are
+ * rendered with {@code digest.<channel>.ftl}, which gets the list of their parameters as {@code items}.
+ * Templates come precompiled from the shared {@link TemplateEngine}; this class holds no state of its own.
+ */
+public class NotificationRenderer {
+
+    private final TemplateEngine templateEngine;
+
+    public NotificationRenderer(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    static String templateName(NotificationType type, NotificationChannel channel) {
+        return TemplateEngine.notificationTemplate(type, channel);
+    }
+
+    /**
+     * @throws NotificationDeliveryException if the template is missing or fails; retrying will not help,
+     *         so the dispatcher marks the message as failed straight away.
+     */
+    public RenderedNotification render(OutboxMessage message) {
+        Map<String, String> model = NotificationIntent.decode(message.getPayload());
+        String name = templateName(message.getType(), message.getChannel());
+        String[] subject = new String[1];
+        try {
+            String body = templateEngine.render(name, model, environment -> subject[0] = subject(environment));
+            return new RenderedNotification(message.getId(), message.getType(), message.getChannel(),
+                    message.getRecipient(), subject[0], body.strip());
+        } catch (TemplateRenderingException e) {
+            throw new NotificationDeliveryException("Could not render " + name + " for outbox message " + message.getId(), e);
+        }
+    }
+
+    /**
+     * Renders several outbox messages to one recipient as a single {@link NotificationType#DIGEST}. Each
+     * message's parameters become one item, with its type as {@code kind}.
+     *
+     * @throws NotificationDeliveryException if the digest template is missing or fails.
+     */
+    public RenderedNotification renderDigest(NotificationChannel channel, String recipient, DigestSchedule schedule,
+                                             List<OutboxMessage> messages) {
+        List<Map<String, String>> items = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            Map<String, String> item = NotificationIntent.decode(message.getPayload());
+            item.put("kind", message.getType().name());
+            items.add(item);
+        }
+        Map<String, Object> model = new HashMap<>();
+        model.put("customerName", items.get(0).get("customerName"));
+        model.put("schedule", schedule != null ? schedule.name() : DigestSchedule.NONE.name());
+        model.put("count", items.size());
+        model.put("items", items);
+
+        String name = templateName(NotificationType.DIGEST, channel);
+        String[] subject = new String[1];
+        try {
+            String body = templateEngine.render(name, model, environment -> subject[0] = subject(environment));
+            return new RenderedNotification(messages.get(0).getId(), NotificationType.DIGEST, channel, recipient,
+                    subject[0], body.strip());
+        } catch (TemplateRenderingException e) {
+            throw new NotificationDeliveryException("Could not render " + name + " for " + messages.size() + " outbox messages", e);
+        }
+    }
+
+    private static String subject(Environment environment) {
+        try {
+            TemplateModel value = environment.getVariable("subject");
+            return value instanceof TemplateScalarModel scalar ? scalar.getAsString() : null;
+        } catch (TemplateModelException e) {
+            throw new TemplateRenderingException("Unreadable subject", e);
+        }
+    }
+}
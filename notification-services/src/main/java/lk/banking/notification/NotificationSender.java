@@ -0,0 +1,26 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.enums.NotificationChannel;
+
+/**
+ * Delivers rendered notifications over one or more channels. Implementations are CDI beans picked up by
+ * {@link OutboxDispatcher}; a provider-backed sender takes precedence over {@link LocalFileSender} for the
+ * channels it supports. Called from the dispatcher thread only, never inside a business transaction.
+ */
+public interface NotificationSender {
+
+    boolean supports(NotificationChannel channel);
+
+    /**
+     * Stand-in senders (local file, console) report false so that any real provider wins.
+     */
+    default boolean isFallback() {
+        return false;
+    }
+
+    /**
+     * @throws NotificationDeliveryException if the provider did not accept the message; the dispatcher
+     *         retries it later with back-off.
+     */
+    void send(RenderedNotification notification);
+}
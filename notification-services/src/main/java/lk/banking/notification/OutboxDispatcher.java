@@ -0,0 +1,484 @@
+package lk.banking.notification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.SessionContext;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lk.banking.core.entity.OutboxMessage;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.OutboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers the transactional outbox. Every two seconds the timer claims up to {@code BATCH_SIZE} due rows
+ * with one UPDATE, renders them and hands them to the {@link ChannelGateway} for their channel, then records
+ * the results in a second short transaction. Nothing here runs inside a business transaction, so a slow
+ * template or provider never holds up a transfer; it only delays the notification.
+ * <p>
+ * Each channel's gateway rate-limits, has its own bounded executor and a circuit breaker, so a slow provider
+ * holds up neither the other channel nor this timer for longer than {@code SEND_TIMEOUT_MILLIS}. A message the
+ * gateway refuses (rate limit, open breaker, full executor) goes back to the queue without using an attempt,
+ * and the run stops claiming more until the next one.
+ * <p>
+ * Claiming stamps rows with a random token, so several servers can drain the same table without sending a
+ * row twice. Delivery is at least once: a server that dies between sending and recording leaves its rows
+ * SENDING, and they are claimed again after {@code CLAIM_TIMEOUT_MINUTES}. A failed send is retried with
+ * exponential back-off up to {@code MAX_ATTEMPTS} times; a message that cannot be rendered, or has no sender,
+ * fails at once. Failed messages are copied to the dead-letter table (see {@link DeadLetterQueue}).
+ * <p>
+ * Messages written with a digest schedule (credits, see {@link NotificationIntent#digest}) may be held in a
+ * {@link NotificationCoalescer} instead of being sent: their rows stay claimed, with the claim stretched to the
+ * end of the hold, and a second timer sends each recipient's held messages as one digest when it is due.
+ * Held messages are per server; two servers may each send a recipient a digest for the same period.
+ * <p>
+ * Tunables (system properties): banking.notification.enabled (default true),
+ * banking.notification.batchSize (default 100), banking.notification.coalesceSeconds (default 60, 0 turns
+ * coalescing off), banking.notification.digestHour (hour of the daily digest, default 8),
+ * banking.notification.maxHeld (messages held in memory, default 50000),
+ * banking.notification.sendTimeoutMillis (default 10000), and the per-channel limits of {@link ChannelGateway}.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class OutboxDispatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(OutboxDispatcher.class.getName());
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("banking.notification.enabled", "true"));
+    static final int BATCH_SIZE = Integer.getInteger("banking.notification.batchSize", 100);
+    /** Bounds one timer run, so a large backlog cannot keep the timer thread forever. */
+    static final int MAX_BATCHES_PER_RUN = 20;
+    static final int MAX_ATTEMPTS = 8;
+    static final long CLAIM_TIMEOUT_MINUTES = 5;
+    static final long FIRST_RETRY_SECONDS = 30;
+    static final long MAX_RETRY_SECONDS = 3600;
+    private static final int MAX_ERROR_LENGTH = 512;
+    /** Longest a run waits for a provider; the send itself may go on in the channel's executor. */
+    static final long SEND_TIMEOUT_MILLIS = Long.getLong("banking.notification.sendTimeoutMillis", 10_000);
+
+    static final long COALESCE_SECONDS = Long.getLong("banking.notification.coalesceSeconds", 60);
+    static final int DIGEST_HOUR = Integer.getInteger("banking.notification.digestHour", 8);
+    static final int MAX_HELD = Integer.getInteger("banking.notification.maxHeld", 50_000);
+    static final int MAX_DIGEST_RECIPIENTS = 10_000;
+    /** Keeps one digest to a size a template renders and a provider accepts; more waits for the next. */
+    static final int MAX_DIGEST_ITEMS = 500;
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    @Inject
+    @Any
+    private Instance<NotificationSender> senders;
+
+    @Inject
+    private TemplateEngine templateEngine;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    private NotificationRenderer renderer;
+    private Map<NotificationChannel, ChannelGateway> gateways = Collections.emptyMap();
+    private NotificationCoalescer coalescer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        List<NotificationSender> available = new ArrayList<>();
+        senders.forEach(available::add);
+        configure(new NotificationRenderer(templateEngine), available);
+        StringBuilder channels = new StringBuilder();
+        gateways.forEach((channel, gateway) -> channels.append(' ').append(channel).append('=')
+                .append(gateway.sender().getClass().getSimpleName()));
+        LOGGER.info("OutboxDispatcher: Started" + (ENABLED ? "" : " (disabled)") + ", channels" + channels);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        gateways.values().forEach(ChannelGateway::shutdown);
+    }
+
+    void configure(NotificationRenderer renderer, List<NotificationSender> available) {
+        ThreadFactory threads = threadFactory != null ? threadFactory : Executors.defaultThreadFactory();
+        Map<NotificationChannel, ChannelGateway> configured = new EnumMap<>(NotificationChannel.class);
+        chooseSenders(available).forEach((channel, sender) ->
+                configured.put(channel, ChannelGateway.configured(channel, sender, SEND_TIMEOUT_MILLIS, threads)));
+        configure(renderer, configured,
+                new NotificationCoalescer(COALESCE_SECONDS, DIGEST_HOUR, MAX_DIGEST_RECIPIENTS, MAX_DIGEST_ITEMS, MAX_HELD));
+    }
+
+    void configure(NotificationRenderer renderer, Map<NotificationChannel, ChannelGateway> gateways, NotificationCoalescer coalescer) {
+        Map<NotificationChannel, ChannelGateway> previous = this.gateways;
+        this.renderer = renderer;
+        this.gateways = gateways;
+        this.coalescer = coalescer;
+        previous.values().forEach(ChannelGateway::shutdown);
+    }
+
+    /** Picks one sender per channel, preferring real providers over fallback senders. */
+    static Map<NotificationChannel, NotificationSender> chooseSenders(List<NotificationSender> available) {
+        Map<NotificationChannel, NotificationSender> chosen = new EnumMap<>(NotificationChannel.class);
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            for (NotificationSender sender : available) {
+                if (!sender.supports(channel)) {
+                    continue;
+                }
+                NotificationSender current = chosen.get(channel);
+                if (current == null || (current.isFallback() && !sender.isFallback())) {
+                    chosen.put(channel, sender);
+                }
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Drains due messages. Overlapping runs are skipped, so each server has a single drainer.
+     */
+    @Schedule(second = "*/2", minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void drain() {
+        if (!ENABLED || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Through the business object so REQUIRES_NEW applies.
+            OutboxDispatcher self = sessionContext.getBusinessObject(OutboxDispatcher.class);
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                String claimToken = UUID.randomUUID().toString();
+                List<OutboxMessage> batch = self.claimBatch(claimToken, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Results results = deliver(claimToken, batch);
+                self.complete(claimToken, results);
+                if (batch.size() < BATCH_SIZE || results.throttled) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "OutboxDispatcher: Drain failed, retrying on the next run.", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Marks up to {@code limit} due rows, and rows whose claim has timed out, as SENDING under this token and
+     * returns them oldest first.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<OutboxMessage> claimBatch(String claimToken, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = em.createNativeQuery(
+                        "UPDATE outbox SET status = ?, claimToken = ?, claimedAt = ? "
+                                + "WHERE (status = ? AND availableAt <= ?) OR (status = ? AND claimedAt < ?) "
+                                + "ORDER BY id LIMIT ?")
+                .setParameter(1, OutboxStatus.SENDING.name())
+                .setParameter(2, claimToken)
+                .setParameter(3, now)
+                .setParameter(4, OutboxStatus.PENDING.name())
+                .setParameter(5, now)
+                .setParameter(6, OutboxStatus.SENDING.name())
+                .setParameter(7, now.minusMinutes(CLAIM_TIMEOUT_MINUTES))
+                .setParameter(8, limit)
+                .executeUpdate();
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+        return em.createQuery("SELECT o FROM OutboxMessage o WHERE o.claimToken = :token ORDER BY o.id", OutboxMessage.class)
+                .setParameter("token", claimToken)
+                .getResultList();
+    }
+
+    /**
+     * Sends the held messages whose digest is due, one notification per recipient. Runs beside drain(); a
+     * message is either held or being drained, never both.
+     */
+    @Schedule(second = "*/5", minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void flushDigests() {
+        if (!ENABLED || !flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<NotificationCoalescer.Digest> due = coalescer.takeDue(LocalDateTime.now());
+            if (due.isEmpty()) {
+                return;
+            }
+            OutboxDispatcher self = sessionContext.getBusinessObject(OutboxDispatcher.class);
+            for (Map.Entry<String, Results> claim : deliverDigests(due).entrySet()) {
+                self.complete(claim.getKey(), claim.getValue());
+            }
+        } catch (RuntimeException e) {
+            // Held rows stay claimed and are picked up again once their claim times out
+            LOGGER.log(Level.WARNING, "OutboxDispatcher: Digest flush failed.", e);
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * Renders each message and hands it to its channel, outside any transaction, unless the coalescer holds
+     * it for a digest. Waits for the sends of the whole batch, at most {@code SEND_TIMEOUT_MILLIS} each. Never
+     * throws; every message ends up in exactly one list of the result.
+     */
+    Results deliver(String claimToken, List<OutboxMessage> batch) {
+        Results results = new Results();
+        LocalDateTime now = LocalDateTime.now();
+        List<InFlight> inFlight = new ArrayList<>();
+        for (OutboxMessage message : batch) {
+            int attempts = message.getAttempts() == null ? 1 : message.getAttempts() + 1;
+            LocalDateTime heldUntil = coalescer.offer(message, claimToken, attempts, now);
+            if (heldUntil != null) {
+                results.held.add(new Result(message.getId(), attempts, heldUntil, null));
+                continue;
+            }
+            NotificationCoalescer.Held claimed = new NotificationCoalescer.Held(message, claimToken, attempts);
+            RenderedNotification notification;
+            try {
+                notification = renderer.render(message);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "OutboxDispatcher: Giving up on " + message + ", it cannot be rendered.", e);
+                fail(List.of(claimed), errorText(e), token -> results);
+                continue;
+            }
+            send(message.getChannel(), notification, List.of(claimed), inFlight, token -> results);
+        }
+        awaitAll(inFlight, token -> results);
+        return results;
+    }
+
+    /**
+     * Sends each due digest, a single held message as itself, and sorts the outcome by the claim the rows
+     * were taken under. A failed digest puts all of its messages up for retry, where they are merged again.
+     */
+    Map<String, Results> deliverDigests(List<NotificationCoalescer.Digest> due) {
+        Map<String, Results> byClaim = new HashMap<>();
+        Function<String, Results> resultsFor = token -> byClaim.computeIfAbsent(token, t -> new Results());
+        List<InFlight> inFlight = new ArrayList<>();
+        for (NotificationCoalescer.Digest digest : due) {
+            List<OutboxMessage> messages = new ArrayList<>(digest.messages.size());
+            for (NotificationCoalescer.Held held : digest.messages) {
+                messages.add(held.message);
+            }
+            RenderedNotification notification;
+            try {
+                notification = messages.size() == 1 ? renderer.render(messages.get(0))
+                        : renderer.renderDigest(digest.channel, digest.recipient, digest.schedule, messages);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "OutboxDispatcher: Giving up on a digest of " + messages.size() + " messages to "
+                        + digest.recipient + ", it cannot be rendered.", e);
+                fail(digest.messages, errorText(e), resultsFor);
+                continue;
+            }
+            send(digest.channel, notification, digest.messages, inFlight, resultsFor);
+        }
+        awaitAll(inFlight, resultsFor);
+        return byClaim;
+    }
+
+    /** Hands one notification, covering {@code messages}, to its channel's gateway. */
+    private void send(NotificationChannel channel, RenderedNotification notification, List<NotificationCoalescer.Held> messages,
+                      List<InFlight> inFlight, Function<String, Results> resultsFor) {
+        ChannelGateway gateway = gateways.get(channel);
+        if (gateway == null) {
+            LOGGER.severe("OutboxDispatcher: Giving up on outbox message " + notification.getOutboxId() + ", no sender for channel " + channel + ".");
+            fail(messages, "No sender for channel " + channel, resultsFor);
+            return;
+        }
+        try {
+            inFlight.add(new InFlight(messages, gateway.send(notification)));
+        } catch (ChannelUnavailableException e) {
+            // Not attempted: back in the queue without using an attempt
+            LocalDateTime retryAt = LocalDateTime.now().plusNanos(e.getRetryAfterMillis() * 1_000_000);
+            for (NotificationCoalescer.Held held : messages) {
+                Results results = resultsFor.apply(held.claimToken);
+                results.retries.add(new Result(held.message.getId(), held.attempts - 1, retryAt, errorText(e)));
+                results.throttled = true;
+            }
+        }
+    }
+
+    private void awaitAll(List<InFlight> inFlight, Function<String, Results> resultsFor) {
+        for (InFlight sending : inFlight) {
+            Throwable failure = null;
+            try {
+                sending.future.join();
+            } catch (CompletionException | CancellationException e) {
+                failure = e.getCause() != null ? e.getCause() : e;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (NotificationCoalescer.Held held : sending.messages) {
+                Results results = resultsFor.apply(held.claimToken);
+                Long id = held.message.getId();
+                if (failure == null) {
+                    results.sent.add(id);
+                } else if (held.attempts >= MAX_ATTEMPTS) {
+                    LOGGER.log(Level.SEVERE, "OutboxDispatcher: Giving up on " + held.message + " after " + held.attempts + " attempts.", failure);
+                    results.failed.add(new Result(id, held.attempts, null, errorText(failure)));
+                } else {
+                    LOGGER.log(Level.WARNING, "OutboxDispatcher: Attempt " + held.attempts + " failed for " + held.message + ", retrying later.", failure);
+                    results.retries.add(new Result(id, held.attempts, now.plusSeconds(retryDelaySeconds(held.attempts)), errorText(failure)));
+                }
+            }
+        }
+    }
+
+    private static void fail(List<NotificationCoalescer.Held> messages, String error, Function<String, Results> resultsFor) {
+        for (NotificationCoalescer.Held held : messages) {
+            resultsFor.apply(held.claimToken).failed.add(new Result(held.message.getId(), held.attempts, null, error));
+        }
+    }
+
+    /**
+     * Records the outcome of a delivered batch. Rows are only touched while they still carry this claim, so
+     * a run that outlived its claim cannot overwrite the run that took the rows over.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void complete(String claimToken, Results results) {
+        if (!results.sent.isEmpty()) {
+            em.createQuery("UPDATE OutboxMessage o SET o.status = :status, o.sentAt = :now, o.claimToken = NULL, "
+                            + "o.attempts = o.attempts + 1 WHERE o.id IN :ids AND o.claimToken = :token")
+                    .setParameter("status", OutboxStatus.SENT)
+                    .setParameter("now", LocalDateTime.now())
+                    .setParameter("ids", results.sent)
+                    .setParameter("token", claimToken)
+                    .executeUpdate();
+        }
+        for (Result retry : results.retries) {
+            update(claimToken, retry, OutboxStatus.PENDING);
+        }
+        for (Result failure : results.failed) {
+            deadLetter(claimToken, failure);
+            update(claimToken, failure, OutboxStatus.FAILED);
+        }
+        if (!results.held.isEmpty()) {
+            // Stretch the claim over the hold, so the rows are only taken over if this server never sends them
+            Map<LocalDateTime, List<Long>> byFlushTime = new HashMap<>();
+            for (Result held : results.held) {
+                byFlushTime.computeIfAbsent(held.availableAt, at -> new ArrayList<>()).add(held.id);
+            }
+            for (Map.Entry<LocalDateTime, List<Long>> hold : byFlushTime.entrySet()) {
+                em.createQuery("UPDATE OutboxMessage o SET o.claimedAt = :until WHERE o.id IN :ids AND o.claimToken = :token")
+                        .setParameter("until", hold.getKey())
+                        .setParameter("ids", hold.getValue())
+                        .setParameter("token", claimToken)
+                        .executeUpdate();
+            }
+        }
+        if (!results.failed.isEmpty() || !results.retries.isEmpty()) {
+            LOGGER.info("OutboxDispatcher: Batch done, " + results.sent.size() + " sent, " + results.retries.size()
+                    + " to retry, " + results.failed.size() + " failed.");
+        }
+    }
+
+    /** Copies a row that is about to fail into the dead-letter table, while it still carries this claim. */
+    private void deadLetter(String claimToken, Result failure) {
+        em.createNativeQuery("INSERT INTO notification_dead_letters "
+                        + "(outboxId, type, channel, recipient, payload, attempts, lastError, failedAt) "
+                        + "SELECT id, type, channel, recipient, payload, ?, ?, ? FROM outbox WHERE id = ? AND claimToken = ?")
+                .setParameter(1, failure.attempts)
+                .setParameter(2, failure.error)
+                .setParameter(3, LocalDateTime.now())
+                .setParameter(4, failure.id)
+                .setParameter(5, claimToken)
+                .executeUpdate();
+    }
+
+    private void update(String claimToken, Result result, OutboxStatus status) {
+        String retryAt = result.availableAt != null ? "o.availableAt = :availableAt, " : "";
+        Query query = em.createQuery("UPDATE OutboxMessage o SET o.status = :status, o.attempts = :attempts, " + retryAt
+                        + "o.lastError = :error, o.claimToken = NULL WHERE o.id = :id AND o.claimToken = :token")
+                .setParameter("status", status)
+                .setParameter("attempts", result.attempts)
+                .setParameter("error", result.error)
+                .setParameter("id", result.id)
+                .setParameter("token", claimToken);
+        if (result.availableAt != null) {
+            query.setParameter("availableAt", result.availableAt);
+        }
+        query.executeUpdate();
+    }
+
+    /** 30 s, 60 s, 120 s, ... capped at an hour. */
+    static long retryDelaySeconds(int attempts) {
+        long delay = FIRST_RETRY_SECONDS << Math.min(attempts - 1, 20);
+        return Math.min(delay, MAX_RETRY_SECONDS);
+    }
+
+    private static String errorText(Throwable e) {
+        String text = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text;
+    }
+
+    /** Outcome of one delivered batch. */
+    public static final class Results {
+        final List<Long> sent = new ArrayList<>();
+        final List<Result> retries = new ArrayList<>();
+        final List<Result> failed = new ArrayList<>();
+        /** Held for a digest; availableAt is when it is due. */
+        final List<Result> held = new ArrayList<>();
+        /** A channel refused messages; claiming more in this run would only bounce them too. */
+        boolean throttled;
+    }
+
+    /** A send in progress and the outbox messages it covers. */
+    private static final class InFlight {
+        final List<NotificationCoalescer.Held> messages;
+        final CompletableFuture<Void> future;
+
+        InFlight(List<NotificationCoalescer.Held> messages, CompletableFuture<Void> future) {
+            this.messages = messages;
+            this.future = future;
+        }
+    }
+
+    static final class Result {
+        final Long id;
+        final int attempts;
+        final LocalDateTime availableAt;
+        final String error;
+
+        Result(Long id, int attempts, LocalDateTime availableAt, String error) {
+            this.id = id;
+            this.attempts = attempts;
+            this.availableAt = availableAt;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+/**
+ * A notification ready for a {@link NotificationSender}: the outbox row it came from and its rendered text.
+ * {@code subject} is null for channels without one, such as SMS.
+ */
+public final class RenderedNotification {
+
+    private final Long outboxId;
+    private final NotificationType type;
+    private final NotificationChannel channel;
+    private final String recipient;
+    private final String subject;
+    private final String body;
+
+    public RenderedNotification(Long outboxId, NotificationType type, NotificationChannel channel,
+                                String recipient, String subject, String body) {
+        this.outboxId = outboxId;
+        this.type = type;
+        this.channel = channel;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    public Long getOutboxId() { return outboxId; }
+    public NotificationType getType() { return type; }
+    public NotificationChannel getChannel() { return channel; }
+    public String getRecipient() { return recipient; }
+    public String getSubject() { return subject; }
+    public String getBody() { return body; }
+}
@@ -0,0 +1,79 @@
+package lk.banking.notification;
+
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of StringBuilders for template output, so rendering a message does not grow a fresh
+ * buffer from 16 chars every time. Backed by an ArrayBlockingQueue, so each acquire and release takes its
+ * lock briefly and never waits: an empty pool hands out a new builder and a full one drops the returned
+ * builder. Builders are not tied to threads. Builders that grew past {@code maxRetainedChars} (an unusually
+ * large statement) are dropped instead of pinning that memory in the pool.
+ */
+final class StringBuilderPool {
+
+    private final ArrayBlockingQueue<StringBuilder> free;
+    private final int initialCapacity;
+    private final int maxRetainedChars;
+
+    StringBuilderPool(int size, int initialCapacity, int maxRetainedChars) {
+        this.free = new ArrayBlockingQueue<>(size);
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedChars = maxRetainedChars;
+    }
+
+    StringBuilder acquire() {
+        StringBuilder builder = free.poll();
+        return builder != null ? builder : new StringBuilder(initialCapacity);
+    }
+
+    void release(StringBuilder builder) {
+        if (builder.capacity() > maxRetainedChars) {
+            return;
+        }
+        builder.setLength(0);
+        free.offer(builder);
+    }
+
+    int available() {
+        return free.size();
+    }
+
+    /** Unsynchronized Writer over a StringBuilder; StringWriter locks a StringBuffer on every write. */
+    static final class BuilderWriter extends Writer {
+        private final StringBuilder builder;
+
+        BuilderWriter(StringBuilder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            builder.append(text, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+
+        @Override
+        public Writer append(CharSequence text) {
+            builder.append(text);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package lk.banking.notification;
+
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.cache.FileTemplateLoader;
+import freemarker.cache.MultiTemplateLoader;
+import freemarker.cache.StrongCacheStorage;
+import freemarker.cache.TemplateLoader;
+import freemarker.core.Environment;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateExceptionHandler;
+import freemarker.template.TemplateNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * The FreeMarker templates of the application: notification emails and SMS, and account statements.
+ * Every known template is parsed once at startup into a single Configuration shared by all threads.
+ * Its cache keeps templates strongly and never checks the source for changes, so rendering a message
+ * costs neither a parse nor a file system call. Output goes into pooled StringBuilders.
+ * <p>
+ * Templates ship in the jar under /templates. If {@code banking.templates.dir} is set, templates in that
+ * directory (same relative names) override the bundled ones. The directory is watched and all templates
+ * are recompiled when a file in it changes, so copy can be edited without a redeploy.
+ */
+@ApplicationScoped
+public class TemplateEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(TemplateEngine.class.getName());
+
+    static final String CLASSPATH_ROOT = "/templates";
+    public static final String STATEMENT_TEMPLATE = "statements/monthly_statement.ftl";
+
+    private static final int POOLED_BUILDERS = 64;
+    private static final int INITIAL_BUILDER_CHARS = 1024;
+    private static final int MAX_POOLED_BUILDER_CHARS = 64 * 1024;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    private final Configuration configuration = new Configuration(Configuration.VERSION_2_3_32);
+    private final StringBuilderPool builders = new StringBuilderPool(POOLED_BUILDERS, INITIAL_BUILDER_CHARS, MAX_POOLED_BUILDER_CHARS);
+    private WatchService watchService;
+    private volatile int compiledTemplates;
+
+    @PostConstruct
+    void init() {
+        String directory = System.getProperty("banking.templates.dir");
+        start(directory != null && !directory.isBlank() ? Paths.get(directory) : null, threadFactory);
+    }
+
+    /**
+     * Configures the engine and compiles all templates. Called once; outside a container (tests, benchmarks)
+     * call it directly after construction.
+     *
+     * @param overrideDirectory templates that take precedence over the bundled ones, or null.
+     * @param watcherThreads creates the thread watching {@code overrideDirectory}; null disables hot reload.
+     */
+    public void start(Path overrideDirectory, ThreadFactory watcherThreads) {
+        configuration.setTemplateLoader(loader(overrideDirectory));
+        configuration.setCacheStorage(new StrongCacheStorage());
+        // Changes are picked up by the watcher; the cache itself never goes back to the source
+        configuration.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        configuration.setLocalizedLookup(false);
+        configuration.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        configuration.setLocale(Locale.US);
+        configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        configuration.setLogTemplateExceptions(false);
+        configuration.setWrapUncheckedExceptions(true);
+        configuration.setFallbackOnNullLoopVariable(false);
+
+        compiledTemplates = precompile();
+        LOGGER.info("TemplateEngine: Compiled " + compiledTemplates + " templates"
+                + (overrideDirectory != null ? ", overrides from " + overrideDirectory : "") + ".");
+        if (overrideDirectory != null && watcherThreads != null && Files.isDirectory(overrideDirectory)) {
+            watch(overrideDirectory, watcherThreads);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "TemplateEngine: Failed to close the template watcher", e);
+            }
+        }
+    }
+
+    /** Every template the application renders: one per notification type and channel, and the statement. */
+    public static List<String> knownTemplates() {
+        List<String> names = new ArrayList<>();
+        for (NotificationType type : NotificationType.values()) {
+            for (NotificationChannel channel : NotificationChannel.values()) {
+                names.add(notificationTemplate(type, channel));
+            }
+        }
+        names.add(STATEMENT_TEMPLATE);
+        return names;
+    }
+
+    public static String notificationTemplate(NotificationType type, NotificationChannel channel) {
+        return "notifications/" + type.name().toLowerCase(Locale.ROOT) + "." + channel.name().toLowerCase(Locale.ROOT) + ".ftl";
+    }
+
+    /**
+     * Renders a template into a pooled buffer.
+     *
+     * @throws TemplateRenderingException if the template does not exist or fails.
+     */
+    public String render(String name, Object model) {
+        return render(name, model, null);
+    }
+
+    /**
+     * Renders a template; {@code inspect} is called after processing, while variables the template
+     * assigned (such as an email subject) can still be read from the Environment.
+     */
+    public String render(String name, Object model, Consumer<Environment> inspect) {
+        StringBuilder builder = builders.acquire();
+        try {
+            Template template = configuration.getTemplate(name);
+            Environment environment = template.createProcessingEnvironment(model, new StringBuilderPool.BuilderWriter(builder));
+            environment.process();
+            if (inspect != null) {
+                inspect.accept(environment);
+            }
+            return builder.toString();
+        } catch (IOException | TemplateException e) {
+            throw new TemplateRenderingException("Could not render template " + name, e);
+        } finally {
+            builders.release(builder);
+        }
+    }
+
+    /** Drops every compiled template and compiles them again from their current sources. */
+    public void reload() {
+        configuration.clearTemplateCache();
+        compiledTemplates = precompile();
+        LOGGER.info("TemplateEngine: Reloaded, " + compiledTemplates + " templates compiled.");
+    }
+
+    public int compiledTemplates() {
+        return compiledTemplates;
+    }
+
+    int pooledBuilders() {
+        return builders.available();
+    }
+
+    private int precompile() {
+        int compiled = 0;
+        for (String name : knownTemplates()) {
+            try {
+                configuration.getTemplate(name);
+                compiled++;
+            } catch (TemplateNotFoundException e) {
+                // Not every type has a template for every channel
+                LOGGER.fine("TemplateEngine: No template " + name);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "TemplateEngine: Template " + name + " does not compile; messages using it will fail.", e);
+            }
+        }
+        return compiled;
+    }
+
+    private static TemplateLoader loader(Path overrideDirectory) {
+        TemplateLoader bundled = new ClassTemplateLoader(TemplateEngine.class, CLASSPATH_ROOT);
+        if (overrideDirectory == null || !Files.isDirectory(overrideDirectory)) {
+            if (overrideDirectory != null) {
+                LOGGER.warning("TemplateEngine: Template directory " + overrideDirectory + " does not exist, using bundled templates.");
+            }
+            return bundled;
+        }
+        try {
+            return new MultiTemplateLoader(new TemplateLoader[]{new FileTemplateLoader(overrideDirectory.toFile()), bundled});
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "TemplateEngine: Cannot read " + overrideDirectory + ", using bundled templates.", e);
+            return bundled;
+        }
+    }
+
+    private void watch(Path directory, ThreadFactory watcherThreads) {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            try (Stream<Path> directories = Files.walk(directory)) {
+                for (Path dir : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+                    register(dir);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "TemplateEngine: Cannot watch " + directory + "; template changes need a restart.", e);
+            return;
+        }
+        Thread watcher = watcherThreads.newThread(this::watchLoop);
+        watcher.setName("banking-template-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void register(Path dir) throws IOException {
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path dir = (Path) key.watchable();
+                key.pollEvents().forEach(event -> {
+                    if (event.context() instanceof Path name && Files.isDirectory(dir.resolve(name))) {
+                        try {
+                            register(dir.resolve(name));
+                        } catch (IOException e) {
+                            LOGGER.log(Level.WARNING, "TemplateEngine: Cannot watch " + dir.resolve(name), e);
+                        }
+                    }
+                });
+                key.reset();
+                // Editors write a file in several steps; let them finish and reload once
+                Thread.sleep(100);
+                WatchKey more;
+                while ((more = watchService.poll()) != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            LOGGER.fine("TemplateEngine: Template watcher stopped.");
+        }
+    }
+}
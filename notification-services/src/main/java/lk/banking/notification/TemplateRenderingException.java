@@ -0,0 +1,15 @@
+package lk.banking.notification;
+
+import lk.banking.core.exception.BankingException;
+
+/**
+ * Thrown when a template is missing, does not parse, or fails while rendering.
+ */
+public class TemplateRenderingException extends BankingException {
+    public TemplateRenderingException(String message) {
+        super(message);
+    }
+    public TemplateRenderingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,22 @@
+<#assign subject = "${count} new transactions on your accounts">
+Dear ${customerName!"customer"},
+
+<#if schedule == "DAILY">
+Here are the ${count} transactions posted to your accounts since yesterday's summary.
+<#elseif schedule == "HOURLY">
+Here are the ${count} transactions posted to your accounts in the past hour.
+<#else>
+${count} transactions were posted to your accounts in quick succession.
+</#if>
+
+<#list items as item>
+<#if item?index == 50>
+... and ${count - 50} more. Sign in to Nawwa Banking to see all of them.
+<#break>
+</#if>
+<#if item.kind == "TRANSFER_RECEIVED">
+${item.timestamp}  Received LKR ${item.amount} in ${item.toAccount} from ${item.fromAccount}. Balance LKR ${item.balance}. Ref ${item.reference}
+<#else>
+${item.timestamp}  ${item.transactionType} of LKR ${item.amount} on ${item.account}. Balance LKR ${item.balance}. Ref ${item.reference}
+</#if>
+</#list>
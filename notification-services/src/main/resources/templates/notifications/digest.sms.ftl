@@ -0,0 +1 @@
+Nawwa Bank: ${count} transactions posted to your accounts between ${items[0].timestamp} and ${items?last.timestamp}. Latest balance LKR ${items?last.balance}. Sign in for details.
@@ -0,0 +1,10 @@
+<#assign subject = "${transactionType} of LKR ${amount} on account ${account}">
+Dear ${customerName},
+
+A ${transactionType?lower_case} of LKR ${amount} was posted to account ${account} on ${timestamp}.
+<#if description?has_content>
+Description: ${description}
+</#if>
+Your new balance is LKR ${balance}.
+
+Reference: ${reference}
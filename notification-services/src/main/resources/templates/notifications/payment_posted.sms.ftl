@@ -0,0 +1 @@
+Nawwa Bank: ${transactionType} LKR ${amount} on ${account}, ${timestamp}. Bal LKR ${balance}. Ref ${reference}
@@ -0,0 +1,7 @@
+<#assign subject = "You received LKR ${amount} in account ${toAccount}">
+Dear ${customerName},
+
+Account ${toAccount} received LKR ${amount} from account ${fromAccount} on ${timestamp}.
+Your new balance is LKR ${balance}.
+
+Reference: ${reference}
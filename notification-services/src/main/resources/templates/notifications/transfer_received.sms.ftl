@@ -0,0 +1 @@
+Nawwa Bank: LKR ${amount} received in ${toAccount} from ${fromAccount} on ${timestamp}. Bal LKR ${balance}. Ref ${reference}
@@ -0,0 +1,9 @@
+<#assign subject = "You sent LKR ${amount} from account ${fromAccount}">
+Dear ${customerName},
+
+You transferred LKR ${amount} from account ${fromAccount} to account ${toAccount} on ${timestamp}.
+Your new balance is LKR ${balance}.
+
+Reference: ${reference}
+
+If you did not make this transfer, please contact Nawwa Banking immediately.
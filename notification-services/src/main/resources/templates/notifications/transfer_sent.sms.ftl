@@ -0,0 +1 @@
+Nawwa Bank: LKR ${amount} sent from ${fromAccount} to ${toAccount} on ${timestamp}. Bal LKR ${balance}. Ref ${reference}
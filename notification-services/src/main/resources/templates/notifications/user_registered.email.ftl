@@ -0,0 +1,6 @@
+<#assign subject = "Welcome to Nawwa Banking">
+Dear ${name},
+
+Your Nawwa Banking account has been created. You can now log in with the username ${username}.
+
+If you did not register, please contact Nawwa Banking immediately.
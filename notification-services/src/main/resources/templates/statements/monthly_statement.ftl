@@ -0,0 +1,14 @@
+----- Monthly Statement for ${customerName} (${customerEmail}) -----
+Account Number: ${accountNumber}
+Account Type: ${accountType}
+Opening Balance (${periodStart}): LKR ${openingBalance}
+Transactions (${periodStart} to ${periodEnd}):
+<#list transactions>
+<#items as tx>
+  [${tx.timestamp}] ${tx.type} LKR ${tx.amount} (${tx.status})<#if tx.description?has_content> | ${tx.description}</#if>
+</#items>
+<#else>
+  No transactions for this period.
+</#list>
+Closing Balance (${closingDate}): LKR ${closingBalance}
+---------------------------------------------------
@@ -0,0 +1,159 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ChannelGateway Unit Tests")
+public class ChannelGatewayTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final StubSender provider = new StubSender();
+    private ChannelGateway gateway;
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+    }
+
+    private ChannelGateway gateway(TokenBucket rateLimit, CircuitBreaker breaker, int threads, int queue, long timeoutMillis) {
+        gateway = new ChannelGateway(NotificationChannel.EMAIL, provider, rateLimit, breaker, threads, queue, timeoutMillis,
+                Executors.defaultThreadFactory());
+        return gateway;
+    }
+
+    private static RenderedNotification notification(long id) {
+        return new RenderedNotification(id, NotificationType.USER_REGISTERED, NotificationChannel.EMAIL,
+                "john.doe@example.com", "Welcome", "Hello");
+    }
+
+    @Test
+    @DisplayName("should allow a burst up to capacity and then refill at the configured rate")
+    void tokenBucket_BurstThenRate() {
+        TokenBucket bucket = new TokenBucket(2, 2, clock::get);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.millisUntilNext()).isEqualTo(500);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should open after repeated failures and close again after a successful half-open probe")
+    void circuitBreaker_OpenHalfOpenClosed() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1000, clock::get);
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        // One probe after the open period, and only one
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        // A failed probe opens it for another period
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.millisUntilProbe()).isEqualTo(1000);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should stay open when a call started before the breaker opened succeeds late")
+    void circuitBreaker_LateSuccessWhileOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1000, clock::get);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.millisUntilProbe()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("should reset the failure count of a closed breaker on success")
+    void circuitBreaker_SuccessResetsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1000, clock::get);
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("should refuse sends beyond the rate limit without calling the provider")
+    void send_RateLimited() {
+        gateway(new TokenBucket(1, 1, clock::get), new CircuitBreaker(5, 1000), 1, 10, 1000);
+
+        gateway.send(notification(1L)).join();
+
+        assertThatThrownBy(() -> gateway.send(notification(2L)))
+                .isInstanceOf(ChannelUnavailableException.class)
+                .hasMessageContaining("Rate limit");
+        assertThat(provider.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should time out a slow provider and refuse work once its executor and queue are full")
+    void send_SlowProviderIsContained() {
+        provider.latencyMillis = 2000;
+        gateway(new TokenBucket(100, 100), new CircuitBreaker(5, 1000), 1, 1, 200);
+
+        CompletableFuture<Void> running = gateway.send(notification(1L));
+        CompletableFuture<Void> queued = gateway.send(notification(2L));
+        assertThatThrownBy(() -> gateway.send(notification(3L)))
+                .isInstanceOf(ChannelUnavailableException.class)
+                .hasMessageContaining("busy");
+
+        long started = System.nanoTime();
+        assertThatThrownBy(running::join).isInstanceOf(CompletionException.class).hasCauseInstanceOf(TimeoutException.class);
+        assertThatThrownBy(queued::join).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1500);
+    }
+
+    @Test
+    @DisplayName("should stop calling a failing provider once the breaker opens")
+    void send_BreakerOpens() {
+        provider.failing = true;
+        gateway(new TokenBucket(100, 100), new CircuitBreaker(2, 60_000), 1, 10, 1000);
+
+        assertThatThrownBy(() -> gateway.send(notification(1L)).join()).hasCauseInstanceOf(NotificationDeliveryException.class);
+        assertThatThrownBy(() -> gateway.send(notification(2L)).join()).hasCauseInstanceOf(NotificationDeliveryException.class);
+
+        assertThat(gateway.breakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> gateway.send(notification(3L)))
+                .isInstanceOf(ChannelUnavailableException.class)
+                .hasMessageContaining("Circuit breaker open")
+                .satisfies(e -> assertThat(((ChannelUnavailableException) e).getRetryAfterMillis()).isGreaterThan(50_000));
+        assertThat(provider.calls.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,67 @@
+package lk.banking.notification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lk.banking.core.entity.enums.OutboxStatus;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeadLetterQueueImpl Unit Tests")
+public class DeadLetterQueueImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Long> outboxIdQuery;
+
+    @Mock
+    private Query requeueQuery;
+
+    @Mock
+    private Query deleteQuery;
+
+    @InjectMocks
+    private DeadLetterQueueImpl deadLetterQueue;
+
+    @Test
+    @DisplayName("should put the failed outbox rows back in the queue and drop their dead letters")
+    void requeue_Success() {
+        when(entityManager.createQuery(startsWith("SELECT d.outboxId"), eq(Long.class))).thenReturn(outboxIdQuery);
+        when(outboxIdQuery.setParameter(eq("ids"), any())).thenReturn(outboxIdQuery);
+        when(outboxIdQuery.getResultList()).thenReturn(List.of(100L, 101L));
+        when(entityManager.createQuery(startsWith("UPDATE OutboxMessage"))).thenReturn(requeueQuery);
+        when(requeueQuery.setParameter(anyString(), any())).thenReturn(requeueQuery);
+        when(requeueQuery.executeUpdate()).thenReturn(2);
+        when(entityManager.createQuery(startsWith("DELETE FROM DeadLetter"))).thenReturn(deleteQuery);
+        when(deleteQuery.setParameter(anyString(), any())).thenReturn(deleteQuery);
+
+        int requeued = deadLetterQueue.requeue(List.of(1L, 2L));
+
+        assertThat(requeued).isEqualTo(2);
+        verify(requeueQuery).setParameter("ids", List.of(100L, 101L));
+        verify(requeueQuery).setParameter("pending", OutboxStatus.PENDING);
+        verify(deleteQuery).setParameter("ids", List.of(1L, 2L));
+        verify(deleteQuery).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("should do nothing for an empty selection")
+    void requeue_Empty() {
+        assertThat(deadLetterQueue.requeue(List.of())).isZero();
+        verifyNoInteractions(entityManager);
+    }
+}
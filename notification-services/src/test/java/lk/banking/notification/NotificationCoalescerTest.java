@@ -0,0 +1,87 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.OutboxMessage;
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("NotificationCoalescer Unit Tests")
+public class NotificationCoalescerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 7, 19, 18, 10);
+
+    private final NotificationCoalescer coalescer = new NotificationCoalescer(60, 8, 2, 3, 5);
+
+    private static OutboxMessage credit(long id, String recipient, DigestSchedule digest) {
+        OutboxMessage message = new OutboxMessage(NotificationType.PAYMENT_POSTED, NotificationChannel.EMAIL, recipient, "");
+        message.setId(id);
+        message.setDigest(digest);
+        return message;
+    }
+
+    @Test
+    @DisplayName("should never hold messages without a digest schedule")
+    void offer_NoSchedule() {
+        assertThat(coalescer.offer(credit(1L, "a@example.com", null), "t", 1, NOW)).isNull();
+        assertThat(coalescer.offer(credit(2L, "a@example.com", null), "t", 1, NOW)).isNull();
+        assertThat(coalescer.heldCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should send the first message of a window and hold the rest until it closes")
+    void offer_CoalescingWindow() {
+        assertThat(coalescer.offer(credit(1L, "a@example.com", DigestSchedule.NONE), "t", 1, NOW)).isNull();
+        assertThat(coalescer.offer(credit(2L, "a@example.com", DigestSchedule.NONE), "t", 1, NOW.plusSeconds(10)))
+                .isEqualTo(NOW.plusSeconds(60));
+        assertThat(coalescer.offer(credit(3L, "a@example.com", DigestSchedule.NONE), "t", 1, NOW.plusSeconds(20)))
+                .isEqualTo(NOW.plusSeconds(60));
+
+        assertThat(coalescer.takeDue(NOW.plusSeconds(59))).isEmpty();
+        List<NotificationCoalescer.Digest> due = coalescer.takeDue(NOW.plusSeconds(60));
+        assertThat(due).singleElement().satisfies(digest -> {
+            assertThat(digest.recipient).isEqualTo("a@example.com");
+            assertThat(digest.messages).extracting(held -> held.message.getId()).containsExactly(2L, 3L);
+        });
+        assertThat(coalescer.heldCount()).isZero();
+
+        // The window is over: the next message goes out at once again
+        assertThat(coalescer.offer(credit(4L, "a@example.com", DigestSchedule.NONE), "t", 1, NOW.plusSeconds(61))).isNull();
+    }
+
+    @Test
+    @DisplayName("should hold digest messages until the next hour or the daily digest hour")
+    void flushTime_Schedules() {
+        assertThat(coalescer.flushTime(DigestSchedule.HOURLY, NOW, NOW)).isEqualTo(LocalDateTime.of(2025, 7, 19, 19, 0));
+        assertThat(coalescer.flushTime(DigestSchedule.DAILY, NOW, NOW)).isEqualTo(LocalDateTime.of(2025, 7, 20, 8, 0));
+        assertThat(coalescer.flushTime(DigestSchedule.DAILY, NOW.withHour(6), NOW.withHour(6)))
+                .isEqualTo(LocalDateTime.of(2025, 7, 19, 8, 0));
+        // A row claimed again after its period is due straight away
+        assertThat(coalescer.flushTime(DigestSchedule.DAILY, NOW.minusDays(2), NOW)).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("should stay within its bounds and send what does not fit on its own")
+    void offer_Bounds() {
+        for (long id = 1; id <= 3; id++) {
+            assertThat(coalescer.offer(credit(id, "a@example.com", DigestSchedule.HOURLY), "t", 1, NOW)).isNotNull();
+        }
+        // Recipient buffer full: sent alone, and the buffer is flushed early
+        assertThat(coalescer.offer(credit(4L, "a@example.com", DigestSchedule.HOURLY), "t", 1, NOW)).isNull();
+        assertThat(coalescer.offer(credit(5L, "b@example.com", DigestSchedule.HOURLY), "t", 1, NOW)).isNotNull();
+        // Recipient limit reached
+        assertThat(coalescer.offer(credit(6L, "c@example.com", DigestSchedule.HOURLY), "t", 1, NOW)).isNull();
+        assertThat(coalescer.heldCount()).isEqualTo(4);
+
+        assertThat(coalescer.takeDue(NOW)).singleElement()
+                .satisfies(digest -> assertThat(digest.messages).hasSize(3));
+        assertThat(coalescer.heldCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,78 @@
+package lk.banking.notification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.NotificationType;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationOutboxImpl Unit Tests")
+public class NotificationOutboxImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @InjectMocks
+    private NotificationOutboxImpl notificationOutbox;
+
+    @Test
+    @DisplayName("should write all deliverable intents with a single multi-row insert")
+    void enqueue_WritesOneStatement() {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(2);
+
+        int written = notificationOutbox.enqueue(List.of(
+                NotificationIntent.email(NotificationType.TRANSFER_SENT, "john.doe@example.com").with("amount", new BigDecimal("100")),
+                NotificationIntent.email(NotificationType.TRANSFER_RECEIVED, "jane.doe@example.com").digest(DigestSchedule.HOURLY),
+                NotificationIntent.email(NotificationType.TRANSFER_RECEIVED, null)));
+
+        assertThat(written).isEqualTo(2);
+        verify(entityManager, times(1)).createNativeQuery(startsWith("INSERT INTO outbox (type, channel, recipient, payload"));
+        verify(query).setParameter(1, "TRANSFER_SENT");
+        verify(query).setParameter(3, "john.doe@example.com");
+        verify(query).setParameter(4, "amount=100.00");
+        verify(query).setParameter(9, null);
+        verify(query).setParameter(12, "jane.doe@example.com");
+        verify(query).setParameter(18, "HOURLY");
+    }
+
+    @Test
+    @DisplayName("should not touch the database when no intent has a recipient")
+    void enqueue_SkipsUndeliverable() {
+        assertThat(notificationOutbox.enqueue(List.of(NotificationIntent.email(NotificationType.USER_REGISTERED, " ")))).isZero();
+        assertThat(notificationOutbox.enqueue(List.of())).isZero();
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    @DisplayName("should round-trip parameters through the stored payload")
+    void payload_RoundTrips() {
+        NotificationIntent intent = NotificationIntent.email(NotificationType.PAYMENT_POSTED, "john.doe@example.com")
+                .with("description", "Rent & bills = 50%")
+                .with("account", NotificationIntent.maskAccountNumber("000000001234"));
+
+        Map<String, String> decoded = NotificationIntent.decode(intent.encodedParams());
+
+        assertThat(decoded).containsExactly(
+                entry("description", "Rent & bills = 50%"),
+                entry("account", "****1234"));
+    }
+}
@@ -0,0 +1,108 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.OutboxMessage;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("NotificationRenderer Unit Tests")
+public class NotificationRendererTest {
+
+    private static NotificationRenderer renderer;
+
+    @BeforeAll
+    static void startEngine() {
+        TemplateEngine engine = new TemplateEngine();
+        engine.start(null, null);
+        renderer = new NotificationRenderer(engine);
+    }
+
+    private static OutboxMessage message(NotificationType type, NotificationChannel channel, NotificationIntent intent) {
+        OutboxMessage message = new OutboxMessage(type, channel, intent.getRecipient(), intent.encodedParams());
+        message.setId(42L);
+        return message;
+    }
+
+    @Test
+    @DisplayName("should render the subject and body of a transfer receipt")
+    void render_TransferSent() {
+        NotificationIntent intent = NotificationIntent.email(NotificationType.TRANSFER_SENT, "john.doe@example.com")
+                .with("customerName", "John Doe")
+                .with("amount", new BigDecimal("1250"))
+                .with("fromAccount", "****0001")
+                .with("toAccount", "****0002")
+                .with("balance", new BigDecimal("8750.5"))
+                .with("timestamp", LocalDateTime.of(2025, 7, 19, 18, 10))
+                .with("reference", 7L);
+
+        RenderedNotification rendered = renderer.render(message(NotificationType.TRANSFER_SENT, NotificationChannel.EMAIL, intent));
+
+        assertThat(rendered.getOutboxId()).isEqualTo(42L);
+        assertThat(rendered.getRecipient()).isEqualTo("john.doe@example.com");
+        assertThat(rendered.getSubject()).isEqualTo("You sent LKR 1,250.00 from account ****0001");
+        assertThat(rendered.getBody())
+                .startsWith("Dear John Doe,")
+                .contains("to account ****0002 on 2025-07-19 18:10")
+                .contains("Your new balance is LKR 8,750.50.")
+                .contains("Reference: 7");
+    }
+
+    @Test
+    @DisplayName("should leave out optional parameters that are missing")
+    void render_PaymentWithoutDescription() {
+        NotificationIntent intent = NotificationIntent.email(NotificationType.PAYMENT_POSTED, "john.doe@example.com")
+                .with("customerName", "John Doe")
+                .with("transactionType", "Deposit")
+                .with("amount", new BigDecimal("50"))
+                .with("account", "****0001")
+                .with("balance", new BigDecimal("150"))
+                .with("timestamp", LocalDateTime.of(2025, 7, 19, 18, 10))
+                .with("reference", 8L);
+
+        RenderedNotification rendered = renderer.render(message(NotificationType.PAYMENT_POSTED, NotificationChannel.EMAIL, intent));
+
+        assertThat(rendered.getSubject()).isEqualTo("Deposit of LKR 50.00 on account ****0001");
+        assertThat(rendered.getBody()).contains("A deposit of LKR 50.00").doesNotContain("Description:");
+    }
+
+    @Test
+    @DisplayName("should render an SMS without a subject")
+    void render_TransferReceivedSms() {
+        NotificationIntent intent = new NotificationIntent(NotificationType.TRANSFER_RECEIVED, NotificationChannel.SMS, "0771234567")
+                .with("amount", new BigDecimal("1250"))
+                .with("fromAccount", "****0001")
+                .with("toAccount", "****0002")
+                .with("balance", new BigDecimal("300"))
+                .with("timestamp", LocalDateTime.of(2025, 7, 19, 18, 10))
+                .with("reference", 9L);
+
+        RenderedNotification rendered = renderer.render(message(NotificationType.TRANSFER_RECEIVED, NotificationChannel.SMS, intent));
+
+        assertThat(rendered.getSubject()).isNull();
+        assertThat(rendered.getBody()).isEqualTo(
+                "Nawwa Bank: LKR 1,250.00 received in ****0002 from ****0001 on 2025-07-19 18:10. Bal LKR 300.00. Ref 9");
+    }
+
+    @Test
+    @DisplayName("should fail when a required parameter or the template is missing")
+    void render_Failures() {
+        NotificationIntent incomplete = NotificationIntent.email(NotificationType.USER_REGISTERED, "john.doe@example.com")
+                .with("name", "John Doe");
+        assertThatThrownBy(() -> renderer.render(message(NotificationType.USER_REGISTERED, NotificationChannel.EMAIL, incomplete)))
+                .isInstanceOf(NotificationDeliveryException.class)
+                .hasMessageContaining("user_registered.email.ftl");
+
+        NotificationIntent sms = new NotificationIntent(NotificationType.USER_REGISTERED, NotificationChannel.SMS, "0771234567");
+        assertThatThrownBy(() -> renderer.render(message(NotificationType.USER_REGISTERED, NotificationChannel.SMS, sms)))
+                .isInstanceOf(NotificationDeliveryException.class)
+                .hasMessageContaining("user_registered.sms.ftl");
+    }
+}
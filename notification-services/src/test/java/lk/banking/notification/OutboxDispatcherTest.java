@@ -0,0 +1,258 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.OutboxMessage;
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.NotificationChannel;
+import lk.banking.core.entity.enums.NotificationType;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("OutboxDispatcher Unit Tests")
+public class OutboxDispatcherTest {
+
+    private static NotificationRenderer renderer;
+    private OutboxDispatcher dispatcher;
+    private RecordingSender emailSender;
+
+    @TempDir
+    Path notificationDir;
+
+    /** Accepts or fails messages on demand and remembers what it was given. */
+    private static final class RecordingSender implements NotificationSender {
+        final List<RenderedNotification> sent = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public boolean supports(NotificationChannel channel) {
+            return channel == NotificationChannel.EMAIL;
+        }
+
+        @Override
+        public void send(RenderedNotification notification) {
+            if (failing) {
+                throw new NotificationDeliveryException("Provider unavailable");
+            }
+            sent.add(notification);
+        }
+    }
+
+    @BeforeAll
+    static void startEngine() {
+        TemplateEngine engine = new TemplateEngine();
+        engine.start(null, null);
+        renderer = new NotificationRenderer(engine);
+    }
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher();
+        emailSender = new RecordingSender();
+        dispatcher.configure(renderer, List.of(new LocalFileSender(notificationDir), emailSender));
+    }
+
+    private static OutboxMessage welcome(long id, int attempts) {
+        NotificationIntent intent = NotificationIntent.email(NotificationType.USER_REGISTERED, "john.doe@example.com")
+                .with("name", "John Doe")
+                .with("username", "john");
+        OutboxMessage message = new OutboxMessage(intent.getType(), intent.getChannel(), intent.getRecipient(), intent.encodedParams());
+        message.setId(id);
+        message.setAttempts(attempts);
+        return message;
+    }
+
+    @Test
+    @DisplayName("should prefer a real sender over the local fallback for its channel")
+    void deliver_RoutesToRealSender() {
+        OutboxDispatcher.Results results = dispatcher.deliver("token", List.of(welcome(1L, 0), welcome(2L, 0)));
+
+        assertThat(results.sent).containsExactly(1L, 2L);
+        assertThat(results.retries).isEmpty();
+        assertThat(results.failed).isEmpty();
+        assertThat(emailSender.sent).extracting(RenderedNotification::getSubject).containsOnly("Welcome to Nawwa Banking");
+    }
+
+    @Test
+    @DisplayName("should fall back to the local file sender for channels without a provider")
+    void deliver_FallsBackToLocalFile() throws Exception {
+        dispatcher.configure(renderer, List.of(new LocalFileSender(notificationDir)));
+
+        OutboxDispatcher.Results results = dispatcher.deliver("token", List.of(welcome(3L, 0)));
+
+        assertThat(results.sent).containsExactly(3L);
+        Path file = notificationDir.resolve("notifications-" + LocalDate.now() + ".log");
+        assertThat(Files.readString(file))
+                .contains("To: john.doe@example.com")
+                .contains("Subject: Welcome to Nawwa Banking")
+                .contains("username john");
+    }
+
+    @Test
+    @DisplayName("should retry failed sends with back-off and give up after the last attempt")
+    void deliver_RetriesThenFails() {
+        emailSender.failing = true;
+        LocalDateTime before = LocalDateTime.now();
+
+        OutboxDispatcher.Results results = dispatcher.deliver("token", List.of(welcome(4L, 0), welcome(5L, OutboxDispatcher.MAX_ATTEMPTS - 1)));
+
+        assertThat(results.sent).isEmpty();
+        assertThat(results.retries).singleElement().satisfies(retry -> {
+            assertThat(retry.id).isEqualTo(4L);
+            assertThat(retry.attempts).isEqualTo(1);
+            assertThat(retry.availableAt).isAfterOrEqualTo(before.plusSeconds(OutboxDispatcher.FIRST_RETRY_SECONDS));
+            assertThat(retry.error).contains("Provider unavailable");
+        });
+        assertThat(results.failed).singleElement().satisfies(failure -> {
+            assertThat(failure.id).isEqualTo(5L);
+            assertThat(failure.attempts).isEqualTo(OutboxDispatcher.MAX_ATTEMPTS);
+        });
+    }
+
+    @Test
+    @DisplayName("should fail a message that cannot be rendered without retrying it")
+    void deliver_RenderFailureIsFinal() {
+        OutboxMessage broken = new OutboxMessage(NotificationType.TRANSFER_SENT, NotificationChannel.EMAIL, "john.doe@example.com", "");
+        broken.setId(6L);
+
+        OutboxDispatcher.Results results = dispatcher.deliver("token", List.of(broken));
+
+        assertThat(results.failed).extracting(failure -> failure.id).containsExactly(6L);
+        assertThat(results.retries).isEmpty();
+        assertThat(emailSender.sent).isEmpty();
+    }
+
+    private static OutboxMessage deposit(long id, String recipient, DigestSchedule digest) {
+        NotificationIntent intent = NotificationIntent.email(NotificationType.PAYMENT_POSTED, recipient)
+                .digest(digest)
+                .with("customerName", "Merchant")
+                .with("transactionType", "Deposit")
+                .with("amount", new BigDecimal("10"))
+                .with("account", "****0001")
+                .with("balance", new BigDecimal(String.valueOf(100 + id)))
+                .with("timestamp", LocalDateTime.of(2025, 7, 19, 18, 10))
+                .with("reference", id);
+        OutboxMessage message = new OutboxMessage(intent.getType(), intent.getChannel(), intent.getRecipient(), intent.encodedParams());
+        message.setId(id);
+        message.setDigest(intent.getDigest());
+        return message;
+    }
+
+    @Test
+    @DisplayName("should send the first credit at once and merge the rest of the window into one digest")
+    void deliver_CoalescesWithinWindow() {
+        OutboxDispatcher.Results results = dispatcher.deliver("token", List.of(
+                deposit(10L, "shop@example.com", DigestSchedule.NONE),
+                deposit(11L, "shop@example.com", DigestSchedule.NONE),
+                deposit(12L, "shop@example.com", DigestSchedule.NONE),
+                welcome(13L, 0)));
+
+        assertThat(results.sent).containsExactly(10L, 13L);
+        assertThat(results.held).extracting(held -> held.id).containsExactly(11L, 12L);
+        assertThat(results.held).allSatisfy(held -> assertThat(held.availableAt).isAfter(LocalDateTime.now()));
+        assertThat(emailSender.sent).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("should send due held messages as one digest and report them under their claim")
+    void deliverDigests_SendsOneMessagePerRecipient() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(60, 8, 100, 100, 1000);
+        dispatcher.configure(renderer, gateway(emailSender, new TokenBucket(100, 100), 1000), coalescer);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 20; id < 25; id++) {
+            OutboxMessage message = deposit(id, "shop@example.com", DigestSchedule.HOURLY);
+            assertThat(coalescer.offer(message, id < 22 ? "first" : "second", 1, now)).isAfter(now);
+        }
+
+        Map<String, OutboxDispatcher.Results> byClaim = dispatcher.deliverDigests(coalescer.takeDue(now.plusHours(1)));
+
+        assertThat(emailSender.sent).singleElement().satisfies(digest -> {
+            assertThat(digest.getType()).isEqualTo(NotificationType.DIGEST);
+            assertThat(digest.getSubject()).isEqualTo("5 new transactions on your accounts");
+            assertThat(digest.getBody()).contains("in the past hour").contains("Ref 24");
+        });
+        assertThat(byClaim.get("first").sent).containsExactly(20L, 21L);
+        assertThat(byClaim.get("second").sent).containsExactly(22L, 23L, 24L);
+    }
+
+    @Test
+    @DisplayName("should put every message of a failed digest up for retry")
+    void deliverDigests_RetriesOnFailure() {
+        NotificationCoalescer coalescer = new NotificationCoalescer(60, 8, 100, 100, 1000);
+        dispatcher.configure(renderer, gateway(emailSender, new TokenBucket(100, 100), 1000), coalescer);
+        emailSender.failing = true;
+        LocalDateTime now = LocalDateTime.now();
+        coalescer.offer(deposit(30L, "shop@example.com", DigestSchedule.DAILY), "token", 1, now);
+        coalescer.offer(deposit(31L, "shop@example.com", DigestSchedule.DAILY), "token", OutboxDispatcher.MAX_ATTEMPTS, now);
+
+        OutboxDispatcher.Results results = dispatcher.deliverDigests(coalescer.takeDue(now.plusDays(1))).get("token");
+
+        assertThat(results.retries).extracting(retry -> retry.id).containsExactly(30L);
+        assertThat(results.failed).extracting(failure -> failure.id).containsExactly(31L);
+    }
+
+    private static Map<NotificationChannel, ChannelGateway> gateway(NotificationSender sender, TokenBucket rateLimit, long timeoutMillis) {
+        return Map.of(NotificationChannel.EMAIL, new ChannelGateway(NotificationChannel.EMAIL, sender, rateLimit,
+                new CircuitBreaker(5, 30_000), 2, 10, timeoutMillis, Executors.defaultThreadFactory()));
+    }
+
+    @Test
+    @DisplayName("should not wait on a slow provider longer than the send timeout")
+    void deliver_SlowProviderTimesOut() {
+        StubSender slow = new StubSender();
+        slow.latencyMillis = 3000;
+        dispatcher.configure(renderer, gateway(slow, new TokenBucket(100, 100), 200), new NotificationCoalescer(0, 8, 1, 1, 1));
+
+        long started = System.nanoTime();
+        OutboxDispatcher.Results results = dispatcher.deliver("token", List.of(welcome(40L, 0), welcome(41L, 0)));
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(2000);
+        assertThat(results.sent).isEmpty();
+        assertThat(results.retries).extracting(retry -> retry.attempts).containsExactly(1, 1);
+        assertThat(results.retries).allSatisfy(retry -> assertThat(retry.error).contains("TimeoutException"));
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("should put messages over the rate limit back without using an attempt and stop the run")
+    void deliver_RateLimitDefers() {
+        StubSender provider = new StubSender();
+        dispatcher.configure(renderer, gateway(provider, new TokenBucket(0.001, 1), 1000), new NotificationCoalescer(0, 8, 1, 1, 1));
+
+        OutboxDispatcher.Results results = dispatcher.deliver("token", List.of(welcome(50L, 0), welcome(51L, 2)));
+
+        assertThat(results.sent).containsExactly(50L);
+        assertThat(results.retries).singleElement().satisfies(retry -> {
+            assertThat(retry.id).isEqualTo(51L);
+            assertThat(retry.attempts).isEqualTo(2);
+            assertThat(retry.error).contains("Rate limit");
+        });
+        assertThat(results.throttled).isTrue();
+        assertThat(provider.calls.get()).isEqualTo(1);
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("should double the retry delay per attempt up to an hour")
+    void retryDelaySeconds_Backoff() {
+        assertThat(OutboxDispatcher.retryDelaySeconds(1)).isEqualTo(30);
+        assertThat(OutboxDispatcher.retryDelaySeconds(2)).isEqualTo(60);
+        assertThat(OutboxDispatcher.retryDelaySeconds(4)).isEqualTo(240);
+        assertThat(OutboxDispatcher.retryDelaySeconds(12)).isEqualTo(OutboxDispatcher.MAX_RETRY_SECONDS);
+    }
+}
@@ -0,0 +1,38 @@
+package lk.banking.notification;
+
+import lk.banking.core.entity.enums.NotificationChannel;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** A provider stand-in for tests: slow, failing or both, on demand. */
+class StubSender implements NotificationSender {
+
+    final List<RenderedNotification> sent = new CopyOnWriteArrayList<>();
+    final AtomicInteger calls = new AtomicInteger();
+    volatile long latencyMillis;
+    volatile boolean failing;
+
+    @Override
+    public boolean supports(NotificationChannel channel) {
+        return true;
+    }
+
+    @Override
+    public void send(RenderedNotification notification) {
+        calls.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NotificationDeliveryException("Interrupted");
+            }
+        }
+        if (failing) {
+            throw new NotificationDeliveryException("Provider unavailable");
+        }
+        sent.add(notification);
+    }
+}
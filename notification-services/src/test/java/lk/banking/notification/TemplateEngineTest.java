@@ -0,0 +1,94 @@
+package lk.banking.notification;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TemplateEngine Unit Tests")
+public class TemplateEngineTest {
+
+    private final TemplateEngine engine = new TemplateEngine();
+
+    @TempDir
+    Path templateDir;
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private static Map<String, Object> statement() {
+        return Map.of(
+                "customerName", "John Doe", "customerEmail", "john.doe@example.com",
+                "accountNumber", "ACC0001", "accountType", "SAVINGS",
+                "periodStart", "2025-06-01", "periodEnd", "2025-07-01", "closingDate", "2025-07-01",
+                "openingBalance", "100.00", "closingBalance", "150.00",
+                "transactions", List.of(Map.of("timestamp", "2025-06-03 10:00", "type", "DEPOSIT",
+                        "amount", "50.00", "status", "COMPLETED", "description", "Salary")));
+    }
+
+    @Test
+    @DisplayName("should compile every bundled template at startup")
+    void start_PrecompilesBundledTemplates() {
+        engine.start(null, null);
+
+        // 5 email + 4 SMS notifications (including the digests) and the statement
+        assertThat(engine.compiledTemplates()).isEqualTo(10);
+        assertThat(TemplateEngine.knownTemplates()).contains(TemplateEngine.STATEMENT_TEMPLATE);
+    }
+
+    @Test
+    @DisplayName("should render into pooled builders and hand them back")
+    void render_ReusesBuilders() {
+        engine.start(null, null);
+
+        String first = engine.render(TemplateEngine.STATEMENT_TEMPLATE, statement());
+        String second = engine.render(TemplateEngine.STATEMENT_TEMPLATE, statement());
+
+        assertThat(first).isEqualTo(second)
+                .contains("Monthly Statement for John Doe")
+                .contains("[2025-06-03 10:00] DEPOSIT LKR 50.00 (COMPLETED) | Salary")
+                .contains("Closing Balance (2025-07-01): LKR 150.00");
+        assertThat(engine.pooledBuilders()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should fail with TemplateRenderingException for unknown templates")
+    void render_UnknownTemplate() {
+        engine.start(null, null);
+
+        assertThatThrownBy(() -> engine.render("notifications/missing.email.ftl", Map.of()))
+                .isInstanceOf(TemplateRenderingException.class)
+                .hasMessageContaining("missing.email.ftl");
+        assertThat(engine.pooledBuilders()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should prefer override templates and pick up edits to them")
+    void overrideDirectory_HotReload() throws Exception {
+        Path statements = Files.createDirectories(templateDir.resolve("statements"));
+        Path statement = statements.resolve("monthly_statement.ftl");
+        Files.writeString(statement, "v1 ${customerName}");
+        engine.start(templateDir, runnable -> new Thread(runnable));
+
+        assertThat(engine.render(TemplateEngine.STATEMENT_TEMPLATE, statement())).isEqualTo("v1 John Doe");
+        assertThat(engine.compiledTemplates()).isEqualTo(10);
+
+        Files.writeString(statement, "v2 ${customerName}");
+        long deadline = System.currentTimeMillis() + 30_000;
+        String rendered = engine.render(TemplateEngine.STATEMENT_TEMPLATE, statement());
+        while (!rendered.startsWith("v2") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            rendered = engine.render(TemplateEngine.STATEMENT_TEMPLATE, statement());
+        }
+        assertThat(rendered).isEqualTo("v2 John Doe");
+    }
+}
@@ -4,14 +4,17 @@ import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.entity.User;
 import lk.banking.core.exception.UnauthorizedAccessException; // Import for login failures
 import lk.banking.core.exception.UserNotFoundException;       // Import for user not found cases
 import lk.banking.core.exception.ValidationException;         // Import for password policy validation
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
 
 import java.util.logging.Logger;
 
 @Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class AuthenticationServiceImpl implements AuthenticationService {
 
     private static final Logger LOGGER = Logger.getLogger(AuthenticationServiceImpl.class.getName());
@@ -0,0 +1,29 @@
+package lk.banking.security;
+
+import jakarta.ejb.Local;
+import lk.banking.core.dto.OnboardingRecordDto;
+import lk.banking.core.dto.OnboardingReportDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+@Local
+public interface BulkOnboardingService {
+    /**
+     * Onboards customers from CSV (see OnboardingCsvReader for the columns): a CUSTOMER user,
+     * customer profile and optionally one account per line. Valid lines are committed in chunks;
+     * invalid or conflicting lines are skipped and reported.
+     * @param csv The CSV content, including the header line.
+     * @return Counts of created customers and accounts, and the failure reason per rejected line.
+     * @throws IOException if the CSV cannot be read.
+     * @throws lk.banking.core.exception.ValidationException if the header is missing or lacks a required column.
+     * @throws lk.banking.core.exception.RoleNotFoundException if the CUSTOMER role does not exist.
+     */
+    OnboardingReportDto onboardCsv(Reader csv) throws IOException;
+
+    /**
+     * Onboards already parsed records, with the same validation and reporting as {@link #onboardCsv}.
+     */
+    OnboardingReportDto onboard(List<OnboardingRecordDto> records);
+}
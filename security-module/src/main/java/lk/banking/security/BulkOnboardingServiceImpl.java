@@ -0,0 +1,261 @@
+package lk.banking.security;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.interceptor.Interceptors;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.NoResultException;
+import jakarta.persistence.PersistenceContext;
+import lk.banking.core.dto.OnboardingRecordDto;
+import lk.banking.core.dto.OnboardingReportDto;
+import lk.banking.core.entity.Role;
+import lk.banking.core.entity.enums.UserRole;
+import lk.banking.core.exception.RoleNotFoundException;
+import lk.banking.core.util.ValidationUtils;
+import lk.banking.services.AccountNumberAllocator;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk counterpart of UserManagementServiceImpl.register plus AccountServiceImpl.createAccount.
+ * Per chunk of {@value #CHUNK_SIZE} lines it runs three set-based uniqueness queries instead of three
+ * per customer, hashes passwords in parallel on the managed executor, takes account numbers from the
+ * in-memory block of AccountNumberAllocator and writes everything with BulkOnboardingWriter.
+ * If a chunk still fails (e.g. a concurrent registration took an email after the check), its lines
+ * are retried one by one so only the offending line is reported.
+ */
+@Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class BulkOnboardingServiceImpl implements BulkOnboardingService {
+
+    private static final Logger LOGGER = Logger.getLogger(BulkOnboardingServiceImpl.class.getName());
+
+    static final int CHUNK_SIZE = 1000;
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @EJB
+    private BulkOnboardingWriter writer;
+
+    @EJB
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    @Override
+    public OnboardingReportDto onboardCsv(Reader csv) throws IOException {
+        OnboardingReportDto report = new OnboardingReportDto();
+        List<OnboardingRecordDto> records = OnboardingCsvReader.read(csv, report);
+        process(records, report);
+        return report;
+    }
+
+    @Override
+    public OnboardingReportDto onboard(List<OnboardingRecordDto> records) {
+        OnboardingReportDto report = new OnboardingReportDto();
+        report.addRecords(records.size());
+        process(records, report);
+        return report;
+    }
+
+    private void process(List<OnboardingRecordDto> records, OnboardingReportDto report) {
+        LOGGER.info("BulkOnboardingService: Onboarding " + records.size() + " records.");
+        Long roleId = customerRoleId();
+        Map<String, Integer> seenUsernames = new HashMap<>();
+        Map<String, Integer> seenEmails = new HashMap<>();
+        for (int from = 0; from < records.size(); from += CHUNK_SIZE) {
+            List<OnboardingRecordDto> chunk = records.subList(from, Math.min(from + CHUNK_SIZE, records.size()));
+            List<OnboardingRecordDto> valid = new ArrayList<>(chunk.size());
+            for (OnboardingRecordDto record : chunk) {
+                String error = validate(record, seenUsernames, seenEmails);
+                if (error != null) {
+                    report.addFailure(record.getLineNumber(), error);
+                } else {
+                    valid.add(record);
+                }
+            }
+            valid = rejectExisting(valid, report);
+            if (!valid.isEmpty()) {
+                write(prepare(valid), roleId, report);
+            }
+        }
+        LOGGER.info("BulkOnboardingService: Finished. " + report);
+    }
+
+    /**
+     * Field checks as in register(), plus duplicates within the file. Returns the error or null.
+     */
+    private static String validate(OnboardingRecordDto r, Map<String, Integer> seenUsernames, Map<String, Integer> seenEmails) {
+        if (r.getUsername() == null || r.getPassword() == null || r.getPassword().isEmpty() || r.getEmail() == null
+                || r.getName() == null || r.getAddress() == null || r.getPhoneNumber() == null) {
+            return "All registration fields (username, password, email, name, address, phone number) are required.";
+        }
+        if (!PasswordService.isPasswordStrong(r.getPassword())) {
+            return "Password does not meet complexity requirements.";
+        }
+        if (!ValidationUtils.isValidEmail(r.getEmail())) {
+            return "Invalid email format.";
+        }
+        if (!ValidationUtils.isValidPhoneNumber(r.getPhoneNumber())) {
+            return "Invalid phone number format. Must be 10-15 digits.";
+        }
+        if (r.getAccountType() != null && (r.getOpeningBalance() == null || r.getOpeningBalance().compareTo(BigDecimal.ZERO) < 0)) {
+            return "Initial balance must be a positive or zero amount.";
+        }
+        // The database collation is case-insensitive, so duplicates are too.
+        Integer firstUsername = seenUsernames.putIfAbsent(r.getUsername().toLowerCase(Locale.ROOT), r.getLineNumber());
+        if (firstUsername != null) {
+            return "Username '" + r.getUsername() + "' is already used on line " + firstUsername + ".";
+        }
+        Integer firstEmail = seenEmails.putIfAbsent(r.getEmail().toLowerCase(Locale.ROOT), r.getLineNumber());
+        if (firstEmail != null) {
+            return "Email '" + r.getEmail() + "' is already used on line " + firstEmail + ".";
+        }
+        return null;
+    }
+
+    /**
+     * Set-based version of register()'s three uniqueness SELECTs.
+     */
+    private List<OnboardingRecordDto> rejectExisting(List<OnboardingRecordDto> records, OnboardingReportDto report) {
+        if (records.isEmpty()) {
+            return records;
+        }
+        List<String> usernames = records.stream().map(OnboardingRecordDto::getUsername).collect(Collectors.toList());
+        List<String> emails = records.stream().map(OnboardingRecordDto::getEmail).collect(Collectors.toList());
+        Set<String> takenUsernames = lowerCase(em.createQuery(
+                "SELECT u.username FROM User u WHERE u.username IN :usernames", String.class)
+                .setParameter("usernames", usernames).getResultList());
+        Set<String> userEmails = lowerCase(em.createQuery(
+                "SELECT u.email FROM User u WHERE u.email IN :emails", String.class)
+                .setParameter("emails", emails).getResultList());
+        Set<String> customerEmails = lowerCase(em.createQuery(
+                "SELECT c.email FROM Customer c WHERE c.email IN :emails", String.class)
+                .setParameter("emails", emails).getResultList());
+
+        List<OnboardingRecordDto> accepted = new ArrayList<>(records.size());
+        for (OnboardingRecordDto r : records) {
+            String email = r.getEmail().toLowerCase(Locale.ROOT);
+            if (takenUsernames.contains(r.getUsername().toLowerCase(Locale.ROOT))) {
+                report.addFailure(r.getLineNumber(), "Username '" + r.getUsername() + "' already exists.");
+            } else if (userEmails.contains(email)) {
+                report.addFailure(r.getLineNumber(), "Email '" + r.getEmail() + "' is already registered with a user account.");
+            } else if (customerEmails.contains(email)) {
+                report.addFailure(r.getLineNumber(), "Email '" + r.getEmail() + "' is already registered with a customer profile.");
+            } else {
+                accepted.add(r);
+            }
+        }
+        return accepted;
+    }
+
+    private List<OnboardingRow> prepare(List<OnboardingRecordDto> records) {
+        List<String> hashes = hashPasswords(records);
+        List<OnboardingRow> rows = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            OnboardingRecordDto r = records.get(i);
+            boolean withAccount = r.getAccountType() != null;
+            rows.add(new OnboardingRow(r.getLineNumber(), r.getUsername(), hashes.get(i), r.getEmail(), r.getName(),
+                    r.getAddress(), r.getPhoneNumber(),
+                    withAccount ? accountNumberAllocator.nextAccountNumber() : null,
+                    withAccount ? r.getAccountType().name() : null,
+                    r.getOpeningBalance()));
+        }
+        return rows;
+    }
+
+    /**
+     * BCrypt dominates onboarding cost, so hashes are computed concurrently on the container's
+     * managed executor (falls back to a parallel stream where none is injected).
+     */
+    private List<String> hashPasswords(List<OnboardingRecordDto> records) {
+        if (executor == null) {
+            return records.parallelStream().map(r -> PasswordService.hashPassword(r.getPassword())).collect(Collectors.toList());
+        }
+        List<Future<String>> futures = new ArrayList<>(records.size());
+        for (OnboardingRecordDto r : records) {
+            String password = r.getPassword();
+            futures.add(executor.submit(() -> PasswordService.hashPassword(password)));
+        }
+        List<String> hashes = new ArrayList<>(records.size());
+        try {
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Interrupted while hashing onboarding passwords.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+        return hashes;
+    }
+
+    private void write(List<OnboardingRow> rows, Long roleId, OnboardingReportDto report) {
+        try {
+            int accounts = writer.writeChunk(rows, roleId);
+            report.addCreated(rows.size(), accounts);
+            return;
+        } catch (RuntimeException e) {
+            LOGGER.warning("BulkOnboardingService: Chunk of " + rows.size() + " failed (" + e.getMessage() + "), retrying line by line.");
+        }
+        for (OnboardingRow row : rows) {
+            try {
+                int accounts = writer.writeChunk(List.of(row), roleId);
+                report.addCreated(1, accounts);
+            } catch (RuntimeException e) {
+                report.addFailure(row.lineNumber, "Could not be saved: " + rootMessage(e));
+            }
+        }
+    }
+
+    private Long customerRoleId() {
+        try {
+            return em.createQuery("SELECT r FROM Role r WHERE r.name = :name", Role.class)
+                    .setParameter("name", UserRole.CUSTOMER)
+                    .getSingleResult()
+                    .getId();
+        } catch (NoResultException e) {
+            LOGGER.severe("Role 'CUSTOMER' not found in DB. Please ensure roles are pre-populated.");
+            throw new RoleNotFoundException("Role 'CUSTOMER' not found in the system. Roles must be pre-configured.");
+        }
+    }
+
+    private static Set<String> lowerCase(List<String> values) {
+        Set<String> set = new HashSet<>(values.size() * 2);
+        for (String value : values) {
+            set.add(value.toLowerCase(Locale.ROOT));
+        }
+        return set;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,76 @@
+package lk.banking.security;
+
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lk.banking.core.util.MultiRowInsert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts one chunk of onboarding rows with a handful of set-based statements: multi-row INSERTs
+ * for users and customers, one SELECT each to fetch their generated ids, then multi-row INSERTs for
+ * role links and accounts. Each chunk commits on its own so a bad chunk cannot undo earlier ones.
+ */
+@Stateless
+public class BulkOnboardingWriter {
+
+    static final List<String> USER_COLUMNS = List.of("username", "password", "email", "phone", "isActive");
+    static final List<String> CUSTOMER_COLUMNS = List.of("name", "email", "address", "phoneNumber");
+    static final List<String> USER_ROLE_COLUMNS = List.of("user_id", "role_id");
+    static final List<String> ACCOUNT_COLUMNS = List.of("accountNumber", "type", "balance", "customer_id", "isActive");
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    /**
+     * @return number of accounts created; every row gets a user, a customer and a role link.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public int writeChunk(List<OnboardingRow> rows, Long customerRoleId) {
+        List<Object[]> users = new ArrayList<>(rows.size());
+        List<Object[]> customers = new ArrayList<>(rows.size());
+        List<String> usernames = new ArrayList<>(rows.size());
+        List<String> emails = new ArrayList<>(rows.size());
+        for (OnboardingRow row : rows) {
+            users.add(new Object[]{row.username, row.passwordHash, row.email, row.phoneNumber, Boolean.TRUE});
+            customers.add(new Object[]{row.name, row.email, row.address, row.phoneNumber});
+            usernames.add(row.username);
+            emails.add(row.email);
+        }
+        MultiRowInsert.execute(em, "users", USER_COLUMNS, users);
+        MultiRowInsert.execute(em, "customers", CUSTOMER_COLUMNS, customers);
+
+        List<Object[]> userRoles = new ArrayList<>(rows.size());
+        for (Long userId : idsBy("SELECT u.id, u.username FROM User u WHERE u.username IN :keys", usernames).values()) {
+            userRoles.add(new Object[]{userId, customerRoleId});
+        }
+        MultiRowInsert.execute(em, "user_roles", USER_ROLE_COLUMNS, userRoles);
+
+        Map<String, Long> customerIds = idsBy("SELECT c.id, c.email FROM Customer c WHERE c.email IN :keys", emails);
+        List<Object[]> accounts = new ArrayList<>();
+        for (OnboardingRow row : rows) {
+            if (row.accountNumber != null) {
+                accounts.add(new Object[]{row.accountNumber, row.accountType, row.openingBalance,
+                        customerIds.get(row.email), Boolean.TRUE});
+            }
+        }
+        if (!accounts.isEmpty()) {
+            MultiRowInsert.execute(em, "accounts", ACCOUNT_COLUMNS, accounts);
+        }
+        return accounts.size();
+    }
+
+    private Map<String, Long> idsBy(String jpql, List<String> keys) {
+        Map<String, Long> ids = new HashMap<>(keys.size() * 2);
+        for (Object[] row : em.createQuery(jpql, Object[].class).setParameter("keys", keys).getResultList()) {
+            ids.put((String) row[1], (Long) row[0]);
+        }
+        return ids;
+    }
+}
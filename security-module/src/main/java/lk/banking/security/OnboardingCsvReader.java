@@ -0,0 +1,136 @@
+package lk.banking.security;
+
+import lk.banking.core.dto.OnboardingRecordDto;
+import lk.banking.core.dto.OnboardingReportDto;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses bulk onboarding CSV. The first line is a header naming the columns in any order:
+ * username, password, email, name, address, phoneNumber (required) and accountType,
+ * openingBalance (optional; a blank accountType means no account). Fields may be double-quoted,
+ * with "" for a literal quote. Malformed lines go to the report and are skipped.
+ */
+class OnboardingCsvReader {
+
+    static final List<String> REQUIRED_COLUMNS = List.of("username", "password", "email", "name", "address", "phoneNumber");
+
+    private OnboardingCsvReader() {}
+
+    static List<OnboardingRecordDto> read(Reader source, OnboardingReportDto report) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        List<OnboardingRecordDto> records = new ArrayList<>();
+        Map<String, Integer> columns = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (columns == null) {
+                columns = header(split(line));
+                continue;
+            }
+            report.addRecords(1);
+            try {
+                records.add(toRecord(lineNumber, split(line), columns));
+            } catch (ValidationException e) {
+                report.addFailure(lineNumber, e.getMessage());
+            }
+        }
+        if (columns == null) {
+            throw new ValidationException("The onboarding file is empty.");
+        }
+        return records;
+    }
+
+    private static Map<String, Integer> header(List<String> cells) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            columns.put(cells.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required.toLowerCase(Locale.ROOT))) {
+                throw new ValidationException("The onboarding file header is missing the '" + required + "' column.");
+            }
+        }
+        return columns;
+    }
+
+    private static OnboardingRecordDto toRecord(int lineNumber, List<String> cells, Map<String, Integer> columns) {
+        String accountTypeValue = cell(cells, columns, "accountType");
+        String balanceValue = cell(cells, columns, "openingBalance");
+        AccountType accountType = null;
+        BigDecimal openingBalance = null;
+        if (accountTypeValue != null) {
+            try {
+                accountType = AccountType.valueOf(accountTypeValue.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unknown account type '" + accountTypeValue + "'.");
+            }
+            try {
+                openingBalance = balanceValue != null ? new BigDecimal(balanceValue) : BigDecimal.ZERO;
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Invalid opening balance '" + balanceValue + "'.");
+            }
+        }
+        return new OnboardingRecordDto(lineNumber,
+                cell(cells, columns, "username"), rawCell(cells, columns, "password"), cell(cells, columns, "email"),
+                cell(cells, columns, "name"), cell(cells, columns, "address"), cell(cells, columns, "phoneNumber"),
+                accountType, openingBalance);
+    }
+
+    /** Trimmed value, or null when the column is absent or blank. */
+    private static String cell(List<String> cells, Map<String, Integer> columns, String name) {
+        String value = rawCell(cells, columns, name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /** Passwords are taken verbatim; surrounding spaces may be part of them. */
+    private static String rawCell(List<String> cells, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name.toLowerCase(Locale.ROOT));
+        return index == null || index >= cells.size() ? null : cells.get(index);
+    }
+
+    static List<String> split(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ValidationException("Unterminated quoted field.");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
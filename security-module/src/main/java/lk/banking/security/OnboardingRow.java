@@ -0,0 +1,33 @@
+package lk.banking.security;
+
+import java.math.BigDecimal;
+
+/**
+ * A validated onboarding line ready to insert: password already hashed and account number assigned.
+ */
+class OnboardingRow {
+    final int lineNumber;
+    final String username;
+    final String passwordHash;
+    final String email;
+    final String name;
+    final String address;
+    final String phoneNumber;
+    final String accountNumber; // null = no account
+    final String accountType;
+    final BigDecimal openingBalance;
+
+    OnboardingRow(int lineNumber, String username, String passwordHash, String email, String name, String address,
+                  String phoneNumber, String accountNumber, String accountType, BigDecimal openingBalance) {
+        this.lineNumber = lineNumber;
+        this.username = username;
+        this.passwordHash = passwordHash;
+        this.email = email;
+        this.name = name;
+        this.address = address;
+        this.phoneNumber = phoneNumber;
+        this.accountNumber = accountNumber;
+        this.accountType = accountType;
+        this.openingBalance = openingBalance;
+    }
+}
@@ -1,25 +1,32 @@
 package lk.banking.security;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.NonUniqueResultException;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.entity.Customer;
 import lk.banking.core.entity.Role;
 import lk.banking.core.entity.User;
+import lk.banking.core.entity.enums.NotificationType;
 import lk.banking.core.entity.enums.UserRole;
 import lk.banking.core.exception.ResourceConflictException;
 import lk.banking.core.exception.RoleNotFoundException;
 import lk.banking.core.exception.UserNotFoundException;
 import lk.banking.core.exception.ValidationException;
 import lk.banking.core.util.ValidationUtils;
+import lk.banking.notification.NotificationIntent;
+import lk.banking.notification.NotificationOutbox;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
 
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Logger;
 
 @Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class UserManagementServiceImpl implements UserManagementService {
 
     private static final Logger LOGGER = Logger.getLogger(UserManagementServiceImpl.class.getName());
@@ -27,6 +34,9 @@ public class UserManagementServiceImpl implements UserManagementService {
     @PersistenceContext(unitName = "bankingPU")
     private EntityManager em;
 
+    @EJB
+    private NotificationOutbox notificationOutbox;
+
     @Override
     public User register(String username, String password, String email, String name, String address, String phoneNumber, UserRole role) {
         LOGGER.info("Attempting to register new user: " + username + " with email: " + email);
@@ -101,6 +111,11 @@ public class UserManagementServiceImpl implements UserManagementService {
             LOGGER.info("User " + username + " registered with role " + role.name() + ". No customer profile created.");
         }
 
+        // Stored with this transaction, delivered by the outbox dispatcher after it commits
+        notificationOutbox.enqueue(List.of(NotificationIntent.email(NotificationType.USER_REGISTERED, email)
+                .with("name", name)
+                .with("username", username)));
+
         LOGGER.info("User " + username + " registered successfully.");
         return user;
     }
@@ -0,0 +1,214 @@
+package lk.banking.security;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.NoResultException;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
+import lk.banking.core.dto.OnboardingReportDto;
+import lk.banking.core.entity.Role;
+import lk.banking.core.entity.enums.UserRole;
+import lk.banking.core.exception.RoleNotFoundException;
+import lk.banking.core.exception.ValidationException;
+import lk.banking.services.AccountNumberAllocator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkOnboardingServiceImpl Unit Tests")
+public class BulkOnboardingServiceImplTest {
+
+    private static final String HEADER = "username,password,email,name,address,phoneNumber,accountType,openingBalance\n";
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private BulkOnboardingWriter writer;
+
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private TypedQuery<Role> mockRoleQuery;
+
+    @Mock
+    private TypedQuery<String> mockUsernameQuery;
+
+    @Mock
+    private TypedQuery<String> mockUserEmailQuery;
+
+    @Mock
+    private TypedQuery<String> mockCustomerEmailQuery;
+
+    @InjectMocks
+    private BulkOnboardingServiceImpl bulkOnboardingService;
+
+    @BeforeEach
+    void setUp() {
+        Role customerRole = new Role(UserRole.CUSTOMER);
+        customerRole.setId(1L);
+        lenient().when(entityManager.createQuery(anyString(), eq(Role.class))).thenReturn(mockRoleQuery);
+        lenient().when(mockRoleQuery.setParameter(anyString(), any())).thenReturn(mockRoleQuery);
+        lenient().when(mockRoleQuery.getSingleResult()).thenReturn(customerRole);
+
+        lenient().when(entityManager.createQuery(startsWith("SELECT u.username"), eq(String.class))).thenReturn(mockUsernameQuery);
+        lenient().when(entityManager.createQuery(startsWith("SELECT u.email"), eq(String.class))).thenReturn(mockUserEmailQuery);
+        lenient().when(entityManager.createQuery(startsWith("SELECT c.email"), eq(String.class))).thenReturn(mockCustomerEmailQuery);
+        for (TypedQuery<String> query : List.of(mockUsernameQuery, mockUserEmailQuery, mockCustomerEmailQuery)) {
+            lenient().when(query.setParameter(anyString(), any())).thenReturn(query);
+            lenient().when(query.getResultList()).thenReturn(Collections.emptyList());
+        }
+        lenient().when(accountNumberAllocator.nextAccountNumber()).thenReturn("4821730596182", "4821730596190");
+    }
+
+    private static String line(String username, String email, String accountType, String balance) {
+        return username + ",StrongPassword1!," + email + ",\"Doe, Jane\",\"12 Main St, Colombo\",0771234567,"
+                + accountType + "," + balance + "\n";
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OnboardingRow> capturedRows() {
+        ArgumentCaptor<List<OnboardingRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(writer).writeChunk(captor.capture(), eq(1L));
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("should check uniqueness with one query per key set and write valid lines in one chunk")
+    void onboardCsv_Success() throws Exception {
+        when(writer.writeChunk(anyList(), eq(1L))).thenReturn(1);
+        String csv = HEADER + line("jane", "jane@example.com", "SAVINGS", "250.00") + line("john", "john@example.com", "", "");
+
+        OnboardingReportDto report = bulkOnboardingService.onboardCsv(new StringReader(csv));
+
+        assertThat(report.getTotalRecords()).isEqualTo(2);
+        assertThat(report.getCustomersCreated()).isEqualTo(2);
+        assertThat(report.getAccountsCreated()).isEqualTo(1);
+        assertThat(report.getFailures()).isEmpty();
+
+        List<OnboardingRow> rows = capturedRows();
+        assertThat(rows).hasSize(2);
+        OnboardingRow jane = rows.get(0);
+        assertThat(jane.lineNumber).isEqualTo(2);
+        assertThat(jane.name).isEqualTo("Doe, Jane");
+        assertThat(jane.address).isEqualTo("12 Main St, Colombo");
+        assertThat(jane.accountNumber).isEqualTo("4821730596182");
+        assertThat(jane.accountType).isEqualTo("SAVINGS");
+        assertThat(jane.openingBalance).isEqualByComparingTo(new BigDecimal("250.00"));
+        assertThat(PasswordService.verifyPassword("StrongPassword1!", jane.passwordHash)).isTrue();
+        assertThat(rows.get(1).accountNumber).isNull();
+
+        verify(entityManager, times(1)).createQuery(startsWith("SELECT u.username"), eq(String.class));
+        verify(entityManager, times(1)).createQuery(startsWith("SELECT u.email"), eq(String.class));
+        verify(entityManager, times(1)).createQuery(startsWith("SELECT c.email"), eq(String.class));
+        verify(accountNumberAllocator, times(1)).nextAccountNumber();
+    }
+
+    @Test
+    @DisplayName("should report invalid fields and duplicates within the file per line")
+    void onboardCsv_ReportsInvalidAndDuplicateLines() throws Exception {
+        when(writer.writeChunk(anyList(), eq(1L))).thenReturn(0);
+        String csv = HEADER
+                + line("jane", "jane@example.com", "", "")
+                + line("jane2", "JANE@example.com", "", "")
+                + "weak,password,weak@example.com,Weak,Somewhere,0771234567,,\n"
+                + line("bad", "bad@example.com", "GOLD", "1.00")
+                + line("neg", "neg@example.com", "SAVINGS", "-5");
+
+        OnboardingReportDto report = bulkOnboardingService.onboardCsv(new StringReader(csv));
+
+        assertThat(report.getTotalRecords()).isEqualTo(5);
+        assertThat(report.getCustomersCreated()).isEqualTo(1);
+        assertThat(report.getFailures()).extracting(OnboardingReportDto.LineFailure::getLineNumber).containsExactly(3, 4, 5, 6);
+        assertThat(report.getFailures().get(0).getMessage()).contains("already used on line 2");
+        assertThat(report.getFailures().get(1).getMessage()).contains("complexity");
+        assertThat(report.getFailures().get(2).getMessage()).contains("Unknown account type");
+        assertThat(report.getFailures().get(3).getMessage()).contains("Initial balance");
+        assertThat(capturedRows()).extracting(r -> r.username).containsExactly("jane");
+    }
+
+    @Test
+    @DisplayName("should reject lines whose username or email already exist in the database")
+    void onboardCsv_RejectsExistingUsersSetBased() throws Exception {
+        when(mockUsernameQuery.getResultList()).thenReturn(List.of("Taken"));
+        when(mockCustomerEmailQuery.getResultList()).thenReturn(List.of("customer@example.com"));
+        when(writer.writeChunk(anyList(), eq(1L))).thenReturn(0);
+        String csv = HEADER
+                + line("taken", "taken@example.com", "", "")
+                + line("profile", "customer@example.com", "", "")
+                + line("fresh", "fresh@example.com", "", "");
+
+        OnboardingReportDto report = bulkOnboardingService.onboardCsv(new StringReader(csv));
+
+        assertThat(report.getCustomersCreated()).isEqualTo(1);
+        assertThat(report.getFailures()).hasSize(2);
+        assertThat(report.getFailures().get(0).getMessage()).isEqualTo("Username 'taken' already exists.");
+        assertThat(report.getFailures().get(1).getMessage()).contains("customer profile");
+        assertThat(capturedRows()).extracting(r -> r.username).containsExactly("fresh");
+    }
+
+    @Test
+    @DisplayName("should retry a failed chunk line by line and report only the failing line")
+    @SuppressWarnings("unchecked")
+    void onboardCsv_ChunkFailureFallsBackToSingleLines() throws Exception {
+        when(writer.writeChunk(anyList(), eq(1L))).thenAnswer(invocation -> {
+            List<OnboardingRow> rows = invocation.getArgument(0);
+            if (rows.size() > 1 || rows.get(0).username.equals("racer")) {
+                throw new PersistenceException("Duplicate entry 'racer@example.com' for key 'uk_users_email'");
+            }
+            return 0;
+        });
+        String csv = HEADER + line("ok", "ok@example.com", "", "") + line("racer", "racer@example.com", "", "");
+
+        OnboardingReportDto report = bulkOnboardingService.onboardCsv(new StringReader(csv));
+
+        assertThat(report.getCustomersCreated()).isEqualTo(1);
+        assertThat(report.getFailures()).singleElement()
+                .satisfies(f -> {
+                    assertThat(f.getLineNumber()).isEqualTo(3);
+                    assertThat(f.getMessage()).contains("Duplicate entry");
+                });
+        verify(writer, times(3)).writeChunk(anyList(), eq(1L));
+    }
+
+    @Test
+    @DisplayName("should reject a file whose header lacks a required column")
+    void onboardCsv_MissingColumn() {
+        String csv = "username,password,email,name,address\njane,StrongPassword1!,jane@example.com,Jane,Somewhere\n";
+
+        assertThatThrownBy(() -> bulkOnboardingService.onboardCsv(new StringReader(csv)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("phoneNumber");
+        verifyNoInteractions(writer);
+    }
+
+    @Test
+    @DisplayName("should fail fast when the CUSTOMER role is missing")
+    void onboard_RoleNotFound() {
+        when(mockRoleQuery.getSingleResult()).thenThrow(NoResultException.class);
+
+        assertThatThrownBy(() -> bulkOnboardingService.onboard(Collections.emptyList()))
+                .isInstanceOf(RoleNotFoundException.class);
+        verifyNoInteractions(writer);
+    }
+}
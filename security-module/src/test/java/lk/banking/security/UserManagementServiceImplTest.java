@@ -13,6 +13,7 @@ import lk.banking.core.exception.RoleNotFoundException;
 import lk.banking.core.exception.UserNotFoundException;
 import lk.banking.core.exception.ValidationException;
 import lk.banking.core.util.ValidationUtils; // Import the static utility class
+import lk.banking.notification.NotificationOutbox;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -44,6 +45,9 @@ public class UserManagementServiceImplTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
     @InjectMocks
     private UserManagementServiceImpl userManagementService;
 
@@ -6,8 +6,10 @@ import jakarta.ejb.Startup;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,6 +25,7 @@ import java.util.stream.Collectors; // Added for potential future use or cleaner
 
 @Singleton
 @Startup
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class DailyReportGenerator {
 
     // private static final Logger LOGGER = LoggerFactory.getLogger(DailyReportGenerator.class); // For proper logging
@@ -0,0 +1,69 @@
+package lk.banking.timer;
+
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import lk.banking.services.holds.HoldService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Gives the funds of expired holds back to their accounts every five minutes. Holds are expired in batches
+ * of {@code banking.holds.sweepBatch} (default 1000), each batch in a transaction of its own, until no more
+ * are due; a failed batch ends the sweep and the next run picks up where it stopped.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class HoldExpirySweeper {
+
+    private static final Logger LOGGER = Logger.getLogger(HoldExpirySweeper.class.getName());
+
+    private static final int BATCH = Integer.getInteger("banking.holds.sweepBatch", 1_000);
+
+    @EJB
+    private HoldService holdService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Schedule(hour = "*", minute = "*/5", second = "0", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void scheduledSweep() {
+        sweep(LocalDateTime.now(), BATCH);
+    }
+
+    /**
+     * Expires every hold due at {@code now}. Returns -1 without doing anything if a sweep is already running.
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public long sweep(LocalDateTime now, int batchSize) {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.fine("HoldExpirySweeper: A sweep is already in progress, skipping.");
+            return -1;
+        }
+        long expired = 0;
+        try {
+            int batch;
+            do {
+                batch = holdService.expireDue(now, batchSize);
+                expired += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "HoldExpirySweeper: Sweep stopped after " + expired + " holds.", e);
+        } finally {
+            running.set(false);
+        }
+        if (expired > 0) {
+            LOGGER.info("HoldExpirySweeper: Expired " + expired + " funds holds.");
+        }
+        return expired;
+    }
+}
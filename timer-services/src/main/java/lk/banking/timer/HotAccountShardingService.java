@@ -0,0 +1,123 @@
+package lk.banking.timer;
+
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import lk.banking.core.metrics.RowLockWaits;
+import lk.banking.services.shards.BalanceShardService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Once a minute, shards the accounts whose row has become a bottleneck and folds every sharded account's
+ * shards back into its row.
+ * <p>
+ * An account is hot when, over the last minute, it saw at least {@code banking.hotAccounts.minUpdates}
+ * (default 600) balance UPDATEs taking {@code banking.hotAccounts.lockWaitMillis} (default 20) on average,
+ * as measured by the journal in {@link RowLockWaits}. It is then split into {@code banking.hotAccounts.shards}
+ * (default 16) shards. Setting {@code banking.hotAccounts.autoShard} to false leaves sharding to
+ * {@link BalanceShardService#enable}. Accounts stay sharded until disabled there.
+ * <p>
+ * Statements, interest and the screens add a sharded account's shards to its row balance when they read
+ * it; consolidation keeps the row itself at most a minute behind, and tells the ledger observers once it
+ * has committed. Each account is consolidated in a transaction of its own.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class HotAccountShardingService {
+
+    private static final Logger LOGGER = Logger.getLogger(HotAccountShardingService.class.getName());
+
+    private static final boolean AUTO_SHARD = Boolean.parseBoolean(System.getProperty("banking.hotAccounts.autoShard", "true"));
+    private static final long MIN_UPDATES = Long.getLong("banking.hotAccounts.minUpdates", 600);
+    private static final double LOCK_WAIT_MILLIS = Double.parseDouble(System.getProperty("banking.hotAccounts.lockWaitMillis", "20"));
+    private static final int SHARDS = Integer.getInteger("banking.hotAccounts.shards", 16);
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Schedule(hour = "*", minute = "*", second = "30", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void scheduledRun() {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.fine("HotAccountShardingService: Previous run still in progress, skipping.");
+            return;
+        }
+        try {
+            Map<Long, RowLockWaits.Sample> samples = RowLockWaits.getDefault().drain();
+            List<Long> sharded = balanceShardService.getShardedAccountIds();
+            if (AUTO_SHARD) {
+                shardHotAccounts(samples, new HashSet<>(sharded), MIN_UPDATES, LOCK_WAIT_MILLIS, SHARDS);
+            }
+            consolidateAll(sharded);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Shards every account in {@code samples} that is not sharded yet and whose updates were frequent and
+     * slow enough. Each account is sharded in its own transaction.
+     *
+     * @return the ids of the accounts sharded.
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public List<Long> shardHotAccounts(Map<Long, RowLockWaits.Sample> samples, Set<Long> alreadySharded,
+                                       long minUpdates, double lockWaitMillis, int shards) {
+        List<Long> hot = new ArrayList<>();
+        samples.forEach((accountId, sample) -> {
+            if (sample.updates() >= minUpdates && sample.meanMillis() >= lockWaitMillis && !alreadySharded.contains(accountId)) {
+                hot.add(accountId);
+            }
+        });
+        hot.sort(null);
+
+        List<Long> enabled = new ArrayList<>(hot.size());
+        for (Long accountId : hot) {
+            RowLockWaits.Sample sample = samples.get(accountId);
+            try {
+                balanceShardService.enable(accountId, shards);
+                enabled.add(accountId);
+                LOGGER.warning(String.format("HotAccountShardingService: Account %d had %d updates averaging %.1f ms;"
+                        + " sharded into %d.", accountId, sample.updates(), sample.meanMillis(), shards));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "HotAccountShardingService: Could not shard account " + accountId + ".", e);
+            }
+        }
+        return enabled;
+    }
+
+    /**
+     * Consolidates each of the accounts in a transaction of its own; one that fails is left for the next run.
+     *
+     * @return the total amount moved from shards to account rows.
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public BigDecimal consolidateAll(List<Long> accountIds) {
+        BigDecimal moved = BigDecimal.ZERO;
+        for (Long accountId : accountIds) {
+            try {
+                moved = moved.add(balanceShardService.consolidate(accountId));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "HotAccountShardingService: Could not consolidate account " + accountId + ".", e);
+            }
+        }
+        return moved;
+    }
+}
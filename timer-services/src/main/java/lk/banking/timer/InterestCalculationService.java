@@ -1,16 +1,21 @@
 package lk.banking.timer;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Schedule;
 import jakarta.ejb.Singleton;
 import jakarta.ejb.Startup;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.entity.Account;
-import lk.banking.core.entity.Transaction; // For audit record
 import lk.banking.core.entity.enums.AccountType;
-import lk.banking.core.entity.enums.TransactionStatus; // For audit record
-import lk.banking.core.entity.enums.TransactionType; // For audit record
+import lk.banking.core.entity.enums.LedgerAccount;
+import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
+import lk.banking.services.shards.BalanceShardService;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -22,6 +27,7 @@ import java.util.logging.Logger;
 
 @Singleton
 @Startup
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class InterestCalculationService {
 
     private static final Logger LOGGER = Logger.getLogger(InterestCalculationService.class.getName());
@@ -29,6 +35,12 @@ public class InterestCalculationService {
     @PersistenceContext(unitName = "bankingPU")
     private EntityManager em;
 
+    @EJB
+    private JournalService journalService;
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
     // Use a MathContext that implies a desired scale for final results, or apply setScale explicitly.
     // For currency, it's typical to use a precision that allows for calculations
     // then round to the currency's scale at the end.
@@ -55,9 +67,11 @@ public class InterestCalculationService {
         }
 
         LOGGER.info("Processing automated interest for " + savingsAccounts.size() + " savings accounts.");
+        // Credits still sitting in a sharded account's shards earn interest too
+        balanceShardService.loadBalances(savingsAccounts);
 
         for (Account account : savingsAccounts) {
-            BigDecimal currentBalance = account.getBalance();
+            BigDecimal currentBalance = account.getTotalBalance();
             // Calculate interest only for positive balances, or as per bank rules
             if (currentBalance.compareTo(BigDecimal.ZERO) <= 0) {
                 LOGGER.fine("Account " + account.getAccountNumber() + " has non-positive balance. Skipping automated interest calculation.");
@@ -89,39 +103,40 @@ public class InterestCalculationService {
                 continue;
             }
 
-            // Interest calculation (compounded daily based on this logic)
-            BigDecimal interest = BigDecimal.ZERO;
-            BigDecimal tempBalance = currentBalance;
-            for (int i = 0; i < days; i++) {
-                // Perform daily interest calculation with high precision
-                BigDecimal dailyInterest = tempBalance.multiply(DAILY_INTEREST_RATE, CALCULATION_MATH_CONTEXT);
-                interest = interest.add(dailyInterest);
-                tempBalance = tempBalance.add(dailyInterest); // Compound daily if that's the rule
+            // IMPORTANT: Round the final calculated interest to currency scale
+            BigDecimal interest = compoundInterest(currentBalance, days).setScale(CURRENCY_SCALE, RoundingMode.HALF_UP);
+            if (interest.signum() == 0) {
+                // Nothing to post; leave lastInterestAppliedDate alone so the days keep accruing
+                LOGGER.fine("Account " + account.getAccountNumber() + ": Interest rounds to zero. Skipping.");
+                continue;
             }
 
-            // IMPORTANT: Round the final calculated interest and the new balance to currency scale
-            interest = interest.setScale(CURRENCY_SCALE, RoundingMode.HALF_UP);
-            BigDecimal newBalance = currentBalance.add(interest).setScale(CURRENCY_SCALE, RoundingMode.HALF_UP);
-
-
-            // Add interest to the balance
-            account.setBalance(newBalance); // Set the rounded new balance
+            // Credit the account against the bank's interest expense; the journal updates the balance
+            String description = "Automated daily interest applied for " + days + " days";
+            journalService.post(JournalPosting.of(TransactionType.DEPOSIT, description)
+                    .account(account, interest, description)
+                    .ledger(LedgerAccount.INTEREST_EXPENSE, interest.negate()));
             account.setLastInterestAppliedDate(LocalDateTime.now()); // Update last applied date
 
-            // Create a transaction record for the interest application for audit purposes
-            Transaction interestTransaction = new Transaction(
-                    account,
-                    interest, // Use the rounded interest amount for the transaction record
-                    TransactionType.DEPOSIT,
-                    TransactionStatus.COMPLETED,
-                    LocalDateTime.now(),
-                    "Automated daily interest applied for " + days + " days"
-            );
-            em.persist(interestTransaction);
-
             LOGGER.info("Account " + account.getAccountNumber() + ": Balance updated from " + currentBalance + " to " + account.getBalance() + " (Automated Interest: " + interest + " for " + days + " days).");
         }
 
         LOGGER.info("Daily automated interest calculation completed.");
     }
+
+    /**
+     * Interest accrued on {@code balance} over {@code days}, compounded daily at DAILY_INTEREST_RATE.
+     * The result is unrounded (CALCULATION_MATH_CONTEXT precision); callers round to currency scale.
+     */
+    public static BigDecimal compoundInterest(BigDecimal balance, long days) {
+        BigDecimal interest = BigDecimal.ZERO;
+        BigDecimal tempBalance = balance;
+        for (long i = 0; i < days; i++) {
+            // Perform daily interest calculation with high precision
+            BigDecimal dailyInterest = tempBalance.multiply(DAILY_INTEREST_RATE, CALCULATION_MATH_CONTEXT);
+            interest = interest.add(dailyInterest);
+            tempBalance = tempBalance.add(dailyInterest); // Compound daily if that's the rule
+        }
+        return interest;
+    }
 }
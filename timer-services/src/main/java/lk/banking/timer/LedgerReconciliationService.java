@@ -0,0 +1,298 @@
+package lk.banking.timer;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.SessionContext;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lk.banking.core.entity.ReconciliationBreak;
+import lk.banking.core.util.MultiRowInsert;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checks every account's stored balance (including the shards of a sharded account) against its history:
+ * the opening balance plus the sum of its completed transactions. Mismatches go to reconciliation_breaks;
+ * nothing is corrected automatically.
+ * <p>
+ * Accounts are split into id ranges of {@code banking.reconciliation.partitionSize} (default 10000) and
+ * reconciled on a fork-join pool of {@code banking.reconciliation.parallelism} workers (default 4; each
+ * holds one database connection). A partition is one aggregate query plus its inserts in a transaction of
+ * its own, so memory stays bounded by the partition size and a failed partition does not stop the run.
+ * The balance and the sum come from the same statement, so transfers committing during the run cannot
+ * cause false breaks.
+ * <p>
+ * An account's opening balance is the one it was created with (accounts.openingBalance). Accounts opened
+ * before that was recorded take it from reconciliation_baselines; until an operator has confirmed one with
+ * {@link #acknowledgeOpeningBalance}, they are checked as if they had opened at zero and each run reports
+ * the whole unexplained amount as a break with {@code missingBaseline} set. Nothing is baselined
+ * automatically, so drift that happened before the first run cannot hide in a baseline.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class LedgerReconciliationService {
+
+    private static final Logger LOGGER = Logger.getLogger(LedgerReconciliationService.class.getName());
+
+    static final String PARTITION_QUERY =
+            "SELECT a.id, a.balance + COALESCE(s.balance, 0), COALESCE(a.openingBalance, b.openingBalance),"
+                    + " COALESCE(SUM(t.amount), 0)"
+                    + " FROM accounts a"
+                    + " LEFT JOIN (SELECT accountId, SUM(balance) AS balance FROM account_balance_shards"
+                    + " GROUP BY accountId) s ON s.accountId = a.id"
+                    + " LEFT JOIN reconciliation_baselines b ON b.accountId = a.id"
+                    + " LEFT JOIN transactions t ON t.account_id = a.id AND t.status = 'COMPLETED'"
+                    + " WHERE a.id >= ? AND a.id < ?"
+                    + " GROUP BY a.id, a.balance, s.balance, a.openingBalance, b.openingBalance";
+    static final String INSERT_BASELINE =
+            "INSERT INTO reconciliation_baselines (accountId, openingBalance, recordedAt) VALUES (?, ?, ?)";
+    static final List<String> BREAK_COLUMNS = List.of(
+            "runId", "accountId", "balance", "expectedBalance", "difference", "detectedAt", "missingBaseline");
+
+    private static final int PARTITION_SIZE = Integer.getInteger("banking.reconciliation.partitionSize", 10_000);
+    private static final int PARALLELISM = Integer.getInteger("banking.reconciliation.parallelism", 4);
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Counts for a partition, a subtree of partitions, or a whole run. */
+    public static final class Totals {
+        long accounts;
+        long breaks;
+        long missingBaselines;
+        long failedPartitions;
+
+        Totals add(Totals other) {
+            accounts += other.accounts;
+            breaks += other.breaks;
+            missingBaselines += other.missingBaselines;
+            failedPartitions += other.failedPartitions;
+            return this;
+        }
+
+        public long getAccounts() { return accounts; }
+        public long getBreaks() { return breaks; }
+        /** Breaks, among {@link #getBreaks}, of accounts without an opening balance. */
+        public long getMissingBaselines() { return missingBaselines; }
+        public long getFailedPartitions() { return failedPartitions; }
+
+        @Override
+        public String toString() {
+            return accounts + " accounts checked, " + breaks + " breaks (" + missingBaselines + " without opening balance), "
+                    + failedPartitions + " failed partitions";
+        }
+    }
+
+    /** Reconciles the accounts with {@code fromId <= id < toId}. */
+    @FunctionalInterface
+    interface PartitionReconciler {
+        Totals reconcile(long fromId, long toId);
+    }
+
+    /**
+     * Splits an id range in halves until it is at most one partition, then reconciles it. Partitions that
+     * fail are logged and counted, not retried; the next run checks them again.
+     */
+    static final class RangeTask extends RecursiveTask<Totals> {
+        private final PartitionReconciler reconciler;
+        private final long fromId;
+        private final long toId;
+        private final long partitionSize;
+
+        RangeTask(PartitionReconciler reconciler, long fromId, long toId, long partitionSize) {
+            this.reconciler = reconciler;
+            this.fromId = fromId;
+            this.toId = toId;
+            this.partitionSize = partitionSize;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (toId - fromId <= partitionSize) {
+                try {
+                    return reconciler.reconcile(fromId, toId);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "LedgerReconciliationService: Partition [" + fromId + ", " + toId + ") failed.", e);
+                    Totals failed = new Totals();
+                    failed.failedPartitions = 1;
+                    return failed;
+                }
+            }
+            // Split on a partition boundary so ranges stay aligned with partitionSize
+            long middle = fromId + ((toId - fromId) / partitionSize / 2) * partitionSize;
+            if (middle == fromId) {
+                middle += partitionSize;
+            }
+            RangeTask upper = new RangeTask(reconciler, middle, toId, partitionSize);
+            upper.fork();
+            Totals lower = new RangeTask(reconciler, fromId, middle, partitionSize).compute();
+            return lower.add(upper.join());
+        }
+    }
+
+    /**
+     * Runs daily at 2am, after interest posting and before the daily report.
+     */
+    @Schedule(hour = "2", minute = "0", second = "0", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void scheduledReconciliation() {
+        reconcile();
+    }
+
+    /**
+     * Reconciles all accounts. Returns null without doing anything if a run is already in progress.
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public Totals reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.warning("LedgerReconciliationService: A reconciliation run is already in progress, skipping.");
+            return null;
+        }
+        try {
+            Object[] range = (Object[]) em.createNativeQuery("SELECT MIN(id), MAX(id) FROM accounts").getSingleResult();
+            if (range[0] == null) {
+                LOGGER.info("LedgerReconciliationService: No accounts to reconcile.");
+                return new Totals();
+            }
+            long minId = ((Number) range[0]).longValue();
+            long maxId = ((Number) range[1]).longValue();
+            String runId = UUID.randomUUID().toString();
+            long started = System.nanoTime();
+            LOGGER.info("LedgerReconciliationService: Run " + runId + " started for account ids " + minId + ".." + maxId
+                    + " in partitions of " + PARTITION_SIZE + " on " + PARALLELISM + " workers.");
+
+            // Through the business object so each partition runs in its own transaction
+            LedgerReconciliationService self = sessionContext.getBusinessObject(LedgerReconciliationService.class);
+            Totals totals = run((fromId, toId) -> self.reconcilePartition(runId, fromId, toId),
+                    minId, maxId + 1, PARTITION_SIZE, PARALLELISM);
+
+            long seconds = (System.nanoTime() - started) / 1_000_000_000L;
+            if (totals.breaks > 0 || totals.failedPartitions > 0) {
+                LOGGER.warning("LedgerReconciliationService: Run " + runId + " finished in " + seconds + " s: " + totals + ".");
+            } else {
+                LOGGER.info("LedgerReconciliationService: Run " + runId + " finished in " + seconds + " s: " + totals + ".");
+            }
+            return totals;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Reconciles one partition: a single aggregate query, then the breaks with one multi-row insert.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    @SuppressWarnings("unchecked")
+    public Totals reconcilePartition(String runId, long fromId, long toId) {
+        List<Object[]> rows = em.createNativeQuery(PARTITION_QUERY)
+                .setParameter(1, fromId)
+                .setParameter(2, toId)
+                .getResultList();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> breaks = new ArrayList<>();
+        long missingBaselines = 0;
+        for (Object[] row : rows) {
+            Long accountId = ((Number) row[0]).longValue();
+            BigDecimal balance = decimal(row[1]);
+            boolean missingBaseline = row[2] == null;
+            BigDecimal opening = missingBaseline ? BigDecimal.ZERO : decimal(row[2]);
+            BigDecimal history = decimal(row[3]);
+            BigDecimal expected = opening.add(history);
+            if (balance.compareTo(expected) != 0) {
+                breaks.add(new Object[]{runId, accountId, balance, expected, balance.subtract(expected), now, missingBaseline});
+                if (missingBaseline) {
+                    missingBaselines++;
+                }
+            }
+        }
+        if (!breaks.isEmpty()) {
+            MultiRowInsert.execute(em, "reconciliation_breaks", BREAK_COLUMNS, breaks);
+        }
+
+        Totals totals = new Totals();
+        totals.accounts = rows.size();
+        totals.breaks = breaks.size();
+        totals.missingBaselines = missingBaselines;
+        return totals;
+    }
+
+    /**
+     * Confirms that the difference reported by a {@code missingBaseline} break is the account's opening
+     * balance: it becomes the account's baseline, and later runs only report drift from it.
+     *
+     * @param breakId        the break to acknowledge.
+     * @param acknowledgedBy who confirmed it, for the audit trail.
+     * @throws IllegalArgumentException if there is no such break.
+     * @throws IllegalStateException    if the break is not a missing-baseline break, was already
+     *                                  acknowledged, or the account has a baseline by now.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public void acknowledgeOpeningBalance(Long breakId, String acknowledgedBy) {
+        ReconciliationBreak reconciliationBreak = em.find(ReconciliationBreak.class, breakId, LockModeType.PESSIMISTIC_WRITE);
+        if (reconciliationBreak == null) {
+            throw new IllegalArgumentException("Reconciliation break " + breakId + " not found.");
+        }
+        if (!reconciliationBreak.isMissingBaseline() || reconciliationBreak.getAcknowledgedAt() != null) {
+            throw new IllegalStateException("Reconciliation break " + breakId
+                    + " is not an unacknowledged break of an account without opening balance.");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            em.createNativeQuery(INSERT_BASELINE)
+                    .setParameter(1, reconciliationBreak.getAccountId())
+                    .setParameter(2, reconciliationBreak.getDifference())
+                    .setParameter(3, now)
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            throw new IllegalStateException("Account " + reconciliationBreak.getAccountId() + " already has an opening balance.", e);
+        }
+        reconciliationBreak.setAcknowledgedAt(now);
+        reconciliationBreak.setAcknowledgedBy(acknowledgedBy);
+        LOGGER.info("LedgerReconciliationService: " + acknowledgedBy + " confirmed " + reconciliationBreak.getDifference()
+                + " as the opening balance of account " + reconciliationBreak.getAccountId() + ".");
+    }
+
+    /** Runs {@code reconciler} over {@code [fromId, toId)} on a fork-join pool of its own. */
+    Totals run(PartitionReconciler reconciler, long fromId, long toId, long partitionSize, int parallelism) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = threadFactory != null
+                ? threadFactory : ForkJoinPool.defaultForkJoinWorkerThreadFactory;
+        ForkJoinPool pool = new ForkJoinPool(parallelism, factory, null, false);
+        try {
+            return pool.invoke(new RangeTask(reconciler, fromId, toId, partitionSize));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -6,9 +6,11 @@ import jakarta.ejb.Startup;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.ScheduledTransfer;
 import lk.banking.core.entity.Transaction;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +21,7 @@ import java.util.List;
 
 @Singleton
 @Startup
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class MaintenanceTaskService {
 
     // private static final Logger LOGGER = LoggerFactory.getLogger(MaintenanceTaskService.class); // For proper logging
@@ -0,0 +1,350 @@
+package lk.banking.timer;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.SessionContext;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.HoldStatus;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.util.MultiRowInsert;
+import lk.banking.services.TransactionServices;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Settles PENDING transactions: posts the ones that can be posted and marks the rest FAILED, releasing
+ * their holds. Every change is recorded in transaction_status_changes.
+ * <p>
+ * Accounts with pending rows older than {@code banking.settlement.minAgeMinutes} (default 5) are read in
+ * id order, {@code banking.settlement.accountBatch} (default 1000) at a time, and settled on
+ * {@code banking.settlement.parallelism} workers (default: one per core; each holds one database
+ * connection). All of an account's rows, up to {@code banking.settlement.maxPerAccount} (default 500),
+ * are settled in one transaction, so no two workers touch the same account and its status changes go in
+ * with a single insert. Postings go through the same services as live payments: a hold is locked before
+ * the account's conditional UPDATE, so settlement cannot deadlock with a capture or the expiry sweep.
+ * <p>
+ * If an account's transaction fails (a debit losing a race for the balance, say), its rows are retried
+ * one per transaction so a single bad row only fails itself.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class PendingSettlementService {
+
+    private static final Logger LOGGER = Logger.getLogger(PendingSettlementService.class.getName());
+
+    static final String PENDING_ACCOUNTS = "SELECT DISTINCT account_id FROM transactions"
+            + " WHERE status = 'PENDING' AND timestamp <= ? AND account_id > ? ORDER BY account_id LIMIT ?";
+    static final String CHANGES_TABLE = "transaction_status_changes";
+    static final List<String> CHANGE_COLUMNS = List.of("transactionId", "fromStatus", "toStatus", "reason", "changedAt");
+
+    private static final long MIN_AGE_MINUTES = Long.getLong("banking.settlement.minAgeMinutes", 5);
+    private static final int ACCOUNT_BATCH = Integer.getInteger("banking.settlement.accountBatch", 1_000);
+    private static final int MAX_PER_ACCOUNT = Integer.getInteger("banking.settlement.maxPerAccount", 500);
+    private static final int PARALLELISM = Integer.getInteger("banking.settlement.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @EJB
+    private TransactionServices transactionServices;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Counts for an account, a batch, or a whole run. */
+    public static final class Totals {
+        long accounts;
+        long completed;
+        long failed;
+        long retriedAccounts;
+        long errors;
+
+        Totals add(Totals other) {
+            accounts += other.accounts;
+            completed += other.completed;
+            failed += other.failed;
+            retriedAccounts += other.retriedAccounts;
+            errors += other.errors;
+            return this;
+        }
+
+        public long getAccounts() { return accounts; }
+        public long getCompleted() { return completed; }
+        public long getFailed() { return failed; }
+        public long getRetriedAccounts() { return retriedAccounts; }
+        public long getErrors() { return errors; }
+
+        @Override
+        public String toString() {
+            return accounts + " accounts, " + completed + " completed, " + failed + " failed, "
+                    + retriedAccounts + " accounts retried row by row, " + errors + " rows left pending";
+        }
+    }
+
+    /** Settles the pending rows of one account. */
+    @FunctionalInterface
+    interface AccountSettler {
+        Totals settle(Long accountId);
+    }
+
+    @Schedule(hour = "*", minute = "*/10", second = "0", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void scheduledSettlement() {
+        settle(LocalDateTime.now().minusMinutes(MIN_AGE_MINUTES));
+    }
+
+    /**
+     * Settles every transaction that was PENDING at {@code cutoff}. Returns null without doing anything if
+     * a run is already in progress.
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public Totals settle(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.warning("PendingSettlementService: A settlement run is already in progress, skipping.");
+            return null;
+        }
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = threadFactory != null
+                ? threadFactory : ForkJoinPool.defaultForkJoinWorkerThreadFactory;
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM, factory, null, false);
+        try {
+            long started = System.nanoTime();
+            // Through the business object so each account is settled in its own transaction
+            PendingSettlementService self = sessionContext.getBusinessObject(PendingSettlementService.class);
+            AccountSettler settler = accountId -> settleOrRetry(self, accountId, cutoff);
+
+            Totals totals = new Totals();
+            long afterId = 0;
+            List<Long> accountIds;
+            do {
+                accountIds = pendingAccounts(cutoff, afterId, ACCOUNT_BATCH);
+                if (accountIds.isEmpty()) {
+                    break;
+                }
+                totals.add(run(settler, accountIds, pool));
+                afterId = accountIds.get(accountIds.size() - 1);
+            } while (accountIds.size() == ACCOUNT_BATCH);
+
+            if (totals.accounts > 0) {
+                long seconds = (System.nanoTime() - started) / 1_000_000_000L;
+                Level level = totals.errors > 0 ? Level.WARNING : Level.INFO;
+                LOGGER.log(level, "PendingSettlementService: Settled up to " + cutoff + " in " + seconds + " s: " + totals + ".");
+            }
+            return totals;
+        } finally {
+            pool.shutdown();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Settles up to {@code banking.settlement.maxPerAccount} of the account's oldest pending rows in one
+     * transaction.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public Totals settleAccount(Long accountId, LocalDateTime cutoff) {
+        List<Transaction> pending = em.createQuery(
+                        "SELECT t FROM Transaction t WHERE t.account.id = :accountId AND t.status = :status"
+                                + " AND t.timestamp <= :cutoff ORDER BY t.timestamp, t.id", Transaction.class)
+                .setParameter("accountId", accountId)
+                .setParameter("status", TransactionStatus.PENDING)
+                .setParameter("cutoff", cutoff)
+                .setMaxResults(MAX_PER_ACCOUNT)
+                .getResultList();
+        return apply(accountId, pending);
+    }
+
+    /** Settles a single transaction, if it is still PENDING. */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public Totals settleTransaction(Long transactionId) {
+        Transaction transaction = em.find(Transaction.class, transactionId);
+        if (transaction == null || transaction.getStatus() != TransactionStatus.PENDING) {
+            return new Totals();
+        }
+        return apply(transaction.getAccount().getId(), List.of(transaction));
+    }
+
+    /** Marks a transaction FAILED after it could not be posted even on its own. */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void failTransaction(Long transactionId, String reason) {
+        transactionServices.failPendingTransaction(transactionId);
+        List<Object[]> change = new ArrayList<>(1);
+        change.add(change(transactionId, TransactionStatus.FAILED, reason, LocalDateTime.now()));
+        MultiRowInsert.execute(em, CHANGES_TABLE, CHANGE_COLUMNS, change);
+    }
+
+    /** The account's rows that {@link #settleAccount} would pick up, oldest first. */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<Long> pendingTransactionIds(Long accountId, LocalDateTime cutoff) {
+        return em.createQuery(
+                        "SELECT t.id FROM Transaction t WHERE t.account.id = :accountId AND t.status = :status"
+                                + " AND t.timestamp <= :cutoff ORDER BY t.timestamp, t.id", Long.class)
+                .setParameter("accountId", accountId)
+                .setParameter("status", TransactionStatus.PENDING)
+                .setParameter("cutoff", cutoff)
+                .setMaxResults(MAX_PER_ACCOUNT)
+                .getResultList();
+    }
+
+    /** Runs {@code settler} for each account on {@code pool} and adds up the results. */
+    Totals run(AccountSettler settler, List<Long> accountIds, ExecutorService pool) {
+        List<Callable<Totals>> tasks = new ArrayList<>(accountIds.size());
+        for (Long accountId : accountIds) {
+            tasks.add(() -> settler.settle(accountId));
+        }
+        Totals totals = new Totals();
+        try {
+            for (Future<Totals> result : pool.invokeAll(tasks)) {
+                try {
+                    totals.add(result.get());
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "PendingSettlementService: An account could not be settled.", e.getCause());
+                    totals.errors++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Settlement was interrupted.", e);
+        }
+        return totals;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> pendingAccounts(LocalDateTime cutoff, long afterId, int limit) {
+        List<Object> rows = em.createNativeQuery(PENDING_ACCOUNTS)
+                .setParameter(1, cutoff)
+                .setParameter(2, afterId)
+                .setParameter(3, limit)
+                .getResultList();
+        List<Long> accountIds = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            accountIds.add(((Number) row).longValue());
+        }
+        return accountIds;
+    }
+
+    /**
+     * Settles the account in one transaction, or row by row if that transaction rolls back. A row that
+     * still cannot be posted is marked FAILED; one that cannot even be failed stays PENDING for the next run.
+     */
+    private static Totals settleOrRetry(PendingSettlementService self, Long accountId, LocalDateTime cutoff) {
+        try {
+            return self.settleAccount(accountId, cutoff);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "PendingSettlementService: Settling account " + accountId
+                    + " failed, retrying its transactions one by one.", e);
+        }
+        Totals totals = new Totals();
+        totals.accounts = 1;
+        totals.retriedAccounts = 1;
+        for (Long transactionId : self.pendingTransactionIds(accountId, cutoff)) {
+            try {
+                Totals single = self.settleTransaction(transactionId);
+                totals.completed += single.completed;
+                totals.failed += single.failed;
+            } catch (RuntimeException e) {
+                try {
+                    self.failTransaction(transactionId, reason(e));
+                    totals.failed++;
+                } catch (RuntimeException failure) {
+                    LOGGER.log(Level.WARNING, "PendingSettlementService: Transaction " + transactionId
+                            + " left pending.", failure);
+                    totals.errors++;
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Posts or fails each of one account's pending rows in order, then records the status changes with
+     * one insert. The account is refreshed once so the checks see its current available balance; the
+     * journal's conditional UPDATE remains the real guard.
+     */
+    private Totals apply(Long accountId, List<Transaction> pending) {
+        Totals totals = new Totals();
+        if (pending.isEmpty()) {
+            return totals;
+        }
+        Account account = pending.get(0).getAccount();
+        em.refresh(account);
+        Set<Long> held = new HashSet<>(em.createQuery(
+                        "SELECT h.transactionId FROM FundsHold h WHERE h.account.id = :accountId"
+                                + " AND h.status = :status AND h.transactionId IS NOT NULL", Long.class)
+                .setParameter("accountId", accountId)
+                .setParameter("status", HoldStatus.ACTIVE)
+                .getResultList());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> changes = new ArrayList<>(pending.size());
+        for (Transaction transaction : pending) {
+            String refusal = refusal(account, transaction, held);
+            if (refusal == null) {
+                transactionServices.completePendingTransaction(transaction.getId());
+                changes.add(change(transaction.getId(), TransactionStatus.COMPLETED, null, now));
+                totals.completed++;
+            } else {
+                transactionServices.failPendingTransaction(transaction.getId());
+                changes.add(change(transaction.getId(), TransactionStatus.FAILED, refusal, now));
+                totals.failed++;
+            }
+        }
+        MultiRowInsert.execute(em, CHANGES_TABLE, CHANGE_COLUMNS, changes);
+        totals.accounts = 1;
+        return totals;
+    }
+
+    /** Why a pending row cannot be posted, or null if it can. */
+    private static String refusal(Account account, Transaction transaction, Set<Long> held) {
+        if (transaction.getAmount() == null || transaction.getAmount().signum() == 0) {
+            return "Zero amount.";
+        }
+        if (!Boolean.TRUE.equals(account.getIsActive())) {
+            return "Account " + account.getAccountNumber() + " is inactive.";
+        }
+        // A sharded account's shards are not in its available balance; the journal consolidates them
+        if (transaction.getType().isDebit() && !held.contains(transaction.getId()) && account.getBalanceShards() == 0
+                && account.getAvailableBalance().compareTo(transaction.getAmount().abs()) < 0) {
+            return "Insufficient funds in account " + account.getAccountNumber() + ".";
+        }
+        return null;
+    }
+
+    private static Object[] change(Long transactionId, TransactionStatus status, String reason, LocalDateTime at) {
+        return new Object[]{transactionId, TransactionStatus.PENDING.name(), status.name(), reason, at};
+    }
+
+    private static String reason(RuntimeException e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return message.length() > 256 ? message.substring(0, 256) : message;
+    }
+}
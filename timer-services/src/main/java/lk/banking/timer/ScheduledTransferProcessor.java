@@ -7,9 +7,11 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.dto.TransferRequestDto;
 import lk.banking.core.entity.ScheduledTransfer;
 import lk.banking.transaction.FundTransferService;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,6 +20,7 @@ import org.slf4j.LoggerFactory;
 
 @Singleton
 @Startup
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class ScheduledTransferProcessor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ScheduledTransferProcessor.class);
@@ -50,13 +53,14 @@ public class ScheduledTransferProcessor {
 
         for (ScheduledTransfer transfer : transfersToProcess) {
             try {
-                fundTransferService.transferFunds(
-                        new TransferRequestDto(
-                                transfer.getFromAccount().getId(),
-                                transfer.getToAccount().getId(),
-                                transfer.getAmount()
-                        )
+                TransferRequestDto request = new TransferRequestDto(
+                        transfer.getFromAccount().getId(),
+                        transfer.getToAccount().getId(),
+                        transfer.getAmount()
                 );
+                // Draws on the funds reserved at scheduling time, if the hold has not expired
+                request.setHoldId(transfer.getHoldId());
+                fundTransferService.transferFunds(request);
 
                 transfer.setProcessed(true);
                 LOGGER.info("Successfully processed scheduled transfer ID: {}", transfer.getId());
@@ -1,20 +1,30 @@
 package lk.banking.timer;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Schedule;
 import jakarta.ejb.Singleton;
 import jakarta.ejb.Startup;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Customer;
 import lk.banking.core.entity.Transaction;
+import lk.banking.notification.TemplateEngine;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+import lk.banking.services.shards.BalanceShardService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -24,13 +34,21 @@ import org.slf4j.LoggerFactory;
 
 @Singleton
 @Startup
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class StatementGenerationService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StatementGenerationService.class);
+    private static final DateTimeFormatter STATEMENT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     @PersistenceContext(unitName = "bankingPU")
     private EntityManager em;
 
+    @Inject
+    private TemplateEngine templateEngine;
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
     /**
      * Generate monthly statements at midnight on the 1st of every month.
      * Processes statements for the previous month.
@@ -58,6 +76,11 @@ public class StatementGenerationService {
             LOGGER.info("[Statement] No active customers found to generate statements for.");
             return;
         }
+        // Sharded accounts' balances include what is still in their shards, loaded with one query
+        balanceShardService.loadBalances(customers.stream()
+                .filter(c -> c.getAccounts() != null)
+                .flatMap(c -> c.getAccounts().stream())
+                .collect(Collectors.toList()));
 
         // 2. Fetch all relevant transactions for the period for all accounts in one go
         // Use a IN clause for account IDs if you want to optimize for a subset of accounts
@@ -75,8 +98,6 @@ public class StatementGenerationService {
 
 
         for (Customer customer : customers) {
-            LOGGER.info("----- Monthly Statement for Customer: {} ({}) -----", customer.getName(), customer.getEmail());
-
             // Accounts for this specific customer (already fetched eagerly or lazily loaded within transaction)
             List<Account> customerAccounts = customer.getAccounts(); // Already loaded or can be safely loaded here
 
@@ -96,36 +117,53 @@ public class StatementGenerationService {
                 // Calculate opening balance at the start of the period
                 // This method correctly computes it by reversing transactions within the period from the current balance.
                 BigDecimal openingBalance = getOpeningBalance(account, from, transactionsForAccount);
-                BigDecimal closingBalance = account.getBalance(); // This is the current balance
-
-                LOGGER.info("  Account Number: {}", account.getAccountNumber());
-                LOGGER.info("  Account Type: {}", account.getType());
-                LOGGER.info("  Opening Balance ({}): {}", from.toLocalDate(), openingBalance);
-                LOGGER.info("  Transactions ({} to {}):", from.toLocalDate(), to.toLocalDate());
-
-                if (transactionsForAccount.isEmpty()) {
-                    LOGGER.info("    No transactions for this period.");
-                } else {
-                    for (Transaction tx : transactionsForAccount) {
-                        LOGGER.info("    [{}] {} {} ({}) | {}",
-                                tx.getTimestamp(),
-                                tx.getType(),
-                                tx.getAmount(),
-                                tx.getStatus(),
-                                tx.getDescription() != null ? tx.getDescription() : "");
-                    }
-                }
-                LOGGER.info("  Closing Balance ({}): {}", LocalDate.now(), closingBalance); // Closing balance is current balance
-                LOGGER.info("---------------------------------------------------");
-
-                // In a real system, generate a PDF/email here using a reporting library
-                // notificationService.sendAccountStatement(customer, account, from, to, transactionsForAccount, openingBalance, closingBalance);
+                BigDecimal closingBalance = account.getTotalBalance(); // This is the current balance
+
+                // Rendered from the precompiled statement template; each call only fills in the data
+                LOGGER.info("\n{}", templateEngine.render(TemplateEngine.STATEMENT_TEMPLATE,
+                        statementModel(customer, account, from, to, transactionsForAccount, openingBalance, closingBalance)));
+
+                // In a real system, generate a PDF/email from the same template here
             }
         }
 
         LOGGER.info("[Statement] Monthly statement generation completed.");
     }
 
+    /**
+     * The data model of {@link TemplateEngine#STATEMENT_TEMPLATE}. Amounts and times are formatted here so the
+     * template stays free of locale settings.
+     */
+    static Map<String, Object> statementModel(Customer customer, Account account, LocalDateTime from, LocalDateTime to,
+                                              List<Transaction> transactions, BigDecimal openingBalance, BigDecimal closingBalance) {
+        List<Map<String, String>> lines = new ArrayList<>(transactions.size());
+        for (Transaction tx : transactions) {
+            Map<String, String> line = new HashMap<>();
+            line.put("timestamp", STATEMENT_TIME.format(tx.getTimestamp()));
+            line.put("type", String.valueOf(tx.getType()));
+            line.put("amount", amount(tx.getAmount()));
+            line.put("status", String.valueOf(tx.getStatus()));
+            line.put("description", tx.getDescription() != null ? tx.getDescription() : "");
+            lines.add(line);
+        }
+        Map<String, Object> model = new HashMap<>();
+        model.put("customerName", customer.getName());
+        model.put("customerEmail", customer.getEmail());
+        model.put("accountNumber", account.getAccountNumber());
+        model.put("accountType", String.valueOf(account.getType()));
+        model.put("periodStart", from.toLocalDate().toString());
+        model.put("periodEnd", to.toLocalDate().toString());
+        model.put("closingDate", LocalDate.now().toString()); // Closing balance is current balance
+        model.put("openingBalance", amount(openingBalance));
+        model.put("closingBalance", amount(closingBalance));
+        model.put("transactions", lines);
+        return model;
+    }
+
+    private static String amount(BigDecimal value) {
+        return value == null ? "" : String.format(Locale.US, "%,.2f", value);
+    }
+
     /**
      * Calculate the account's opening balance at the beginning of the period.
      * This method takes the current balance and "rolls back" all transactions
@@ -137,7 +175,7 @@ public class StatementGenerationService {
      * @return The calculated opening balance for the period.
      */
     private BigDecimal getOpeningBalance(Account account, LocalDateTime from, List<Transaction> transactionsInPeriod) {
-        BigDecimal balance = account.getBalance(); // Start with the current balance
+        BigDecimal balance = account.getTotalBalance(); // Start with the current balance
 
         // Iterate through transactions within the period (and potentially up to now if list contains future tx)
         // and reverse their effect from the current balance to get the balance at 'from' timestamp.
@@ -0,0 +1,49 @@
+package lk.banking.timer;
+
+import lk.banking.services.holds.HoldService;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HoldExpirySweeper Unit Tests")
+public class HoldExpirySweeperTest {
+
+    @Mock
+    private HoldService holdService;
+
+    @InjectMocks
+    private HoldExpirySweeper sweeper;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Test
+    @DisplayName("should keep expiring batches until one comes back short")
+    void sweep_DrainsFullBatches() {
+        when(holdService.expireDue(now, 100)).thenReturn(100, 100, 42);
+
+        assertThat(sweeper.sweep(now, 100)).isEqualTo(242);
+        verify(holdService, times(3)).expireDue(now, 100);
+    }
+
+    @Test
+    @DisplayName("should stop at a failed batch and let the next run continue")
+    void sweep_StopsOnFailure() {
+        when(holdService.expireDue(now, 100)).thenReturn(100).thenThrow(new IllegalStateException("deadlock"));
+
+        assertThat(sweeper.sweep(now, 100)).isEqualTo(100);
+
+        reset(holdService);
+        when(holdService.expireDue(now, 100)).thenReturn(0);
+        assertThat(sweeper.sweep(now, 100)).isZero();
+    }
+}
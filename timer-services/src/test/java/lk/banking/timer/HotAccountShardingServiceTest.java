@@ -0,0 +1,65 @@
+package lk.banking.timer;
+
+import lk.banking.core.metrics.RowLockWaits;
+import lk.banking.services.shards.BalanceShardService;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HotAccountShardingService Unit Tests")
+public class HotAccountShardingServiceTest {
+
+    @Mock
+    private BalanceShardService balanceShardService;
+
+    @InjectMocks
+    private HotAccountShardingService shardingService;
+
+    private static RowLockWaits.Sample sample(long updates, double meanMillis) {
+        return new RowLockWaits.Sample(updates, (long) (updates * meanMillis * 1_000_000));
+    }
+
+    @Test
+    @DisplayName("should shard only busy accounts with slow updates that are not sharded yet")
+    void shardHotAccounts_Thresholds() {
+        Map<Long, RowLockWaits.Sample> samples = Map.of(
+                1L, sample(5_000, 45.0),   // hot
+                2L, sample(5_000, 0.4),    // busy but uncontended
+                3L, sample(20, 120.0),     // slow but rare
+                4L, sample(9_000, 60.0),   // hot, already sharded
+                5L, sample(700, 25.0));    // hot, but sharding it fails
+        lenient().doThrow(new IllegalStateException("Lock wait timeout exceeded")).when(balanceShardService).enable(5L, 16);
+
+        List<Long> sharded = shardingService.shardHotAccounts(samples, Set.of(4L), 600, 20.0, 16);
+
+        assertThat(sharded).containsExactly(1L);
+        verify(balanceShardService).enable(1L, 16);
+        verify(balanceShardService).enable(5L, 16);
+        verifyNoMoreInteractions(balanceShardService);
+    }
+
+    @Test
+    @DisplayName("should consolidate every sharded account and carry on past one that fails")
+    void consolidateAll_ContinuesOnFailure() {
+        when(balanceShardService.consolidate(1L)).thenReturn(new BigDecimal("120.00"));
+        when(balanceShardService.consolidate(2L)).thenThrow(new IllegalStateException("Deadlock found"));
+        when(balanceShardService.consolidate(3L)).thenReturn(new BigDecimal("30.50"));
+
+        assertThat(shardingService.consolidateAll(List.of(1L, 2L, 3L))).isEqualByComparingTo("150.50");
+        verify(balanceShardService, times(3)).consolidate(anyLong());
+    }
+}
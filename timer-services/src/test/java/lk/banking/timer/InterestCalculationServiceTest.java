@@ -6,14 +6,18 @@ import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.Customer; // Needed for Account setup
 import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.LedgerAccount;
 import lk.banking.core.entity.enums.TransactionStatus;
 import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
+import lk.banking.services.journal.RecordingJournal;
+import lk.banking.services.shards.BalanceShardService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -41,6 +45,14 @@ public class InterestCalculationServiceTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private JournalService journalService;
+
+    @Mock
+    private BalanceShardService balanceShardService;
+
+    private final RecordingJournal journal = new RecordingJournal();
+
     @InjectMocks
     private InterestCalculationService interestCalculationService;
 
@@ -122,7 +134,7 @@ public class InterestCalculationServiceTest {
         BigDecimal expectedInterest = calculateExpectedCompoundInterest(initialBalance, (int) daysPassed);
         BigDecimal expectedNewBalance = initialBalance.add(expectedInterest);
 
-        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
 
         // When
         interestCalculationService.calculateInterest();
@@ -135,14 +147,19 @@ public class InterestCalculationServiceTest {
         assertThat(activeSavingsAccount.getBalance()).isEqualByComparingTo(expectedNewBalance);
         assertThat(activeSavingsAccount.getLastInterestAppliedDate().toLocalDate()).isEqualTo(LocalDateTime.now().toLocalDate());
 
-        verify(entityManager, times(1)).persist(transactionCaptor.capture());
-        Transaction capturedTransaction = transactionCaptor.getValue();
+        verify(journalService, times(1)).post(any(JournalPosting.class));
+        Transaction capturedTransaction = journal.history.get(0);
 
         assertThat(capturedTransaction.getAccount()).isEqualTo(activeSavingsAccount);
         assertThat(capturedTransaction.getAmount()).isEqualByComparingTo(expectedInterest);
         assertThat(capturedTransaction.getType()).isEqualTo(TransactionType.DEPOSIT);
         assertThat(capturedTransaction.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
         assertThat(capturedTransaction.getDescription()).contains("Automated daily interest applied for " + daysPassed + " days");
+
+        // The bank's side of the credit is interest expense, so the entry balances
+        assertThat(journal.postings.get(0).getLegs()).extracting(JournalPosting.Leg::getLedger)
+                .containsExactly(LedgerAccount.CUSTOMER_ACCOUNT, LedgerAccount.INTEREST_EXPENSE);
+        assertThat(journal.postings.get(0).getLegs().get(1).getAmount()).isEqualByComparingTo(expectedInterest.negate());
     }
 
     @Test
@@ -160,7 +177,7 @@ public class InterestCalculationServiceTest {
         verify(entityManager, times(1)).createQuery(anyString(), eq(Account.class));
         verify(mockAccountQuery, times(1)).setParameter(eq("type"), eq(AccountType.SAVINGS));
         verify(mockAccountQuery, times(1)).getResultList();
-        verify(entityManager, never()).persist(any(Transaction.class)); // No transactions should be persisted
+        verify(journalService, never()).post(any(JournalPosting.class)); // No transactions should be persisted
         // No balance changes on any account objects
     }
 
@@ -183,12 +200,34 @@ public class InterestCalculationServiceTest {
         verify(entityManager, times(1)).createQuery(anyString(), eq(Account.class));
         verify(mockAccountQuery, times(1)).setParameter(eq("type"), eq(AccountType.SAVINGS));
         verify(mockAccountQuery, times(1)).getResultList();
-        verify(entityManager, never()).persist(any(Transaction.class)); // No transactions for these accounts
+        verify(journalService, never()).post(any(JournalPosting.class)); // No transactions for these accounts
 
         assertThat(zeroBalanceSavingsAccount.getBalance()).isEqualByComparingTo(initialZeroBalance);
         assertThat(negativeBalanceSavingsAccount.getBalance()).isEqualByComparingTo(initialNegativeBalance);
     }
 
+    @Test
+    @DisplayName("should pay interest on a sharded account's shards as well as its row balance")
+    void calculateInterest_ShardedAccount() {
+        zeroBalanceSavingsAccount.setBalanceShards(8);
+        when(entityManager.createQuery(anyString(), eq(Account.class))).thenReturn(mockAccountQuery);
+        when(mockAccountQuery.setParameter(eq("type"), eq(AccountType.SAVINGS))).thenReturn(mockAccountQuery);
+        when(mockAccountQuery.getResultList()).thenReturn(List.of(zeroBalanceSavingsAccount));
+        doAnswer(invocation -> {
+            zeroBalanceSavingsAccount.setShardBalance(BigDecimal.valueOf(1000.00));
+            return null;
+        }).when(balanceShardService).loadBalances(List.of(zeroBalanceSavingsAccount));
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
+        long daysPassed = ChronoUnit.DAYS.between(zeroBalanceSavingsAccount.getLastInterestAppliedDate().toLocalDate(),
+                LocalDateTime.now().toLocalDate());
+
+        interestCalculationService.calculateInterest();
+
+        assertThat(journal.history).hasSize(1);
+        assertThat(journal.history.get(0).getAmount())
+                .isEqualByComparingTo(calculateExpectedCompoundInterest(BigDecimal.valueOf(1000.00), (int) daysPassed));
+    }
+
     @Test
     @DisplayName("should skip interest if no full days passed since last application")
     void calculateInterest_NoFullDaysPassed() {
@@ -214,7 +253,7 @@ public class InterestCalculationServiceTest {
         verify(entityManager, times(1)).createQuery(anyString(), eq(Account.class));
         verify(mockAccountQuery, times(1)).setParameter(eq("type"), eq(AccountType.SAVINGS));
         verify(mockAccountQuery, times(1)).getResultList();
-        verify(entityManager, never()).persist(any(Transaction.class)); // No transactions
+        verify(journalService, never()).post(any(JournalPosting.class)); // No transactions
 
         assertThat(recentInterestAccount.getBalance()).isEqualByComparingTo(initialBalance); // Balance should not change
     }
@@ -240,7 +279,7 @@ public class InterestCalculationServiceTest {
         BigDecimal expectedInterest = calculateExpectedCompoundInterest(initialBalance, (int) daysPassed);
         BigDecimal expectedNewBalance = initialBalance.add(expectedInterest);
 
-        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
 
         // When
         interestCalculationService.calculateInterest();
@@ -248,8 +287,8 @@ public class InterestCalculationServiceTest {
         // Then
         assertThat(newAccountOldCreation.getBalance()).isEqualByComparingTo(expectedNewBalance);
         assertThat(newAccountOldCreation.getLastInterestAppliedDate().toLocalDate()).isEqualTo(LocalDateTime.now().toLocalDate());
-        verify(entityManager, times(1)).persist(transactionCaptor.capture());
-        assertThat(transactionCaptor.getValue().getAmount()).isEqualByComparingTo(expectedInterest);
+        verify(journalService, times(1)).post(any(JournalPosting.class));
+        assertThat(journal.history.get(0).getAmount()).isEqualByComparingTo(expectedInterest);
     }
 
     @Test
@@ -274,7 +313,7 @@ public class InterestCalculationServiceTest {
         interestCalculationService.calculateInterest();
 
         // Then
-        verify(entityManager, never()).persist(any(Transaction.class)); // No transactions
+        verify(journalService, never()).post(any(JournalPosting.class)); // No transactions
         assertThat(veryNewAccount.getBalance()).isEqualByComparingTo(initialBalance); // Balance should not change
     }
 
@@ -305,7 +344,7 @@ public class InterestCalculationServiceTest {
         BigDecimal expectedInterest2 = calculateExpectedCompoundInterest(initialBalance2, (int) daysPassed2);
         BigDecimal expectedNewBalance2 = initialBalance2.add(expectedInterest2);
 
-        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
 
         // When
         interestCalculationService.calculateInterest();
@@ -320,8 +359,8 @@ public class InterestCalculationServiceTest {
         assertThat(account2.getBalance()).isEqualByComparingTo(expectedNewBalance2);
         assertThat(account2.getLastInterestAppliedDate().toLocalDate()).isEqualTo(LocalDateTime.now().toLocalDate());
 
-        verify(entityManager, times(2)).persist(transactionCaptor.capture()); // Two transactions expected
-        List<Transaction> capturedTransactions = transactionCaptor.getAllValues();
+        verify(journalService, times(2)).post(any(JournalPosting.class)); // One journal entry per account
+        List<Transaction> capturedTransactions = journal.history;
         assertThat(capturedTransactions).hasSize(2);
 
         // Check each captured transaction
@@ -0,0 +1,165 @@
+package lk.banking.timer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import lk.banking.core.entity.ReconciliationBreak;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LedgerReconciliationService Unit Tests")
+public class LedgerReconciliationServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query partitionQuery;
+
+    @Mock
+    private Query baselineInsert;
+
+    @Mock
+    private Query breakInsert;
+
+    @InjectMocks
+    private LedgerReconciliationService reconciliationService;
+
+    private static LedgerReconciliationService.Totals accounts(long count) {
+        LedgerReconciliationService.Totals totals = new LedgerReconciliationService.Totals();
+        totals.accounts = count;
+        return totals;
+    }
+
+    @Test
+    @DisplayName("should cover the id range exactly once in partitions on several workers")
+    void run_CoversRangeOnce() {
+        List<long[]> ranges = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        LedgerReconciliationService.Totals totals = reconciliationService.run((fromId, toId) -> {
+            ranges.add(new long[]{fromId, toId});
+            threads.add(Thread.currentThread().getName());
+            return accounts(toId - fromId);
+        }, 17, 10_018, 1_000, 4);
+
+        assertThat(totals.getAccounts()).isEqualTo(10_001);
+        assertThat(ranges).hasSize(11).allSatisfy(range -> assertThat(range[1] - range[0]).isBetween(1L, 1_000L));
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        assertThat(ranges.get(0)[0]).isEqualTo(17);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i)[0]).isEqualTo(ranges.get(i - 1)[1]);
+        }
+        assertThat(ranges.get(ranges.size() - 1)[1]).isEqualTo(10_018);
+        assertThat(threads).allSatisfy(name -> assertThat(name).startsWith("ForkJoinPool"));
+    }
+
+    @Test
+    @DisplayName("should count a failed partition and still reconcile the others")
+    void run_FailedPartition() {
+        LedgerReconciliationService.Totals totals = reconciliationService.run((fromId, toId) -> {
+            if (fromId == 2_000) {
+                throw new IllegalStateException("Lock wait timeout exceeded");
+            }
+            return accounts(toId - fromId);
+        }, 0, 4_000, 1_000, 2);
+
+        assertThat(totals.getFailedPartitions()).isEqualTo(1);
+        assertThat(totals.getAccounts()).isEqualTo(3_000);
+    }
+
+    @Test
+    @DisplayName("should report accounts whose balance disagrees with their history, without baselining any")
+    void reconcilePartition_Breaks() {
+        when(entityManager.createNativeQuery(LedgerReconciliationService.PARTITION_QUERY)).thenReturn(partitionQuery);
+        when(partitionQuery.setParameter(anyInt(), any())).thenReturn(partitionQuery);
+        when(partitionQuery.getResultList()).thenReturn(List.of(
+                // Opened before opening balances were recorded: 100 that no transaction explains
+                new Object[]{1L, new BigDecimal("150.00"), null, new BigDecimal("50.00")},
+                // Balanced
+                new Object[]{2L, new BigDecimal("75.00"), new BigDecimal("25.00"), new BigDecimal("50.00")},
+                // A debit leg written with the wrong sign: history says 120, the balance says 80
+                new Object[]{3L, new BigDecimal("80.00"), BigDecimal.ZERO, new BigDecimal("120.00")}));
+        when(entityManager.createNativeQuery(startsWith("INSERT INTO reconciliation_breaks"))).thenReturn(breakInsert);
+
+        LedgerReconciliationService.Totals totals = reconciliationService.reconcilePartition("run-1", 1, 10_001);
+
+        assertThat(totals.getAccounts()).isEqualTo(3);
+        assertThat(totals.getBreaks()).isEqualTo(2);
+        assertThat(totals.getMissingBaselines()).isEqualTo(1);
+        verify(partitionQuery).setParameter(1, 1L);
+        verify(partitionQuery).setParameter(2, 10_001L);
+        verify(entityManager, never()).createNativeQuery(startsWith("INSERT INTO reconciliation_baselines"));
+
+        // Two rows of seven columns
+        verify(breakInsert).setParameter(2, 1L);
+        verify(breakInsert).setParameter(4, new BigDecimal("50.00"));
+        verify(breakInsert).setParameter(5, new BigDecimal("100.00"));
+        verify(breakInsert).setParameter(7, true);
+        verify(breakInsert).setParameter(9, 3L);
+        verify(breakInsert).setParameter(11, new BigDecimal("120.00"));
+        verify(breakInsert).setParameter(12, new BigDecimal("-40.00"));
+        verify(breakInsert).setParameter(14, false);
+        verify(breakInsert).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("should turn an acknowledged missing-baseline break into the account's opening balance, once")
+    void acknowledgeOpeningBalance() {
+        ReconciliationBreak missing = new ReconciliationBreak();
+        missing.setId(7L);
+        missing.setAccountId(1L);
+        missing.setDifference(new BigDecimal("100.00"));
+        missing.setMissingBaseline(true);
+        ReconciliationBreak drift = new ReconciliationBreak();
+        drift.setId(8L);
+        when(entityManager.find(ReconciliationBreak.class, 7L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(missing);
+        when(entityManager.find(ReconciliationBreak.class, 8L, LockModeType.PESSIMISTIC_WRITE)).thenReturn(drift);
+        when(entityManager.createNativeQuery(LedgerReconciliationService.INSERT_BASELINE)).thenReturn(baselineInsert);
+        when(baselineInsert.setParameter(anyInt(), any())).thenReturn(baselineInsert);
+
+        reconciliationService.acknowledgeOpeningBalance(7L, "ops@bank.example");
+
+        verify(baselineInsert).setParameter(1, 1L);
+        verify(baselineInsert).setParameter(2, new BigDecimal("100.00"));
+        verify(baselineInsert).executeUpdate();
+        assertThat(missing.getAcknowledgedAt()).isNotNull();
+        assertThat(missing.getAcknowledgedBy()).isEqualTo("ops@bank.example");
+
+        assertThatThrownBy(() -> reconciliationService.acknowledgeOpeningBalance(7L, "ops@bank.example"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> reconciliationService.acknowledgeOpeningBalance(8L, "ops@bank.example"))
+                .isInstanceOf(IllegalStateException.class);
+        verify(baselineInsert, times(1)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("should write nothing when every account balances")
+    void reconcilePartition_Clean() {
+        when(entityManager.createNativeQuery(LedgerReconciliationService.PARTITION_QUERY)).thenReturn(partitionQuery);
+        when(partitionQuery.setParameter(anyInt(), any())).thenReturn(partitionQuery);
+        when(partitionQuery.getResultList()).thenReturn(List.<Object[]>of(
+                new Object[]{2L, new BigDecimal("75.00"), new BigDecimal("25.00"), new BigDecimal("50.00")}));
+
+        LedgerReconciliationService.Totals totals = reconciliationService.reconcilePartition("run-1", 1, 10_001);
+
+        assertThat(totals.getBreaks()).isZero();
+        verify(entityManager, times(1)).createNativeQuery(anyString());
+    }
+}
@@ -0,0 +1,170 @@
+package lk.banking.timer;
+
+import jakarta.ejb.SessionContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.TransactionType;
+import lk.banking.core.exception.InsufficientFundsException;
+import lk.banking.services.TransactionServices;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PendingSettlementService Unit Tests")
+public class PendingSettlementServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private SessionContext sessionContext;
+
+    @Mock
+    private TransactionServices transactionServices;
+
+    @Mock
+    private TypedQuery<Transaction> pendingQuery;
+
+    @Mock
+    private TypedQuery<Long> heldQuery;
+
+    @Mock
+    private Query changeInsert;
+
+    @InjectMocks
+    private PendingSettlementService settlementService;
+
+    private final LocalDateTime cutoff = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer("John Doe", "john.doe@example.com", "123 Main St", "1234567890");
+        account = new Account("100000000001", AccountType.SAVINGS, new BigDecimal("100.00"), customer);
+        account.setId(1L);
+    }
+
+    private Transaction pending(long id, TransactionType type, String amount) {
+        Transaction transaction = new Transaction(account, new BigDecimal(amount), type, TransactionStatus.PENDING,
+                cutoff.minusHours(1), type + " " + id);
+        transaction.setId(id);
+        return transaction;
+    }
+
+    private static PendingSettlementService.Totals completed(long count) {
+        PendingSettlementService.Totals totals = new PendingSettlementService.Totals();
+        totals.accounts = 1;
+        totals.completed = count;
+        return totals;
+    }
+
+    @Test
+    @DisplayName("should post what the account can cover, fail the rest and record every change with one insert")
+    void settleAccount_PostsAndFails() {
+        Transaction heldPayment = pending(10L, TransactionType.PAYMENT, "500.00");
+        Transaction deposit = pending(11L, TransactionType.DEPOSIT, "50.00");
+        Transaction uncovered = pending(12L, TransactionType.WITHDRAWAL, "400.00");
+        when(entityManager.createQuery(startsWith("SELECT t FROM Transaction t"), eq(Transaction.class))).thenReturn(pendingQuery);
+        when(pendingQuery.setParameter(anyString(), any())).thenReturn(pendingQuery);
+        when(pendingQuery.setMaxResults(anyInt())).thenReturn(pendingQuery);
+        when(pendingQuery.getResultList()).thenReturn(List.of(heldPayment, deposit, uncovered));
+        when(entityManager.createQuery(startsWith("SELECT h.transactionId"), eq(Long.class))).thenReturn(heldQuery);
+        when(heldQuery.setParameter(anyString(), any())).thenReturn(heldQuery);
+        when(heldQuery.getResultList()).thenReturn(List.of(10L));
+        when(entityManager.createNativeQuery(startsWith("INSERT INTO transaction_status_changes"))).thenReturn(changeInsert);
+
+        PendingSettlementService.Totals totals = settlementService.settleAccount(1L, cutoff);
+
+        assertThat(totals.getCompleted()).isEqualTo(2);
+        assertThat(totals.getFailed()).isEqualTo(1);
+        verify(entityManager).refresh(account);
+        verify(transactionServices).completePendingTransaction(10L);
+        verify(transactionServices).completePendingTransaction(11L);
+        verify(transactionServices).failPendingTransaction(12L);
+        verify(pendingQuery).setParameter("cutoff", cutoff);
+
+        verify(entityManager, times(1)).createNativeQuery(anyString());
+        verify(changeInsert).setParameter(1, 10L);
+        verify(changeInsert).setParameter(3, "COMPLETED");
+        verify(changeInsert).setParameter(11, 12L);
+        verify(changeInsert).setParameter(13, "FAILED");
+        verify(changeInsert).setParameter(14, "Insufficient funds in account 100000000001.");
+        verify(changeInsert).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("should settle every account of a batch on several workers and count accounts that blow up")
+    void run_SettlesEachAccountOnce() {
+        List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+        List<Long> accountIds = LongStream.rangeClosed(1, 200).boxed().toList();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PendingSettlementService.Totals totals = settlementService.run(accountId -> {
+                seen.add(accountId);
+                if (accountId == 7L) {
+                    throw new IllegalStateException("Lock wait timeout exceeded");
+                }
+                return completed(2);
+            }, accountIds, pool);
+
+            assertThat(seen).containsExactlyInAnyOrderElementsOf(accountIds);
+            assertThat(totals.getAccounts()).isEqualTo(199);
+            assertThat(totals.getCompleted()).isEqualTo(398);
+            assertThat(totals.getErrors()).isEqualTo(1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("should page through accounts and retry a rolled-back account one transaction at a time")
+    void settle_RetriesFailedAccountRowByRow() {
+        PendingSettlementService self = mock(PendingSettlementService.class);
+        when(sessionContext.getBusinessObject(PendingSettlementService.class)).thenReturn(self);
+        Query accounts = mock(Query.class);
+        when(entityManager.createNativeQuery(PendingSettlementService.PENDING_ACCOUNTS)).thenReturn(accounts);
+        when(accounts.setParameter(anyInt(), any())).thenReturn(accounts);
+        when(accounts.getResultList()).thenReturn(List.of(3L, 8L));
+
+        when(self.settleAccount(3L, cutoff)).thenReturn(completed(4));
+        when(self.settleAccount(8L, cutoff)).thenThrow(new InsufficientFundsException("Insufficient funds in account 8."));
+        when(self.pendingTransactionIds(8L, cutoff)).thenReturn(List.of(80L, 81L));
+        when(self.settleTransaction(80L)).thenReturn(completed(1));
+        when(self.settleTransaction(81L)).thenThrow(new InsufficientFundsException("Insufficient funds in account 8."));
+
+        PendingSettlementService.Totals totals = settlementService.settle(cutoff);
+
+        assertThat(totals.getAccounts()).isEqualTo(2);
+        assertThat(totals.getCompleted()).isEqualTo(5);
+        assertThat(totals.getFailed()).isEqualTo(1);
+        assertThat(totals.getRetriedAccounts()).isEqualTo(1);
+        verify(self).failTransaction(81L, "Insufficient funds in account 8.");
+        verify(accounts).setParameter(2, 0L);
+        verify(accounts, times(1)).getResultList();
+    }
+}
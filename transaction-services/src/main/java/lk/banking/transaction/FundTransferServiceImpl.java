@@ -1,24 +1,39 @@
 package lk.banking.transaction;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.dto.TransferRequestDto;
 import lk.banking.core.entity.Account;
+import lk.banking.core.entity.FundsHold;
 import lk.banking.core.entity.Transaction;
-import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.NotificationType;
 import lk.banking.core.entity.enums.TransactionType;
 import lk.banking.core.exception.AccountNotFoundException;
 import lk.banking.core.exception.InsufficientFundsException;
 import lk.banking.core.exception.InvalidTransactionException;
 import lk.banking.core.exception.ValidationException;
+import lk.banking.notification.NotificationIntent;
+import lk.banking.notification.NotificationOutbox;
+import lk.banking.services.events.LedgerEvent;
+import lk.banking.services.holds.HoldService;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
+import lk.banking.services.shards.BalanceShardService;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.logging.Logger;
 
 @Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class FundTransferServiceImpl implements FundTransferService {
 
     private static final Logger LOGGER = Logger.getLogger(FundTransferServiceImpl.class.getName());
@@ -26,6 +41,21 @@ public class FundTransferServiceImpl implements FundTransferService {
     @PersistenceContext(unitName = "bankingPU")
     private EntityManager em;
 
+    @Inject
+    private Event<LedgerEvent> ledgerEvents;
+
+    @EJB
+    private NotificationOutbox notificationOutbox;
+
+    @EJB
+    private JournalService journalService;
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
+    @EJB
+    private HoldService holdService;
+
     @Override
     @Transactional
     public Transaction transferFunds(TransferRequestDto requestDto) {
@@ -69,35 +99,67 @@ public class FundTransferServiceImpl implements FundTransferService {
             throw new InvalidTransactionException("Transfer denied: Destination account " + toAccount.getAccountNumber() + " is inactive.");
         }
 
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
-            LOGGER.warning("FundTransferService: Insufficient funds in source account " + fromAccount.getAccountNumber() + ". Balance: " + fromAccount.getBalance() + ", Attempted: " + amount);
+        // Funds reserved by a hold (a scheduled transfer) are taken from the hold; otherwise the available
+        // balance must cover the amount. This check fails fast; the journal's conditional UPDATE is what
+        // guarantees it under concurrent debits.
+        FundsHold hold = null;
+        if (requestDto.getHoldId() != null) {
+            hold = holdService.capture(requestDto.getHoldId(), amount);
+            if (hold != null && !fromAccount.getId().equals(hold.getAccount().getId())) {
+                throw new InvalidTransactionException("Funds hold " + hold.getId() + " does not belong to account " + fromAccount.getAccountNumber() + ".");
+            }
+        }
+        // A sharded account's row does not show the funds in its shards; the journal checks those
+        if (hold == null && fromAccount.getBalanceShards() == 0 && fromAccount.getAvailableBalance().compareTo(amount) < 0) {
+            LOGGER.warning("FundTransferService: Insufficient funds in source account " + fromAccount.getAccountNumber() + ". Available: " + fromAccount.getAvailableBalance() + ", Attempted: " + amount);
             throw new InsufficientFundsException("Insufficient funds in source account " + fromAccount.getAccountNumber() + ".");
         }
 
-        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
-        toAccount.setBalance(toAccount.getBalance().add(amount));
-
-        Transaction debitTransaction = new Transaction(
-                fromAccount,
-                amount.negate(),
-                TransactionType.TRANSFER,
-                TransactionStatus.COMPLETED,
-                LocalDateTime.now(),
-                String.format("Transfer out to account %s", toAccount.getAccountNumber())
-        );
-        em.persist(debitTransaction);
-
-        Transaction creditTransaction = new Transaction(
-                toAccount,
-                amount,
-                TransactionType.TRANSFER,
-                TransactionStatus.COMPLETED,
-                LocalDateTime.now(),
-                String.format("Transfer in from account %s", fromAccount.getAccountNumber())
-        );
-        em.persist(creditTransaction);
+        // One balanced journal entry; both account-history rows carry its id
+        String debitDescription = String.format("Transfer out to account %s", toAccount.getAccountNumber());
+        JournalPosting posting = JournalPosting.of(TransactionType.TRANSFER,
+                String.format("Transfer from account %s to account %s", fromAccount.getAccountNumber(), toAccount.getAccountNumber()));
+        if (hold != null) {
+            posting.captured(hold, debitDescription);
+        } else {
+            posting.account(fromAccount, amount.negate(), debitDescription);
+        }
+        List<Transaction> legs = journalService.post(posting
+                .account(toAccount, amount, String.format("Transfer in from account %s", fromAccount.getAccountNumber())));
+        Transaction debitTransaction = legs.get(0);
+        Transaction creditTransaction = legs.get(1);
+        // Balances shown to the customers include credits still sitting in a sharded account's shards
+        for (Transaction leg : legs) {
+            balanceShardService.balance(leg.getAccount());
+        }
+
+        // Delivered to live dashboards only after this transaction commits
+        ledgerEvents.fire(LedgerEvent.posted(debitTransaction));
+        ledgerEvents.fire(LedgerEvent.posted(creditTransaction));
+
+        // Stored with this transaction, delivered by the outbox dispatcher after it commits
+        notificationOutbox.enqueue(List.of(
+                transferNotification(NotificationType.TRANSFER_SENT, debitTransaction, fromAccount, toAccount, amount),
+                transferNotification(NotificationType.TRANSFER_RECEIVED, creditTransaction, fromAccount, toAccount, amount)));
 
         LOGGER.info("FundTransferService: Transfer successful between " + fromAccount.getAccountNumber() + " and " + toAccount.getAccountNumber() + " for " + amount);
         return debitTransaction;
     }
-}
\ No newline at end of file
+
+    private static NotificationIntent transferNotification(NotificationType type, Transaction leg,
+                                                           Account fromAccount, Account toAccount, BigDecimal amount) {
+        Account owner = leg.getAccount();
+        String email = owner.getCustomer() != null ? owner.getCustomer().getEmail() : null;
+        return NotificationIntent.email(type, email)
+                // Incoming transfers may be merged into the recipient's digest; outgoing ones are always sent
+                .digest(type == NotificationType.TRANSFER_RECEIVED && owner.getCustomer() != null
+                        ? owner.getCustomer().getNotificationDigest() : null)
+                .with("customerName", owner.getCustomer() != null ? owner.getCustomer().getName() : null)
+                .with("amount", amount)
+                .with("fromAccount", NotificationIntent.maskAccountNumber(fromAccount.getAccountNumber()))
+                .with("toAccount", NotificationIntent.maskAccountNumber(toAccount.getAccountNumber()))
+                .with("balance", owner.getTotalBalance())
+                .with("timestamp", leg.getTimestamp())
+                .with("reference", leg.getId());
+    }
+}
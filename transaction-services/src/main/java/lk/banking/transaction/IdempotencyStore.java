@@ -0,0 +1,283 @@
+package lk.banking.transaction;
+
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.SessionContext;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lk.banking.core.entity.ScheduledTransfer;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.exception.ResourceConflictException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Remembers which result (a Transaction, or a ScheduledTransfer) each idempotency key produced, so a
+ * double-submitted or retried request gets the original result instead of moving money again. The table
+ * idempotency_keys is the authority; an access-ordered LRU of recently completed keys answers most replays
+ * without a query.
+ * <p>
+ * Each key is stored with a hash of the request it was first used for ({@link #requestHash}). Reusing a key
+ * for a different request is a client bug, not a retry, and is refused with a ResourceConflictException
+ * rather than answered with the first request's result.
+ * <p>
+ * A key is claimed by inserting its row in the caller's transaction before any money moves, and completed
+ * in the same transaction. A concurrent request with the same key blocks on that row until the first one
+ * commits, then finds it completed; if the first one rolls back, the claim goes with it and the second
+ * request proceeds. Only committed keys enter the LRU.
+ * <p>
+ * Keys expire after {@code banking.idempotency.ttlHours} (default 24) and are deleted by an hourly
+ * cleanup; the LRU holds at most {@code banking.idempotency.cacheSize} keys (default 10000).
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class IdempotencyStore {
+
+    private static final Logger LOGGER = Logger.getLogger(IdempotencyStore.class.getName());
+
+    /** Width of idempotency_keys.idempotencyKey. */
+    public static final int MAX_KEY_LENGTH = 64;
+
+    static final String CLAIM = "INSERT IGNORE INTO idempotency_keys (idempotencyKey, requestHash, resultId, createdAt, expiresAt)"
+            + " VALUES (?, ?, NULL, ?, ?)";
+    static final String LOCK = "SELECT resultId, expiresAt, requestHash FROM idempotency_keys WHERE idempotencyKey = ? FOR UPDATE";
+    static final String RECLAIM = "UPDATE idempotency_keys SET requestHash = ?, resultId = NULL, createdAt = ?, expiresAt = ?"
+            + " WHERE idempotencyKey = ?";
+    static final String COMPLETE = "UPDATE idempotency_keys SET resultId = ? WHERE idempotencyKey = ?";
+    static final String DELETE_EXPIRED = "DELETE FROM idempotency_keys WHERE expiresAt <= ? LIMIT ?";
+
+    private static final int CLEANUP_BATCH = 5_000;
+
+    @PersistenceContext(unitName = "bankingPU")
+    private EntityManager em;
+
+    @Resource
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Resource
+    private SessionContext sessionContext;
+
+    private final long ttlHours = Long.getLong("banking.idempotency.ttlHours", 24);
+    private final int cacheSize = Integer.getInteger("banking.idempotency.cacheSize", 10_000);
+
+    private record Completed(Long resultId, String requestHash, LocalDateTime expiresAt) {
+    }
+
+    /** Access-ordered, so the least recently replayed key is evicted first. */
+    private final LinkedHashMap<String, Completed> recent = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Claims {@code key} for the calling transaction, or returns the result it already produced.
+     *
+     * @param requestHash {@link #requestHash} of the request being made under the key.
+     * @param resultType  what the operation produces; the same for every use of a key.
+     * @return the original result if the key was completed before; null if the caller now owns the key and
+     *         must call {@code complete} once the money has moved.
+     * @throws ResourceConflictException if the key was completed for a different request.
+     */
+    @TransactionAttribute(TransactionAttributeType.MANDATORY)
+    public <T> T claim(String key, String requestHash, Class<T> resultType) {
+        LocalDateTime now = LocalDateTime.now();
+        Completed cached;
+        synchronized (recent) {
+            cached = recent.get(key);
+        }
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            checkSameRequest(key, cached.requestHash(), requestHash);
+            return em.find(resultType, cached.resultId());
+        }
+
+        LocalDateTime expiresAt = now.plusHours(ttlHours);
+        if (insert(key, requestHash, now, expiresAt) == 1) {
+            return null;
+        }
+        // Someone holds or held the key: wait for their transaction, then look at what it left behind
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(LOCK).setParameter(1, key).getResultList();
+        if (rows.isEmpty()) {
+            // Deleted by the cleanup in between
+            return insert(key, requestHash, now, expiresAt) == 1 ? null : claim(key, requestHash, resultType);
+        }
+        Object[] row = rows.get(0);
+        LocalDateTime storedExpiry = dateTime(row[1]);
+        if (row[0] != null && storedExpiry.isAfter(now)) {
+            Long resultId = ((Number) row[0]).longValue();
+            String storedHash = (String) row[2];
+            checkSameRequest(key, storedHash, requestHash);
+            remember(key, new Completed(resultId, storedHash, storedExpiry));
+            LOGGER.info("IdempotencyStore: Replaying key " + key + " as " + resultType.getSimpleName() + " " + resultId + ".");
+            return em.find(resultType, resultId);
+        }
+        // Expired, or left incomplete by a caller that committed without completing it
+        em.createNativeQuery(RECLAIM)
+                .setParameter(1, requestHash)
+                .setParameter(2, now)
+                .setParameter(3, expiresAt)
+                .setParameter(4, key)
+                .executeUpdate();
+        return null;
+    }
+
+    /**
+     * Records the transaction a claimed key produced. The key enters the LRU only once the calling
+     * transaction has committed.
+     */
+    @TransactionAttribute(TransactionAttributeType.MANDATORY)
+    public void complete(String key, String requestHash, Transaction transaction) {
+        if (transaction.getId() == null) {
+            em.flush();
+        }
+        complete(key, requestHash, transaction.getId());
+    }
+
+    /** Records the scheduled transfer a claimed key produced, as {@link #complete(String, String, Transaction)}. */
+    @TransactionAttribute(TransactionAttributeType.MANDATORY)
+    public void complete(String key, String requestHash, ScheduledTransfer transfer) {
+        if (transfer.getId() == null) {
+            em.flush();
+        }
+        complete(key, requestHash, transfer.getId());
+    }
+
+    /**
+     * Hash identifying a request, for {@link #claim}: SHA-256 over its fields, in order. Amounts compare by
+     * value, so 200 and 200.00 hash alike.
+     */
+    public static String requestHash(Object... fields) {
+        StringBuilder request = new StringBuilder();
+        for (Object field : fields) {
+            Object value = field instanceof BigDecimal amount ? amount.stripTrailingZeros().toPlainString() : field;
+            request.append(value).append('\u001f');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Whether {@code key} is a key to check at all; over-long keys are a programming error. */
+    static boolean hasKey(String key) {
+        if (key == null || key.isBlank()) {
+            return false;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        return true;
+    }
+
+    private void complete(String key, String requestHash, Long resultId) {
+        em.createNativeQuery(COMPLETE)
+                .setParameter(1, resultId)
+                .setParameter(2, key)
+                .executeUpdate();
+
+        Completed completed = new Completed(resultId, requestHash, LocalDateTime.now().plusHours(ttlHours));
+        if (transactionSynchronizationRegistry == null || transactionSynchronizationRegistry.getTransactionKey() == null) {
+            remember(key, completed);
+            return;
+        }
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    remember(key, completed);
+                }
+            }
+        });
+    }
+
+    /**
+     * Deletes expired keys hourly, in batches of their own transaction so the cleanup never holds many
+     * row locks at once.
+     */
+    @Schedule(hour = "*", minute = "17", second = "0", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            recent.values().removeIf(completed -> !completed.expiresAt().isAfter(now));
+        }
+        IdempotencyStore self = sessionContext.getBusinessObject(IdempotencyStore.class);
+        long deleted = 0;
+        int batch;
+        do {
+            batch = self.deleteExpired(now, CLEANUP_BATCH);
+            deleted += batch;
+        } while (batch == CLEANUP_BATCH);
+        if (deleted > 0) {
+            LOGGER.info("IdempotencyStore: Deleted " + deleted + " expired idempotency keys.");
+        }
+    }
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public int deleteExpired(LocalDateTime now, int limit) {
+        return em.createNativeQuery(DELETE_EXPIRED)
+                .setParameter(1, now)
+                .setParameter(2, limit)
+                .executeUpdate();
+    }
+
+    /** For diagnostics: number of keys currently held in memory. */
+    int cachedKeys() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+
+    private int insert(String key, String requestHash, LocalDateTime now, LocalDateTime expiresAt) {
+        return em.createNativeQuery(CLAIM)
+                .setParameter(1, key)
+                .setParameter(2, requestHash)
+                .setParameter(3, now)
+                .setParameter(4, expiresAt)
+                .executeUpdate();
+    }
+
+    private static void checkSameRequest(String key, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            LOGGER.warning("IdempotencyStore: Key " + key + " was reused for a different request.");
+            throw new ResourceConflictException("This request was already submitted with different details."
+                    + " Please reload the form and try again.");
+        }
+    }
+
+    private void remember(String key, Completed completed) {
+        synchronized (recent) {
+            recent.put(key, completed);
+        }
+    }
+
+    private static LocalDateTime dateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
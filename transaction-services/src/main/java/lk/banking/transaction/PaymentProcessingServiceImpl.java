@@ -1,24 +1,38 @@
 package lk.banking.transaction;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.dto.TransactionDto;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Transaction;
-import lk.banking.core.entity.enums.TransactionStatus;
+import lk.banking.core.entity.enums.LedgerAccount;
+import lk.banking.core.entity.enums.NotificationType;
 import lk.banking.core.entity.enums.TransactionType;
 import lk.banking.core.exception.AccountNotFoundException;
 import lk.banking.core.exception.InsufficientFundsException;
 import lk.banking.core.exception.InvalidTransactionException;
 import lk.banking.core.exception.ValidationException;
+import lk.banking.notification.NotificationIntent;
+import lk.banking.notification.NotificationOutbox;
+import lk.banking.services.events.LedgerEvent;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
+import lk.banking.services.shards.BalanceShardService;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.logging.Logger;
 
 @Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class PaymentProcessingServiceImpl implements PaymentProcessingService {
 
     private static final Logger LOGGER = Logger.getLogger(PaymentProcessingServiceImpl.class.getName());
@@ -26,6 +40,18 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
     @PersistenceContext(unitName = "bankingPU")
     private EntityManager em;
 
+    @Inject
+    private Event<LedgerEvent> ledgerEvents;
+
+    @EJB
+    private NotificationOutbox notificationOutbox;
+
+    @EJB
+    private JournalService journalService;
+
+    @EJB
+    private BalanceShardService balanceShardService;
+
     @Override
     @Transactional
     public Transaction processPayment(TransactionDto transactionDto) {
@@ -61,31 +87,49 @@ public class PaymentProcessingServiceImpl implements PaymentProcessingService {
 
         TransactionType type = transactionDto.getType();
         BigDecimal finalAmountForRecord;
+        LedgerAccount counterLedger;
 
         if (type == TransactionType.WITHDRAWAL || type == TransactionType.PAYMENT) {
-            if (account.getBalance().compareTo(amount) < 0) {
-                LOGGER.warning("PaymentProcessingService: Insufficient funds for " + type.name().toLowerCase() + " in account " + account.getAccountNumber() + ". Balance: " + account.getBalance() + ", Attempted: " + amount);
+            // Fails fast on what was read; the journal's conditional UPDATE enforces it under concurrency.
+            // A sharded account's row does not show the funds in its shards, so only the journal can tell.
+            if (account.getBalanceShards() == 0 && account.getAvailableBalance().compareTo(amount) < 0) {
+                LOGGER.warning("PaymentProcessingService: Insufficient funds for " + type.name().toLowerCase() + " in account " + account.getAccountNumber() + ". Available: " + account.getAvailableBalance() + ", Attempted: " + amount);
                 throw new InsufficientFundsException("Insufficient funds for " + type.name().toLowerCase() + " in account " + account.getAccountNumber() + ".");
             }
-            account.setBalance(account.getBalance().subtract(amount));
             finalAmountForRecord = amount.negate();
+            counterLedger = type == TransactionType.PAYMENT ? LedgerAccount.PAYMENTS_CLEARING : LedgerAccount.CASH;
         } else if (type == TransactionType.DEPOSIT) {
-            account.setBalance(account.getBalance().add(amount));
             finalAmountForRecord = amount;
+            counterLedger = LedgerAccount.CASH;
         } else {
             LOGGER.warning("PaymentProcessingService: Unsupported transaction type for payment processing: " + type.name());
             throw new InvalidTransactionException("Unsupported transaction type for payment processing: " + type.name());
         }
 
-        Transaction transaction = new Transaction(
-                account,
-                finalAmountForRecord,
-                type,
-                TransactionStatus.COMPLETED,
-                LocalDateTime.now(),
-                transactionDto.getDescription()
-        );
-        em.persist(transaction);
+        // The account leg and the bank's side of it, posted as one balanced journal entry
+        Transaction transaction = journalService.post(JournalPosting.of(type, transactionDto.getDescription())
+                .account(account, finalAmountForRecord, transactionDto.getDescription())
+                .ledger(counterLedger, finalAmountForRecord.negate())).get(0);
+        // The balance shown to the customer includes credits still sitting in a sharded account's shards
+        balanceShardService.balance(account);
+
+        // Delivered to live dashboards only after this transaction commits
+        ledgerEvents.fire(LedgerEvent.posted(transaction));
+
+        // Stored with this transaction, delivered by the outbox dispatcher after it commits. Deposits may be
+        // merged into a digest (a merchant takes thousands a day); debits are always sent on their own.
+        notificationOutbox.enqueue(List.of(NotificationIntent.email(NotificationType.PAYMENT_POSTED,
+                        account.getCustomer() != null ? account.getCustomer().getEmail() : null)
+                .digest(type == TransactionType.DEPOSIT && account.getCustomer() != null
+                        ? account.getCustomer().getNotificationDigest() : null)
+                .with("customerName", account.getCustomer() != null ? account.getCustomer().getName() : null)
+                .with("transactionType", type.name().charAt(0) + type.name().substring(1).toLowerCase())
+                .with("amount", amount)
+                .with("account", NotificationIntent.maskAccountNumber(account.getAccountNumber()))
+                .with("balance", account.getTotalBalance())
+                .with("timestamp", transaction.getTimestamp())
+                .with("description", transaction.getDescription())
+                .with("reference", transaction.getId())));
 
         LOGGER.info("PaymentProcessingService: " + type.name() + " of " + amount + " successful for account " + account.getAccountNumber());
         return transaction;
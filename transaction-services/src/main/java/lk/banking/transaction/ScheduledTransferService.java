@@ -15,6 +15,17 @@ public interface ScheduledTransferService {
      */
     ScheduledTransfer scheduleTransfer(ScheduledTransfer transfer);
 
+    /**
+     * Schedules a new fund transfer at most once per idempotency key, as
+     * {@link TransactionManager#transferFunds(String, lk.banking.core.dto.TransferRequestDto)} does for
+     * immediate transfers.
+     * @param idempotencyKey Key identifying this request, or null to always schedule.
+     * @param transfer The ScheduledTransfer entity to persist.
+     * @return The persisted ScheduledTransfer, the original one if the key was seen before.
+     * @throws lk.banking.core.exception.ResourceConflictException if the key was used for a different request.
+     */
+    ScheduledTransfer scheduleTransfer(String idempotencyKey, ScheduledTransfer transfer);
+
     /**
      * Retrieves all scheduled transfers that are pending and due for processing.
      * @return A list of pending ScheduledTransfer entities.
@@ -1,20 +1,35 @@
 package lk.banking.transaction;
 
+import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.interceptor.Interceptors;
+import lk.banking.core.entity.FundsHold;
 import lk.banking.core.entity.ScheduledTransfer;
 import lk.banking.core.exception.ScheduledTransferException; // Import your custom exception
+import lk.banking.services.holds.HoldService;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
 
 import java.time.LocalDateTime; // For filtering by scheduled time
 import java.util.List;
 
 @Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class ScheduledTransferServiceImpl implements ScheduledTransferService {
 
+    /** How long after its scheduled time a transfer keeps its funds reserved if it cannot run. */
+    private static final long GRACE_HOURS = Long.getLong("banking.holds.scheduledGraceHours", 24);
+
     @PersistenceContext(unitName = "bankingPU")
     private EntityManager em;
 
+    @EJB
+    private HoldService holdService;
+
+    @EJB
+    private IdempotencyStore idempotencyStore;
+
     @Override
     public ScheduledTransfer scheduleTransfer(ScheduledTransfer transfer) {
         // Basic validation: ensure accounts are set before persisting if not handled by caller
@@ -28,10 +43,33 @@ public class ScheduledTransferServiceImpl implements ScheduledTransferService {
             throw new ScheduledTransferException("Scheduled time must be provided for scheduled transfer.");
         }
 
+        // Reserve the amount now so the transfer cannot bounce on funds spent in the meantime
+        FundsHold hold = holdService.place(transfer.getFromAccount().getId(), transfer.getAmount(),
+                "Scheduled transfer to account " + transfer.getToAccount().getAccountNumber(),
+                transfer.getScheduledTime().plusHours(GRACE_HOURS));
+        transfer.setHoldId(hold.getId());
         em.persist(transfer);
         return transfer;
     }
 
+    @Override
+    public ScheduledTransfer scheduleTransfer(String idempotencyKey, ScheduledTransfer transfer) {
+        if (!IdempotencyStore.hasKey(idempotencyKey)) {
+            return scheduleTransfer(transfer);
+        }
+        String requestHash = IdempotencyStore.requestHash("scheduled",
+                transfer.getFromAccount() != null ? transfer.getFromAccount().getId() : null,
+                transfer.getToAccount() != null ? transfer.getToAccount().getId() : null,
+                transfer.getAmount(), transfer.getScheduledTime());
+        ScheduledTransfer original = idempotencyStore.claim(idempotencyKey, requestHash, ScheduledTransfer.class);
+        if (original != null) {
+            return original;
+        }
+        ScheduledTransfer scheduled = scheduleTransfer(transfer);
+        idempotencyStore.complete(idempotencyKey, requestHash, scheduled);
+        return scheduled;
+    }
+
     @Override
     public List<ScheduledTransfer> getPendingTransfers() {
         // Retrieve transfers that are not yet processed AND whose scheduled time is now or in the past
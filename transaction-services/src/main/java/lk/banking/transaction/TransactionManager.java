@@ -8,6 +8,12 @@ import lk.banking.core.entity.Transaction;
 /**
  * Local interface for the TransactionManagerBean, acting as a facade
  * for various transaction-related services.
+ * <p>
+ * Every money-moving operation has a variant taking an idempotency key. A request repeated with a key
+ * that already completed, from a double-clicked form or a retry after a timeout, returns the original
+ * Transaction and leaves the ledger untouched. Keys are unique across all callers and operations, at most
+ * {@value IdempotencyStore#MAX_KEY_LENGTH} characters; a null key disables the check. A key reused for a
+ * request with different details gets a ResourceConflictException.
  */
 @Local
 public interface TransactionManager {
@@ -19,6 +25,14 @@ public interface TransactionManager {
      */
     Transaction transferFunds(TransferRequestDto transferRequestDto);
 
+    /**
+     * Initiates a fund transfer at most once per idempotency key.
+     * @param idempotencyKey Key identifying this request, or null to always transfer.
+     * @param transferRequestDto DTO containing details for the fund transfer.
+     * @return The primary Transaction record of the transfer, the original one if the key was seen before.
+     */
+    Transaction transferFunds(String idempotencyKey, TransferRequestDto transferRequestDto);
+
     /**
      * Processes a single-leg payment transaction (deposit, withdrawal, or simple payment).
      * Delegates to PaymentProcessingService.
@@ -26,4 +40,12 @@ public interface TransactionManager {
      * @return The Transaction record created for the payment.
      */
     Transaction processPayment(TransactionDto transactionDto);
-}
\ No newline at end of file
+
+    /**
+     * Processes a single-leg payment transaction at most once per idempotency key.
+     * @param idempotencyKey Key identifying this request, or null to always process it.
+     * @param transactionDto DTO containing details for the payment.
+     * @return The Transaction record of the payment, the original one if the key was seen before.
+     */
+    Transaction processPayment(String idempotencyKey, TransactionDto transactionDto);
+}
@@ -3,12 +3,14 @@ package lk.banking.transaction;
 
 import jakarta.ejb.Stateless;
 import jakarta.inject.Inject; // Essential for CDI injection of other EJBs/beans
+import jakarta.interceptor.Interceptors;
 import lk.banking.core.dto.TransferRequestDto;
 import lk.banking.core.dto.TransactionDto;
 import lk.banking.core.entity.Transaction;
 import lk.banking.core.exception.AccountNotFoundException;
 import lk.banking.core.exception.InsufficientFundsException;
 import lk.banking.core.exception.InvalidTransactionException;
+import lk.banking.services.interceptor.PerformanceMonitorInterceptor;
 
 /**
  * A Stateless Session Bean acting as a facade for the transaction services.
@@ -16,6 +18,7 @@ import lk.banking.core.exception.InvalidTransactionException;
  * to specialized services like FundTransferService and PaymentProcessingService.
  */
 @Stateless
+@Interceptors(PerformanceMonitorInterceptor.class)
 public class TransactionManagerBean implements TransactionManager { // Implements the new interface
 
     // Inject specialized services using CDI
@@ -25,6 +28,9 @@ public class TransactionManagerBean implements TransactionManager { // Implement
     @Inject
     private PaymentProcessingService paymentProcessingService;
 
+    @Inject
+    private IdempotencyStore idempotencyStore;
+
     /**
      * Delegates the fund transfer request to the FundTransferService.
      * @param transferRequestDto DTO containing fromAccount, toAccount, and amount.
@@ -40,6 +46,26 @@ public class TransactionManagerBean implements TransactionManager { // Implement
         return fundTransferService.transferFunds(transferRequestDto);
     }
 
+    /**
+     * Transfers unless {@code idempotencyKey} already produced a transaction, in which case that one is returned.
+     * The key is claimed and completed in the same transaction as the transfer, so a failed transfer frees it.
+     */
+    @Override
+    public Transaction transferFunds(String idempotencyKey, TransferRequestDto transferRequestDto) {
+        if (!IdempotencyStore.hasKey(idempotencyKey)) {
+            return transferFunds(transferRequestDto);
+        }
+        String requestHash = IdempotencyStore.requestHash("transfer", transferRequestDto.getFromAccountId(),
+                transferRequestDto.getToAccountId(), transferRequestDto.getAmount());
+        Transaction original = idempotencyStore.claim(idempotencyKey, requestHash, Transaction.class);
+        if (original != null) {
+            return original;
+        }
+        Transaction transaction = fundTransferService.transferFunds(transferRequestDto);
+        idempotencyStore.complete(idempotencyKey, requestHash, transaction);
+        return transaction;
+    }
+
     /**
      * Delegates the payment processing request to the PaymentProcessingService.
      * @param transactionDto DTO containing account ID, amount, type (DEPOSIT, WITHDRAWAL, PAYMENT), and description.
@@ -54,4 +80,24 @@ public class TransactionManagerBean implements TransactionManager { // Implement
         // handling are in PaymentProcessingService.
         return paymentProcessingService.processPayment(transactionDto);
     }
-}
\ No newline at end of file
+
+    /**
+     * Processes the payment unless {@code idempotencyKey} already produced a transaction, in which case that
+     * one is returned.
+     */
+    @Override
+    public Transaction processPayment(String idempotencyKey, TransactionDto transactionDto) {
+        if (!IdempotencyStore.hasKey(idempotencyKey)) {
+            return processPayment(transactionDto);
+        }
+        String requestHash = IdempotencyStore.requestHash("payment", transactionDto.getAccountId(),
+                transactionDto.getType(), transactionDto.getAmount(), transactionDto.getDescription());
+        Transaction original = idempotencyStore.claim(idempotencyKey, requestHash, Transaction.class);
+        if (original != null) {
+            return original;
+        }
+        Transaction transaction = paymentProcessingService.processPayment(transactionDto);
+        idempotencyStore.complete(idempotencyKey, requestHash, transaction);
+        return transaction;
+    }
+}
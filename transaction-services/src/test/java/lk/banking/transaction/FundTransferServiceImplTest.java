@@ -1,11 +1,14 @@
 package lk.banking.transaction;
 
+import jakarta.enterprise.event.Event;
 import jakarta.persistence.EntityManager;
 import lk.banking.core.dto.TransferRequestDto;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Customer; // Required for Account setup
 import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.NotificationType;
 import lk.banking.core.entity.enums.TransactionStatus;
 import lk.banking.core.entity.enums.TransactionType;
 import lk.banking.core.exception.AccountNotFoundException;
@@ -13,13 +16,21 @@ import lk.banking.core.exception.InsufficientFundsException;
 import lk.banking.core.exception.InvalidTransactionException;
 import lk.banking.core.exception.ValidationException; // Although not thrown directly by service, good to keep in mind
 
+import lk.banking.notification.NotificationIntent;
+import lk.banking.notification.NotificationOutbox;
+import lk.banking.services.events.LedgerEvent;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
+import lk.banking.services.journal.RecordingJournal;
+import lk.banking.services.shards.BalanceShardService;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.ArgumentCaptor; // To capture arguments passed to persist
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -39,6 +50,20 @@ public class FundTransferServiceImplTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private Event<LedgerEvent> ledgerEvents;
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private JournalService journalService;
+
+    @Mock
+    private BalanceShardService balanceShardService;
+
+    private final RecordingJournal journal = new RecordingJournal();
+
     @InjectMocks
     private FundTransferServiceImpl fundTransferService;
 
@@ -80,7 +105,7 @@ public class FundTransferServiceImplTest {
         BigDecimal initialToBalance = toAccount.getBalance();
         BigDecimal transferAmount = transferRequestDto.getAmount();
 
-        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
 
         // When
         Transaction resultTransaction = fundTransferService.transferFunds(transferRequestDto);
@@ -97,12 +122,14 @@ public class FundTransferServiceImplTest {
         assertThat(fromAccount.getBalance()).isEqualByComparingTo(initialFromBalance.subtract(transferAmount));
         assertThat(toAccount.getBalance()).isEqualByComparingTo(initialToBalance.add(transferAmount));
 
-        // Verify that merge was called for both accounts (though not strictly necessary as they are managed entities)
-        // and persist was called twice for transactions.
+        // Both legs are posted as one journal entry; the service persists nothing itself.
         verify(entityManager, times(2)).find(eq(Account.class), anyLong());
-        verify(entityManager, times(2)).persist(transactionCaptor.capture());
+        verify(journalService, times(1)).post(any(JournalPosting.class));
+        verify(entityManager, never()).persist(any());
+        assertThat(journal.postings).singleElement()
+                .extracting(JournalPosting::getType).isEqualTo(TransactionType.TRANSFER);
 
-        List<Transaction> capturedTransactions = transactionCaptor.getAllValues();
+        List<Transaction> capturedTransactions = journal.history;
         assertThat(capturedTransactions).hasSize(2);
 
         // Verify the two captured transactions
@@ -120,6 +147,29 @@ public class FundTransferServiceImplTest {
         assertThat(capturedCredit.getType()).isEqualTo(TransactionType.TRANSFER);
         assertThat(capturedCredit.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
         assertThat(capturedCredit.getDescription()).contains(fromAccount.getAccountNumber());
+
+        // One ledger event per side of the transfer, carrying the new balances
+        ArgumentCaptor<LedgerEvent> eventCaptor = ArgumentCaptor.forClass(LedgerEvent.class);
+        verify(ledgerEvents, times(2)).fire(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues()).extracting(LedgerEvent::getAccountId)
+                .containsExactly(fromAccount.getId(), toAccount.getId());
+        assertThat(eventCaptor.getAllValues().get(0).getBalance()).isEqualByComparingTo(fromAccount.getBalance());
+        assertThat(eventCaptor.getAllValues().get(0).getCustomerEmail()).isEqualTo(testCustomer.getEmail());
+        assertThat(eventCaptor.getAllValues().get(0).getTransaction().getAmount()).isEqualByComparingTo(transferAmount.negate());
+
+        // Both notifications go into the outbox in one call, within the transfer's transaction
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationIntent>> intentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(notificationOutbox, times(1)).enqueue(intentCaptor.capture());
+        assertThat(intentCaptor.getValue()).extracting(NotificationIntent::getType)
+                .containsExactly(NotificationType.TRANSFER_SENT, NotificationType.TRANSFER_RECEIVED);
+        assertThat(intentCaptor.getValue().get(0).getRecipient()).isEqualTo(testCustomer.getEmail());
+        assertThat(intentCaptor.getValue().get(0).getParams())
+                .containsEntry("fromAccount", "****3456")
+                .containsEntry("amount", "100.00");
+        // Only the incoming transfer may be merged into a digest
+        assertThat(intentCaptor.getValue()).extracting(NotificationIntent::getDigest)
+                .containsExactly(null, DigestSchedule.NONE);
     }
 
     @Test
@@ -134,7 +184,7 @@ public class FundTransferServiceImplTest {
                 .hasMessageContaining("Transfer request or amount cannot be null.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -149,7 +199,7 @@ public class FundTransferServiceImplTest {
                 .hasMessageContaining("Transfer request or amount cannot be null.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -169,7 +219,7 @@ public class FundTransferServiceImplTest {
                 .hasMessageContaining("Transfer amount must be positive.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -184,7 +234,7 @@ public class FundTransferServiceImplTest {
                 .hasMessageContaining("Cannot transfer funds to the same account.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -200,7 +250,7 @@ public class FundTransferServiceImplTest {
                 .hasMessageContaining("Source account with ID " + fromAccount.getId() + " not found.");
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(fromAccount.getId())); // Only fromAccount checked
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -217,7 +267,7 @@ public class FundTransferServiceImplTest {
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(fromAccount.getId()));
         verify(entityManager, times(1)).find(eq(Account.class), eq(toAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -235,7 +285,7 @@ public class FundTransferServiceImplTest {
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(fromAccount.getId()));
         verify(entityManager, times(1)).find(eq(Account.class), eq(toAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -253,7 +303,7 @@ public class FundTransferServiceImplTest {
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(fromAccount.getId()));
         verify(entityManager, times(1)).find(eq(Account.class), eq(toAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -271,6 +321,8 @@ public class FundTransferServiceImplTest {
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(fromAccount.getId()));
         verify(entityManager, times(1)).find(eq(Account.class), eq(toAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verifyNoInteractions(ledgerEvents);
+        verifyNoInteractions(notificationOutbox);
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package lk.banking.transaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.exception.ResourceConflictException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyStore Unit Tests")
+public class IdempotencyStoreTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Mock
+    private Query claim;
+
+    @Mock
+    private Query lock;
+
+    @Mock
+    private Query update;
+
+    @InjectMocks
+    private IdempotencyStore idempotencyStore;
+
+    private static final String HASH = IdempotencyStore.requestHash("transfer", 1L, 2L, new BigDecimal("200.00"));
+
+    private Transaction original;
+
+    @BeforeEach
+    void setUp() {
+        original = new Transaction();
+        original.setId(42L);
+    }
+
+    private void givenClaimInserts(int rows) {
+        when(entityManager.createNativeQuery(IdempotencyStore.CLAIM)).thenReturn(claim);
+        when(claim.setParameter(anyInt(), any())).thenReturn(claim);
+        when(claim.executeUpdate()).thenReturn(rows);
+    }
+
+    private void givenLockedRow(Object resultId, LocalDateTime expiresAt) {
+        when(entityManager.createNativeQuery(IdempotencyStore.LOCK)).thenReturn(lock);
+        when(lock.setParameter(anyInt(), any())).thenReturn(lock);
+        when(lock.getResultList()).thenReturn(List.<Object[]>of(new Object[]{resultId, expiresAt, HASH}));
+    }
+
+    private Synchronization completeInTransaction(String key) {
+        when(entityManager.createNativeQuery(IdempotencyStore.COMPLETE)).thenReturn(update);
+        when(update.setParameter(anyInt(), any())).thenReturn(update);
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(new Object());
+
+        idempotencyStore.complete(key, HASH, original);
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionSynchronizationRegistry).registerInterposedSynchronization(synchronization.capture());
+        return synchronization.getValue();
+    }
+
+    @Test
+    @DisplayName("should hand a new key to the caller and record its transaction")
+    void claim_NewKey() {
+        givenClaimInserts(1);
+
+        assertThat(idempotencyStore.claim("user-1:a", HASH, Transaction.class)).isNull();
+        completeInTransaction("user-1:a");
+
+        verify(claim).setParameter(1, "user-1:a");
+        verify(claim).setParameter(2, HASH);
+        verify(update).setParameter(1, 42L);
+        verify(update).setParameter(2, "user-1:a");
+        verify(update).executeUpdate();
+        verify(entityManager, never()).createNativeQuery(IdempotencyStore.LOCK);
+    }
+
+    @Test
+    @DisplayName("should replay a key completed by another request without claiming it again")
+    void claim_CompletedKey() {
+        givenClaimInserts(0);
+        givenLockedRow(42L, LocalDateTime.now().plusHours(1));
+        when(entityManager.find(Transaction.class, 42L)).thenReturn(original);
+
+        assertThat(idempotencyStore.claim("user-1:a", HASH, Transaction.class)).isSameAs(original);
+        assertThat(idempotencyStore.cachedKeys()).isEqualTo(1);
+        verify(entityManager, never()).createNativeQuery(IdempotencyStore.RECLAIM);
+
+        // The second replay is answered from memory
+        assertThat(idempotencyStore.claim("user-1:a", HASH, Transaction.class)).isSameAs(original);
+        verify(claim, times(1)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("should refuse a key reused for a different request, from the table and from memory")
+    void claim_DifferentRequest() {
+        givenClaimInserts(0);
+        givenLockedRow(42L, LocalDateTime.now().plusHours(1));
+        String otherAmount = IdempotencyStore.requestHash("transfer", 1L, 2L, new BigDecimal("2000.00"));
+
+        assertThatThrownBy(() -> idempotencyStore.claim("user-1:a", otherAmount, Transaction.class))
+                .isInstanceOf(ResourceConflictException.class);
+        assertThat(idempotencyStore.cachedKeys()).isZero();
+
+        idempotencyStore.claim("user-1:a", HASH, Transaction.class);
+        assertThatThrownBy(() -> idempotencyStore.claim("user-1:a", otherAmount, Transaction.class))
+                .isInstanceOf(ResourceConflictException.class);
+        // Amounts compare by value
+        assertThat(IdempotencyStore.requestHash("transfer", 1L, 2L, new BigDecimal("200"))).isEqualTo(HASH);
+    }
+
+    @Test
+    @DisplayName("should reclaim keys that expired or were never completed")
+    void claim_ExpiredOrIncompleteKey() {
+        givenClaimInserts(0);
+        when(entityManager.createNativeQuery(IdempotencyStore.LOCK)).thenReturn(lock);
+        when(lock.setParameter(anyInt(), any())).thenReturn(lock);
+        when(lock.getResultList()).thenReturn(
+                List.<Object[]>of(new Object[]{42L, LocalDateTime.now().minusMinutes(1), HASH}),
+                List.<Object[]>of(new Object[]{null, LocalDateTime.now().plusHours(1), HASH}));
+        when(entityManager.createNativeQuery(IdempotencyStore.RECLAIM)).thenReturn(update);
+        when(update.setParameter(anyInt(), any())).thenReturn(update);
+
+        assertThat(idempotencyStore.claim("user-1:old", HASH, Transaction.class)).isNull();
+        assertThat(idempotencyStore.claim("user-1:abandoned", HASH, Transaction.class)).isNull();
+
+        verify(update, times(2)).setParameter(1, HASH);
+        verify(update).setParameter(4, "user-1:old");
+        verify(update).setParameter(4, "user-1:abandoned");
+        verify(update, times(2)).executeUpdate();
+        verify(entityManager, never()).find(any(), any());
+    }
+
+    @Test
+    @DisplayName("should cache a completed key only once its transaction commits")
+    void complete_CachesAfterCommit() {
+        Synchronization rolledBack = completeInTransaction("user-1:a");
+        rolledBack.afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertThat(idempotencyStore.cachedKeys()).isZero();
+
+        rolledBack.afterCompletion(Status.STATUS_COMMITTED);
+        assertThat(idempotencyStore.cachedKeys()).isEqualTo(1);
+
+        when(entityManager.find(Transaction.class, 42L)).thenReturn(original);
+        assertThat(idempotencyStore.claim("user-1:a", HASH, Transaction.class)).isSameAs(original);
+        verify(entityManager, never()).createNativeQuery(IdempotencyStore.CLAIM);
+    }
+}
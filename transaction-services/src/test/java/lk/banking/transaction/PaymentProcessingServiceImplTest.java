@@ -1,11 +1,15 @@
 package lk.banking.transaction;
 
+import jakarta.enterprise.event.Event;
 import jakarta.persistence.EntityManager;
 import lk.banking.core.dto.TransactionDto;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Customer; // Required for Account setup
 import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.enums.AccountType;
+import lk.banking.core.entity.enums.DigestSchedule;
+import lk.banking.core.entity.enums.LedgerAccount;
+import lk.banking.core.entity.enums.NotificationType;
 import lk.banking.core.entity.enums.TransactionStatus;
 import lk.banking.core.entity.enums.TransactionType;
 import lk.banking.core.exception.AccountNotFoundException;
@@ -13,6 +17,14 @@ import lk.banking.core.exception.InsufficientFundsException;
 import lk.banking.core.exception.InvalidTransactionException;
 import lk.banking.core.exception.ValidationException; // Keep for general validation checks
 
+import lk.banking.notification.NotificationIntent;
+import lk.banking.notification.NotificationOutbox;
+import lk.banking.services.events.LedgerEvent;
+import lk.banking.services.journal.JournalPosting;
+import lk.banking.services.journal.JournalService;
+import lk.banking.services.journal.RecordingJournal;
+import lk.banking.services.shards.BalanceShardService;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,6 +35,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.*;
@@ -38,6 +51,20 @@ public class PaymentProcessingServiceImplTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private Event<LedgerEvent> ledgerEvents;
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private JournalService journalService;
+
+    @Mock
+    private BalanceShardService balanceShardService;
+
+    private final RecordingJournal journal = new RecordingJournal();
+
     @InjectMocks
     private PaymentProcessingServiceImpl paymentProcessingService;
 
@@ -62,6 +89,15 @@ public class PaymentProcessingServiceImplTest {
         // Type will be set in individual tests
     }
 
+    /** The posting's second leg is the bank's side of it, with the opposite sign of the account leg. */
+    private void assertBankSide(LedgerAccount ledger, BigDecimal amount) {
+        assertThat(journal.postings).singleElement().satisfies(posting -> {
+            assertThat(posting.getLegs()).hasSize(2);
+            assertThat(posting.getLegs().get(1).getLedger()).isEqualTo(ledger);
+            assertThat(posting.getLegs().get(1).getAmount()).isEqualByComparingTo(amount);
+        });
+    }
+
     // --- Test processPayment method - Success Scenarios ---
 
     @Test
@@ -73,7 +109,7 @@ public class PaymentProcessingServiceImplTest {
         BigDecimal depositAmount = baseTransactionDto.getAmount();
 
         when(entityManager.find(eq(Account.class), eq(testAccount.getId()))).thenReturn(testAccount);
-        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
 
         // When
         Transaction resultTransaction = paymentProcessingService.processPayment(baseTransactionDto);
@@ -87,13 +123,27 @@ public class PaymentProcessingServiceImplTest {
         assertThat(testAccount.getBalance()).isEqualByComparingTo(initialBalance.add(depositAmount));
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, times(1)).persist(transactionCaptor.capture());
+        verify(journalService, times(1)).post(any(JournalPosting.class));
 
-        Transaction capturedTransaction = transactionCaptor.getValue();
+        Transaction capturedTransaction = journal.history.get(0);
         assertThat(capturedTransaction.getAccount()).isEqualTo(testAccount);
         assertThat(capturedTransaction.getAmount()).isEqualByComparingTo(depositAmount);
         assertThat(capturedTransaction.getType()).isEqualTo(TransactionType.DEPOSIT);
         assertThat(capturedTransaction.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+
+        ArgumentCaptor<LedgerEvent> eventCaptor = ArgumentCaptor.forClass(LedgerEvent.class);
+        verify(ledgerEvents, times(1)).fire(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getAccountId()).isEqualTo(testAccount.getId());
+        assertThat(eventCaptor.getValue().getBalance()).isEqualByComparingTo(testAccount.getBalance());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationIntent>> intentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(notificationOutbox, times(1)).enqueue(intentCaptor.capture());
+        assertThat(intentCaptor.getValue()).singleElement().satisfies(intent -> {
+            assertThat(intent.getType()).isEqualTo(NotificationType.PAYMENT_POSTED);
+            assertThat(intent.getParams()).containsEntry("transactionType", "Deposit");
+            assertThat(intent.getDigest()).isEqualTo(DigestSchedule.NONE);
+        });
     }
 
     @Test
@@ -105,7 +155,7 @@ public class PaymentProcessingServiceImplTest {
         BigDecimal withdrawalAmount = baseTransactionDto.getAmount(); // 100.00, less than 1000.00
 
         when(entityManager.find(eq(Account.class), eq(testAccount.getId()))).thenReturn(testAccount);
-        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
 
         // When
         Transaction resultTransaction = paymentProcessingService.processPayment(baseTransactionDto);
@@ -119,7 +169,8 @@ public class PaymentProcessingServiceImplTest {
         assertThat(testAccount.getBalance()).isEqualByComparingTo(initialBalance.subtract(withdrawalAmount));
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, times(1)).persist(transactionCaptor.capture());
+        verify(journalService, times(1)).post(any(JournalPosting.class));
+        assertBankSide(LedgerAccount.CASH, withdrawalAmount);
     }
 
     @Test
@@ -131,7 +182,7 @@ public class PaymentProcessingServiceImplTest {
         BigDecimal paymentAmount = baseTransactionDto.getAmount(); // 100.00, less than 1000.00
 
         when(entityManager.find(eq(Account.class), eq(testAccount.getId()))).thenReturn(testAccount);
-        ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
 
         // When
         Transaction resultTransaction = paymentProcessingService.processPayment(baseTransactionDto);
@@ -145,7 +196,8 @@ public class PaymentProcessingServiceImplTest {
         assertThat(testAccount.getBalance()).isEqualByComparingTo(initialBalance.subtract(paymentAmount));
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, times(1)).persist(transactionCaptor.capture());
+        verify(journalService, times(1)).post(any(JournalPosting.class));
+        assertBankSide(LedgerAccount.PAYMENTS_CLEARING, paymentAmount);
     }
 
     // --- Test processPayment method - Validation Failures ---
@@ -162,7 +214,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Transaction data (account ID, amount, type) cannot be null.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -178,7 +230,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Transaction data (account ID, amount, type) cannot be null.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -194,7 +246,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Transaction data (account ID, amount, type) cannot be null.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -209,7 +261,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Transaction data (account ID, amount, type) cannot be null.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -230,7 +282,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Transaction amount must be positive.");
 
         verify(entityManager, never()).find(any(), any());
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     // --- Test processPayment method - Account Related Failures ---
@@ -251,7 +303,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Account with ID " + nonExistentAccountId + " not found.");
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(nonExistentAccountId));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -268,7 +320,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Transaction denied: Account " + testAccount.getAccountNumber() + " is inactive.");
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -285,7 +337,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Transaction denied: Account " + testAccount.getAccountNumber() + " is inactive.");
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -302,7 +354,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Transaction denied: Account " + testAccount.getAccountNumber() + " is inactive.");
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     // --- Test processPayment method - Insufficient Funds ---
@@ -321,7 +373,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Insufficient funds for withdrawal in account " + testAccount.getAccountNumber() + ".");
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     @Test
@@ -338,7 +390,7 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Insufficient funds for payment in account " + testAccount.getAccountNumber() + ".");
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
     }
 
     // --- Test processPayment method - Unsupported Type ---
@@ -355,6 +407,30 @@ public class PaymentProcessingServiceImplTest {
                 .hasMessageContaining("Unsupported transaction type for payment processing: TRANSFER");
 
         verify(entityManager, times(1)).find(eq(Account.class), eq(testAccount.getId()));
-        verify(entityManager, never()).persist(any(Transaction.class));
+        verify(journalService, never()).post(any(JournalPosting.class));
+    }
+
+    @Test
+    @DisplayName("should report a sharded account's balance including its shards to the live feed and the customer")
+    void processPayment_ShardedAccountBalance() {
+        baseTransactionDto.setType(TransactionType.DEPOSIT);
+        testAccount.setBalanceShards(8);
+        when(entityManager.find(eq(Account.class), eq(testAccount.getId()))).thenReturn(testAccount);
+        when(journalService.post(any(JournalPosting.class))).thenAnswer(journal);
+        when(balanceShardService.balance(testAccount)).thenAnswer(invocation -> {
+            testAccount.setShardBalance(new BigDecimal("250.00"));
+            return testAccount.getTotalBalance();
+        });
+
+        paymentProcessingService.processPayment(baseTransactionDto);
+
+        BigDecimal total = testAccount.getBalance().add(new BigDecimal("250.00"));
+        ArgumentCaptor<LedgerEvent> eventCaptor = ArgumentCaptor.forClass(LedgerEvent.class);
+        verify(ledgerEvents).fire(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getBalance()).isEqualByComparingTo(total);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationIntent>> intentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(notificationOutbox).enqueue(intentCaptor.capture());
+        assertThat(intentCaptor.getValue().get(0).getParams()).containsEntry("balance", "1,350.00");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package lk.banking.transaction;
+
+import jakarta.persistence.EntityManager;
+import lk.banking.core.entity.Account;
+import lk.banking.core.entity.Customer;
+import lk.banking.core.entity.FundsHold;
+import lk.banking.core.entity.ScheduledTransfer;
+import lk.banking.core.entity.enums.AccountType;
+import lk.banking.services.holds.HoldService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduledTransferServiceImpl Unit Tests")
+public class ScheduledTransferServiceImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private HoldService holdService;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @InjectMocks
+    private ScheduledTransferServiceImpl scheduledTransferService;
+
+    private ScheduledTransfer transfer;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer("Jane Doe", "jane@example.com", "1 Main St", "0771234567");
+        Account from = new Account("4821730596182", AccountType.SAVINGS, new BigDecimal("500.00"), customer);
+        from.setId(1L);
+        Account to = new Account("100000000001", AccountType.CURRENT, BigDecimal.ZERO, customer);
+        to.setId(2L);
+        transfer = new ScheduledTransfer(from, to, new BigDecimal("75.00"), LocalDateTime.of(2026, 11, 1, 9, 0));
+    }
+
+    @Test
+    @DisplayName("should schedule once under a new key, reserving the funds, and record the result")
+    void scheduleTransfer_NewKey() {
+        FundsHold hold = new FundsHold();
+        hold.setId(5L);
+        when(holdService.place(eq(1L), eq(new BigDecimal("75.00")), anyString(), any())).thenReturn(hold);
+
+        assertThat(scheduledTransferService.scheduleTransfer("user-1:a", transfer)).isSameAs(transfer);
+
+        String hash = IdempotencyStore.requestHash("scheduled", 1L, 2L, new BigDecimal("75.00"), transfer.getScheduledTime());
+        verify(idempotencyStore).claim("user-1:a", hash, ScheduledTransfer.class);
+        verify(entityManager).persist(transfer);
+        verify(idempotencyStore).complete("user-1:a", hash, transfer);
+        assertThat(transfer.getHoldId()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("should return the original scheduled transfer for a replayed key without reserving funds again")
+    void scheduleTransfer_ReplayedKey() {
+        ScheduledTransfer original = new ScheduledTransfer();
+        when(idempotencyStore.claim(eq("user-1:a"), anyString(), eq(ScheduledTransfer.class))).thenReturn(original);
+
+        assertThat(scheduledTransferService.scheduleTransfer("user-1:a", transfer)).isSameAs(original);
+
+        verifyNoInteractions(holdService, entityManager);
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), any(ScheduledTransfer.class));
+    }
+}
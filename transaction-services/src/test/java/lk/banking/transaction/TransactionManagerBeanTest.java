@@ -0,0 +1,81 @@
+package lk.banking.transaction;
+
+import lk.banking.core.dto.TransactionDto;
+import lk.banking.core.dto.TransferRequestDto;
+import lk.banking.core.entity.Transaction;
+import lk.banking.core.entity.enums.TransactionType;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionManagerBean Unit Tests")
+public class TransactionManagerBeanTest {
+
+    @Mock
+    private FundTransferService fundTransferService;
+
+    @Mock
+    private PaymentProcessingService paymentProcessingService;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @InjectMocks
+    private TransactionManagerBean transactionManager;
+
+    private final TransferRequestDto transfer = new TransferRequestDto(1L, 2L, new BigDecimal("200.00"));
+
+    @Test
+    @DisplayName("should transfer once under a new key and record the result")
+    void transferFunds_NewKey() {
+        Transaction debit = new Transaction();
+        when(fundTransferService.transferFunds(transfer)).thenReturn(debit);
+
+        assertThat(transactionManager.transferFunds("user-1:a", transfer)).isSameAs(debit);
+
+        String hash = IdempotencyStore.requestHash("transfer", 1L, 2L, new BigDecimal("200.00"));
+        verify(idempotencyStore).claim("user-1:a", hash, Transaction.class);
+        verify(idempotencyStore).complete("user-1:a", hash, debit);
+    }
+
+    @Test
+    @DisplayName("should return the original transaction for a replayed key without moving money")
+    void transferFunds_ReplayedKey() {
+        Transaction original = new Transaction();
+        when(idempotencyStore.claim(eq("user-1:a"), anyString(), eq(Transaction.class))).thenReturn(original);
+
+        assertThat(transactionManager.transferFunds("user-1:a", transfer)).isSameAs(original);
+
+        verifyNoInteractions(fundTransferService);
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("should process payments without a key as before and refuse oversized keys")
+    void processPayment_KeyHandling() {
+        TransactionDto deposit = new TransactionDto();
+        deposit.setAccountId(1L);
+        deposit.setType(TransactionType.DEPOSIT);
+        deposit.setAmount(new BigDecimal("50.00"));
+        Transaction posted = new Transaction();
+        when(paymentProcessingService.processPayment(deposit)).thenReturn(posted);
+
+        assertThat(transactionManager.processPayment(null, deposit)).isSameAs(posted);
+        verifyNoInteractions(idempotencyStore);
+
+        assertThatThrownBy(() -> transactionManager.processPayment("k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), deposit))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(paymentProcessingService, times(1)).processPayment(deposit);
+    }
+}
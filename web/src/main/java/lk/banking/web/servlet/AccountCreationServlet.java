@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.inject.Inject;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -16,6 +15,7 @@ import lk.banking.core.exception.ValidationException;
 import lk.banking.services.AccountService;
 import lk.banking.services.CustomerService;
 import lk.banking.web.util.FlashMessageUtil; // Import FlashMessageUtil
+import lk.banking.web.util.ServiceLocator;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -26,12 +26,17 @@ public class AccountCreationServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(AccountCreationServlet.class.getName());
 
-    @Inject
     private AccountService accountService;
 
-    @Inject
     private CustomerService customerService;
 
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        accountService = ServiceLocator.accountService();
+        customerService = ServiceLocator.customerService();
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB; // For EJB injection
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -18,6 +17,7 @@ import lk.banking.core.mapper.TransactionMapper; // For mapping entities to DTOs
 import lk.banking.services.AccountService; // To get account details
 import lk.banking.services.TransactionServices; // To get transaction history
 import lk.banking.web.util.FlashMessageUtil; // For messages
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil;     // For unwrapping EJB exceptions
 
 import java.io.IOException;
@@ -34,11 +34,16 @@ public class AccountTransactionHistoryServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(AccountTransactionHistoryServlet.class.getName());
 
-    @EJB
     private AccountService accountService;
 
-    @EJB
-    private TransactionServices transactionService; // Inject TransactionServices
+    private TransactionServices transactionService;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        accountService = ServiceLocator.accountService();
+        transactionService = ServiceLocator.transactionServices();
+    }
 
     /**
      * Handles GET requests to display the transaction history for an account.
@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB;
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -19,6 +18,7 @@ import lk.banking.core.exception.ValidationException; // For type conversion val
 import lk.banking.core.mapper.AccountMapper; // For mapping entities to DTOs
 import lk.banking.services.AccountService; // To get all accounts and perform actions
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil;
 
 import java.io.IOException;
@@ -36,8 +36,13 @@ public class BankAccountManagementListServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(BankAccountManagementListServlet.class.getName());
 
-    @EJB
-    private AccountService accountService; // Inject AccountService
+    private AccountService accountService;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        accountService = ServiceLocator.accountService();
+    }
 
     /**
      * Handles GET requests to display the list of accounts.
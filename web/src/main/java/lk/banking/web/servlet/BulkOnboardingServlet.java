@@ -0,0 +1,103 @@
+package lk.banking.web.servlet;
+
+import jakarta.ejb.EJBException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.MultipartConfig;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lk.banking.core.dto.LoggedInUser;
+import lk.banking.core.dto.OnboardingReportDto;
+import lk.banking.core.entity.enums.UserRole;
+import lk.banking.core.exception.BankingException;
+import lk.banking.security.BulkOnboardingService;
+import lk.banking.web.util.ServiceLocator;
+import lk.banking.web.util.ServletUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bulk customer onboarding for employees and admins. POST the CSV either as the raw request body
+ * (Content-Type: text/csv) or as the "file" part of a multipart form. The response is a plain-text
+ * summary followed by one "line,error" row per rejected line.
+ */
+@WebServlet("/users/bulk-onboard")
+@MultipartConfig(maxFileSize = 256L * 1024 * 1024, maxRequestSize = 256L * 1024 * 1024)
+public class BulkOnboardingServlet extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(BulkOnboardingServlet.class.getName());
+
+    private BulkOnboardingService bulkOnboardingService;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        bulkOnboardingService = ServiceLocator.bulkOnboardingService();
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        LoggedInUser loggedInUser = (LoggedInUser) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null || (!loggedInUser.hasRole(UserRole.ADMIN) && !loggedInUser.hasRole(UserRole.EMPLOYEE))) {
+            LOGGER.warning("BulkOnboardingServlet: Unauthorized access attempt by user: " + (loggedInUser != null ? loggedInUser.getUsername() : "N/A"));
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied. You do not have permission to onboard customers.");
+            return;
+        }
+
+        OnboardingReportDto report;
+        try (Reader csv = openCsv(request)) {
+            if (csv == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "No CSV provided. Upload it as the 'file' part or as the request body.");
+                return;
+            }
+            report = bulkOnboardingService.onboardCsv(csv);
+        } catch (EJBException e) {
+            Exception unwrappedException = ServletUtil.unwrapEJBException(e);
+            if (unwrappedException instanceof BankingException) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, unwrappedException.getMessage());
+            } else {
+                LOGGER.log(Level.SEVERE, "BulkOnboardingServlet: Bulk onboarding failed for " + loggedInUser.getUsername(), unwrappedException);
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Bulk onboarding failed. Please try again later.");
+            }
+            return;
+        } catch (BankingException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        LOGGER.info("BulkOnboardingServlet: " + loggedInUser.getUsername() + " onboarded customers: " + report);
+        response.setContentType("text/plain;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+        out.println("Processed " + report.getTotalRecords() + " lines: " + report.getCustomersCreated() + " customers onboarded, "
+                + report.getAccountsCreated() + " accounts opened, " + report.getFailures().size() + " failed.");
+        if (!report.getFailures().isEmpty()) {
+            out.println("line,error");
+            for (OnboardingReportDto.LineFailure failure : report.getFailures()) {
+                out.println(failure.getLineNumber() + ",\"" + failure.getMessage().replace("\"", "\"\"") + "\"");
+            }
+        }
+    }
+
+    private static Reader openCsv(HttpServletRequest request) throws IOException, ServletException {
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+            Part part = request.getPart("file");
+            return part == null || part.getSize() == 0 ? null
+                    : new BufferedReader(new InputStreamReader(part.getInputStream(), StandardCharsets.UTF_8));
+        }
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        return request.getContentLengthLong() == 0 ? null : request.getReader();
+    }
+}
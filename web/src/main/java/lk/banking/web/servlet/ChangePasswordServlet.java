@@ -1,7 +1,6 @@
 package lk.banking.web.servlet;
 
 import jakarta.ejb.EJBException;
-import jakarta.inject.Inject;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -14,6 +13,7 @@ import lk.banking.core.dto.LoggedInUser;
 // import lk.banking.core.exception.ValidationException;
 import lk.banking.security.AuthenticationService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil; // Already imported
 
 import java.io.IOException;
@@ -24,9 +24,14 @@ public class ChangePasswordServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(ChangePasswordServlet.class.getName());
 
-    @Inject
     private AuthenticationService authenticationService;
 
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        authenticationService = ServiceLocator.authenticationService();
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB;
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -19,6 +18,7 @@ import lk.banking.core.mapper.AccountMapper; // For mapping entities to DTOs
 import lk.banking.services.AccountService;
 import lk.banking.services.CustomerService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil;
 
 import java.io.IOException;
@@ -37,11 +37,16 @@ public class CustomerAccountListServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(CustomerAccountListServlet.class.getName());
 
-    @EJB
     private CustomerService customerService; // To get customer details
-    @EJB
     private AccountService accountService; // To get accounts by customer
 
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        customerService = ServiceLocator.customerService();
+        accountService = ServiceLocator.accountService();
+    }
+
     /**
      * Handles GET requests to display the list of accounts for a specific customer.
      * Customer ID is extracted from the URL path.
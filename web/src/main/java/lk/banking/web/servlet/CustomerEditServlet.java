@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-// import jakarta.ejb.EJB; // Temporarily remove @EJB import
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -17,10 +16,9 @@ import lk.banking.core.exception.ValidationException;
 import lk.banking.core.util.ValidationUtils;
 import lk.banking.services.CustomerService; // Import the interface
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil;
 
-import javax.naming.InitialContext; // Import
-import javax.naming.NamingException; // Import
 import java.io.IOException;
 import java.util.logging.Logger;
 
@@ -29,24 +27,12 @@ public class CustomerEditServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(CustomerEditServlet.class.getName());
 
-    // REMOVED @EJB for CustomerService to use JNDI lookup in init()
     private CustomerService customerService;
 
-    // Add init method for JNDI lookup
     @Override
     public void init() throws ServletException {
         super.init();
-        try {
-            // CONFIRM THIS JNDI NAME FROM YOUR GLASSFISH LOGS
-            // Look for "EJB [CustomerServiceImpl] successfully bound to JNDI name [...]"
-            String customerServiceJndiName = "java:global/banking-system-ear/banking-services/CustomerServiceImpl!lk.banking.services.CustomerService";
-            LOGGER.info("CustomerEditServlet: Attempting JNDI lookup for CustomerService at: " + customerServiceJndiName);
-            customerService = (CustomerService) new InitialContext().lookup(customerServiceJndiName);
-            LOGGER.info("CustomerEditServlet: JNDI lookup successful for CustomerService.");
-        } catch (NamingException e) {
-            LOGGER.log(java.util.logging.Level.SEVERE, "CustomerEditServlet: Failed to lookup CustomerService via JNDI.", e);
-            throw new ServletException("Failed to initialize CustomerEditServlet: CustomerService not found.", e);
-        }
+        customerService = ServiceLocator.customerService();
     }
 
     @Override
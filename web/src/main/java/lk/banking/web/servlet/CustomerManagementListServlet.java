@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB; // For EJB injection
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -15,6 +14,7 @@ import lk.banking.core.exception.BankingException;
 import lk.banking.core.mapper.CustomerMapper; // For mapping entities to DTOs
 import lk.banking.services.CustomerService; // To get all customers
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil;
 
 import java.io.IOException;
@@ -32,8 +32,13 @@ public class CustomerManagementListServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(CustomerManagementListServlet.class.getName());
 
-    @EJB
-    private CustomerService customerService; // Inject CustomerService
+    private CustomerService customerService;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        customerService = ServiceLocator.customerService();
+    }
 
     /**
      * Handles GET requests to display the list of customers.
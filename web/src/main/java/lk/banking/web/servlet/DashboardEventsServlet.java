@@ -0,0 +1,62 @@
+package lk.banking.web.servlet;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lk.banking.core.dto.LoggedInUser;
+import lk.banking.core.entity.enums.UserRole;
+import lk.banking.web.util.LiveLedgerFeed;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * {@code GET /dashboard/events}: a Server-Sent Events stream of the logged-in customer's balance changes and
+ * new transactions, consumed by the dashboard page. See {@link LiveLedgerFeed} for the frame format.
+ * Streams end after {@code STREAM_TIMEOUT_MINUTES}; browsers reconnect automatically, which also
+ * re-checks the session.
+ */
+@WebServlet(urlPatterns = "/dashboard/events", asyncSupported = true)
+public class DashboardEventsServlet extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(DashboardEventsServlet.class.getName());
+
+    private static final long STREAM_TIMEOUT_MINUTES = 30;
+
+    @Inject
+    private LiveLedgerFeed liveLedgerFeed;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        LoggedInUser loggedInUser = session != null ? (LoggedInUser) session.getAttribute("loggedInUser") : null;
+        if (loggedInUser == null || !loggedInUser.hasRole(UserRole.CUSTOMER)
+                || loggedInUser.getEmail() == null || loggedInUser.getEmail().isBlank()) {
+            // 204 tells EventSource not to reconnect
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(TimeUnit.MINUTES.toMillis(STREAM_TIMEOUT_MINUTES));
+        if (!liveLedgerFeed.open(asyncContext, loggedInUser.getEmail())) {
+            LOGGER.info("DashboardEventsServlet: Refusing another stream for " + loggedInUser.getUsername()
+                    + "; " + LiveLedgerFeed.MAX_STREAMS_PER_CUSTOMER + " already open.");
+            response.reset();
+            response.setHeader("Retry-After", "30");
+            response.setStatus(429);
+            asyncContext.complete();
+        }
+    }
+}
@@ -1,31 +1,21 @@
 package lk.banking.web.servlet;
 
-import jakarta.inject.Inject;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lk.banking.core.dto.DashboardView;
 import lk.banking.core.dto.LoggedInUser;
-import lk.banking.core.dto.AccountDto; // Import AccountDto
-import lk.banking.core.dto.TransactionDto;
-import lk.banking.core.entity.Account;
-import lk.banking.core.entity.Customer;
-import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.enums.UserRole;
 import lk.banking.core.exception.CustomerNotFoundException;
 import lk.banking.core.exception.UserNotFoundException;
-import lk.banking.core.mapper.AccountMapper; // Import AccountMapper
-import lk.banking.core.mapper.TransactionMapper;
-import lk.banking.services.AccountService;
-import lk.banking.services.CustomerService;
-import lk.banking.services.TransactionServices;
+import lk.banking.services.DashboardService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -34,14 +24,13 @@ public class DashboardServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(DashboardServlet.class.getName());
 
-    @Inject
-    private AccountService accountService;
+    private DashboardService dashboardService;
 
-    @Inject
-    private CustomerService customerService;
-
-    @Inject
-    private TransactionServices transactionService;
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        dashboardService = ServiceLocator.dashboardService();
+    }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
@@ -65,38 +54,22 @@ public class DashboardServlet extends HttpServlet {
             if (loggedInUser.hasRole(UserRole.CUSTOMER)) {
                 LOGGER.info("DashboardServlet: Loading data for CUSTOMER: " + loggedInUser.getUsername());
 
-                Customer customer = null;
-                List<AccountDto> accountDtos = Collections.emptyList(); // CHANGE: Declare as List<AccountDto>
-                List<TransactionDto> recentTransactions = Collections.emptyList();
-
                 String userEmail = loggedInUser.getEmail();
                 if (userEmail == null || userEmail.trim().isEmpty()) {
                     LOGGER.severe("DashboardServlet: LoggedInUser DTO for CUSTOMER role has null/empty email. This indicates a data or mapping issue.");
                     request.setAttribute("errorMessage", "Your user profile is incomplete. Cannot load customer data.");
                 } else {
                     try {
-                        customer = customerService.getCustomerByEmail(userEmail);
-                        if (customer == null) {
-                            LOGGER.warning("DashboardServlet: Customer profile not found in DB for user's email: " + userEmail);
-                            request.setAttribute("errorMessage", "Your customer profile could not be loaded. Please ensure your account is fully set up or contact support.");
-                        } else {
-                            request.setAttribute("customer", customer);
-
-                            // CHANGE: Convert Account entities to AccountDto
-                            List<Account> entityAccounts = accountService.getAccountsByCustomer(customer.getId());
-                            accountDtos = entityAccounts.stream()
-                                    .map(AccountMapper::toDto) // Use your AccountMapper
-                                    .collect(Collectors.toList());
-                            request.setAttribute("accounts", accountDtos); // Set the DTO list
-                            LOGGER.info("DashboardServlet: Found " + accountDtos.size() + " accounts for customer ID: " + customer.getId() + " (as DTOs).");
-
-                            List<Transaction> entityTransactions = transactionService.getTransactionsByUser(loggedInUser.getId());
-                            recentTransactions = entityTransactions.stream()
-                                    .map(TransactionMapper::toDto)
-                                    .collect(Collectors.toList());
-                            request.setAttribute("recentTransactions", recentTransactions);
-                            LOGGER.info("DashboardServlet: Found " + recentTransactions.size() + " recent transactions for user ID: " + loggedInUser.getId() + " (as DTOs).");
-                        }
+                        // One call, answered from a short-lived per-customer cache when possible
+                        DashboardView view = dashboardService.getCustomerDashboard(userEmail);
+                        request.setAttribute("customer", view.getCustomer());
+                        request.setAttribute("accounts", view.getAccounts());
+                        request.setAttribute("totalBalance", view.getTotalBalance());
+                        request.setAttribute("recentTransactions", view.getRecentTransactions());
+                        request.setAttribute("pendingTransfers", view.getPendingTransfers());
+                        LOGGER.info("DashboardServlet: Loaded dashboard for customer ID: " + view.getCustomer().getId()
+                                + " with " + view.getAccounts().size() + " accounts and "
+                                + view.getRecentTransactions().size() + " recent transactions.");
                     } catch (CustomerNotFoundException e) {
                         LOGGER.log(java.util.logging.Level.WARNING, "DashboardServlet: CustomerNotFoundException for user " + loggedInUser.getUsername() + ".", e);
                         request.setAttribute("errorMessage", "Your customer profile could not be found. Please ensure your account is fully set up or contact support.");
@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB; // Keep for AccountService for now
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -14,15 +13,14 @@ import lk.banking.core.entity.enums.TransactionType;
 import lk.banking.core.exception.AccountNotFoundException;
 import lk.banking.core.exception.InsufficientFundsException;
 import lk.banking.core.exception.InvalidTransactionException;
+import lk.banking.core.exception.ResourceConflictException;
 import lk.banking.core.exception.ValidationException;
 import lk.banking.services.AccountService;
-// Don't import TransactionManagerBean directly here if using JNDI lookup
-// import lk.banking.transaction.TransactionManagerBean;
-import lk.banking.transaction.TransactionManager; // Import the interface instead
+import lk.banking.transaction.TransactionManager;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
+import lk.banking.web.util.ServletUtil;
 
-import javax.naming.InitialContext; // For JNDI lookup
-import javax.naming.NamingException; // For JNDI lookup exceptions
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -35,54 +33,16 @@ public class DepositWithdrawServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(DepositWithdrawServlet.class.getName());
 
-    @EJB
     private AccountService accountService;
+    private TransactionManager transactionManager;
 
-    // Remove the direct injection for TransactionManagerBean
-    // @EJB
-    // private TransactionManagerBean transactionManager; // Old line
-
-    // Declare a field for the lookup result
-    private TransactionManager transactionManager; // Reference the interface
-
-    // You can initialize in init() or constructor
     @Override
     public void init() throws ServletException {
         super.init();
-        try {
-            // EJB JNDI name for local interface in EAR structure (Jakarta EE convention)
-            // Format: java:app/MODULE_NAME/BEAN_CLASS_NAME!INTERFACE_FULL_NAME
-            // For a bean with local interface, it's often simpler:
-            // java:global/EAR_NAME/EJB_MODULE_NAME/BEAN_CLASS_NAME!INTERFACE_FULL_NAME
-            // Or a simpler one if EJB module is in EAR's lib:
-            // java:app/EJB_MODULE_NAME/BEAN_CLASS_NAME!INTERFACE_FULL_NAME
-            // Or even shorter if default context is used:
-            // java:comp/env/ejb/BEAN_LOOKUP_NAME (if defined in web.xml)
-            // Simplest for Glassfish with @Local is often just the bean's interface name
-
-            // Let's try the common JNDI lookup for a local EJB in an EAR
-            // Try 1: java:global/EAR_NAME/EJB_MODULE_NAME/BeanClassName!InterfaceFullName
-            // Example: java:global/banking-system-ear/transaction-services/TransactionManagerBean!lk.banking.transaction.TransactionManager
-            // You might need to adjust EAR_NAME and EJB_MODULE_NAME based on your build.
-            // Check your GlassFish server logs for exact JNDI names
-            // When deploying an EJB module, GlassFish usually logs the JNDI names. Look for something like:
-            // "Binding ejb ... to JNDI name: java:global/..."
-            // Usually, the bean name is the simple class name without 'Impl' or 'Bean' suffix.
-            // Let's try the full bean name and interface name.
-
-            String jndiName = "java:global/banking-system-ear/transaction-services/TransactionManagerBean!lk.banking.transaction.TransactionManager";
-            LOGGER.info("Attempting JNDI lookup for: " + jndiName);
-            transactionManager = (TransactionManager) new InitialContext().lookup(jndiName);
-            LOGGER.info("JNDI lookup successful for TransactionManagerBean.");
-
-        } catch (NamingException e) {
-            LOGGER.log(java.util.logging.Level.SEVERE, "Failed to lookup TransactionManagerBean via JNDI.", e);
-            throw new ServletException("Failed to initialize DepositWithdrawServlet: TransactionManagerBean not found.", e);
-        }
+        accountService = ServiceLocator.accountService();
+        transactionManager = ServiceLocator.transactionManager();
     }
 
-    // ... (rest of doGet and doPost methods remain the same) ...
-
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -95,8 +55,8 @@ public class DepositWithdrawServlet extends HttpServlet {
             return;
         }
 
+        ServletUtil.issueIdempotencyToken(request);
         try {
-            // Note: accountService is still @EJB injected, so it should work if it did before.
             List<Account> accounts = accountService.getAccountsByCustomer(loggedInUser.getCustomerId());
             request.setAttribute("accounts", accounts);
             LOGGER.info("DepositWithdrawServlet: Loaded " + accounts.size() + " accounts for user " + loggedInUser.getUsername());
@@ -189,12 +149,6 @@ public class DepositWithdrawServlet extends HttpServlet {
         }
 
         try {
-            // Ensure transactionManager is not null (from init() method)
-            if (transactionManager == null) {
-                LOGGER.severe("TransactionManager is null. JNDI lookup failed during servlet initialization.");
-                throw new ServletException("Service unavailable. Please try again later.");
-            }
-
             TransactionDto transactionDto = new TransactionDto();
             transactionDto.setAccountId(accountId);
             transactionDto.setType(type);
@@ -202,7 +156,7 @@ public class DepositWithdrawServlet extends HttpServlet {
             transactionDto.setTimestamp(LocalDateTime.now());
             transactionDto.setDescription(description);
 
-            transactionManager.processPayment(transactionDto);
+            transactionManager.processPayment(ServletUtil.idempotencyKey(request, loggedInUser), transactionDto);
 
             LOGGER.info("DepositWithdrawServlet: Transaction " + type.name() + " of " + amount + " successful for account " + accountId + " by user " + loggedInUser.getUsername());
             FlashMessageUtil.putSuccessMessage(request.getSession(), type.name() + " of " + amount + " to account " + accountId + " completed successfully!");
@@ -220,6 +174,11 @@ public class DepositWithdrawServlet extends HttpServlet {
             } else if (cause instanceof InvalidTransactionException || cause instanceof ValidationException) {
                 displayErrorMessage = "Invalid transaction: " + cause.getMessage();
                 LOGGER.warning("DepositWithdrawServlet: Invalid transaction details: " + cause.getMessage());
+            } else if (cause instanceof ResourceConflictException) {
+                // Idempotency key reused for a different request
+                displayErrorMessage = cause.getMessage();
+                response.setStatus(HttpServletResponse.SC_CONFLICT);
+                LOGGER.warning("DepositWithdrawServlet: Conflicting resubmission by user " + loggedInUser.getUsername() + ": " + cause.getMessage());
             } else {
                 displayErrorMessage = "An unexpected banking error occurred. Please try again.";
                 LOGGER.log(java.util.logging.Level.SEVERE, "DepositWithdrawServlet: Unexpected EJBException during transaction processing for user " + loggedInUser.getUsername(), e);
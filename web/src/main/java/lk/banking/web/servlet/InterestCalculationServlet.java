@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB;
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -15,6 +14,7 @@ import lk.banking.core.exception.BankingException;
 import lk.banking.core.exception.InvalidTransactionException;
 import lk.banking.services.AccountService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil;
 
 import java.io.IOException;
@@ -33,9 +33,14 @@ public class InterestCalculationServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(InterestCalculationServlet.class.getName());
 
-    @EJB
     private AccountService accountService;
 
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        accountService = ServiceLocator.accountService();
+    }
+
     /**
      * Handles GET requests to display the interest calculation form.
      * If an account is selected, it calculates and displays the accrued interest.
@@ -1,7 +1,6 @@
 package lk.banking.web.servlet;
 
 import jakarta.ejb.EJBException;
-import jakarta.inject.Inject;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -16,6 +15,7 @@ import lk.banking.core.mapper.LoggedInUserMapper;
 import lk.banking.security.AuthenticationService;
 import lk.banking.services.CustomerService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil; // Already imported
 
 import java.io.IOException;
@@ -26,12 +26,17 @@ public class LoginServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(LoginServlet.class.getName());
 
-    @Inject
     private AuthenticationService authenticationService;
 
-    @Inject
     private CustomerService customerService;
 
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        authenticationService = ServiceLocator.authenticationService();
+        customerService = ServiceLocator.customerService();
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
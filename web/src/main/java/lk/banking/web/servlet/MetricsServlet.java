@@ -0,0 +1,73 @@
+package lk.banking.web.servlet;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lk.banking.core.dto.LoggedInUser;
+import lk.banking.core.entity.enums.UserRole;
+import lk.banking.core.metrics.PrometheusTextFormat;
+import lk.banking.services.MetricsService;
+import lk.banking.web.util.ServiceLocator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Prometheus scrape endpoint for EJB latency histograms and error counters. Only an ADMIN session may read
+ * it, or a scraper sending {@code Authorization: Bearer <token>} when {@code banking.metrics.token} is set.
+ */
+@WebServlet("/metrics")
+public class MetricsServlet extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(MetricsServlet.class.getName());
+
+    private static final String TOKEN = System.getProperty("banking.metrics.token");
+
+    private MetricsService metricsService;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        metricsService = ServiceLocator.metricsService();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (!isAuthorized(request)) {
+            LOGGER.warning("MetricsServlet: Unauthorized scrape from " + request.getRemoteAddr());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied.");
+            return;
+        }
+        String body;
+        try {
+            body = metricsService.scrape();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "MetricsServlet: Failed to collect metrics.", e);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Metrics unavailable.");
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        response.setContentType(PrometheusTextFormat.CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    private static boolean isAuthorized(HttpServletRequest request) {
+        String authorization = request.getHeader("Authorization");
+        if (TOKEN != null && !TOKEN.isBlank() && authorization != null && authorization.startsWith("Bearer ")) {
+            return MessageDigest.isEqual(TOKEN.getBytes(StandardCharsets.UTF_8),
+                    authorization.substring(7).trim().getBytes(StandardCharsets.UTF_8));
+        }
+        HttpSession session = request.getSession(false);
+        LoggedInUser loggedInUser = session != null ? (LoggedInUser) session.getAttribute("loggedInUser") : null;
+        return loggedInUser != null && loggedInUser.hasRole(UserRole.ADMIN);
+    }
+}
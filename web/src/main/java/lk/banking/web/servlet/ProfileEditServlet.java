@@ -1,7 +1,6 @@
 package lk.banking.web.servlet;
 
 import jakarta.ejb.EJBException;
-import jakarta.inject.Inject;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -17,6 +16,7 @@ import lk.banking.core.exception.CustomerNotFoundException;
 import lk.banking.core.util.ValidationUtils;
 import lk.banking.services.CustomerService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil; // Already imported
 
 import java.io.IOException;
@@ -27,9 +27,14 @@ public class ProfileEditServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(ProfileEditServlet.class.getName());
 
-    @Inject
     private CustomerService customerService;
 
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        customerService = ServiceLocator.customerService();
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
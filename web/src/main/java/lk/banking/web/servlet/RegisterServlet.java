@@ -1,7 +1,6 @@
 package lk.banking.web.servlet;
 
 import jakarta.ejb.EJBException;
-import jakarta.inject.Inject;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -16,6 +15,7 @@ import lk.banking.core.entity.enums.UserRole;
 import lk.banking.core.util.ValidationUtils;
 import lk.banking.security.UserManagementService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil; // Already imported
 
 import java.io.IOException;
@@ -26,9 +26,14 @@ public class RegisterServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(RegisterServlet.class.getName());
 
-    @Inject
     private UserManagementService userManagementService;
 
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        userManagementService = ServiceLocator.userManagementService();
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB;
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -13,10 +12,9 @@ import lk.banking.core.entity.Account; // Import Account for filtering
 import lk.banking.core.exception.BankingException;
 import lk.banking.transaction.ScheduledTransferService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil; // Already imported
 
-import javax.naming.InitialContext;
-import javax.naming.NamingException;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -31,22 +29,12 @@ public class ScheduledTransfersListServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(ScheduledTransfersListServlet.class.getName());
 
-    // Use JNDI lookup for ScheduledTransferService
     private ScheduledTransferService scheduledTransferService;
 
     @Override
     public void init() throws ServletException {
         super.init();
-        try {
-            // CONFIRM THIS JNDI NAME FROM YOUR GLASSFISH LOGS AFTER DEPLOYMENT
-            String scheduledTransferServiceJndiName = "java:global/banking-system-ear/transaction-services/ScheduledTransferServiceImpl!lk.banking.transaction.ScheduledTransferService";
-            LOGGER.info("ScheduledTransfersListServlet: Attempting JNDI lookup for ScheduledTransferService at: " + scheduledTransferServiceJndiName);
-            scheduledTransferService = (ScheduledTransferService) new InitialContext().lookup(scheduledTransferServiceJndiName);
-            LOGGER.info("ScheduledTransfersListServlet: JNDI lookup successful for ScheduledTransferService.");
-        } catch (NamingException e) {
-            LOGGER.log(java.util.logging.Level.SEVERE, "ScheduledTransfersListServlet: Failed to lookup ScheduledTransferService via JNDI.", e);
-            throw new ServletException("Failed to initialize ScheduledTransfersListServlet: Required service not found.", e);
-        }
+        scheduledTransferService = ServiceLocator.scheduledTransferService();
     }
 
     /**
@@ -68,11 +56,6 @@ public class ScheduledTransfersListServlet extends HttpServlet {
         FlashMessageUtil.retrieveAndClearMessages(request); // Retrieve flash messages on GET
 
         try {
-            if (scheduledTransferService == null) {
-                LOGGER.severe("ScheduledTransfersListServlet: ScheduledTransferService is null (should have been initialized).");
-                throw new ServletException("Service 'ScheduledTransferService' unavailable. Please try again later.");
-            }
-
             List<ScheduledTransfer> scheduledTransfers = Collections.emptyList();
 
             // Re-evaluating the best approach to get user-specific scheduled transfers:
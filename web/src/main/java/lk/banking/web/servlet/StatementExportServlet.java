@@ -0,0 +1,145 @@
+package lk.banking.web.servlet;
+
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lk.banking.core.dto.LoggedInUser;
+import lk.banking.core.entity.enums.UserRole;
+import lk.banking.services.TransactionServices;
+import lk.banking.web.util.PdfFilter;
+import lk.banking.web.util.PdfGenerationUtil;
+import lk.banking.web.util.ServiceLocator;
+import lk.banking.web.util.StatementExportJobs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous variant of {@link TransactionDownloadServlet} for large statements.
+ * <ul>
+ *     <li>{@code POST /statements/export} queues an export and answers 202 with the job as JSON.</li>
+ *     <li>{@code GET /statements/export?job=<id>} reports the job's status and progress.</li>
+ *     <li>{@code GET /statements/export/download?job=<id>} serves the finished PDF.</li>
+ * </ul>
+ * Jobs are visible only to the customer who submitted them.
+ */
+@WebServlet(urlPatterns = {"/statements/export", "/statements/export/download"})
+public class StatementExportServlet extends HttpServlet {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementExportServlet.class.getName());
+
+    private TransactionServices transactionService;
+
+    @Inject
+    private StatementExportJobs exportJobs;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        transactionService = ServiceLocator.transactionServices();
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        LoggedInUser loggedInUser = customer(request, response);
+        if (loggedInUser == null) {
+            return;
+        }
+
+        StatementExportJobs.Job job;
+        try {
+            // Data and HTML are produced here, while the request is live; only the conversion runs in the background
+            TransactionDownloadServlet.prepareStatement(request, loggedInUser, transactionService);
+            PdfGenerationUtil.HtmlCapture html = PdfGenerationUtil.renderJsp(request, response, TransactionDownloadServlet.STATEMENT_VIEW);
+            job = exportJobs.submit(loggedInUser.getId(), html, PdfGenerationUtil.baseUrl(request));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warning("StatementExportServlet: Executor rejected export for " + loggedInUser.getUsername());
+            response.setHeader("Retry-After", "30");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many exports are running. Please try again shortly.");
+            return;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "StatementExportServlet: Failed to queue statement export for " + loggedInUser.getUsername(), e);
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "An error occurred while preparing your statement.");
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_ACCEPTED);
+        response.setHeader("Location", statusUrl(request, job));
+        writeJson(response, job, request);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        LoggedInUser loggedInUser = customer(request, response);
+        if (loggedInUser == null) {
+            return;
+        }
+
+        StatementExportJobs.Job job = exportJobs.find(request.getParameter("job"), loggedInUser.getId());
+        if (job == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown or expired export job.");
+            return;
+        }
+
+        if (!"/statements/export/download".equals(request.getServletPath())) {
+            response.setHeader("Cache-Control", "no-store");
+            writeJson(response, job, request);
+            return;
+        }
+
+        if (job.getStatus() != StatementExportJobs.Status.DONE) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "The statement is not ready yet (" + job.getStatus() + ").");
+            return;
+        }
+        try (InputStream pdf = Files.newInputStream(job.getFile())) {
+            response.setContentLengthLong(Files.size(job.getFile()));
+            PdfFilter.sendPdf(response, pdf);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown or expired export job.");
+        }
+    }
+
+    private static LoggedInUser customer(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        LoggedInUser loggedInUser = (LoggedInUser) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null || !loggedInUser.hasRole(UserRole.CUSTOMER)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Unauthorized");
+            return null;
+        }
+        return loggedInUser;
+    }
+
+    private static String statusUrl(HttpServletRequest request, StatementExportJobs.Job job) {
+        return request.getContextPath() + "/statements/export?job=" + job.getId();
+    }
+
+    private static void writeJson(HttpServletResponse response, StatementExportJobs.Job job, HttpServletRequest request) throws IOException {
+        JsonObjectBuilder json = Json.createObjectBuilder()
+                .add("jobId", job.getId())
+                .add("status", job.getStatus().name())
+                .add("progress", job.getProgress())
+                .add("pages", job.getPages())
+                .add("submittedAt", job.getSubmittedAt().toString())
+                .add("statusUrl", statusUrl(request, job));
+        if (job.getFinishedAt() != null) {
+            json.add("finishedAt", job.getFinishedAt().toString());
+        }
+        if (job.getStatus() == StatementExportJobs.Status.DONE) {
+            json.add("downloadUrl", request.getContextPath() + "/statements/export/download?job=" + job.getId());
+        }
+        if (job.getError() != null) {
+            json.add("error", job.getError());
+        }
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(json.build().toString());
+    }
+}
@@ -12,8 +12,19 @@ import lk.banking.core.entity.Transaction;
 import lk.banking.core.entity.enums.UserRole;
 import lk.banking.core.mapper.TransactionMapper;
 import lk.banking.services.TransactionServices;
+import lk.banking.web.util.PdfFilter;
+import lk.banking.web.util.PdfStatementCache;
+import lk.banking.web.util.ServiceLocator;
+import lk.banking.web.util.StatementWriter;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -24,9 +35,24 @@ public class TransactionDownloadServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(TransactionDownloadServlet.class.getName());
 
-    @Inject
+    /** Bump whenever transactionPdfView.jsp or _transactionTable.jspf changes, so cached statements are re-rendered. */
+    static final int STATEMENT_TEMPLATE_VERSION = 1;
+
+    static final String STATEMENT_TITLE = "Recent Transaction Statement";
+
+    static final String STATEMENT_VIEW = "/WEB-INF/jsp/transactionPdfView.jsp";
+
     private TransactionServices transactionService;
 
+    @Inject
+    private PdfStatementCache statementCache;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        transactionService = ServiceLocator.transactionServices();
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         LOGGER.info("Preparing data for transaction PDF rendering.");
@@ -37,24 +63,105 @@ public class TransactionDownloadServlet extends HttpServlet {
             return;
         }
 
+        // pdf (default): the HTML template rendered by PdfFilter; csv and pdf-fast: StatementWriter, no HTML layout
+        String format = request.getParameter("format");
+        if (format == null || format.isBlank()) {
+            format = "pdf";
+        }
+        if (!format.equals("pdf") && !format.equals("csv") && !format.equals("pdf-fast")) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported format. Use pdf, pdf-fast or csv.");
+            return;
+        }
+
         try {
-            // Fetch a safe number of transactions
-            List<Transaction> entityTransactions = transactionService.getTransactionsByUser(loggedInUser.getId(), 500);
-            List<TransactionDto> transactionDtos = entityTransactions.stream()
-                    .map(TransactionMapper::toDto)
-                    .collect(Collectors.toList());
+            // The ledger version identifies the statement's content: a transaction posting, or a pending one
+            // settling, failing or being cancelled, changes it, so the key (and ETag) changes and the
+            // previous PDF is no longer served.
+            PdfStatementCache.Key cacheKey = new PdfStatementCache.Key(loggedInUser.getId(),
+                    transactionService.getLedgerVersionByUser(loggedInUser.getId()), STATEMENT_TEMPLATE_VERSION);
+            String etag = format.equals("pdf") ? cacheKey.etag() : cacheKey.etag(format);
+            response.setHeader("ETag", etag);
+            response.setHeader("Cache-Control", "private, no-cache");
 
-            // Set attributes for the PDF JSP
-            request.setAttribute("transactionsForPdf", transactionDtos);
-            request.setAttribute("pdfTitle", "Recent Transaction Statement");
-            request.setAttribute("loggedInUser", loggedInUser); // The JSP needs this too
+            if (matches(request.getHeader("If-None-Match"), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            if (!format.equals("pdf")) {
+                writeDirect(response, loggedInUser, format);
+                return;
+            }
+
+            try (InputStream cachedPdf = statementCache.open(cacheKey)) {
+                if (cachedPdf != null) {
+                    LOGGER.fine("TransactionDownloadServlet: Serving cached statement " + etag);
+                    PdfFilter.sendPdf(response, cachedPdf);
+                    return;
+                }
+            }
+
+            prepareStatement(request, loggedInUser, transactionService);
+            request.setAttribute(PdfStatementCache.KEY_ATTRIBUTE, cacheKey); // PdfFilter stores the rendered PDF
 
             // Forward to the PDF-rendering JSP. The PdfFilter will intercept the output.
-            request.getRequestDispatcher("/WEB-INF/jsp/transactionPdfView.jsp").forward(request, response);
+            request.getRequestDispatcher(STATEMENT_VIEW).forward(request, response);
 
         } catch (Exception e) {
             LOGGER.log(java.util.logging.Level.SEVERE, "Failed to prepare data for transaction PDF for user " + loggedInUser.getUsername(), e);
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "An error occurred while preparing your PDF data.");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the statement with {@link StatementWriter} straight to the response's output stream (never
+     * {@code getWriter()}, which {@link PdfFilter} captures as HTML to convert).
+     */
+    private void writeDirect(HttpServletResponse response, LoggedInUser loggedInUser, String format) throws IOException {
+        Iterator<TransactionDto> transactions = transactionService.getTransactionsByUser(loggedInUser.getId(), 500).stream()
+                .map(TransactionMapper::toDto)
+                .iterator();
+        if (format.equals("csv")) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"Transaction_Statement.csv\"");
+            Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+            StatementWriter.writeCsv(transactions, out);
+        } else {
+            response.setContentType("application/pdf");
+            response.setHeader("Content-Disposition", "attachment; filename=\"Transaction_Statement.pdf\"");
+            StatementWriter.writePdf(transactions, STATEMENT_TITLE, loggedInUser.getUsername(), LocalDateTime.now(),
+                    response.getOutputStream());
+        }
+    }
+
+    /** Loads the statement data and sets the attributes {@link #STATEMENT_VIEW} renders. */
+    static void prepareStatement(HttpServletRequest request, LoggedInUser loggedInUser, TransactionServices transactionService) {
+        // Fetch a safe number of transactions
+        List<Transaction> entityTransactions = transactionService.getTransactionsByUser(loggedInUser.getId(), 500);
+        List<TransactionDto> transactionDtos = entityTransactions.stream()
+                .map(TransactionMapper::toDto)
+                .collect(Collectors.toList());
+
+        // Set attributes for the PDF JSP
+        request.setAttribute("transactionsForPdf", transactionDtos);
+        request.setAttribute("pdfTitle", STATEMENT_TITLE);
+        request.setAttribute("loggedInUser", loggedInUser); // The JSP needs this too
+    }
+
+    /** If-None-Match holds "*" or a comma-separated list of (possibly weak) entity tags. */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB;
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -19,14 +18,14 @@ import lk.banking.core.entity.Account;
 // import lk.banking.core.exception.ValidationException;
 import lk.banking.core.entity.ScheduledTransfer;
 import lk.banking.core.exception.AccountNotFoundException;
+import lk.banking.core.util.AccountNumberGenerator;
 import lk.banking.services.AccountService;
 import lk.banking.transaction.ScheduledTransferService;
 import lk.banking.transaction.TransactionManager;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil; // Already imported
 
-import javax.naming.InitialContext;
-import javax.naming.NamingException;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -43,30 +42,16 @@ public class TransferServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(TransferServlet.class.getName());
 
-    @EJB
     private AccountService accountService;
-
     private TransactionManager transactionManager;
     private ScheduledTransferService scheduledTransferService;
 
     @Override
     public void init() throws ServletException {
         super.init();
-        try {
-            String transactionManagerJndiName = "java:global/banking-system-ear/transaction-services/TransactionManagerBean!lk.banking.transaction.TransactionManager";
-            LOGGER.info("TransferServlet: Attempting JNDI lookup for TransactionManager at: " + transactionManagerJndiName);
-            transactionManager = (TransactionManager) new InitialContext().lookup(transactionManagerJndiName);
-            LOGGER.info("TransferServlet: JNDI lookup successful for TransactionManager.");
-
-            String scheduledTransferServiceJndiName = "java:global/banking-system-ear/transaction-services/ScheduledTransferServiceImpl!lk.banking.transaction.ScheduledTransferService";
-            LOGGER.info("TransferServlet: Attempting JNDI lookup for ScheduledTransferService at: " + scheduledTransferServiceJndiName);
-            scheduledTransferService = (ScheduledTransferService) new InitialContext().lookup(scheduledTransferServiceJndiName);
-            LOGGER.info("TransferServlet: JNDI lookup successful for ScheduledTransferService.");
-
-        } catch (NamingException e) {
-            LOGGER.log(java.util.logging.Level.SEVERE, "TransferServlet: Failed to lookup one or more EJB services via JNDI.", e);
-            throw new ServletException("Failed to initialize TransferServlet: Required services not found.", e);
-        }
+        accountService = ServiceLocator.accountService();
+        transactionManager = ServiceLocator.transactionManager();
+        scheduledTransferService = ServiceLocator.scheduledTransferService();
     }
 
     @Override
@@ -81,6 +66,7 @@ public class TransferServlet extends HttpServlet {
             return;
         }
 
+        ServletUtil.issueIdempotencyToken(request);
         try {
             List<Account> accounts = accountService.getAccountsByCustomer(loggedInUser.getCustomerId());
             request.setAttribute("accounts", accounts);
@@ -140,6 +126,14 @@ public class TransferServlet extends HttpServlet {
 
         if (errorMessage == null && (toAccountNumberStr == null || toAccountNumberStr.trim().isEmpty())) {
             errorMessage = "Destination account number is required.";
+        } else if (errorMessage == null) {
+            toAccountNumberStr = toAccountNumberStr.trim();
+            // Check digit catches typos without a database round trip; legacy numbers have none, so they
+            // are only accepted if such an account exists.
+            if (!AccountNumberGenerator.isValid(toAccountNumberStr)
+                    && !accountService.isLegacyAccountNumber(toAccountNumberStr)) {
+                errorMessage = "Invalid destination account number. Please check it and try again.";
+            }
         }
 
         if (errorMessage == null && (amountStr == null || amountStr.trim().isEmpty())) {
@@ -184,15 +178,6 @@ public class TransferServlet extends HttpServlet {
         }
 
         try {
-            if (transactionManager == null) {
-                LOGGER.severe("TransferServlet: TransactionManager is null. JNDI lookup failed during servlet initialization.");
-                throw new ServletException("Service 'TransactionManager' unavailable. Please try again later.");
-            }
-            if (isScheduled && scheduledTransferService == null) {
-                LOGGER.severe("TransferServlet: ScheduledTransferService is null. JNDI lookup failed during servlet initialization.");
-                throw new ServletException("Service 'ScheduledTransferService' unavailable. Please try again later.");
-            }
-
             Account toAccount = null;
             try {
                 toAccount = accountService.getAccountByNumber(toAccountNumberStr);
@@ -235,13 +220,14 @@ public class TransferServlet extends HttpServlet {
                         amount,
                         scheduledDateTime
                 );
-                scheduledTransferService.scheduleTransfer(scheduledTransfer);
+                scheduledTransfer = scheduledTransferService.scheduleTransfer(
+                        ServletUtil.idempotencyKey(request, loggedInUser), scheduledTransfer);
                 successMessage = String.format("Transfer of $%s from %s to %s scheduled successfully for %s!",
                         amount, fromAccount.getAccountNumber(), toAccountNumberStr, scheduledDateTime);
                 LOGGER.info("TransferServlet: Scheduled transfer created: " + scheduledTransfer.getId());
             } else {
                 TransferRequestDto transferRequestDto = new TransferRequestDto(fromAccountId, toAccountId, amount);
-                transactionManager.transferFunds(transferRequestDto);
+                transactionManager.transferFunds(ServletUtil.idempotencyKey(request, loggedInUser), transferRequestDto);
                 successMessage = String.format("Immediate transfer of $%s from %s to %s completed successfully!",
                         amount, fromAccount.getAccountNumber(), toAccountNumberStr);
                 LOGGER.info("TransferServlet: Immediate transfer completed.");
@@ -253,6 +239,9 @@ public class TransferServlet extends HttpServlet {
         } catch (Exception e) { // Catch generic Exception
             // Use the new ServletUtil.getRootErrorMessage to handle all banking exceptions consistently
             String displayErrorMessage = ServletUtil.getRootErrorMessage(e, "An unexpected error occurred. Please try again later.", LOGGER);
+            if (ServletUtil.isConflict(e)) {
+                response.setStatus(HttpServletResponse.SC_CONFLICT);
+            }
             request.setAttribute("errorMessage", displayErrorMessage);
             doGet(request, response);
         }
@@ -1,6 +1,5 @@
 package lk.banking.web.servlet;
 
-import jakarta.ejb.EJB;
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -16,6 +15,7 @@ import lk.banking.core.exception.UserNotFoundException;
 import lk.banking.core.mapper.UserMapper;
 import lk.banking.security.UserManagementService;
 import lk.banking.web.util.FlashMessageUtil;
+import lk.banking.web.util.ServiceLocator;
 import lk.banking.web.util.ServletUtil;
 
 import java.io.IOException;
@@ -29,9 +29,14 @@ public class UserManagementListServlet extends HttpServlet {
 
     private static final Logger LOGGER = Logger.getLogger(UserManagementListServlet.class.getName());
 
-    @EJB
     private UserManagementService userManagementService;
 
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        userManagementService = ServiceLocator.userManagementService();
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -0,0 +1,284 @@
+package lk.banking.web.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import lk.banking.core.dto.TransactionDto;
+import lk.banking.services.events.LedgerEvent;
+import lk.banking.services.events.LedgerEventBus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Server-Sent Events streams of ledger changes for logged-in customers. Each stream is an async servlet
+ * request written with non-blocking I/O: an idle stream holds no thread, only its queue and socket.
+ * {@link LedgerEventBus} hands over committed postings on the committing thread; they are queued per
+ * stream and written whenever the socket can take them, so a slow client never holds up a transfer.
+ * A client that falls {@code MAX_QUEUED_FRAMES} frames behind is disconnected and reconnects by itself.
+ * <p>
+ * Frames: {@code event: balance} with {@code accountId}, {@code accountNumber} and {@code balance}, then
+ * {@code event: transaction} with the transaction's fields. A comment line is sent every
+ * {@code banking.sse.heartbeatSeconds} (default 20) to keep proxies from closing idle streams.
+ */
+@ApplicationScoped
+public class LiveLedgerFeed {
+
+    private static final Logger LOGGER = Logger.getLogger(LiveLedgerFeed.class.getName());
+
+    public static final int MAX_STREAMS_PER_CUSTOMER = 5;
+    private static final int MAX_QUEUED_FRAMES = 64;
+    private static final byte[] OPENING = "retry: 5000\n: connected\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    @Inject
+    private LedgerEventBus ledgerEventBus;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final Map<String, Set<Stream>> streams = new ConcurrentHashMap<>();
+    private final Consumer<LedgerEvent> subscriber = this::publish;
+    private ScheduledFuture<?> heartbeat;
+
+    @PostConstruct
+    void init() {
+        ledgerEventBus.subscribe(subscriber);
+        long seconds = Long.getLong("banking.sse.heartbeatSeconds", 20);
+        heartbeat = scheduler.scheduleAtFixedRate(() -> broadcast(HEARTBEAT), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ledgerEventBus.unsubscribe(subscriber);
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+        }
+        streams.values().forEach(set -> set.forEach(Stream::close));
+        streams.clear();
+    }
+
+    /**
+     * Attaches a started async request as the customer's stream. Response headers must already be set.
+     *
+     * @return false if the customer already has {@link #MAX_STREAMS_PER_CUSTOMER} streams open.
+     */
+    public boolean open(AsyncContext asyncContext, String customerEmail) throws IOException {
+        Stream stream = new Stream(asyncContext, customerEmail);
+        boolean[] added = {false};
+        streams.compute(customerEmail, (email, set) -> {
+            Set<Stream> customerStreams = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (customerStreams.size() < MAX_STREAMS_PER_CUSTOMER) {
+                added[0] = customerStreams.add(stream);
+            }
+            return customerStreams.isEmpty() ? null : customerStreams;
+        });
+        if (!added[0]) {
+            return false;
+        }
+        asyncContext.addListener(stream);
+        stream.send(OPENING);
+        // The container calls onWritePossible once the listener is set, which writes the opening frame
+        asyncContext.getResponse().getOutputStream().setWriteListener(stream);
+        return true;
+    }
+
+    /** Number of open streams, for diagnostics. */
+    public int openStreams() {
+        return streams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void publish(LedgerEvent event) {
+        Set<Stream> customerStreams = event.getCustomerEmail() != null ? streams.get(event.getCustomerEmail()) : null;
+        if (customerStreams == null || customerStreams.isEmpty()) {
+            return;
+        }
+        byte[] frames = frames(event);
+        for (Stream stream : customerStreams) {
+            stream.send(frames);
+        }
+    }
+
+    private void broadcast(byte[] frame) {
+        for (Set<Stream> customerStreams : streams.values()) {
+            for (Stream stream : customerStreams) {
+                stream.send(frame);
+            }
+        }
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.customerEmail, (email, set) -> {
+            set.remove(stream);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    static byte[] frames(LedgerEvent event) {
+        JsonObjectBuilder balance = Json.createObjectBuilder()
+                .add("accountId", event.getAccountId())
+                .add("accountNumber", event.getAccountNumber())
+                .add("balance", event.getBalance());
+        StringBuilder sb = new StringBuilder(512)
+                .append("event: balance\ndata: ").append(balance.build()).append("\n\n");
+
+        TransactionDto tx = event.getTransaction();
+        if (tx != null) {
+            JsonObjectBuilder transaction = Json.createObjectBuilder()
+                    .add("accountId", event.getAccountId())
+                    .add("accountNumber", event.getAccountNumber());
+            if (tx.getId() != null) {
+                transaction.add("id", tx.getId());
+            }
+            if (tx.getType() != null) {
+                transaction.add("type", tx.getType().name());
+            }
+            if (tx.getStatus() != null) {
+                transaction.add("status", tx.getStatus().name());
+            }
+            if (tx.getAmount() != null) {
+                transaction.add("amount", tx.getAmount());
+            }
+            transaction.add("timestamp", tx.getFormattedTimestamp())
+                    .add("description", tx.getDescription() != null ? tx.getDescription() : "");
+            sb.append("event: transaction\ndata: ").append(transaction.build()).append("\n\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** One open event stream. All output goes through {@link #drain()}, which never blocks. */
+    private final class Stream implements WriteListener, AsyncListener {
+        private final AsyncContext asyncContext;
+        private final String customerEmail;
+        private final ArrayDeque<byte[]> queue = new ArrayDeque<>();
+        private ServletOutputStream out;
+        private boolean flushPending;
+        private boolean closed;
+
+        Stream(AsyncContext asyncContext, String customerEmail) {
+            this.asyncContext = asyncContext;
+            this.customerEmail = customerEmail;
+        }
+
+        void send(byte[] frame) {
+            boolean failed = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= MAX_QUEUED_FRAMES) {
+                    LOGGER.info("LiveLedgerFeed: Dropping stream for " + customerEmail + " after it fell " + queue.size() + " frames behind.");
+                    failed = true;
+                } else {
+                    queue.add(frame);
+                    // Until the container has called onWritePossible the frame just waits in the queue
+                    if (out != null) {
+                        try {
+                            drain();
+                        } catch (IOException e) {
+                            LOGGER.log(Level.FINE, "LiveLedgerFeed: Write failed for " + customerEmail, e);
+                            failed = true;
+                        }
+                    }
+                }
+            }
+            if (failed) {
+                close();
+            }
+        }
+
+        /** Writes queued frames while the socket accepts them; the container calls back once it can take more. */
+        private void drain() throws IOException {
+            while (out.isReady()) {
+                if (flushPending) {
+                    flushPending = false;
+                    out.flush();
+                    continue;
+                }
+                byte[] next = queue.poll();
+                if (next == null) {
+                    return;
+                }
+                out.write(next);
+                flushPending = true;
+            }
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (out == null) {
+                    out = asyncContext.getResponse().getOutputStream();
+                }
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.log(Level.FINE, "LiveLedgerFeed: Stream for " + customerEmail + " failed", t);
+            close();
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+            }
+            remove(this);
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
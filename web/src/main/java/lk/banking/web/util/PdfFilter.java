@@ -1,5 +1,6 @@
 package lk.banking.web.util;
 
+import jakarta.inject.Inject;
 import jakarta.servlet.*;
 import jakarta.servlet.annotation.WebFilter;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,15 +8,20 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletResponseWrapper;
 import org.xhtmlrenderer.pdf.ITextRenderer;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.logging.Logger;
 
 @WebFilter(urlPatterns = {"/pdf/*"}) // This filter will apply to any URL starting with /pdf/
 public class PdfFilter implements Filter {
 
+    private static final Logger LOGGER = Logger.getLogger(PdfFilter.class.getName());
+
+    @Inject
+    private PdfStatementCache statementCache;
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -29,52 +35,86 @@ public class PdfFilter implements Filter {
         // 2. Proceed with the servlet/JSP chain. The JSP will write its HTML to our wrapper.
         chain.doFilter(httpRequest, responseWrapper);
 
-        // 3. Get the captured HTML content
-        String htmlContent = responseWrapper.getCaptureAsString();
-
-        try {
-            // 4. Use Flying Saucer to convert the captured HTML to a PDF
-            ByteArrayOutputStream pdfOutputStream = new ByteArrayOutputStream();
-            ITextRenderer renderer = new ITextRenderer();
-
-            String baseUrl = httpRequest.getScheme() + "://" + httpRequest.getServerName() + ":" + httpRequest.getServerPort() + httpRequest.getContextPath();
-            renderer.setDocumentFromString(htmlContent, baseUrl);
-            renderer.layout();
-            renderer.createPDF(pdfOutputStream);
+        // The servlet answered on its own (cached PDF, 304 Not Modified, error): nothing to convert
+        if (!responseWrapper.isCapturing()) {
+            return;
+        }
 
-            // 5. Set the real response headers for a PDF download
-            httpResponse.setContentType("application/pdf");
-            httpResponse.setContentLength(pdfOutputStream.size());
-            httpResponse.setHeader("Content-Disposition", "attachment; filename=\"Transaction_Statement.pdf\"");
+        // 3. Wait for a render slot; when the queue does not move in time, ask the client to come back later
+        try (PdfGenerationUtil.RenderSlot slot = PdfGenerationUtil.acquireRenderSlot()) {
+            ITextRenderer renderer;
+            try {
+                // 4. Use Flying Saucer to lay out the captured HTML. Nothing has been sent yet, so a failure
+                //    here still turns into a proper error response.
+                renderer = PdfGenerationUtil.layout(responseWrapper.getCapture().reader(), PdfGenerationUtil.baseUrl(httpRequest));
+            } catch (Exception e) {
+                throw new ServletException("Error while converting HTML to PDF", e);
+            }
+
+            // 5. Set the real response headers and stream the PDF to the real response. Without a
+            //    Content-Length the container sends it chunked, and no complete copy is held in memory.
+            setPdfHeaders(httpResponse);
+            PdfStatementCache.Key cacheKey = (PdfStatementCache.Key) httpRequest.getAttribute(PdfStatementCache.KEY_ATTRIBUTE);
+            OutputStream out = cacheKey != null
+                    ? statementCache.tee(cacheKey, httpResponse.getOutputStream())
+                    : httpResponse.getOutputStream();
+            try {
+                renderer.createPDF(out);
+                out.flush();
+                if (out instanceof PdfStatementCache.Tee tee) {
+                    tee.commit();
+                }
+            } catch (Exception e) {
+                if (out instanceof PdfStatementCache.Tee tee) {
+                    tee.discard();
+                }
+                throw new ServletException("Error while streaming PDF", e);
+            }
+        } catch (UnavailableException e) {
+            LOGGER.warning("PdfFilter: No render slot within " + e.getUnavailableSeconds() + "s for " + httpRequest.getRequestURI());
+            httpResponse.setHeader("Retry-After", String.valueOf(e.getUnavailableSeconds()));
+            httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
 
-            // 6. Write the PDF bytes to the real response
-            OutputStream realOutputStream = httpResponse.getOutputStream();
-            realOutputStream.write(pdfOutputStream.toByteArray());
-            realOutputStream.flush();
+    private static void setPdfHeaders(HttpServletResponse response) {
+        response.setContentType("application/pdf");
+        response.setHeader("Content-Disposition", "attachment; filename=\"Transaction_Statement.pdf\"");
+    }
 
-        } catch (Exception e) {
-            throw new ServletException("Error while converting HTML to PDF", e);
-        }
+    /** Streams a previously rendered PDF as the "Transaction_Statement.pdf" download. */
+    public static void sendPdf(HttpServletResponse response, InputStream pdf) throws IOException {
+        setPdfHeaders(response);
+        OutputStream realOutputStream = response.getOutputStream();
+        pdf.transferTo(realOutputStream);
+        realOutputStream.flush();
     }
 
     // Helper classes for capturing the response
     private static class HtmlResponseWrapper extends HttpServletResponseWrapper {
-        private final StringWriter capture;
+        private final PdfGenerationUtil.HtmlCapture capture;
         private final PrintWriter writer;
+        private boolean capturing;
 
         public HtmlResponseWrapper(HttpServletResponse response) {
             super(response);
-            capture = new StringWriter();
+            capture = new PdfGenerationUtil.HtmlCapture();
             writer = new PrintWriter(capture);
         }
 
         @Override
         public PrintWriter getWriter() {
+            capturing = true;
             return writer;
         }
 
-        public String getCaptureAsString() {
-            return capture.toString();
+        public boolean isCapturing() {
+            return capturing;
+        }
+
+        public PdfGenerationUtil.HtmlCapture getCapture() {
+            writer.flush();
+            return capture;
         }
     }
 }
\ No newline at end of file
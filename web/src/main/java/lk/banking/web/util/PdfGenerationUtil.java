@@ -2,37 +2,124 @@
 package lk.banking.web.util;
 
 import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.UnavailableException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletResponseWrapper;
 import lk.banking.core.dto.TransactionDto;
 import org.xhtmlrenderer.pdf.ITextRenderer;
+import org.xhtmlrenderer.resource.XMLResource;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.Reader;
 import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class PdfGenerationUtil {
 
     /**
-     * Renders a JSP file into an HTML string.
+     * Upper bound on simultaneous Flying Saucer renders. Layout is CPU- and allocation-heavy, so requests
+     * beyond this wait (first come, first served) instead of all rendering at once.
+     * System property {@code banking.pdf.maxConcurrentRenders}, default: number of processors.
+     */
+    public static final int MAX_CONCURRENT_RENDERS = Integer.getInteger("banking.pdf.maxConcurrentRenders",
+            Runtime.getRuntime().availableProcessors());
+
+    /**
+     * How long a request waits for a render slot before it is turned away with 503.
+     * System property {@code banking.pdf.renderQueueTimeoutSeconds}, default 20.
+     */
+    public static final int RENDER_QUEUE_TIMEOUT_SECONDS = Integer.getInteger("banking.pdf.renderQueueTimeoutSeconds", 20);
+
+    private static final Semaphore RENDER_SLOTS = new Semaphore(MAX_CONCURRENT_RENDERS, true);
+
+    /** A held render slot; closing it lets the next queued render start. */
+    public static final class RenderSlot implements AutoCloseable {
+        private boolean released;
+
+        private RenderSlot() {
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                RENDER_SLOTS.release();
+            }
+        }
+    }
+
+    /** Collects rendered HTML and hands it to the parser without copying the buffer again. */
+    public static final class HtmlCapture extends CharArrayWriter {
+        public HtmlCapture() {
+            super(16 * 1024);
+        }
+
+        public Reader reader() {
+            return new CharArrayReader(buf, 0, count);
+        }
+    }
+
+    /**
+     * Waits in line for a render slot.
+     *
+     * @throws UnavailableException if none frees up within {@link #RENDER_QUEUE_TIMEOUT_SECONDS}.
+     */
+    public static RenderSlot acquireRenderSlot() throws UnavailableException {
+        try {
+            if (RENDER_SLOTS.tryAcquire(RENDER_QUEUE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return new RenderSlot();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new UnavailableException("Too many statements are being generated right now. Please try again shortly.",
+                RENDER_QUEUE_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * Waits for a render slot however long the queue is. For background jobs, which have no client
+     * holding a connection open.
+     */
+    public static RenderSlot awaitRenderSlot() throws InterruptedException {
+        RENDER_SLOTS.acquire();
+        return new RenderSlot();
+    }
+
+    /**
+     * Parses the HTML and lays it out, ready for {@link ITextRenderer#createPDF(OutputStream)}. Kept apart
+     * from the output step so that layout errors surface before any byte of the response is committed.
+     *
+     * @param baseUrl used to resolve relative paths (e.g., for images or CSS).
+     */
+    public static ITextRenderer layout(Reader html, String baseUrl) {
+        ITextRenderer renderer = new ITextRenderer();
+        renderer.setDocument(XMLResource.load(html).getDocument(), baseUrl);
+        renderer.layout();
+        return renderer;
+    }
+
+    public static String baseUrl(HttpServletRequest request) {
+        return request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort() + request.getContextPath();
+    }
+
+    /**
+     * Renders a JSP file into an HTML buffer.
      *
      * @param request The HttpServletRequest.
      * @param response The HttpServletResponse.
      * @param jspPath The path to the JSP file (e.g., "/WEB-INF/jspf/_transactionTable.jspf").
-     * @param transactions The data to be passed to the JSP.
-     * @return The rendered HTML as a String.
+     * @return The rendered HTML.
      * @throws Exception if rendering fails.
      */
-    private static String renderJspToString(HttpServletRequest request, HttpServletResponse response, String jspPath, List<TransactionDto> transactions) throws Exception {
-        // Set the transaction data as a request attribute so the JSP can access it
-        request.setAttribute("transactionsForPdf", transactions);
-
-        // Create a StringWriter to capture the JSP's output
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter printWriter = new PrintWriter(stringWriter);
+    public static HtmlCapture renderJsp(HttpServletRequest request, HttpServletResponse response, String jspPath) throws Exception {
+        // Capture the JSP's output
+        HtmlCapture capture = new HtmlCapture();
+        PrintWriter printWriter = new PrintWriter(capture);
 
         // Create a custom response wrapper to capture the output
         HttpServletResponseWrapper responseWrapper = new HttpServletResponseWrapper(response) {
@@ -42,46 +129,41 @@ public class PdfGenerationUtil {
             }
         };
 
-        // Get the RequestDispatcher and include the JSP, which will "print" its HTML to our StringWriter
+        // Get the RequestDispatcher and include the JSP, which will "print" its HTML to our buffer
         RequestDispatcher dispatcher = request.getRequestDispatcher(jspPath);
         dispatcher.include(request, responseWrapper);
 
-        // Flush and return the captured HTML
         printWriter.flush();
-        return stringWriter.toString();
+        return capture;
     }
 
     /**
      * Generates a PDF from a list of transactions by first rendering a JSP to HTML,
-     * then converting the HTML to a PDF using Flying Saucer.
+     * then converting the HTML to a PDF using Flying Saucer. The PDF is written to {@code out}
+     * as it is produced rather than collected in memory first.
      *
      * @param request The HttpServletRequest.
      * @param response The HttpServletResponse.
      * @param transactions The list of TransactionDto objects.
-     * @return A byte array containing the generated PDF.
+     * @param out Where the PDF goes, typically the response's output stream.
+     * @throws UnavailableException If no render slot frees up in time.
      * @throws Exception If there is an error during PDF creation.
      */
-    public static byte[] generatePdfFromJsp(HttpServletRequest request, HttpServletResponse response, List<TransactionDto> transactions) throws Exception {
+    public static void generatePdfFromJsp(HttpServletRequest request, HttpServletResponse response, List<TransactionDto> transactions, OutputStream out) throws Exception {
         // 1. Define the path to our reusable JSP table fragment
         String jspPath = "/WEB-INF/jspf/_transactionTable.jspf";
 
-        // 2. Render the JSP to an HTML string
-        String htmlContent = renderJspToString(request, response, jspPath, transactions);
+        // 2. Set the transaction data as a request attribute so the JSP can access it, and render it to HTML
+        request.setAttribute("transactionsForPdf", transactions);
+        HtmlCapture html = renderJsp(request, response, jspPath);
 
         // IMPORTANT: Remove the old attribute to avoid it leaking to other requests
         request.removeAttribute("transactionsForPdf");
 
-        // 3. Use Flying Saucer to convert the HTML string to a PDF
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ITextRenderer renderer = new ITextRenderer();
-
-        // The base URL is needed to resolve any relative paths (e.g., for images or CSS)
-        // Here, we can create a simple one.
-        String baseUrl = request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort() + request.getContextPath();
-        renderer.setDocumentFromString(htmlContent, baseUrl);
-        renderer.layout();
-        renderer.createPDF(outputStream);
-
-        return outputStream.toByteArray();
+        // 3. Use Flying Saucer to convert the HTML to a PDF, streaming it out
+        try (RenderSlot slot = acquireRenderSlot()) {
+            ITextRenderer renderer = layout(html.reader(), baseUrl(request));
+            renderer.createPDF(out);
+        }
     }
-}
\ No newline at end of file
+}
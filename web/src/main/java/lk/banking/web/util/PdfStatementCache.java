@@ -0,0 +1,277 @@
+package lk.banking.web.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Disk-backed cache of rendered PDF statements. An entry is keyed by (user, ledger version, template
+ * version), so a statement is reused only while no transaction on the user's accounts has been added or
+ * changed status and the template is unchanged. Storing a new statement for a user drops that user's older ones; the
+ * total size on disk is bounded and the least recently served statements are evicted first.
+ * <p>
+ * Directory and bound come from the system properties {@code banking.pdfCache.dir} (default
+ * {@code <java.io.tmpdir>/banking-pdf-cache}) and {@code banking.pdfCache.maxBytes} (default 256 MB).
+ * The index lives in memory, so the directory is emptied on startup.
+ */
+@ApplicationScoped
+public class PdfStatementCache {
+
+    private static final Logger LOGGER = Logger.getLogger(PdfStatementCache.class.getName());
+
+    /** Request attribute through which the servlet asks {@link PdfFilter} to store what it renders. */
+    public static final String KEY_ATTRIBUTE = PdfStatementCache.class.getName() + ".key";
+
+    private static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    /** Identifies one rendered statement. */
+    public record Key(long userId, long ledgerVersion, int templateVersion) {
+
+        String fileName() {
+            return "statement-" + userId + "-" + ledgerVersion + "-v" + templateVersion + ".pdf";
+        }
+
+        /** Strong entity tag for conditional GETs; stable across restarts since it is derived from the key. */
+        public String etag() {
+            return "\"stmt-" + userId + "-" + ledgerVersion + "-v" + templateVersion + "\"";
+        }
+
+        /** Entity tag of another representation of the same statement, e.g. "csv". */
+        public String etag(String variant) {
+            return "\"stmt-" + userId + "-" + ledgerVersion + "-v" + templateVersion + "-" + variant + "\"";
+        }
+    }
+
+    private Path directory;
+    private long maxBytes;
+    private long totalBytes;
+
+    /** Access-ordered, so iteration starts at the least recently served entry. */
+    private final LinkedHashMap<Key, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    @PostConstruct
+    void init() {
+        directory = Paths.get(System.getProperty("banking.pdfCache.dir",
+                Paths.get(System.getProperty("java.io.tmpdir"), "banking-pdf-cache").toString()));
+        maxBytes = Long.getLong("banking.pdfCache.maxBytes", DEFAULT_MAX_BYTES);
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "statement-*")) {
+                for (Path file : stale) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            LOGGER.info("PdfStatementCache: Caching statements in " + directory + " (max " + maxBytes + " bytes).");
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "PdfStatementCache: Cannot prepare " + directory + ", statements will not be cached.", e);
+            directory = null;
+        }
+    }
+
+    /**
+     * Opens the cached statement for {@code key}, or returns null if it is not cached. The stream is opened
+     * before returning, so a concurrent eviction cannot cut it short.
+     */
+    public InputStream open(Key key) {
+        synchronized (this) {
+            if (directory == null || entries.get(key) == null) {
+                return null;
+            }
+        }
+        try {
+            return Files.newInputStream(directory.resolve(key.fileName()));
+        } catch (IOException e) {
+            // Evicted by a concurrent store between the lookup and the open, or removed from disk.
+            synchronized (this) {
+                remove(key);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Wraps {@code out} so that everything written to it is also spooled to disk. After the statement has
+     * been written completely, {@link Tee#commit()} adds it to the cache; otherwise the spool file is dropped.
+     * Problems writing the spool file only disable caching for this statement, never the download itself.
+     */
+    public OutputStream tee(Key key, OutputStream out) {
+        if (directory == null) {
+            return out;
+        }
+        try {
+            return new Tee(key, out, Files.createTempFile(directory, "tmp-", ".pdf"));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "PdfStatementCache: Cannot spool statement " + key.fileName(), e);
+            return out;
+        }
+    }
+
+    /** @see #tee(Key, OutputStream) */
+    public final class Tee extends FilterOutputStream {
+        private final Key key;
+        private final Path spool;
+        private OutputStream file;
+        private long size;
+
+        private Tee(Key key, OutputStream out, Path spool) throws IOException {
+            super(out);
+            this.key = key;
+            this.spool = spool;
+            this.file = new BufferedOutputStream(Files.newOutputStream(spool), 64 * 1024);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (file != null) {
+                try {
+                    file.write(b);
+                    size++;
+                } catch (IOException e) {
+                    abandon(e);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (file != null) {
+                try {
+                    file.write(b, off, len);
+                    size += len;
+                } catch (IOException e) {
+                    abandon(e);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                closeFile();
+            }
+        }
+
+        /** Publishes the spooled statement; call once the whole PDF has been written. */
+        public void commit() {
+            closeFile();
+            if (!Files.exists(spool)) {
+                return;
+            }
+            if (size > maxBytes) {
+                discard();
+                return;
+            }
+            try {
+                Files.move(spool, directory.resolve(key.fileName()),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "PdfStatementCache: Failed to store " + key.fileName(), e);
+                discard();
+                return;
+            }
+            register(key, size);
+        }
+
+        /** Drops the spool file, e.g. because rendering failed half-way. */
+        public void discard() {
+            closeFileQuietly();
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "PdfStatementCache: Could not delete " + spool, e);
+            }
+        }
+
+        private void abandon(IOException e) {
+            LOGGER.log(Level.WARNING, "PdfStatementCache: Spooling " + key.fileName() + " failed, it will not be cached.", e);
+            discard();
+        }
+
+        private void closeFile() {
+            if (file != null) {
+                OutputStream toClose = file;
+                file = null;
+                try {
+                    toClose.close();
+                } catch (IOException e) {
+                    abandon(e);
+                }
+            }
+        }
+
+        private void closeFileQuietly() {
+            if (file != null) {
+                OutputStream toClose = file;
+                file = null;
+                try {
+                    toClose.close();
+                } catch (IOException ignored) {
+                    // The spool file is being deleted anyway
+                }
+            }
+        }
+    }
+
+    private synchronized void register(Key key, long size) {
+        invalidate(key.userId(), key);
+        Long previous = entries.put(key, size);
+        totalBytes += size - (previous != null ? previous : 0);
+        Iterator<Map.Entry<Key, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, Long> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            deleteFile(entry.getKey());
+        }
+    }
+
+    /** Drops the user's statements other than {@code keep}: they predate a transaction that has since posted. */
+    private void invalidate(long userId, Key keep) {
+        entries.entrySet().removeIf(entry -> {
+            Key key = entry.getKey();
+            if (key.userId() != userId || key.equals(keep)) {
+                return false;
+            }
+            totalBytes -= entry.getValue();
+            deleteFile(key);
+            return true;
+        });
+    }
+
+    private void remove(Key key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void deleteFile(Key key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key.fileName()));
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "PdfStatementCache: Could not delete " + key.fileName(), e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package lk.banking.web.util;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import lk.banking.security.AuthenticationService;
+import lk.banking.security.BulkOnboardingService;
+import lk.banking.security.UserManagementService;
+import lk.banking.services.AccountService;
+import lk.banking.services.CustomerService;
+import lk.banking.services.DashboardService;
+import lk.banking.services.MetricsService;
+import lk.banking.services.TransactionServices;
+import lk.banking.transaction.ScheduledTransferService;
+import lk.banking.transaction.TransactionManager;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The one place the web module resolves its EJB proxies. All bindings are looked up once, when the context
+ * starts and before any servlet is created; a missing binding throws from {@link #contextInitialized}, which
+ * fails the deployment instead of the first request that needs the service. Servlets copy the proxies they
+ * use into their own fields in {@code init()}, so a request pays neither a JNDI lookup nor a null check.
+ * <p>
+ * Local business interface proxies are thread-safe and stay valid for the application's lifetime, which is
+ * what makes sharing them safe. Names are {@code java:app} names, so they do not depend on the EAR's name.
+ */
+@WebListener
+public class ServiceLocator implements ServletContextListener {
+
+    private static final Logger LOGGER = Logger.getLogger(ServiceLocator.class.getName());
+
+    private static volatile Services services;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        services = Services.resolve();
+        LOGGER.info("ServiceLocator: Resolved all EJB bindings.");
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        services = null;
+    }
+
+    public static AccountService accountService() {
+        return services().accountService;
+    }
+
+    public static CustomerService customerService() {
+        return services().customerService;
+    }
+
+    public static TransactionServices transactionServices() {
+        return services().transactionServices;
+    }
+
+    public static DashboardService dashboardService() {
+        return services().dashboardService;
+    }
+
+    public static MetricsService metricsService() {
+        return services().metricsService;
+    }
+
+    public static TransactionManager transactionManager() {
+        return services().transactionManager;
+    }
+
+    public static ScheduledTransferService scheduledTransferService() {
+        return services().scheduledTransferService;
+    }
+
+    public static AuthenticationService authenticationService() {
+        return services().authenticationService;
+    }
+
+    public static UserManagementService userManagementService() {
+        return services().userManagementService;
+    }
+
+    public static BulkOnboardingService bulkOnboardingService() {
+        return services().bulkOnboardingService;
+    }
+
+    private static Services services() {
+        Services resolved = services;
+        if (resolved == null) {
+            // Only reachable from code running outside a started web application
+            throw new IllegalStateException("ServiceLocator: EJB bindings are not resolved; the web application is not started.");
+        }
+        return resolved;
+    }
+
+    /** The resolved proxies. Immutable, so one volatile read publishes all of them. */
+    private static final class Services {
+        final AccountService accountService;
+        final CustomerService customerService;
+        final TransactionServices transactionServices;
+        final DashboardService dashboardService;
+        final MetricsService metricsService;
+        final TransactionManager transactionManager;
+        final ScheduledTransferService scheduledTransferService;
+        final AuthenticationService authenticationService;
+        final UserManagementService userManagementService;
+        final BulkOnboardingService bulkOnboardingService;
+
+        private Services(Lookup lookup) {
+            accountService = lookup.bean("banking-services", "AccountServiceImpl", AccountService.class);
+            customerService = lookup.bean("banking-services", "CustomerServiceImpl", CustomerService.class);
+            transactionServices = lookup.bean("banking-services", "TransactionServiceImpl", TransactionServices.class);
+            dashboardService = lookup.bean("banking-services", "DashboardServiceImpl", DashboardService.class);
+            metricsService = lookup.bean("banking-services", "MetricsServiceImpl", MetricsService.class);
+            transactionManager = lookup.bean("transaction-services", "TransactionManagerBean", TransactionManager.class);
+            scheduledTransferService = lookup.bean("transaction-services", "ScheduledTransferServiceImpl", ScheduledTransferService.class);
+            authenticationService = lookup.bean("security-module", "AuthenticationServiceImpl", AuthenticationService.class);
+            userManagementService = lookup.bean("security-module", "UserManagementServiceImpl", UserManagementService.class);
+            bulkOnboardingService = lookup.bean("security-module", "BulkOnboardingServiceImpl", BulkOnboardingService.class);
+        }
+
+        static Services resolve() {
+            Lookup lookup;
+            try {
+                lookup = new Lookup(new InitialContext());
+            } catch (NamingException e) {
+                throw new IllegalStateException("ServiceLocator: No JNDI context available.", e);
+            }
+            Services resolved = new Services(lookup);
+            // Report every missing binding at once rather than one per redeploy
+            if (!lookup.missing.isEmpty()) {
+                IllegalStateException failure = new IllegalStateException(
+                        "ServiceLocator: Missing EJB bindings: " + String.join(", ", lookup.missing));
+                lookup.causes.forEach(failure::addSuppressed);
+                throw failure;
+            }
+            return resolved;
+        }
+    }
+
+    private static final class Lookup {
+        private final InitialContext context;
+        private final List<String> missing = new ArrayList<>();
+        private final List<Exception> causes = new ArrayList<>();
+
+        Lookup(InitialContext context) {
+            this.context = context;
+        }
+
+        <T> T bean(String module, String beanName, Class<T> businessInterface) {
+            String name = "java:app/" + module + "/" + beanName + "!" + businessInterface.getName();
+            try {
+                return businessInterface.cast(context.lookup(name));
+            } catch (NamingException | ClassCastException e) {
+                missing.add(name);
+                causes.add(e);
+                return null;
+            }
+        }
+    }
+}
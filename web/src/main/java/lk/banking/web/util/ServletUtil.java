@@ -1,6 +1,5 @@
 package lk.banking.web.util;
 
-import jakarta.ejb.EJB; // For @EJB if used internally, though JNDI is being used for services
 import jakarta.ejb.EJBException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,14 +8,13 @@ import lk.banking.core.dto.LoggedInUser;
 import lk.banking.core.entity.Account;
 import lk.banking.core.entity.Customer;
 import lk.banking.core.exception.*;
-import lk.banking.services.AccountService; // For AccountService lookup
-import lk.banking.services.CustomerService; // For CustomerService lookup
+import lk.banking.services.AccountService;
+import lk.banking.services.CustomerService;
 
-import javax.naming.InitialContext;
-import javax.naming.NamingException;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 /**
@@ -27,6 +25,9 @@ public class ServletUtil {
 
     private static final Logger LOGGER = Logger.getLogger(ServletUtil.class.getName());
 
+    /** Request attribute and form parameter carrying the idempotency token of a money-moving form. */
+    public static final String IDEMPOTENCY_TOKEN = "idempotencyToken";
+
     /**
      * Unwraps the root cause of an Exception (especially EJBException) and returns a user-friendly error message string.
      * This method directly handles known BankingException types by comparing class names as strings
@@ -85,13 +86,13 @@ public class ServletUtil {
 
     /**
      * Helper method to retrieve all accounts associated with the logged-in user.
-     * This method directly performs JNDI lookups for required services.
+     * The services come from {@link ServiceLocator}, resolved once at startup.
      * @param request The HttpServletRequest.
      * @param response The HttpServletResponse.
      * @param loggedInUser The LoggedInUser DTO from session.
      * @param logger The logger of the calling servlet for consistent logging.
      * @return A list of Account entities.
-     * @throws ServletException if JNDI lookup fails or a critical service error occurs.
+     * @throws ServletException if a critical service error occurs.
      * @throws IOException if a redirect is performed due to unauthenticated state (should be handled by filter).
      */
     public static List<Account> getAccountsForLoggedInUser(HttpServletRequest request, HttpServletResponse response, LoggedInUser loggedInUser, Logger logger)
@@ -99,17 +100,8 @@ public class ServletUtil {
         // This method assumes the loggedInUser is not null and is a CUSTOMER.
         // The calling servlet should handle authentication and role checks.
 
-        // JNDI lookups (assuming these are constant throughout the app's lifecycle)
-        AccountService accountService = null;
-        CustomerService customerService = null;
-        try {
-            // Confirm these JNDI names from your GlassFish logs
-            accountService = (AccountService) new InitialContext().lookup("java:global/banking-system-ear/banking-services/AccountServiceImpl!lk.banking.services.AccountService");
-            customerService = (CustomerService) new InitialContext().lookup("java:global/banking-system-ear/banking-services/CustomerServiceImpl!lk.banking.services.CustomerService");
-        } catch (NamingException e) {
-            if (logger != null) logger.log(java.util.logging.Level.SEVERE, "ServletUtil: Failed to lookup AccountService or CustomerService via JNDI in getAccountsForLoggedInUser.", e);
-            throw new ServletException("Service unavailable: Account/Customer services not found.", e);
-        }
+        AccountService accountService = ServiceLocator.accountService();
+        CustomerService customerService = ServiceLocator.customerService();
 
         try {
             Customer customer = null;
@@ -138,6 +130,46 @@ public class ServletUtil {
         }
     }
 
+    /**
+     * Whether the root cause of {@code e} is a ResourceConflictException, e.g. an idempotency key reused for
+     * a different request. Compared by class name, as in {@link #getRootErrorMessage}.
+     */
+    public static boolean isConflict(Throwable e) {
+        Throwable currentCause = e;
+        while (currentCause.getCause() != null && currentCause.getCause() != currentCause) {
+            currentCause = currentCause.getCause();
+        }
+        return currentCause.getClass().getName().equals(ResourceConflictException.class.getName());
+    }
+
+    /**
+     * Puts a fresh idempotency token in request scope for the form about to be rendered. Each rendering of a
+     * money-moving form gets its own, so resubmitting that form (double click, retry after a timeout) repeats
+     * the token while a new transfer from a new form does not.
+     */
+    public static void issueIdempotencyToken(HttpServletRequest request) {
+        request.setAttribute(IDEMPOTENCY_TOKEN, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Builds the TransactionManager idempotency key for the token the form was submitted with, scoped to
+     * the user so one user's token can never replay another's result.
+     *
+     * @return the key, or null if the request carries no well-formed token.
+     */
+    public static String idempotencyKey(HttpServletRequest request, LoggedInUser loggedInUser) {
+        String token = request.getParameter(IDEMPOTENCY_TOKEN);
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return "user-" + loggedInUser.getId() + ":" + UUID.fromString(token.trim());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("ServletUtil: Ignoring malformed idempotency token from user " + loggedInUser.getUsername());
+            return null;
+        }
+    }
+
     public static Exception unwrapEJBException(EJBException e) {
 
         return null;
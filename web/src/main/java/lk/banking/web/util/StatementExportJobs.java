@@ -0,0 +1,192 @@
+package lk.banking.web.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background PDF statement exports. The request thread only fetches the data and renders the JSP to HTML;
+ * layout and PDF output, the expensive part, run on the container's default ManagedExecutorService while
+ * the client polls for the job's status. Finished files are kept on local disk under
+ * {@code banking.pdfExport.dir} (default {@code <java.io.tmpdir>/banking-pdf-exports}) and removed
+ * {@code banking.pdfExport.retentionMinutes} (default 30) after the job ends.
+ */
+@ApplicationScoped
+public class StatementExportJobs {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementExportJobs.class.getName());
+
+    public enum Status { QUEUED, RENDERING, WRITING, DONE, FAILED }
+
+    /** One export. Fields are written by the worker and read by status requests. */
+    public static final class Job {
+        private final String id;
+        private final long userId;
+        private final Instant submittedAt = Instant.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile int progress;
+        private volatile int pages;
+        private volatile String error;
+        private volatile Instant finishedAt;
+        private volatile Path file;
+
+        private Job(String id, long userId) {
+            this.id = id;
+            this.userId = userId;
+        }
+
+        public String getId() { return id; }
+        public long getUserId() { return userId; }
+        public Instant getSubmittedAt() { return submittedAt; }
+        public Status getStatus() { return status; }
+        /** Rough completion in percent: queued 0, laid out 60, done 100. */
+        public int getProgress() { return progress; }
+        /** Page count, known once layout has finished. */
+        public int getPages() { return pages; }
+        public String getError() { return error; }
+        public Instant getFinishedAt() { return finishedAt; }
+        public Path getFile() { return file; }
+
+        public boolean isActive() {
+            return status != Status.DONE && status != Status.FAILED;
+        }
+
+        private void update(Status status, int progress) {
+            this.status = status;
+            this.progress = progress;
+        }
+    }
+
+    @Resource
+    private ManagedExecutorService executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private Path directory;
+    private Duration retention;
+
+    @PostConstruct
+    void init() {
+        directory = Paths.get(System.getProperty("banking.pdfExport.dir",
+                Paths.get(System.getProperty("java.io.tmpdir"), "banking-pdf-exports").toString()));
+        retention = Duration.ofMinutes(Long.getLong("banking.pdfExport.retentionMinutes", 30));
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "StatementExportJobs: Cannot create export directory " + directory, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(this::deleteFile);
+        jobs.clear();
+    }
+
+    /**
+     * Queues the conversion of an already rendered statement. A user with an export still in progress gets
+     * that job back instead of a second one.
+     *
+     * @throws RejectedExecutionException if the executor does not accept more work.
+     */
+    public Job submit(long userId, PdfGenerationUtil.HtmlCapture html, String baseUrl) {
+        purgeExpired();
+        for (Job job : jobs.values()) {
+            if (job.userId == userId && job.isActive()) {
+                return job;
+            }
+        }
+        Job job = new Job(UUID.randomUUID().toString(), userId);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, html, baseUrl));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        LOGGER.info("StatementExportJobs: Queued export " + job.id + " for user ID " + userId);
+        return job;
+    }
+
+    /** The job if it exists and belongs to the user, otherwise null. */
+    public Job find(String jobId, long userId) {
+        purgeExpired();
+        Job job = jobId == null ? null : jobs.get(jobId);
+        return job != null && job.userId == userId ? job : null;
+    }
+
+    private void run(Job job, PdfGenerationUtil.HtmlCapture html, String baseUrl) {
+        Path spool = directory.resolve(job.id + ".tmp");
+        try (PdfGenerationUtil.RenderSlot slot = PdfGenerationUtil.awaitRenderSlot()) {
+            job.update(Status.RENDERING, 10);
+            ITextRenderer renderer = PdfGenerationUtil.layout(html.reader(), baseUrl);
+            job.pages = renderer.getRootBox().getLayer().getPages().size();
+
+            job.update(Status.WRITING, 60);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(spool), 64 * 1024)) {
+                renderer.createPDF(out);
+            }
+            Path target = directory.resolve(job.id + ".pdf");
+            Files.move(spool, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.file = target;
+            job.finishedAt = Instant.now();
+            job.update(Status.DONE, 100);
+            LOGGER.info("StatementExportJobs: Export " + job.id + " finished, " + job.pages + " pages in "
+                    + Duration.between(job.submittedAt, job.finishedAt).toMillis() + " ms.");
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            LOGGER.log(Level.SEVERE, "StatementExportJobs: Export " + job.id + " failed.", e);
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException ignored) {
+                // Removed with the directory sweep at the latest
+            }
+            job.error = "The statement could not be generated.";
+            job.finishedAt = Instant.now();
+            job.update(Status.FAILED, 100);
+        }
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.finishedAt;
+            if (finishedAt == null || finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            deleteFile(job);
+            return true;
+        });
+    }
+
+    private void deleteFile(Job job) {
+        Path file = job.file;
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "StatementExportJobs: Could not delete " + file, e);
+            }
+        }
+    }
+}
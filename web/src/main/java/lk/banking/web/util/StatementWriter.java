@@ -0,0 +1,252 @@
+package lk.banking.web.util;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfWriter;
+import lk.banking.core.dto.TransactionDto;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Writes transaction statements as CSV or as a plain tabular PDF directly from the rows, without the
+ * JSP and HTML layout used by {@link PdfFilter}. Rows are consumed one at a time and written straight to
+ * the output: the CSV holds no buffer of its own, and the PDF flushes every page as it fills, so memory
+ * does not grow with the length of the statement.
+ */
+public final class StatementWriter {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final String[] HEADERS = {"Timestamp", "Account", "Type", "Amount", "Status", "Description"};
+    /** Left edge of each column on an A4 page with 36pt margins; the description takes the rest. */
+    private static final float[] COLUMN_X = {36, 116, 186, 256, 336, 396};
+    private static final float AMOUNT_RIGHT = 326;
+    private static final float FONT_SIZE = 8;
+    private static final float ROW_HEIGHT = 13;
+    private static final float MARGIN = 36;
+
+    private static final Color RED = new Color(0xdc, 0x35, 0x45);
+    private static final Color GREEN = new Color(0x28, 0xa7, 0x45);
+    private static final Color GRID = new Color(0xcc, 0xcc, 0xcc);
+    private static final Color HEADER_FILL = new Color(0xf2, 0xf2, 0xf2);
+
+    private StatementWriter() {
+    }
+
+    /**
+     * Writes {@code id,timestamp,accountNumber,accountType,type,amount,status,description} rows (RFC 4180).
+     * Description cells that a spreadsheet would read as a formula are prefixed with an apostrophe.
+     */
+    public static void writeCsv(Iterator<TransactionDto> transactions, Writer out) throws IOException {
+        out.write("id,timestamp,accountNumber,accountType,type,amount,status,description\r\n");
+        while (transactions.hasNext()) {
+            TransactionDto tx = transactions.next();
+            out.write(String.valueOf(tx.getId()));
+            out.write(',');
+            out.write(tx.getTimestamp() != null ? tx.getTimestamp().toString() : "");
+            out.write(',');
+            out.write(nullToEmpty(tx.getAccountNumber()));
+            out.write(',');
+            out.write(tx.getAccountType() != null ? tx.getAccountType().name() : "");
+            out.write(',');
+            out.write(tx.getType() != null ? tx.getType().name() : "");
+            out.write(',');
+            out.write(tx.getAmount() != null ? tx.getAmount().toPlainString() : "");
+            out.write(',');
+            out.write(tx.getStatus() != null ? tx.getStatus().name() : "");
+            out.write(',');
+            writeCsvText(out, tx.getDescription());
+            out.write("\r\n");
+        }
+        out.flush();
+    }
+
+    private static void writeCsvText(Writer out, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        if (formula) {
+            out.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Writes an A4 PDF with the same columns as the HTML statement: a title block on the first page, the
+     * column header repeated on every page and a page number in the footer. Text uses the standard
+     * Helvetica fonts, so nothing is embedded; descriptions that do not fit their column are shortened.
+     */
+    public static void writePdf(Iterator<TransactionDto> transactions, String title, String username,
+                                LocalDateTime generatedAt, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4, MARGIN, MARGIN, MARGIN, MARGIN);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+            new PdfTable(writer.getDirectContent(), document.getPageSize(), document)
+                    .write(transactions, title, username, generatedAt);
+        } catch (DocumentException e) {
+            throw new IOException("Failed to write PDF statement", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+        out.flush();
+    }
+
+    /** Draws rows with absolute positioning onto the direct content; one instance per document. */
+    private static final class PdfTable {
+        private final PdfContentByte canvas;
+        private final Rectangle page;
+        private final Document document;
+        private final BaseFont regular;
+        private final BaseFont bold;
+        private final NumberFormat currency = NumberFormat.getCurrencyInstance(Locale.US);
+        private final float descriptionWidth;
+        private int pageNumber = 1;
+        private float y;
+
+        PdfTable(PdfContentByte canvas, Rectangle page, Document document) throws DocumentException, IOException {
+            this.canvas = canvas;
+            this.page = page;
+            this.document = document;
+            this.regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            this.bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            this.descriptionWidth = page.getWidth() - MARGIN - COLUMN_X[5] - 4;
+        }
+
+        void write(Iterator<TransactionDto> transactions, String title, String username, LocalDateTime generatedAt) {
+            y = page.getHeight() - MARGIN;
+            text(bold, 16, MARGIN, y - 16, title);
+            text(regular, 10, MARGIN, y - 34, "User: " + username);
+            text(regular, 10, MARGIN, y - 48, "Generated on: " + generatedAt.format(TIMESTAMP));
+            y -= 62;
+            line(y);
+            y -= 10;
+            header();
+
+            while (transactions.hasNext()) {
+                if (y - ROW_HEIGHT < MARGIN + 14) {
+                    footer();
+                    document.newPage();
+                    pageNumber++;
+                    y = page.getHeight() - MARGIN;
+                    header();
+                }
+                row(transactions.next());
+            }
+            footer();
+        }
+
+        private void header() {
+            canvas.setColorFill(HEADER_FILL);
+            canvas.rectangle(MARGIN, y - ROW_HEIGHT, page.getWidth() - 2 * MARGIN, ROW_HEIGHT);
+            canvas.fill();
+            canvas.setColorFill(Color.BLACK);
+            for (int i = 0; i < HEADERS.length; i++) {
+                if (i == 3) {
+                    textRight(bold, FONT_SIZE, AMOUNT_RIGHT, y - 9.5f, HEADERS[i]);
+                } else {
+                    text(bold, FONT_SIZE, COLUMN_X[i] + 2, y - 9.5f, HEADERS[i]);
+                }
+            }
+            y -= ROW_HEIGHT;
+            line(y);
+        }
+
+        private void row(TransactionDto tx) {
+            float baseline = y - 9.5f;
+            text(regular, FONT_SIZE, COLUMN_X[0] + 2, baseline, tx.getTimestamp() != null ? tx.getTimestamp().format(TIMESTAMP) : "");
+            text(regular, FONT_SIZE, COLUMN_X[1] + 2, baseline, nullToEmpty(tx.getAccountNumber()));
+            text(regular, FONT_SIZE, COLUMN_X[2] + 2, baseline, tx.getType() != null ? tx.getType().name() : "");
+            BigDecimal amount = tx.getAmount();
+            if (amount != null) {
+                int sign = amount.signum();
+                canvas.setColorFill(sign < 0 ? RED : sign > 0 ? GREEN : Color.BLACK);
+                textRight(sign != 0 ? bold : regular, FONT_SIZE, AMOUNT_RIGHT, baseline, currency.format(amount));
+                canvas.setColorFill(Color.BLACK);
+            }
+            text(regular, FONT_SIZE, COLUMN_X[4] + 2, baseline, tx.getStatus() != null ? tx.getStatus().name() : "");
+            text(regular, FONT_SIZE, COLUMN_X[5] + 2, baseline, fit(nullToEmpty(tx.getDescription())));
+            y -= ROW_HEIGHT;
+            line(y);
+        }
+
+        private void footer() {
+            canvas.setColorFill(Color.GRAY);
+            textRight(regular, FONT_SIZE, page.getWidth() - MARGIN, MARGIN - 12, "Page " + pageNumber);
+            canvas.setColorFill(Color.BLACK);
+        }
+
+        private String fit(String value) {
+            if (regular.getWidthPoint(value, FONT_SIZE) <= descriptionWidth) {
+                return value;
+            }
+            float budget = descriptionWidth - regular.getWidthPoint("...", FONT_SIZE);
+            float width = 0;
+            int end = 0;
+            while (end < value.length()) {
+                width += regular.getWidthPoint(value.charAt(end), FONT_SIZE);
+                if (width > budget) {
+                    break;
+                }
+                end++;
+            }
+            return value.substring(0, end) + "...";
+        }
+
+        private void line(float atY) {
+            canvas.setColorStroke(GRID);
+            canvas.setLineWidth(0.5f);
+            canvas.moveTo(MARGIN, atY);
+            canvas.lineTo(page.getWidth() - MARGIN, atY);
+            canvas.stroke();
+        }
+
+        private void text(BaseFont font, float size, float x, float atY, String value) {
+            canvas.beginText();
+            canvas.setFontAndSize(font, size);
+            canvas.setTextMatrix(x, atY);
+            canvas.showText(value);
+            canvas.endText();
+        }
+
+        private void textRight(BaseFont font, float size, float right, float atY, String value) {
+            text(font, size, right - font.getWidthPoint(value, size), atY, value);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -7,7 +7,7 @@
 <div class="info-card">
     <h2 class="mb-3">Transaction History for Account: ${account.accountNumber}</h2>
     <p><strong>Account Type:</strong> ${account.type}</p>
-    <p><strong>Current Balance:</strong> <fmt:formatNumber value="${account.balance}" type="currency" currencyCode="USD"/></p>
+    <p><strong>Current Balance:</strong> <fmt:formatNumber value="${account.totalBalance}" type="currency" currencyCode="USD"/></p>
     <p class="text-muted">Account ID: ${account.id}</p>
 
     <h3 class="mt-4">All Transactions</h3>
@@ -30,12 +30,13 @@
     <h2>Your Accounts</h2>
     <c:choose>
       <c:when test="${not empty accounts}">
+        <p><strong>Total Balance (active accounts):</strong> <span id="total-balance"><fmt:formatNumber value="${totalBalance}" type="currency" currencyCode="USD"/></span></p>
         <div class="account-cards-grid">
           <c:forEach var="account" items="${accounts}">
-            <div class="account-card">
+            <div class="account-card" data-account-id="${account.id}" data-active="${account.isActive == true}">
               <h3>Account: ${account.accountNumber}</h3>
               <p><strong>Type:</strong> ${account.type}</p>
-              <p><strong>Balance:</strong> <fmt:formatNumber value="${account.balance}" type="currency" currencyCode="USD"/></p>
+              <p><strong>Balance:</strong> <span class="account-balance" data-balance="${account.balance}"><fmt:formatNumber value="${account.balance}" type="currency" currencyCode="USD"/></span></p>
               <p><strong>Status:</strong>
                 <c:choose>
                   <c:when test="${account.isActive == true}"><span class="text-green">Active</span></c:when>
@@ -54,16 +55,47 @@
       </c:otherwise>
     </c:choose>
 
+    <c:if test="${not empty pendingTransfers}">
+      <h2 class="mt-4">Pending Scheduled Transfers</h2>
+      <div class="data-table-container">
+        <table class="data-table">
+          <thead>
+            <tr>
+              <th>Scheduled For</th>
+              <th>From</th>
+              <th>To</th>
+              <th>Amount</th>
+            </tr>
+          </thead>
+          <tbody>
+            <c:forEach var="transfer" items="${pendingTransfers}">
+              <tr>
+                <td>${transfer.formattedScheduledTime}</td>
+                <td>${transfer.fromAccountNumber}</td>
+                <td>${transfer.toAccountNumber}</td>
+                <td><fmt:formatNumber value="${transfer.amount}" type="currency" currencyCode="USD"/></td>
+              </tr>
+            </c:forEach>
+          </tbody>
+        </table>
+      </div>
+    </c:if>
+
     <%-- MODIFIED: Recent Transactions section now handles the download button and includes the fragment --%>
     <c:choose>
       <c:when test="${not empty recentTransactions}">
         <h2 style="display: flex; justify-content: space-between; align-items: center;" class="mt-4">
           Recent Transactions
-          <a href="${pageContext.request.contextPath}/pdf/transactions" class="btn btn-sm btn-outline-danger">
-            <i class="fas fa-file-pdf"></i> Download as PDF
-          </a>
+          <span>
+            <a href="${pageContext.request.contextPath}/pdf/transactions" class="btn btn-sm btn-outline-danger">
+              <i class="fas fa-file-pdf"></i> Download as PDF
+            </a>
+            <a href="${pageContext.request.contextPath}/pdf/transactions?format=csv" class="btn btn-sm btn-outline-success">
+              <i class="fas fa-file-csv"></i> CSV
+            </a>
+          </span>
         </h2>
-        <div class="data-table-container">
+        <div class="data-table-container" id="recent-transactions">
             <%-- Set the variable name for the fragment and then include it --%>
           <c:set var="transactionsForPdf" value="${recentTransactions}" scope="request"/>
           <%@ include file="/WEB-INF/jspf/_transactionTable.jspf" %>
@@ -78,4 +110,61 @@
 
 </div>
 
+<c:if test="${not empty customer}">
+<script>
+  // Live balance and transaction updates; see DashboardEventsServlet
+  (function () {
+    if (!window.EventSource) {
+      return;
+    }
+    var currency = new Intl.NumberFormat('en-US', { style: 'currency', currency: 'USD' });
+    var source = new EventSource('${pageContext.request.contextPath}/dashboard/events');
+
+    source.addEventListener('balance', function (e) {
+      var data = JSON.parse(e.data);
+      var card = document.querySelector('.account-card[data-account-id="' + data.accountId + '"]');
+      if (!card) {
+        return;
+      }
+      var balance = card.querySelector('.account-balance');
+      balance.setAttribute('data-balance', data.balance);
+      balance.textContent = currency.format(data.balance);
+
+      var total = 0;
+      document.querySelectorAll('.account-card[data-active="true"] .account-balance').forEach(function (el) {
+        total += parseFloat(el.getAttribute('data-balance')) || 0;
+      });
+      var totalEl = document.getElementById('total-balance');
+      if (totalEl) {
+        totalEl.textContent = currency.format(total);
+      }
+    });
+
+    source.addEventListener('transaction', function (e) {
+      var tx = JSON.parse(e.data);
+      var body = document.querySelector('#recent-transactions tbody');
+      if (!body) {
+        return;
+      }
+      var row = document.createElement('tr');
+      [tx.timestamp, tx.accountNumber, tx.type, null, tx.status, tx.description].forEach(function (value, i) {
+        var cell = document.createElement('td');
+        if (i === 3) {
+          cell.textContent = currency.format(tx.amount);
+          cell.className = tx.amount < 0 ? 'text-red' : (tx.amount > 0 ? 'text-green' : '');
+        } else {
+          cell.textContent = value == null ? '' : value;
+        }
+        row.appendChild(cell);
+      });
+      body.insertBefore(row, body.firstChild);
+    });
+
+    window.addEventListener('beforeunload', function () {
+      source.close();
+    });
+  })();
+</script>
+</c:if>
+
 <%@ include file="/WEB-INF/jspf/_footer.jspf" %>
\ No newline at end of file
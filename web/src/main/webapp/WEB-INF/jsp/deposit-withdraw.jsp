@@ -8,13 +8,14 @@
   <h2>Deposit / Withdraw Funds</h2>
 
   <form action="${pageContext.request.contextPath}/deposit-withdraw" method="post" class="banking-form">
+    <input type="hidden" name="idempotencyToken" value="${idempotencyToken}">
     <div class="form-group">
       <label for="accountId">Select Account:</label>
       <select id="accountId" name="accountId" class="form-control" required>
         <option value="">-- Choose your account --</option>
         <c:forEach var="account" items="${accounts}">
           <option value="${account.id}" <c:if test="${param.accountId == account.id}">selected</c:if>>
-              ${account.accountNumber} (${account.type} - Balance: <fmt:formatNumber value="${account.balance}" type="currency" currencyCode="USD"/>)
+              ${account.accountNumber} (${account.type} - Balance: <fmt:formatNumber value="${account.totalBalance}" type="currency" currencyCode="USD"/>)
           </option>
         </c:forEach>
       </select>
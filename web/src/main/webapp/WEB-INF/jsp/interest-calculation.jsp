@@ -24,7 +24,7 @@
                 <option value="">-- Select your savings account --</option>
                 <c:forEach var="account" items="${savingsAccounts}">
                     <option value="${account.id}" <c:if test="${param.accountId == account.id}">selected</c:if>>
-                            ${account.accountNumber} (Balance: <fmt:formatNumber value="${account.balance}" type="currency" currencyCode="USD"/>)
+                            ${account.accountNumber} (Balance: <fmt:formatNumber value="${account.totalBalance}" type="currency" currencyCode="USD"/>)
                     </option>
                 </c:forEach>
             </select>
@@ -35,7 +35,7 @@
     <c:if test="${not empty selectedAccount}">
         <div class="info-card mt-4 p-4">
             <h3>Interest Details for Account: ${selectedAccount.accountNumber}</h3>
-            <p><strong>Current Balance:</strong> <fmt:formatNumber value="${selectedAccount.balance}" type="currency" currencyCode="USD"/></p>
+            <p><strong>Current Balance:</strong> <fmt:formatNumber value="${selectedAccount.totalBalance}" type="currency" currencyCode="USD"/></p>
             <p><strong>Last Interest Applied:</strong> ${selectedAccount.formattedLastInterestAppliedDate}</p>
             <p><strong>Accrued Interest:</strong> <fmt:formatNumber value="${accruedInterest}" type="currency" currencyCode="USD"/></p>
 
@@ -9,13 +9,14 @@
   <h2>Transfer Funds</h2>
 
   <form action="${pageContext.request.contextPath}/transfer" method="post" class="banking-form">
+    <input type="hidden" name="idempotencyToken" value="${idempotencyToken}">
     <div class="form-group">
       <label for="fromAccountId">From Account:</label>
       <select id="fromAccountId" name="fromAccountId" class="form-control" required>
         <option value="">-- Select your account --</option>
         <c:forEach var="account" items="${accounts}">
           <option value="${account.id}" <c:if test="${param.fromAccountId == account.id}">selected</c:if>>
-              ${account.accountNumber} (${account.type} - Balance: <fmt:formatNumber value="${account.balance}" type="currency" currencyCode="USD"/>)
+              ${account.accountNumber} (${account.type} - Balance: <fmt:formatNumber value="${account.totalBalance}" type="currency" currencyCode="USD"/>)
           </option>
         </c:forEach>
       </select>